@@ -49,10 +49,15 @@ public class CosemObject {
      */
     private final OBISIdentifier obisIdentifier;
 
+    /**
+     * The reduced OBISIdentifier, calculated once because meters filter on it for every telegram
+     */
+    private final OBISIdentifier reducedObisIdentifier;
+
     /**
      * List of COSEM value in this message
      */
-    private Map<String, State> cosemValues;
+    private final Map<String, State> cosemValues;
 
     /**
      * Construct a new CosemObject with the specified OBIS Message Type
@@ -63,6 +68,7 @@ public class CosemObject {
     public CosemObject(CosemObjectType msgType, OBISIdentifier obisIdentifier) {
         this.type = msgType;
         this.obisIdentifier = obisIdentifier;
+        this.reducedObisIdentifier = obisIdentifier.getReducedOBISIdentifier();
 
         cosemValues = new HashMap<>();
     }
@@ -83,6 +89,13 @@ public class CosemObject {
         return obisIdentifier;
     }
 
+    /**
+     * @return the obisIdentifier with group F set to null
+     */
+    public OBISIdentifier getReducedObisIdentifier() {
+        return reducedObisIdentifier;
+    }
+
     /**
      * Returns string representation of this Cosem Object
      *
@@ -113,6 +126,26 @@ public class CosemObject {
      * @throws ParseException if parsing fails
      */
     public void parseCosemValues(String cosemValueString) throws ParseException {
+        parseCosemValues(cosemValueString, cosemValues);
+    }
+
+    /**
+     * Parses the COSEM String values of a following telegram. The values of this Cosem Object are never changed,
+     * because the new telegram may still be rejected (e.g. on a CRC error) while listeners keep the Cosem Objects of
+     * the last accepted telegram.
+     *
+     * @param cosemValueString the List of COSEM String values
+     * @return this Cosem Object if the values are unchanged, otherwise a new Cosem Object with the new values
+     * @throws ParseException if parsing fails
+     */
+    CosemObject withCosemValues(String cosemValueString) throws ParseException {
+        CosemObject updated = new CosemObject(type, obisIdentifier);
+
+        updated.parseCosemValues(cosemValueString);
+        return updated.cosemValues.equals(cosemValues) ? this : updated;
+    }
+
+    private void parseCosemValues(String cosemValueString, Map<String, State> cosemValues) throws ParseException {
         logger.trace("Parsing CosemValue string {}", cosemValueString);
 
         Matcher cosemValueMatcher = COSEM_VALUES_PATTERN.matcher(cosemValueString);
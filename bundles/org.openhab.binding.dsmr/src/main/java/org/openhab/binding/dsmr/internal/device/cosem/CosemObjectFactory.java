@@ -12,8 +12,10 @@
  */
 package org.openhab.binding.dsmr.internal.device.cosem;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +32,12 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class CosemObjectFactory {
+    /**
+     * Maximum number of raw OBIS Identifiers for which the Cosem Object is kept. Telegrams contain far less objects,
+     * this only protects against corrupted data.
+     */
+    private static final int MAX_COSEM_OBJECT_SLOTS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(CosemObjectFactory.class);
 
     /**
@@ -52,6 +60,67 @@ public class CosemObjectFactory {
      */
     private final List<CosemObjectType> obisWildcardCosemTypeList = new ArrayList<>();
 
+    /**
+     * The Cosem Objects of the previous telegrams, by raw OBIS Identifier in the order they are received.
+     */
+    private final List<CosemObjectSlot> cosemObjectSlots = new ArrayList<>();
+
+    /**
+     * Index of the slot that is expected next. Meters send their objects in the same order with every telegram.
+     */
+    private int nextSlot;
+
+    /**
+     * Number of the current telegram. Some meters send the same OBIS Identifier several times in one telegram, for
+     * example hourly history values, so a slot is used only once per telegram.
+     */
+    private long telegram;
+
+    /**
+     * The Cosem Object of a raw OBIS Identifier and the raw values it was last parsed from.
+     */
+    private static class CosemObjectSlot {
+        private final byte[] obisId;
+        private final String obisIdString;
+        private @Nullable CosemObject cosemObject;
+        private byte[] values = new byte[0];
+        private int valuesLength = -1;
+        private long usedInTelegram = -1;
+
+        CosemObjectSlot(byte[] obisId, int obisIdLength) {
+            this.obisId = Arrays.copyOf(obisId, obisIdLength);
+            this.obisIdString = new String(obisId, 0, obisIdLength, StandardCharsets.ISO_8859_1);
+        }
+
+        boolean matches(byte[] obisId, int obisIdLength) {
+            return equalBytes(this.obisId, this.obisId.length, obisId, obisIdLength);
+        }
+
+        boolean sameValues(byte[] values, int valuesLength) {
+            return equalBytes(this.values, this.valuesLength, values, valuesLength);
+        }
+
+        void setValues(byte[] values, int valuesLength) {
+            if (this.values.length < valuesLength) {
+                this.values = new byte[valuesLength];
+            }
+            System.arraycopy(values, 0, this.values, 0, valuesLength);
+            this.valuesLength = valuesLength;
+        }
+
+        private static boolean equalBytes(byte[] a, int aLength, byte[] b, int bLength) {
+            if (aLength != bLength) {
+                return false;
+            }
+            for (int i = 0; i < aLength; i++) {
+                if (a[i] != b[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * Creates a new CosemObjectFactory
      */
@@ -146,6 +215,90 @@ public class CosemObjectFactory {
         return cosemObject;
     }
 
+    /**
+     * Must be called before the Cosem Objects of a new telegram are requested with
+     * {@link #getCosemObject(byte[], int, byte[], int)}.
+     */
+    public void startTelegram() {
+        telegram++;
+    }
+
+    /**
+     * Return Cosem Object from the raw bytes of a telegram or null if the bytes couldn't be parsed correctly or no
+     * corresponding Cosem Object was found.
+     *
+     * The Cosem Objects are reused between telegrams: the OBIS Identifier is only looked up the first time it is
+     * received and values are only parsed when they differ from the values of the previous telegram. If the values are
+     * unchanged the same Cosem Object as before is returned. Changed values always result in a new Cosem Object, so
+     * the objects of telegrams that were already handed out are never modified.
+     *
+     * @param obisId buffer containing the OBIS message identifier
+     * @param obisIdLength number of bytes of the identifier in the buffer
+     * @param cosemValues buffer containing the Cosem values
+     * @param cosemValuesLength number of bytes of the values in the buffer
+     * @return CosemObject or null if parsing failed
+     */
+    public @Nullable CosemObject getCosemObject(byte[] obisId, int obisIdLength, byte[] cosemValues,
+            int cosemValuesLength) {
+        CosemObjectSlot slot = findSlot(obisId, obisIdLength);
+
+        if (slot == null) {
+            return getCosemObject(new String(obisId, 0, obisIdLength, StandardCharsets.ISO_8859_1),
+                    new String(cosemValues, 0, cosemValuesLength, StandardCharsets.ISO_8859_1));
+        }
+        if (slot.sameValues(cosemValues, cosemValuesLength)) {
+            logger.trace("Values of obisId {} unchanged", slot.obisIdString);
+            return slot.cosemObject;
+        }
+        final String cosemStringValues = new String(cosemValues, 0, cosemValuesLength, StandardCharsets.ISO_8859_1);
+        final CosemObject previous = slot.cosemObject;
+        CosemObject cosemObject = null;
+
+        if (previous != null) {
+            try {
+                cosemObject = previous.withCosemValues(cosemStringValues);
+            } catch (ParseException pe) {
+                logger.trace("Values {} don't match the previous type {} of obisId {}", cosemStringValues,
+                        previous.getType(), slot.obisIdString);
+            }
+        }
+        if (cosemObject == null) {
+            cosemObject = getCosemObject(slot.obisIdString, cosemStringValues);
+        }
+        slot.cosemObject = cosemObject;
+        slot.setValues(cosemValues, cosemValuesLength);
+        return cosemObject;
+    }
+
+    /**
+     * Finds the slot of the raw OBIS Identifier, first at the position it is expected to be.
+     *
+     * @return the slot, or null if there are too many different identifiers
+     */
+    private @Nullable CosemObjectSlot findSlot(byte[] obisId, int obisIdLength) {
+        final int size = cosemObjectSlots.size();
+
+        for (int i = 0; i < size; i++) {
+            final int index = (nextSlot + i) % size;
+            final CosemObjectSlot slot = cosemObjectSlots.get(index);
+
+            if (slot.usedInTelegram != telegram && slot.matches(obisId, obisIdLength)) {
+                slot.usedInTelegram = telegram;
+                nextSlot = index + 1;
+                return slot;
+            }
+        }
+        if (size >= MAX_COSEM_OBJECT_SLOTS) {
+            return null;
+        }
+        CosemObjectSlot slot = new CosemObjectSlot(obisId, obisIdLength);
+
+        slot.usedInTelegram = telegram;
+        cosemObjectSlots.add(slot);
+        nextSlot = size + 1;
+        return slot;
+    }
+
     /**
      * Constructs a CosemObject from the given type, OBISIdentifier and the values
      *
@@ -15,10 +15,10 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
@@ -33,6 +33,9 @@ import org.slf4j.LoggerFactory;
  *
  * Data can be parsed in chunks. If a full P1 telegram is received, listeners are notified
  *
+ * The parser works directly on the received bytes and reuses its buffers. The Cosem Objects are reused between
+ * telegrams by the {@link CosemObjectFactory}, so a meter sending a telegram every second causes little garbage.
+ *
  * @author M. Volaart - Initial contribution
  * @author Hilbrand Bouwkamp - Removed asynchronous call and some clean up
  */
@@ -60,9 +63,14 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of hexadecimal characters of the CRC-code
+     */
+    private static final int CRC_LENGTH = 4;
+
+    /**
+     * Initial size of the OBIS identifier and value buffers. Buffers grow when needed.
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int INITIAL_BUFFER_SIZE = 64;
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -71,12 +79,14 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * current obisId buffer.
      */
-    private final StringBuilder obisId = new StringBuilder();
+    private byte[] obisId = new byte[INITIAL_BUFFER_SIZE];
+    private int obisIdLength;
 
     /**
      * Current cosem object values buffer.
      */
-    private final StringBuilder obisValue = new StringBuilder();
+    private byte[] obisValue = new byte[INITIAL_BUFFER_SIZE];
+    private int obisValueLength;
 
     /**
      * In lenient mode store raw data and log when a complete message is received.
@@ -84,9 +94,11 @@ public class P1TelegramParser implements TelegramParser {
     private final StringBuilder rawData = new StringBuilder();
 
     /**
-     * Current crc value read.
+     * Current crc value read, the number of characters read and if all characters were hexadecimal digits.
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private int crcValue;
+    private int crcValueLength;
+    private boolean crcValueValid = true;
 
     /**
      * CRC calculation helper
@@ -161,39 +173,39 @@ public class P1TelegramParser implements TelegramParser {
             }
         }
         for (int i = 0; i < length; i++) {
-            char c = (char) data[i];
+            byte b = data[i];
 
             switch (state) {
                 case WAIT_FOR_START:
-                    if (c == '/') {
+                    if (b == '/') {
                         setState(State.HEADER);
                     }
                     break;
                 case HEADER:
-                    if (c == '\r') {
+                    if (b == '\r') {
                         setState(State.CRLF);
                     }
                     break;
                 case CRLF:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(b)) { // NOPMD EmptyIfStmt
                         // do nothing
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(b)) {
                         setState(State.DATA_OBIS_ID);
                     } else {
-                        handleUnexpectedCharacter(c);
+                        handleUnexpectedCharacter(b);
 
                         setState(State.WAIT_FOR_START);
                     }
                     break;
                 case DATA_OBIS_ID:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(b)) { // NOPMD EmptyIfStmt
                         // ignore
-                    } else if (Character.isDigit(c) || c == ':' || c == '-' || c == '.' || c == '*') { // NOPMD
+                    } else if (isDigit(b) || b == ':' || b == '-' || b == '.' || b == '*') { // NOPMD
                         // do nothing
-                    } else if (c == '(') {
+                    } else if (b == '(') {
                         setState(State.DATA_OBIS_VALUE);
-                    } else if (c == '!') {
-                        handleUnexpectedCharacter(c);
+                    } else if (b == '!') {
+                        handleUnexpectedCharacter(b);
                         if (lenientMode) {
                             // Clear current Obis Data (Keep already received data)
                             clearObisData();
@@ -202,7 +214,7 @@ public class P1TelegramParser implements TelegramParser {
                             setState(State.WAIT_FOR_START);
                         }
                     } else {
-                        handleUnexpectedCharacter(c);
+                        handleUnexpectedCharacter(b);
 
                         if (lenientMode) {
                             clearObisData();
@@ -213,21 +225,21 @@ public class P1TelegramParser implements TelegramParser {
                     }
                     break;
                 case DATA_OBIS_VALUE:
-                    if (c == ')') {
+                    if (b == ')') {
                         setState(State.DATA_OBIS_VALUE_END);
                     }
                     break;
                 case DATA_OBIS_VALUE_END:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(b)) { // NOPMD EmptyIfStmt
                         // ignore
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(b)) {
                         setState(State.DATA_OBIS_ID);
-                    } else if (c == '(') {
+                    } else if (b == '(') {
                         setState(State.DATA_OBIS_VALUE);
-                    } else if (c == '!') {
+                    } else if (b == '!') {
                         setState(State.CRC_VALUE);
                     } else {
-                        handleUnexpectedCharacter(c);
+                        handleUnexpectedCharacter(b);
 
                         if (!lenientMode) {
                             setState(State.WAIT_FOR_START);
@@ -241,19 +253,21 @@ public class P1TelegramParser implements TelegramParser {
                      * If we already see a '/' character we also assume the current
                      * P1 telegram is correctly finished
                      */
-                    if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
+                    if (b == '\r' || b == '/') {
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("telegramState {}, crcValue to check 0x{}", telegramState,
+                                    String.format("%04X", crcValue));
+                        }
                         // Only perform CRC check if telegram is still ok
-                        if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                        if (telegramState == TelegramState.OK && crcValueLength > 0) {
+                            if (crcValueLength == CRC_LENGTH && crcValueValid) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}",
+                                            String.format("%04X", crcValue), String.format("%04X", calculatedCRC));
                                 }
-                                if (crcP1Telegram != calculatedCRC) {
+                                if (crcValue != calculatedCRC) {
                                     logger.trace("CRC value does not match, p1 Telegram failed");
 
                                     telegramState = TelegramState.CRC_ERROR;
@@ -264,7 +278,7 @@ public class P1TelegramParser implements TelegramParser {
                         }
                         telegramListener.telegramReceived(constructTelegram());
                         reset();
-                        if (c == '/') {
+                        if (b == '/') {
                             /*
                              * Immediately proceed to the next state (robust implementation for meter that do not follow
                              * the specification
@@ -275,11 +289,22 @@ public class P1TelegramParser implements TelegramParser {
                     break;
             }
 
-            handleCharacter(c);
+            handleCharacter(b);
         }
         logger.trace("State after parsing: {}", state);
     }
 
+    /**
+     * Same as {@link Character#isWhitespace(char)} for the ASCII characters.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= 0x09 && b <= 0x0D) || (b >= 0x1C && b <= 0x1F);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
     private P1Telegram constructTelegram() {
         final List<CosemObject> cosemObjectsCopy = new ArrayList<>(cosemObjects);
 
@@ -299,10 +324,10 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * Handles an unexpected character. The character will be logged and the current telegram is marked corrupted
      *
-     * @param c the unexpected character
+     * @param b the unexpected character
      */
-    private void handleUnexpectedCharacter(char c) {
-        logger.debug("Unexpected character '{}' in state: {}. This P1 telegram is marked as failed", c, state);
+    private void handleUnexpectedCharacter(byte b) {
+        logger.debug("Unexpected character '{}' in state: {}. This P1 telegram is marked as failed", (char) b, state);
 
         telegramState = TelegramState.DATA_CORRUPTION;
     }
@@ -310,36 +335,36 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * Stores a single character
      *
-     * @param c the character to process
+     * @param b the character to process
      */
-    private void handleCharacter(char c) {
+    private void handleCharacter(byte b) {
         switch (state) {
             case WAIT_FOR_START:
                 // ignore the data
                 break;
             case HEADER:
-                crc.processByte((byte) c);
+                crc.processByte(b);
                 break;
             case CRLF:
-                crc.processByte((byte) c);
+                crc.processByte(b);
                 break;
             case DATA_OBIS_ID:
-                obisId.append(c);
-                crc.processByte((byte) c);
+                appendObisId(b);
+                crc.processByte(b);
                 break;
             case DATA_OBIS_VALUE:
-                obisValue.append(c);
-                crc.processByte((byte) c);
+                appendObisValue(b);
+                crc.processByte(b);
                 break;
             case DATA_OBIS_VALUE_END:
-                obisValue.append(c);
-                crc.processByte((byte) c);
+                appendObisValue(b);
+                crc.processByte(b);
                 break;
             case CRC_VALUE:
-                if (c == '!') {
-                    crc.processByte((byte) c);
+                if (b == '!') {
+                    crc.processByte(b);
                 } else {
-                    crcValue.append(c);
+                    appendCrcValue(b);
                 }
                 // CRC data is not part of received data
                 break;
@@ -348,17 +373,54 @@ public class P1TelegramParser implements TelegramParser {
         }
     }
 
+    private void appendObisId(byte b) {
+        if (obisIdLength == obisId.length) {
+            obisId = Arrays.copyOf(obisId, obisIdLength * 2);
+        }
+        obisId[obisIdLength++] = b;
+    }
+
+    private void appendObisValue(byte b) {
+        if (obisValueLength == obisValue.length) {
+            obisValue = Arrays.copyOf(obisValue, obisValueLength * 2);
+        }
+        obisValue[obisValueLength++] = b;
+    }
+
+    /**
+     * Adds a character to the CRC value. The CRC value consists of upper case hexadecimal digits.
+     *
+     * @param b the character to add
+     */
+    private void appendCrcValue(byte b) {
+        final int digit;
+
+        if (b >= '0' && b <= '9') {
+            digit = b - '0';
+        } else if (b >= 'A' && b <= 'F') {
+            digit = b - 'A' + 10;
+        } else {
+            digit = 0;
+            crcValueValid = false;
+        }
+        crcValue = ((crcValue << 4) | digit) & 0xFFFF;
+        crcValueLength++;
+    }
+
     /**
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisIdLength = 0;
+        obisValueLength = 0;
         rawData.setLength(0);
-        crcValue.setLength(0);
+        crcValue = 0;
+        crcValueLength = 0;
+        crcValueValid = true;
         crc.initialize();
         cosemObjects.clear();
         unknownCosemObjects.clear();
+        factory.startTelegram();
     }
 
     /**
@@ -367,23 +429,22 @@ public class P1TelegramParser implements TelegramParser {
      * - current OBIS value
      */
     private void clearObisData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisIdLength = 0;
+        obisValueLength = 0;
     }
 
     /**
      * Store the current CosemObject in the list of received cosem Objects
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
-
-        if (!obisIdString.isEmpty()) {
-            final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+        if (obisIdLength > 0) {
+            CosemObject cosemObject = factory.getCosemObject(obisId, obisIdLength, obisValue, obisValueLength);
 
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(
+                            new SimpleEntry<>(new String(obisId, 0, obisIdLength, StandardCharsets.ISO_8859_1),
+                                    new String(obisValue, 0, obisValueLength, StandardCharsets.ISO_8859_1)));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
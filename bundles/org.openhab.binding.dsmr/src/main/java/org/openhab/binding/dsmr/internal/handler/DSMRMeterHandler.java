@@ -13,7 +13,9 @@
 package org.openhab.binding.dsmr.internal.handler;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -61,6 +63,12 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
      */
     private List<CosemObject> lastReceivedValues = Collections.emptyList();
 
+    /**
+     * Last state sent to each channel. Meters repeat most values unchanged with every telegram, those are not sent
+     * again.
+     */
+    private final Map<String, State> channelStates = new HashMap<>();
+
     /**
      * Reference to the meter watchdog.
      */
@@ -81,6 +89,9 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command == RefreshType.REFRESH) {
+            synchronized (this) {
+                channelStates.remove(channelUID.getId());
+            }
             updateState();
         }
     }
@@ -119,6 +130,9 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
             meterWatchdog.cancel(false);
             meterWatchdog = null;
         }
+        synchronized (this) {
+            channelStates.clear();
+        }
     }
 
     /**
@@ -138,8 +152,12 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
                         channel += "_" + entry.getKey();
                     }
                     State newState = entry.getValue();
-                    logger.debug("Updating state for channel {} to value {}", channel, newState);
-                    updateState(channel, newState);
+                    if (newState.equals(channelStates.put(channel, newState))) {
+                        logger.trace("State for channel {} unchanged", channel);
+                    } else {
+                        logger.debug("Updating state for channel {} to value {}", channel, newState);
+                        updateState(channel, newState);
+                    }
                 }
             }
             if (getThing().getStatus() != ThingStatus.ONLINE) {
@@ -204,7 +222,8 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
      * @param status off line status
      * @param details off line detailed message
      */
-    private void setDeviceOffline(ThingStatusDetail status, @Nullable String details) {
+    private synchronized void setDeviceOffline(ThingStatusDetail status, @Nullable String details) {
+        channelStates.clear();
         updateStatus(ThingStatus.OFFLINE, status, details);
         getThing().getChannels().forEach(c -> updateState(c.getUID(), UnDefType.NULL));
     }
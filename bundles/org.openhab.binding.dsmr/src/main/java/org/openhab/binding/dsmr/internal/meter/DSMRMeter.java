@@ -12,8 +12,9 @@
  */
 package org.openhab.binding.dsmr.internal.meter;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -44,7 +45,7 @@ public class DSMRMeter {
     /**
      * List of supported message identifiers for this meter
      */
-    private List<OBISIdentifier> supportedIdentifiers = new ArrayList<>();
+    private final Set<OBISIdentifier> supportedIdentifiers = new HashSet<>();
 
     /**
      * Creates a new DSMRMeter
@@ -75,7 +76,7 @@ public class DSMRMeter {
         logger.trace("supported identifiers: {}, searching for objects {}", supportedIdentifiers, cosemObjects);
         List<CosemObject> filteredValues = cosemObjects.stream()
                 .filter(cosemObject -> supportedIdentifiers
-                        .contains(cosemObject.getObisIdentifier().getReducedOBISIdentifier()))
+                        .contains(cosemObject.getReducedObisIdentifier()))
                 .collect(Collectors.toList());
         return filteredValues;
     }
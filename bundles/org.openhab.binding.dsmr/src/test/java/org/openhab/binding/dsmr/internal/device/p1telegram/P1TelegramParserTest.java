@@ -12,17 +12,23 @@
  */
 package org.openhab.binding.dsmr.internal.device.p1telegram;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.eclipse.smarthome.core.types.State;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 
 /**
@@ -65,4 +71,72 @@ public class P1TelegramParserTest {
         assertEquals("Expected number of objects", numberOfCosemObjects,
                 telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum());
     }
+
+    @Test
+    public void testParsingRepeatedTelegram() {
+        List<P1Telegram> telegrams = new ArrayList<>();
+        byte[] telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+        P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+
+        parser.setLenientMode(true);
+        parser.parse(telegram, telegram.length);
+        parser.parse(telegram, telegram.length);
+        assertEquals("Expected 2 telegrams", 2, telegrams.size());
+        List<CosemObject> first = telegrams.get(0).getCosemObjects();
+        List<CosemObject> second = telegrams.get(1).getCosemObjects();
+
+        assertEquals("Expected same number of objects", first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertSame("Unchanged objects should be reused", first.get(i), second.get(i));
+        }
+        assertEquals("Expected number of objects", numberOfCosemObjects,
+                second.stream().mapToInt(co -> co.getCosemValues().size()).sum());
+        assertEquals("Objects with the same OBIS id should not be merged", first.size(),
+                second.stream().distinct().count());
+    }
+
+    @Test
+    public void testRejectedTelegramLeavesValuesUnchanged() {
+        List<P1Telegram> telegrams = new ArrayList<>();
+        byte[] telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+        byte[] corrupted = changeValues(telegram);
+        P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+
+        parser.setLenientMode(true);
+        parser.parse(telegram, telegram.length);
+        List<CosemObject> accepted = telegrams.get(0).getCosemObjects();
+        List<Map<String, State>> acceptedValues = new ArrayList<>();
+        for (CosemObject cosemObject : accepted) {
+            acceptedValues.add(new HashMap<>(cosemObject.getCosemValues()));
+        }
+        parser.parse(corrupted, corrupted.length);
+        assertEquals("Expected 2 telegrams", 2, telegrams.size());
+        assumeTrue("Telegram has no CRC", telegrams.get(1).getTelegramState() == TelegramState.CRC_ERROR);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            assertEquals("Values of the accepted telegram should not change", acceptedValues.get(i),
+                    accepted.get(i).getCosemValues());
+        }
+    }
+
+    /**
+     * Swaps the digits 1 and 2 in all values, without updating the CRC.
+     */
+    private static byte[] changeValues(byte[] telegram) {
+        byte[] changed = telegram.clone();
+        boolean inValue = false;
+
+        for (int i = 0; i < changed.length; i++) {
+            if (changed[i] == '(') {
+                inValue = true;
+            } else if (changed[i] == ')') {
+                inValue = false;
+            } else if (inValue && changed[i] == '1') {
+                changed[i] = '2';
+            } else if (inValue && changed[i] == '2') {
+                changed[i] = '1';
+            }
+        }
+        return changed;
+    }
 }
@@ -14,7 +14,9 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -23,17 +25,26 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
+import org.openhab.binding.homematic.internal.communicator.client.ParamsetDescriptionCache;
 import org.openhab.binding.homematic.internal.communicator.client.RpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.TransferMode;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
@@ -90,6 +101,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String METADATA_POOL_NAME = "homematicMetadata";
+    private static final ParamsetDescriptionCache PARAMSET_DESCRIPTION_CACHE = new ParamsetDescriptionCache(
+            new File(ConfigConstants.getUserDataFolder(), "homematic" + File.separator + "paramsets"));
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
@@ -106,7 +120,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
@@ -226,8 +240,10 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     protected synchronized void startClients() throws IOException {
         for (TransferMode mode : availableInterfaces.values()) {
             if (!rpcClients.containsKey(mode)) {
-                rpcClients.put(mode,
-                        mode == TransferMode.XML_RPC ? new XmlRpcClient(config, httpClient) : new BinRpcClient(config));
+                RpcClient<?> rpcClient = mode == TransferMode.XML_RPC ? new XmlRpcClient(config, httpClient)
+                        : new BinRpcClient(config);
+                rpcClient.setParamsetDescriptionCache(PARAMSET_DESCRIPTION_CACHE);
+                rpcClients.put(mode, rpcClient);
             }
         }
     }
@@ -371,49 +387,38 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
+        // loading datapoints for all channels in parallel, the devices are prepared in the original order
+        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new ConcurrentHashMap<>();
+        Map<HmDevice, CompletableFuture<Void>> loadedDatapoints = loadAllDeviceDatapoints(deviceDescriptions,
+                datapointsByChannelIdCache);
+
         Set<String> loadedDevices = new HashSet<>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
         for (HmDevice device : deviceDescriptions) {
             if (!cancelLoadAllMetadata) {
                 try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
                     if (device.isGatewayExtras()) {
+                        logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
+                                device.getType());
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
                     } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
-                            }
+                        loadedDatapoints.get(device).get(getDeviceMetadataTimeout(device), TimeUnit.SECONDS);
+                        if (cancelLoadAllMetadata) {
+                            break;
                         }
                     }
                     prepareDevice(device);
                     loadedDevices.add(device.getAddress());
                     gatewayAdapter.onDeviceLoaded(device);
+                } catch (ExecutionException ex) {
+                    logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
+                            ex.getCause().getMessage());
+                } catch (TimeoutException ex) {
+                    logger.warn("Timeout loading device with address '{}' from gateway '{}'", device.getAddress(), id);
+                } catch (InterruptedException ex) {
+                    cancelLoadAllMetadata = true;
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while loading the device metadata");
                 } catch (IOException ex) {
                     logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
                             ex.getMessage());
@@ -426,6 +431,87 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         initialized = true;
     }
 
+    /**
+     * Returns the time in seconds to wait for the datapoints of the device. Each channel needs two requests, which may
+     * have to wait for a worker still loading another device.
+     */
+    private long getDeviceMetadataTimeout(HmDevice device) {
+        return 2L * (device.getChannels().size() + 1) * config.getTimeout();
+    }
+
+    /**
+     * Loads the datapoints of all devices with as many parallel workers as RPC connections are configured. Returns a
+     * future per device which completes when its datapoints are loaded, or the loading has been cancelled.
+     */
+    private Map<HmDevice, CompletableFuture<Void>> loadAllDeviceDatapoints(List<HmDevice> deviceDescriptions,
+            Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache) {
+        Map<HmDevice, CompletableFuture<Void>> loadedDatapoints = new HashMap<>();
+        Queue<HmDevice> pendingDevices = new ConcurrentLinkedQueue<>();
+        for (HmDevice device : deviceDescriptions) {
+            if (!device.isGatewayExtras()) {
+                loadedDatapoints.put(device, new CompletableFuture<>());
+                pendingDevices.add(device);
+            }
+        }
+
+        ExecutorService executor = ThreadPoolManager.getPool(METADATA_POOL_NAME);
+        int workers = Math.min(config.getRpcConnections(), pendingDevices.size());
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                HmDevice device;
+                while ((device = pendingDevices.poll()) != null) {
+                    CompletableFuture<Void> future = loadedDatapoints.get(device);
+                    if (cancelLoadAllMetadata) {
+                        future.complete(null);
+                        continue;
+                    }
+                    try {
+                        loadDeviceDatapoints(device, datapointsByChannelIdCache);
+                        future.complete(null);
+                    } catch (Exception ex) {
+                        future.completeExceptionally(ex);
+                    }
+                }
+            });
+        }
+        return loadedDatapoints;
+    }
+
+    /**
+     * Loads the datapoints of all channels of the device.
+     */
+    private void loadDeviceDatapoints(HmDevice device, Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache)
+            throws IOException {
+        logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+        for (HmChannel channel : device.getChannels()) {
+            logger.trace("  Loading channel {}", channel);
+            // speed up metadata generation a little bit for equal channels in the gateway devices
+            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType()) || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType()))
+                    && channel.getNumber() > 1) {
+                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+            } else {
+                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
+                        channel.getDevice().getFirmware(), channel.getNumber());
+                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                if (cachedDatapoints != null) {
+                    // clone all datapoints
+                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                } else {
+                    logger.trace("    Loading datapoints into channel {}", channel);
+                    addChannelDatapoints(channel, HmParamsetType.MASTER);
+                    addChannelDatapoints(channel, HmParamsetType.VALUES);
+
+                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                    // the data point set might change depending on the selected mode.
+                    if (!channel.isReconfigurable()) {
+                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmGatewayInfo;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Disk cache for the results of getParamsetDescription.
+ *
+ * The paramset description of a channel only depends on the gateway and its firmware, the device type, the firmware,
+ * the channel number and the paramset type, so one file per combination is stored and shared by all devices of the
+ * same type. A firmware update of the gateway or the device results in a new key and therefore a new request to the
+ * gateway. Channels whose VALUES paramset depends on the configured channel function and CUxD devices, which are
+ * defined by the user, are never cached.
+ *
+ * The descriptions are stored as JSON. Numbers without a fraction are read back as integers and all others as
+ * doubles, arrays as Object[] and structs as maps, like the RPC clients decode them.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+    private static final String FILE_SUFFIX = ".json";
+
+    private final File folder;
+
+    public ParamsetDescriptionCache(File folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Returns the cached paramset description for the channel or null, if there is none.
+     */
+    public Object[] get(HmGatewayInfo gatewayInfo, HmChannel channel, HmParamsetType paramsetType) {
+        File file = getFile(gatewayInfo, channel, paramsetType);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            Object description = readValue(reader);
+            if (!(description instanceof Object[])) {
+                throw new IOException("No paramset description");
+            }
+            return (Object[]) description;
+        } catch (IOException | IllegalStateException | NumberFormatException ex) {
+            logger.debug("Can't read cached paramset description '{}', removing it: {}", file, ex.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the paramset description for the channel, if it is cacheable.
+     */
+    public void put(HmGatewayInfo gatewayInfo, HmChannel channel, HmParamsetType paramsetType,
+            Object[] description) {
+        File file = getFile(gatewayInfo, channel, paramsetType);
+        if (file == null) {
+            return;
+        }
+        File tempFile = new File(folder, file.getName() + ".tmp");
+        try {
+            folder.mkdirs();
+            try (JsonWriter writer = new JsonWriter(
+                    new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8))) {
+                writeValue(writer, description);
+            }
+            if (!tempFile.renameTo(file)) {
+                file.delete();
+                tempFile.renameTo(file);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            logger.debug("Can't write cached paramset description '{}': {}", file, ex.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Returns the cache file for the channel or null, if the paramset description is not cacheable.
+     */
+    private File getFile(HmGatewayInfo gatewayInfo, HmChannel channel, HmParamsetType paramsetType) {
+        HmDevice device = channel.getDevice();
+        if (gatewayInfo == null || StringUtils.isBlank(gatewayInfo.getFirmware())
+                || device.getHmInterface() == HmInterface.CUXD || StringUtils.isBlank(device.getType())
+                || StringUtils.isBlank(device.getFirmware())
+                || (paramsetType == HmParamsetType.VALUES && channel.isReconfigurable())) {
+            return null;
+        }
+        String key = String.format("%s_%s_%s_%s_%s_%s_%s_%s", gatewayInfo.getId(), gatewayInfo.getType(),
+                gatewayInfo.getFirmware(), device.getHmInterface(), device.getType(), device.getFirmware(),
+                channel.getNumber(), paramsetType);
+        return new File(folder, key.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_SUFFIX);
+    }
+
+    private void writeValue(JsonWriter writer, Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else if (value instanceof String) {
+            writer.value((String) value);
+        } else if (value instanceof Boolean) {
+            writer.value(((Boolean) value).booleanValue());
+        } else if (value instanceof Integer || value instanceof Long) {
+            writer.value(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            writer.value(((Number) value).doubleValue());
+        } else if (value instanceof Object[]) {
+            writer.beginArray();
+            for (Object element : (Object[]) value) {
+                writeValue(writer, element);
+            }
+            writer.endArray();
+        } else if (value instanceof Collection<?>) {
+            writer.beginArray();
+            for (Object element : (Collection<?>) value) {
+                writeValue(writer, element);
+            }
+            writer.endArray();
+        } else if (value instanceof Map<?, ?>) {
+            writer.beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.name(String.valueOf(entry.getKey()));
+                writeValue(writer, entry.getValue());
+            }
+            writer.endObject();
+        } else {
+            throw new IOException("Unsupported type " + value.getClass().getName());
+        }
+    }
+
+    private Object readValue(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case STRING:
+                return reader.nextString();
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER:
+                String number = reader.nextString();
+                if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+                    return Double.valueOf(number);
+                }
+                long longValue = Long.parseLong(number);
+                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                    return Integer.valueOf((int) longValue);
+                }
+                return Long.valueOf(longValue);
+            case BEGIN_ARRAY:
+                List<Object> array = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.add(readValue(reader));
+                }
+                reader.endArray();
+                return array.toArray();
+            case BEGIN_OBJECT:
+                Map<String, Object> struct = new HashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    struct.put(reader.nextName(), readValue(reader));
+                }
+                reader.endObject();
+                return struct;
+            default:
+                throw new IOException("Unexpected " + reader.peek());
+        }
+    }
+}
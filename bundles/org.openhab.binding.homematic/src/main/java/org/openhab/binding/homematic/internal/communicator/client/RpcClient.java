@@ -55,11 +55,19 @@ public abstract class RpcClient<T> {
     protected static final int RESP_BUFFER_SIZE = 8192;
 
     protected HomematicConfig config;
+    private ParamsetDescriptionCache paramsetDescriptionCache;
 
     public RpcClient(HomematicConfig config) {
         this.config = config;
     }
 
+    /**
+     * Sets the cache for paramset descriptions, null disables caching.
+     */
+    public void setParamsetDescriptionCache(ParamsetDescriptionCache paramsetDescriptionCache) {
+        this.paramsetDescriptionCache = paramsetDescriptionCache;
+    }
+
     /**
      * Disposes the client.
      */
@@ -177,10 +185,18 @@ public abstract class RpcClient<T> {
             // The configuration channel only has a MASTER Paramset, so there is nothing to load
             return;
         }
-        RpcRequest<T> request = createRpcRequest("getParamsetDescription");
-        request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
-        request.addArg(paramsetType.toString());
-        new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
+        ParamsetDescriptionCache cache = paramsetDescriptionCache;
+        Object[] description = cache == null ? null : cache.get(config.getGatewayInfo(), channel, paramsetType);
+        if (description == null) {
+            RpcRequest<T> request = createRpcRequest("getParamsetDescription");
+            request.addArg(getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel));
+            request.addArg(paramsetType.toString());
+            description = sendMessage(config.getRpcPort(channel), request);
+            if (cache != null) {
+                cache.put(config.getGatewayInfo(), channel, paramsetType, description);
+            }
+        }
+        new GetParamsetDescriptionParser(channel, paramsetType).parse(description);
     }
 
     /**
@@ -13,24 +13,33 @@
 package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Socket pool with a limited number of connections per port.
+ *
+ * A socket is borrowed for exactly one request and response and returned afterwards, so up to
+ * {@link HomematicConfig#getRpcConnections()} requests can be in flight per port at the same time. Further requests
+ * wait for a free connection.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<>();
+    private final Map<Integer, PortPool> poolsPerPort = new ConcurrentHashMap<>();
     private HomematicConfig config;
 
     public SocketHandler(HomematicConfig config) {
@@ -38,41 +47,90 @@ public class SocketHandler {
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Borrows a socket for the given port, creates it if there is no idle one. Waits up to the configured timeout
+     * if all connections to the port are in use.
      */
-    public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
+    public SocketInfo borrowSocket(int port) throws IOException {
+        PortPool pool = poolsPerPort.computeIfAbsent(port, p -> new PortPool(config.getRpcConnections()));
+        try {
+            if (!pool.permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new IOException("Timeout waiting for a free connection to port " + port);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free connection to port " + port);
+        }
+
+        try {
+            SocketInfo socketInfo;
+            while ((socketInfo = pool.idleSockets.pollFirst()) != null) {
+                if (isMaxAliveReached(socketInfo)) {
+                    logger.debug("Max alive time reached for socket on port {}", port);
+                    closeSilent(socketInfo.getSocket());
+                } else {
+                    logger.trace("Returning socket for port {}", port);
+                    return socketInfo;
+                }
+            }
+
             logger.trace("Creating new socket for port {}", port);
             Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.setReuseAddress(true);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
+            try {
+                socket.setSoTimeout(config.getTimeout() * 1000);
+                socket.setReuseAddress(true);
+                socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+            } catch (IOException ex) {
+                closeSilent(socket);
+                throw ex;
+            }
+            return new SocketInfo(socket);
+        } catch (IOException | RuntimeException ex) {
+            pool.permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns a borrowed socket after a successful request, it is reused by the next request to the port.
+     */
+    public void returnSocket(int port, SocketInfo socketInfo) {
+        PortPool pool = poolsPerPort.get(port);
+        if (pool == null) {
+            closeSilent(socketInfo.getSocket());
+            return;
+        }
+        if (socketInfo.getCreated() <= pool.flushed || isMaxAliveReached(socketInfo)) {
+            closeSilent(socketInfo.getSocket());
         } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+            pool.idleSockets.offerFirst(socketInfo);
+        }
+        pool.permits.release();
+    }
 
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
-            }
-            logger.trace("Returning socket for port {}", port);
+    /**
+     * Closes a borrowed socket after a failed request.
+     */
+    public void discardSocket(int port, SocketInfo socketInfo) {
+        logger.trace("Closing Socket on port {}", port);
+        closeSilent(socketInfo.getSocket());
+        PortPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            pool.permits.release();
         }
-        return socketInfo.getSocket();
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Closes all idle sockets for the given port, sockets in use are closed when they are returned.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
-            logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
-            closeSilent(socketInfo.getSocket());
+        PortPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            logger.trace("Closing Sockets on port {}", port);
+            pool.flushed = System.currentTimeMillis();
+            SocketInfo socketInfo;
+            while ((socketInfo = pool.idleSockets.pollFirst()) != null) {
+                closeSilent(socketInfo.getSocket());
+            }
         }
     }
 
@@ -80,14 +138,15 @@ public class SocketHandler {
      * Removes all cached sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
-            }
+        for (Integer port : poolsPerPort.keySet()) {
+            removeSocket(port);
         }
     }
 
+    private boolean isMaxAliveReached(SocketInfo socketInfo) {
+        return System.currentTimeMillis() - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000L);
+    }
+
     /**
      * Silently closes the given socket.
      */
@@ -98,4 +157,17 @@ public class SocketHandler {
             // ignore
         }
     }
+
+    /**
+     * The idle sockets and free connection slots of a port.
+     */
+    private static class PortPool {
+        private final Semaphore permits;
+        private final Deque<SocketInfo> idleSockets = new ConcurrentLinkedDeque<>();
+        private volatile long flushed;
+
+        PortPool(int connections) {
+            this.permits = new Semaphore(connections, true);
+        }
+    }
 }
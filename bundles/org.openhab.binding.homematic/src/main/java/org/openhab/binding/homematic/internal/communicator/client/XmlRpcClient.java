@@ -16,8 +16,12 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -47,6 +51,7 @@ import org.xml.sax.SAXException;
 public class XmlRpcClient extends RpcClient<String> {
     private final Logger logger = LoggerFactory.getLogger(XmlRpcClient.class);
     private HttpClient httpClient;
+    private final Map<Integer, Semaphore> permitsPerPort = new ConcurrentHashMap<>();
 
     public XmlRpcClient(HomematicConfig config, HttpClient httpClient) throws IOException {
         super(config);
@@ -71,14 +76,14 @@ public class XmlRpcClient extends RpcClient<String> {
     }
 
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<String> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client XmlRpcRequest (port {}):\n{}", port, request);
         }
         IOException reason = new IOException();
         for (int rpcRetryCounter = 1; rpcRetryCounter <= MAX_RPC_RETRY; rpcRetryCounter++) {
             try {
-                byte[] response = send(port, request);
+                byte[] response = sendLimited(port, request);
                 if (response.length == 0 && "setInstallMode".equals(request.getMethodName())) {
                     return new Object[] {};
                 }
@@ -100,6 +105,26 @@ public class XmlRpcClient extends RpcClient<String> {
         throw reason;
     }
 
+    /**
+     * Sends the request, with at most the configured number of parallel requests per port.
+     */
+    private byte[] sendLimited(int port, RpcRequest<String> request) throws IOException {
+        Semaphore permits = permitsPerPort.computeIfAbsent(port, p -> new Semaphore(config.getRpcConnections(), true));
+        try {
+            if (!permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new IOException("Timeout waiting for a free connection to port " + port);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free connection to port " + port);
+        }
+        try {
+            return send(port, request);
+        } finally {
+            permits.release();
+        }
+    }
+
     private byte[] send(int port, RpcRequest<String> request) throws IOException {
         byte[] ret = new byte[0];
         try {
@@ -19,23 +19,30 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
  *
+ * Messages are encoded in a single pass into a buffer of the exact message size, and decoded directly from a
+ * {@link ByteBuffer}. Short ASCII strings like parameter names, addresses and method names are shared between the
+ * decoded messages instead of creating new strings for every message.
+ *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
@@ -46,13 +53,23 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         RESPONSE
     }
 
+    /** size of the signature and the length of the message */
+    public static final int HEADER_SIZE = 8;
+
+    /**
+     * Largest accepted message including the header. Even the device lists of large installations stay far below it,
+     * it only keeps a broken or hostile peer from making us allocate an arbitrary buffer.
+     */
+    public static final int MAX_MESSAGE_SIZE = 32 * 1024 * 1024;
+
+    private static final StringCache STRING_CACHE = new StringCache();
+
     private Object[] messageData;
     private byte binRpcData[];
-    private int offset;
+    private final List<Object> args = new ArrayList<>();
 
     private String methodName;
     private TYPE type;
-    private int args;
     private String encoding;
 
     public BinRpcMessage(String methodName, String encoding) {
@@ -66,7 +83,6 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         this.methodName = methodName;
         this.type = type;
         this.encoding = encoding;
-        createHeader();
     }
 
     /**
@@ -74,44 +90,63 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
         this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
+        byte header[] = new byte[HEADER_SIZE];
+        int length = readFully(is, header, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
         }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
+        length = readFully(is, header, 4, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
-
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
-        }
+        int datasize = getMessageSize(header) - HEADER_SIZE;
+        byte message[] = new byte[HEADER_SIZE + datasize];
+        System.arraycopy(header, 0, message, 0, HEADER_SIZE);
+        int offset = readFully(is, message, HEADER_SIZE, datasize);
         if (offset != datasize) {
             throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
                     + datasize + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
         decodeMessage(message, methodHeader);
     }
 
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
+    private static int readFully(InputStream is, byte[] buffer, int offset, int length) throws IOException {
+        int read = 0;
+        int currentLength;
+        while (read < length && (currentLength = is.read(buffer, offset + read, length - read)) != -1) {
+            read += currentLength;
+        }
+        return read;
+    }
+
+    private static void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
         if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
             throw new UnsupportedEncodingException("No BinX signature");
         }
     }
 
+    /**
+     * Returns the size of the message including the header.
+     *
+     * @param header the first {@link #HEADER_SIZE} bytes of the message
+     * @throws UnsupportedEncodingException if the header does not start with the BinX signature
+     * @throws IOException if the length is negative or the message is larger than {@link #MAX_MESSAGE_SIZE}
+     */
+    public static int getMessageSize(byte[] header) throws IOException {
+        validateBinXSignature(header);
+        int datasize = ByteBuffer.wrap(header, 4, 4).getInt();
+        if (datasize < 0 || datasize > MAX_MESSAGE_SIZE - HEADER_SIZE) {
+            throw new IOException("Invalid message length " + datasize);
+        }
+        return HEADER_SIZE + datasize;
+    }
+
     /**
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
         this.encoding = encoding;
-        if (message.length < 8) {
+        if (message.length < HEADER_SIZE) {
             throw new EOFException("Only " + message.length + " bytes received");
         }
         validateBinXSignature(message);
@@ -120,41 +155,30 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
         binRpcData = message;
+        type = message[3] == 1 ? TYPE.RESPONSE : TYPE.REQUEST;
 
-        offset = 8;
-
-        if (methodHeader) {
-            methodName = readString();
-            readInt();
+        ByteBuffer buffer = ByteBuffer.wrap(message);
+        buffer.position(HEADER_SIZE);
+        try {
+            if (methodHeader) {
+                methodName = readString(buffer);
+                buffer.getInt();
+            }
+            List<Object> values = new ArrayList<>();
+            while (buffer.hasRemaining()) {
+                values.add(readRpcValue(buffer));
+            }
+            messageData = values.toArray();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new EOFException("Truncated BIN-RPC message of " + message.length + " bytes");
         }
-        generateResponseData();
     }
 
     public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
-    }
-
-    private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
-        List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
-        }
-        messageData = values.toArray();
-        values.clear();
-    }
-
-    private void createHeader() {
-        binRpcData = new byte[256];
-        addString("Bin ");
-        setType(type);
-        addInt(0); // placeholder content length
-        if (methodName != null) {
-            addInt(methodName.length());
-            addString(methodName);
-            addInt(0); // placeholder arguments
+        this.type = type;
+        if (binRpcData != null) {
+            binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
         }
-        setInt(4, offset - 8);
     }
 
     /**
@@ -162,16 +186,12 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     @Override
     public void addArg(Object argument) {
-        addObject(argument);
-        setInt(4, offset - 8);
-
-        if (methodName != null) {
-            setInt(12 + methodName.length(), ++args);
-        }
+        args.add(argument);
+        binRpcData = null;
     }
 
     public int getArgCount() {
-        return args;
+        return args.size();
     }
 
     @Override
@@ -181,210 +201,272 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     @Override
     public byte[] createMessage() {
-        trimBinRpcData();
+        if (binRpcData == null) {
+            binRpcData = encode();
+        }
         return binRpcData;
     }
 
-    private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
-    }
-
     @Override
     public Object[] getResponseData() {
         return messageData;
     }
 
     // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
-    }
-
-    private long readInt64() {
-        byte bi[] = new byte[8];
-        System.arraycopy(binRpcData, offset, bi, 0, 8);
-        offset += 8;
-        return (new BigInteger(bi)).longValue();
-    }
-
-    private String readString() throws UnsupportedEncodingException {
-        int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
+    private String readString(ByteBuffer buffer) throws UnsupportedEncodingException {
+        int len = buffer.getInt();
+        int position = buffer.position();
+        if (len < 0 || len > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(position + len);
+        return STRING_CACHE.get(buffer.array(), buffer.arrayOffset() + position, len, encoding);
     }
 
-    private Object readRpcValue() throws IOException {
-        int type = readInt();
+    private Object readRpcValue(ByteBuffer buffer) throws IOException {
+        int type = buffer.getInt();
         switch (type) {
             case 1:
-                return new Integer(readInt());
+                return Integer.valueOf(buffer.getInt());
             case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
+                return buffer.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
-                return readString();
+                return readString(buffer);
             case 4:
-                int mantissa = readInt();
-                int exponent = readInt();
+                int mantissa = buffer.getInt();
+                int exponent = buffer.getInt();
                 BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
                 return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
             case 5:
-                return new Date(readInt() * 1000);
+                return new Date(buffer.getInt() * 1000L);
             case 0xD1:
                 // Int64
-                return new Long(readInt64());
+                return Long.valueOf(buffer.getLong());
             case 0x100:
                 // Array
-                int numElements = readInt();
-                Collection<Object> array = new ArrayList<>();
+                int numElements = buffer.getInt();
+                Collection<Object> array = new ArrayList<>(Math.min(Math.max(numElements, 0), buffer.remaining()));
                 while (numElements-- > 0) {
-                    array.add(readRpcValue());
+                    array.add(readRpcValue(buffer));
                 }
                 return array.toArray();
             case 0x101:
                 // Struct
-                numElements = readInt();
+                numElements = buffer.getInt();
                 Map<String, Object> struct = new TreeMap<>();
                 while (numElements-- > 0) {
-                    String name = readString();
-                    struct.put(name, readRpcValue());
+                    String name = readString(buffer);
+                    struct.put(name, readRpcValue(buffer));
                 }
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Unknown BIN-RPC data type {} in message {}", type, Arrays.toString(binRpcData));
                 }
                 throw new IOException("Unknown data type " + type);
         }
     }
 
-    private void setInt(int position, int value) {
-        int temp = offset;
-        offset = position;
-        addInt(value);
-        offset = temp;
-    }
-
-    private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
+    // write rpc values
+    private byte[] encode() {
+        // the encoded strings of the sizing pass, in the order they are written
+        Deque<byte[]> strings = new ArrayDeque<>();
+        byte[] name = methodName != null ? toBytes(methodName) : null;
+        int size = HEADER_SIZE + (name != null ? 8 + name.length : 0);
+        for (Object arg : args) {
+            size += sizeOf(arg, strings);
         }
-        binRpcData[offset++] = b;
-    }
 
-    private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
-    }
-
-    private void addDouble(double value) {
-        double tmp = Math.abs(value);
-        int exp = 0;
-        if (tmp != 0 && tmp < 0.5) {
-            while (tmp < 0.5) {
-                tmp *= 2;
-                exp--;
-            }
-        } else {
-            while (tmp >= 1) {
-                tmp /= 2;
-                exp++;
-            }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) 'B').put((byte) 'i').put((byte) 'n');
+        buffer.put(type == TYPE.RESPONSE ? (byte) 1 : (byte) 0);
+        buffer.putInt(size - HEADER_SIZE);
+        if (name != null) {
+            buffer.putInt(name.length);
+            buffer.put(name);
+            buffer.putInt(args.size());
         }
-        if (value < 0) {
-            tmp *= -1;
+        for (Object arg : args) {
+            putObject(buffer, arg, strings);
         }
-        int mantissa = (int) Math.round(tmp * 0x40000000);
-        addInt(mantissa);
-        addInt(exp);
+        return buffer.array();
     }
 
-    private void addString(String string) {
-        byte sd[];
+    private byte[] toBytes(String string) {
         try {
-            sd = string.getBytes(encoding);
+            return string.getBytes(encoding);
         } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
+            return string.getBytes();
         }
     }
 
-    private void addList(Collection<?> collection) {
-        for (Object object : collection) {
-            addObject(object);
+    private int sizeOf(Object object, Deque<byte[]> strings) {
+        if (object.getClass() == String.class) {
+            byte[] bytes = toBytes((String) object);
+            strings.add(bytes);
+            return 8 + bytes.length;
+        } else if (object.getClass() == Boolean.class) {
+            return 5;
+        } else if (object.getClass() == Integer.class || object.getClass() == Date.class) {
+            return 8;
+        } else if (object.getClass() == Double.class || object.getClass() == Float.class
+                || object.getClass() == BigDecimal.class || object.getClass() == BigInteger.class) {
+            return 12;
+        } else if (object instanceof List<?>) {
+            int size = 8;
+            for (Object element : (Collection<?>) object) {
+                size += sizeOf(element, strings);
+            }
+            return size;
+        } else if (object instanceof Map<?, ?>) {
+            int size = 8;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                String key = (String) entry.getKey();
+                if (key != null) {
+                    byte[] bytes = toBytes(key);
+                    strings.add(bytes);
+                    size += 4 + bytes.length + sizeOf(entry.getValue(), strings);
+                }
+            }
+            return size;
         }
+        return 0;
     }
 
-    private void addObject(Object object) {
+    private void putObject(ByteBuffer buffer, Object object, Deque<byte[]> strings) {
         if (object.getClass() == String.class) {
-            addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
+            byte[] bytes = strings.poll();
+            buffer.putInt(3);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
         } else if (object.getClass() == Boolean.class) {
-            addInt(2);
-            addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
+            buffer.putInt(2);
+            buffer.put(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
         } else if (object.getClass() == Integer.class) {
-            addInt(1);
-            addInt(((Integer) object).intValue());
+            buffer.putInt(1);
+            buffer.putInt(((Integer) object).intValue());
         } else if (object.getClass() == Double.class) {
-            addInt(4);
-            addDouble(((Double) object).doubleValue());
+            buffer.putInt(4);
+            putDouble(buffer, ((Double) object).doubleValue());
         } else if (object.getClass() == Float.class) {
-            addInt(4);
+            buffer.putInt(4);
             BigDecimal bd = new BigDecimal((Float) object);
-            addDouble(bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue());
+            putDouble(buffer, bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue());
         } else if (object.getClass() == BigDecimal.class) {
-            addInt(4);
-            addDouble(((BigDecimal) object).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
+            buffer.putInt(4);
+            putDouble(buffer, ((BigDecimal) object).setScale(6, RoundingMode.HALF_DOWN).doubleValue());
         } else if (object.getClass() == BigInteger.class) {
-            addInt(4);
-            addDouble(((BigInteger) object).doubleValue());
+            buffer.putInt(4);
+            putDouble(buffer, ((BigInteger) object).doubleValue());
         } else if (object.getClass() == Date.class) {
-            addInt(5);
-            addInt((int) ((Date) object).getTime() / 1000);
+            buffer.putInt(5);
+            buffer.putInt((int) (((Date) object).getTime() / 1000));
         } else if (object instanceof List<?>) {
             Collection<?> list = (Collection<?>) object;
-            addInt(0x100);
-            addInt(list.size());
-            addList(list);
+            buffer.putInt(0x100);
+            buffer.putInt(list.size());
+            for (Object element : list) {
+                putObject(buffer, element, strings);
+            }
         } else if (object instanceof Map<?, ?>) {
             Map<?, ?> map = (Map<?, ?>) object;
-            addInt(0x101);
-            addInt(map.size());
+            buffer.putInt(0x101);
+            buffer.putInt(map.size());
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = (String) entry.getKey();
                 if (key != null) {
-                    addInt(key.length());
-                    addString(key);
-                    addList(Collections.singleton(entry.getValue()));
+                    byte[] bytes = strings.poll();
+                    buffer.putInt(bytes.length);
+                    buffer.put(bytes);
+                    putObject(buffer, entry.getValue(), strings);
                 }
             }
         }
     }
 
+    private void putDouble(ByteBuffer buffer, double value) {
+        double tmp = Math.abs(value);
+        int exp = 0;
+        if (tmp != 0 && tmp < 0.5) {
+            while (tmp < 0.5) {
+                tmp *= 2;
+                exp--;
+            }
+        } else {
+            while (tmp >= 1) {
+                tmp /= 2;
+                exp++;
+            }
+        }
+        if (value < 0) {
+            tmp *= -1;
+        }
+        int mantissa = (int) Math.round(tmp * 0x40000000);
+        buffer.putInt(mantissa);
+        buffer.putInt(exp);
+    }
+
     public String toBinString() {
         return Arrays.toString(createMessage());
     }
 
     @Override
     public String toString() {
-        try {
-            trimBinRpcData();
-            generateResponseData();
-            return RpcUtils.dumpRpcMessage(methodName, messageData);
-        } catch (Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
+        return RpcUtils.dumpRpcMessage(methodName, messageData != null ? messageData : args.toArray());
+    }
+
+    /**
+     * Shares the strings decoded from short ASCII byte sequences, which decode to the same string with all
+     * ASCII-compatible encodings. The cache is a fixed size table, colliding entries replace each other.
+     */
+    private static class StringCache {
+        private static final int SIZE = 2048;
+        private static final int MAX_LENGTH = 48;
+
+        private static class Entry {
+            private final byte[] bytes;
+            private final String value;
+
+            Entry(byte[] bytes, String value) {
+                this.bytes = bytes;
+                this.value = value;
+            }
+        }
+
+        private final Entry[] entries = new Entry[SIZE];
+
+        String get(byte[] data, int offset, int length, String encoding) throws UnsupportedEncodingException {
+            if (length > MAX_LENGTH) {
+                return new String(data, offset, length, encoding);
+            }
+            int hash = 1;
+            for (int i = offset; i < offset + length; i++) {
+                if (data[i] < 0) {
+                    return new String(data, offset, length, encoding);
+                }
+                hash = 31 * hash + data[i];
+            }
+            int index = (hash ^ (hash >>> 16)) & (SIZE - 1);
+            Entry entry = entries[index];
+            if (entry != null && matches(entry.bytes, data, offset, length)) {
+                return entry.value;
+            }
+            String value = new String(data, offset, length, StandardCharsets.US_ASCII);
+            entries[index] = new Entry(Arrays.copyOfRange(data, offset, offset + length), value);
+            return value;
+        }
+
+        private static boolean matches(byte[] bytes, byte[] data, int offset, int length) {
+            if (bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != data[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 }
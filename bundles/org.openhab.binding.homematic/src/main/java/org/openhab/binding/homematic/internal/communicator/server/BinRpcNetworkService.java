@@ -12,42 +12,77 @@
  */
 package org.openhab.binding.homematic.internal.communicator.server;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Waits for messages from the Homematic gateway and handles the method calls.
+ *
+ * All callback connections of the gateway are served by a single selector thread, which reads the messages without
+ * blocking. Complete messages are handled on the RPC thread pool, one message per connection at a time, as the gateway
+ * waits for the response before it sends the next message on the same connection. Connections are kept open for the
+ * gateway to reuse, until they were idle for longer than the configured socket max alive time.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
     private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private static final long SELECT_TIMEOUT = 1000;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private volatile boolean accept = true;
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
 
+    private final Set<Connection> connections = new HashSet<>();
+    private final Queue<Connection> handledConnections = new ConcurrentLinkedQueue<>();
+
     /**
      * Creates the socket for listening to events from the Homematic gateway.
      */
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeSilent(serverChannel);
+            selector.close();
+            throw e;
+        }
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -74,30 +109,193 @@ public class BinRpcNetworkService implements Runnable {
     }
 
     /**
-     * Listening for events and starts the callbackHandler if a event received.
+     * Listening for events and handles the method calls of the received messages.
      */
     @Override
     public void run() {
-        while (accept) {
+        try {
+            while (accept) {
+                selector.select(SELECT_TIMEOUT);
+                resumeHandledConnections();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid()) {
+                        processKey(key);
+                    }
+                }
+                closeIdleConnections();
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            if (accept) {
+                logger.warn("BIN-RPC server stopped unexpectedly: {}", ex.getMessage(), ex);
+            }
+        } finally {
+            for (Connection connection : new ArrayList<>(connections)) {
+                connection.close();
+            }
+            closeSilent(serverChannel);
             try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
-            } catch (IOException ex) {
+                selector.close();
+            } catch (IOException ioe) {
                 // ignore
             }
         }
     }
 
+    private void processKey(SelectionKey key) {
+        if (key.isAcceptable()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                if (channel != null) {
+                    channel.configureBlocking(false);
+                    Connection connection = new Connection(channel);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                    connections.add(connection);
+                }
+            } catch (IOException ex) {
+                logger.debug("Could not accept BIN-RPC connection: {}", ex.getMessage());
+            }
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.read();
+            } else if (key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException ex) {
+            logger.debug("Closing BIN-RPC connection from {}: {}", connection.remote, ex.getMessage());
+            connection.close();
+        }
+    }
+
+    /**
+     * Resumes reading or writes the response on the connections whose messages have been handled.
+     */
+    private void resumeHandledConnections() {
+        Connection connection;
+        while ((connection = handledConnections.poll()) != null) {
+            if (connection.closeRequested || !connection.key.isValid()) {
+                connection.close();
+            } else {
+                connection.key.interestOps(connection.response != null ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    private void closeIdleConnections() {
+        long maxIdleTime = config.getSocketMaxAlive() * 1000L;
+        long now = System.currentTimeMillis();
+        for (Connection connection : new ArrayList<>(connections)) {
+            if (connection.isIdle() && now - connection.lastActivity > maxIdleTime) {
+                logger.debug("Closing idle BIN-RPC connection from {}", connection.remote);
+                connection.close();
+            }
+        }
+    }
+
     /**
      * Stops the listening.
      */
     public void shutdown() {
         accept = false;
+        selector.wakeup();
+    }
+
+    private static void closeSilent(Closeable closeable) {
         try {
-            serverSocket.close();
+            closeable.close();
         } catch (IOException ioe) {
             // ignore
         }
     }
+
+    /**
+     * A callback connection of the gateway. Apart from the message handling, only accessed by the selector thread.
+     */
+    private class Connection {
+        private final SocketChannel channel;
+        private final Object remote;
+        private SelectionKey key;
+        private final ByteBuffer header = ByteBuffer.allocate(BinRpcMessage.HEADER_SIZE);
+        private ByteBuffer message;
+        private ByteBuffer response;
+        private volatile boolean handling;
+        private boolean closeRequested;
+        private long lastActivity = System.currentTimeMillis();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.remote = channel.socket().getRemoteSocketAddress();
+        }
+
+        boolean isIdle() {
+            return !handling && message == null && response == null && header.position() == 0;
+        }
+
+        void read() throws IOException {
+            lastActivity = System.currentTimeMillis();
+            if (message == null) {
+                if (channel.read(header) < 0) {
+                    close();
+                    return;
+                }
+                if (header.hasRemaining()) {
+                    return;
+                }
+                message = ByteBuffer.allocate(BinRpcMessage.getMessageSize(header.array()));
+                message.put(header.array());
+                header.clear();
+            }
+            if (message.hasRemaining() && channel.read(message) < 0) {
+                throw new IOException("Connection closed while reading message payload");
+            }
+            if (!message.hasRemaining()) {
+                byte[] data = message.array();
+                message = null;
+                handling = true;
+                key.interestOps(0);
+                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(() -> handle(data));
+            }
+        }
+
+        /**
+         * Handles the method call, executed on the RPC thread pool.
+         */
+        private void handle(byte[] data) {
+            try {
+                BinRpcMessage message = new BinRpcMessage(data, true, config.getEncoding());
+                logger.trace("Event BinRpcMessage: {}", message);
+                byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
+                        message.getResponseData());
+                response = returnValue != null ? ByteBuffer.wrap(returnValue) : null;
+            } catch (Exception e) {
+                logger.warn("{}", e.getMessage(), e);
+                closeRequested = true;
+            }
+            handling = false;
+            handledConnections.add(this);
+            selector.wakeup();
+        }
+
+        void write() throws IOException {
+            lastActivity = System.currentTimeMillis();
+            channel.write(response);
+            if (!response.hasRemaining()) {
+                response = null;
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        void close() {
+            connections.remove(this);
+            if (key != null) {
+                key.cancel();
+            }
+            closeSilent(channel);
+        }
+    }
 }
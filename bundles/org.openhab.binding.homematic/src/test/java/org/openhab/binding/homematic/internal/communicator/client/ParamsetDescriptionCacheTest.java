@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.homematic.test.util.DimmerHelper.createDimmerHmChannel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.misc.HomematicConstants;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmGatewayInfo;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+
+/**
+ * Tests for {@link ParamsetDescriptionCache}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class ParamsetDescriptionCacheTest {
+
+    private File folder;
+    private ParamsetDescriptionCache cache;
+    private HmGatewayInfo gatewayInfo;
+    private HmChannel channel;
+
+    @Before
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("paramsets").toFile();
+        cache = new ParamsetDescriptionCache(folder);
+        gatewayInfo = createGatewayInfo("2.47.10");
+        channel = createDimmerHmChannel();
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void descriptionIsRestoredWithItsTypes() {
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+
+        Object[] cached = cache.get(gatewayInfo, channel, HmParamsetType.VALUES);
+
+        assertThat(cached, is(notNullValue()));
+        assertThat(cached.length, is(1));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> datapoints = (Map<String, Map<String, Object>>) cached[0];
+        Map<String, Object> level = datapoints.get("LEVEL");
+        assertThat(level.get("TYPE"), is("FLOAT"));
+        assertThat(level.get("OPERATIONS"), is(7));
+        assertThat(level.get("MIN"), is(0.0));
+        assertThat(level.get("MAX"), is(1.01));
+        assertThat(level.get("DEFAULT"), is(0.0));
+        assertThat(level.get("UNIT"), is("100%"));
+        assertThat(level.get("DESCRIPTION"), is(nullValue()));
+        Map<String, Object> state = datapoints.get("STATE");
+        assertThat(state.get("DEFAULT"), is(Boolean.FALSE));
+        assertThat(state.get("VALUE_LIST"), is(equalTo(new Object[] { "Zu", "Öffnen", "Auf" })));
+        assertThat(state.get("MIN"), is(Integer.MIN_VALUE));
+        assertThat(state.get("MAX"), is(1L + Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void paramsetTypesAreCachedSeparately() {
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+
+        assertThat(cache.get(gatewayInfo, channel, HmParamsetType.MASTER), is(nullValue()));
+    }
+
+    @Test
+    public void devicesOfTheSameTypeShareTheDescription() {
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+
+        assertThat(cache.get(gatewayInfo, createDimmerHmChannel(), HmParamsetType.VALUES), is(notNullValue()));
+    }
+
+    @Test
+    public void gatewayFirmwareUpdateIsNotServedFromTheCache() {
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+
+        assertThat(cache.get(createGatewayInfo("3.41.11"), channel, HmParamsetType.VALUES), is(nullValue()));
+    }
+
+    @Test
+    public void otherGatewayIsNotServedFromTheCache() {
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+        HmGatewayInfo homegear = createGatewayInfo("2.47.10");
+        homegear.setId(HmGatewayInfo.ID_HOMEGEAR);
+        homegear.setType("Homegear");
+
+        assertThat(cache.get(homegear, channel, HmParamsetType.VALUES), is(nullValue()));
+    }
+
+    @Test
+    public void deviceFirmwareUpdateIsNotServedFromTheCache() {
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+        HmChannel updated = new HmChannel("HM-LC-Dim1-Pl3", 1);
+        updated.setDevice(new HmDevice("ABC12345678", null, "HM-LC-Dim1-Pl3", "CCU2", "", "2"));
+
+        assertThat(cache.get(gatewayInfo, updated, HmParamsetType.VALUES), is(nullValue()));
+    }
+
+    @Test
+    public void unknownGatewayIsNotCached() {
+        cache.put(null, channel, HmParamsetType.VALUES, createDescription());
+        cache.put(createGatewayInfo(null), channel, HmParamsetType.VALUES, createDescription());
+
+        assertThat(folder.list().length, is(0));
+    }
+
+    @Test
+    public void reconfigurableValuesAreNotCached() {
+        HmDatapoint function = new HmDatapoint();
+        function.setName(HomematicConstants.DATAPOINT_NAME_CHANNEL_FUNCTION);
+        function.setParamsetType(HmParamsetType.MASTER);
+        channel.addDatapoint(function);
+
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+        cache.put(gatewayInfo, channel, HmParamsetType.MASTER, createDescription());
+
+        assertThat(cache.get(gatewayInfo, channel, HmParamsetType.VALUES), is(nullValue()));
+        assertThat(cache.get(gatewayInfo, channel, HmParamsetType.MASTER), is(notNullValue()));
+    }
+
+    @Test
+    public void unsupportedValuesAreNotCached() {
+        Map<String, Object> datapoint = new HashMap<>();
+        datapoint.put("DEFAULT", new Date());
+
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, new Object[] { datapoint });
+
+        assertThat(cache.get(gatewayInfo, channel, HmParamsetType.VALUES), is(nullValue()));
+        assertThat(folder.list().length, is(0));
+    }
+
+    @Test
+    public void corruptFileIsRemoved() throws IOException {
+        cache.put(gatewayInfo, channel, HmParamsetType.VALUES, createDescription());
+        File[] files = folder.listFiles();
+        assertThat(files.length, is(1));
+        try (OutputStream out = new FileOutputStream(files[0])) {
+            out.write("[{\"LEVEL\":".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(cache.get(gatewayInfo, channel, HmParamsetType.VALUES), is(nullValue()));
+        assertThat(files[0].exists(), is(false));
+    }
+
+    private static HmGatewayInfo createGatewayInfo(String firmware) {
+        HmGatewayInfo gatewayInfo = new HmGatewayInfo();
+        gatewayInfo.setId(HmGatewayInfo.ID_CCU);
+        gatewayInfo.setType("CCU3");
+        gatewayInfo.setFirmware(firmware);
+        return gatewayInfo;
+    }
+
+    private static Object[] createDescription() {
+        Map<String, Object> level = new HashMap<>();
+        level.put("TYPE", "FLOAT");
+        level.put("OPERATIONS", 7);
+        level.put("MIN", 0.0);
+        level.put("MAX", 1.01);
+        level.put("DEFAULT", 0.0);
+        level.put("UNIT", "100%");
+        level.put("DESCRIPTION", null);
+        Map<String, Object> state = new HashMap<>();
+        state.put("TYPE", "ENUM");
+        state.put("DEFAULT", Boolean.FALSE);
+        state.put("VALUE_LIST", new Object[] { "Zu", "Öffnen", "Auf" });
+        state.put("MIN", Integer.MIN_VALUE);
+        state.put("MAX", 1L + Integer.MAX_VALUE);
+        Map<String, Object> datapoints = new HashMap<>();
+        datapoints.put("LEVEL", level);
+        datapoints.put("STATE", state);
+        return new Object[] { datapoints };
+    }
+}
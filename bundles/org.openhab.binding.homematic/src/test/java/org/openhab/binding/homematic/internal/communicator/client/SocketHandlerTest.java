@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+
+/**
+ * Tests for the connection pool of the {@link SocketHandler}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class SocketHandlerTest {
+
+    private ServerSocket server;
+    private int port;
+    private HomematicConfig config;
+    private SocketHandler socketHandler;
+
+    @Before
+    public void setup() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        port = server.getLocalPort();
+        config = new HomematicConfig();
+        config.setGatewayAddress(InetAddress.getLoopbackAddress().getHostAddress());
+        config.setRpcConnections(2);
+        config.setTimeout(1);
+        socketHandler = new SocketHandler(config);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        socketHandler.flush();
+        server.close();
+    }
+
+    @Test
+    public void returnedSocketIsReused() throws IOException {
+        SocketInfo socketInfo = socketHandler.borrowSocket(port);
+        socketHandler.returnSocket(port, socketInfo);
+
+        assertThat(socketHandler.borrowSocket(port), is(sameInstance(socketInfo)));
+    }
+
+    @Test
+    public void connectionsInUseAreNotShared() throws IOException {
+        SocketInfo first = socketHandler.borrowSocket(port);
+        SocketInfo second = socketHandler.borrowSocket(port);
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getSocket().isConnected(), is(true));
+    }
+
+    @Test
+    public void connectionsPerPortAreLimited() throws IOException {
+        socketHandler.borrowSocket(port);
+        socketHandler.borrowSocket(port);
+
+        long start = System.nanoTime();
+        try {
+            socketHandler.borrowSocket(port);
+            fail("Expected a timeout waiting for a free connection");
+        } catch (IOException ex) {
+            assertThat(ex.getMessage(), containsString("Timeout"));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 900, is(true));
+    }
+
+    @Test
+    public void portsAreLimitedIndependently() throws IOException {
+        try (ServerSocket otherServer = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            socketHandler.borrowSocket(port);
+            socketHandler.borrowSocket(port);
+
+            SocketInfo other = socketHandler.borrowSocket(otherServer.getLocalPort());
+            assertThat(other.getSocket().getPort(), is(otherServer.getLocalPort()));
+        }
+    }
+
+    @Test
+    public void waitingRequestGetsTheReturnedSocket() throws Exception {
+        SocketInfo first = socketHandler.borrowSocket(port);
+        socketHandler.borrowSocket(port);
+
+        CompletableFuture<SocketInfo> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return socketHandler.borrowSocket(port);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(waiting.isDone(), is(false));
+        socketHandler.returnSocket(port, first);
+
+        assertThat(waiting.get(1, TimeUnit.SECONDS), is(sameInstance(first)));
+    }
+
+    @Test
+    public void discardedSocketFreesTheConnection() throws IOException {
+        SocketInfo first = socketHandler.borrowSocket(port);
+        socketHandler.borrowSocket(port);
+
+        socketHandler.discardSocket(port, first);
+
+        assertThat(first.getSocket().isClosed(), is(true));
+        SocketInfo next = socketHandler.borrowSocket(port);
+        assertThat(next, is(not(sameInstance(first))));
+    }
+
+    @Test
+    public void failedConnectFreesTheConnection() throws IOException {
+        server.close();
+        config.setRpcConnections(1);
+        socketHandler = new SocketHandler(config);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                socketHandler.borrowSocket(port);
+                fail("Expected the connection to be refused");
+            } catch (ConnectException ex) {
+                // the permit of the failed attempt has been released, so the next attempt connects again
+            }
+        }
+    }
+
+    @Test
+    public void removedSocketsAreClosed() throws Exception {
+        SocketInfo idle = socketHandler.borrowSocket(port);
+        SocketInfo inUse = socketHandler.borrowSocket(port);
+        socketHandler.returnSocket(port, idle);
+        Thread.sleep(5);
+
+        socketHandler.removeSocket(port);
+        socketHandler.returnSocket(port, inUse);
+
+        assertThat(idle.getSocket().isClosed(), is(true));
+        assertThat(inUse.getSocket().isClosed(), is(true));
+        SocketInfo next = socketHandler.borrowSocket(port);
+        assertThat(next, is(not(sameInstance(idle))));
+        assertThat(next, is(not(sameInstance(inUse))));
+    }
+
+    @Test
+    public void socketsAreNotReusedAfterMaxAlive() throws Exception {
+        config.setSocketMaxAlive(0);
+        SocketInfo socketInfo = socketHandler.borrowSocket(port);
+        Thread.sleep(5);
+        socketHandler.returnSocket(port, socketInfo);
+
+        assertThat(socketInfo.getSocket().isClosed(), is(true));
+        assertThat(socketHandler.borrowSocket(port), is(not(sameInstance(socketInfo))));
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.client.api.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+
+/**
+ * Tests for the limit of parallel requests of the {@link XmlRpcClient}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class XmlRpcClientTest {
+
+    private static final String RESPONSE = "<?xml version=\"1.0\"?><methodResponse><params><param>"
+            + "<value><string>ok</string></value></param></params></methodResponse>";
+    private static final int PORT = 2001;
+    private static final int OTHER_PORT = 2010;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private HomematicConfig config;
+    private HttpClient httpClient;
+
+    @Before
+    public void setup() throws Exception {
+        config = new HomematicConfig();
+        config.setGatewayAddress("127.0.0.1");
+        config.setRpcConnections(2);
+        config.setTimeout(1);
+
+        ContentResponse response = mock(ContentResponse.class);
+        when(response.getContent()).thenReturn(RESPONSE.getBytes(StandardCharsets.ISO_8859_1));
+        Request request = mock(Request.class, RETURNS_SELF);
+        when(request.send()).then(invocation -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                return response;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        httpClient = mock(HttpClient.class);
+        when(httpClient.POST(anyString())).thenReturn(request);
+    }
+
+    @After
+    public void cleanup() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void parallelRequestsPerPortAreLimited() throws Exception {
+        XmlRpcClient client = new XmlRpcClient(config, httpClient);
+
+        List<Future<Object[]>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(executor
+                    .submit(() -> client.sendMessage(PORT, client.createRpcRequest("listBidcosInterfaces"))));
+        }
+        Thread.sleep(300);
+        assertThat(inFlight.get(), is(2));
+
+        release.countDown();
+        for (Future<Object[]> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is(equalTo(new Object[] { "ok" })));
+        }
+        assertThat(maxInFlight.get(), is(2));
+    }
+
+    @Test
+    public void portsAreLimitedIndependently() throws Exception {
+        config.setRpcConnections(1);
+        XmlRpcClient client = new XmlRpcClient(config, httpClient);
+
+        executor.submit(() -> client.sendMessage(PORT, client.createRpcRequest("listBidcosInterfaces")));
+        executor.submit(() -> client.sendMessage(OTHER_PORT, client.createRpcRequest("listBidcosInterfaces")));
+        Thread.sleep(300);
+
+        assertThat(inFlight.get(), is(2));
+    }
+
+    @Test
+    public void waitingForAFreeConnectionTimesOut() throws Exception {
+        config.setRpcConnections(1);
+        XmlRpcClient client = new XmlRpcClient(config, httpClient);
+        executor.submit(() -> client.sendMessage(PORT, client.createRpcRequest("listBidcosInterfaces")));
+        Thread.sleep(100);
+
+        try {
+            // init is not retried
+            client.sendMessage(PORT, client.createRpcRequest("init"));
+            fail("Expected a timeout waiting for a free connection");
+        } catch (IOException ex) {
+            assertThat(ex.getMessage(), containsString("Timeout"));
+        }
+        assertThat(maxInFlight.get(), is(1));
+    }
+
+    @Test
+    public void connectionIsFreedAfterAFailedRequest() throws Exception {
+        config.setRpcConnections(1);
+        Request failing = mock(Request.class, RETURNS_SELF);
+        when(failing.send()).thenThrow(new ExecutionException(new ConnectException("Connection refused")));
+        when(httpClient.POST(anyString())).thenReturn(failing);
+        XmlRpcClient client = new XmlRpcClient(config, httpClient);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.sendMessage(PORT, client.createRpcRequest("init"));
+                fail("Expected the request to fail");
+            } catch (IOException ex) {
+                // the next request must not wait for the connection of the failed one
+            }
+        }
+        verify(failing, times(2)).send();
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * Tests for encoding and decoding {@link BinRpcMessage}s.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class BinRpcMessageTest {
+
+    private static final String ENCODING = "ISO-8859-1";
+
+    @Test
+    public void integerRoundTrip() throws Exception {
+        assertThat(roundTrip(0), is(0));
+        assertThat(roundTrip(42), is(42));
+        assertThat(roundTrip(-1), is(-1));
+        assertThat(roundTrip(Integer.MAX_VALUE), is(Integer.MAX_VALUE));
+        assertThat(roundTrip(Integer.MIN_VALUE), is(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void booleanRoundTrip() throws Exception {
+        assertThat(roundTrip(Boolean.TRUE), is(Boolean.TRUE));
+        assertThat(roundTrip(Boolean.FALSE), is(Boolean.FALSE));
+    }
+
+    @Test
+    public void doubleRoundTrip() throws Exception {
+        assertThat(roundTrip(0.0), is(0.0));
+        assertThat(roundTrip(21.5), is(21.5));
+        assertThat(roundTrip(-3.25), is(-3.25));
+        assertThat(roundTrip(0.000123), is(0.000123));
+        assertThat(roundTrip(1234567.5), is(1234567.5));
+        // values are transferred with six decimal places at most
+        assertThat(roundTrip(0.1234567), is(0.123457));
+    }
+
+    @Test
+    public void stringRoundTrip() throws Exception {
+        assertThat(roundTrip(""), is(""));
+        assertThat(roundTrip("LEVEL"), is("LEVEL"));
+        assertThat(roundTrip("Küche Straße °C"), is("Küche Straße °C"));
+        String longString = String.join("", Collections.nCopies(10, "0123456789"));
+        assertThat(roundTrip(longString), is(longString));
+    }
+
+    @Test
+    public void sharedStringsKeepTheirEncoding() throws Exception {
+        // the same bytes must not be served from the shared strings when they are no ASCII
+        assertThat(roundTrip("Küche"), is("Küche"));
+        assertThat(roundTrip("Küche", "UTF-8"), is("Küche"));
+        assertThat(roundTrip("Küche"), is("Küche"));
+
+        Object first = roundTrip("STATE");
+        Object second = roundTrip("STATE");
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void dateRoundTrip() throws Exception {
+        Date date = new Date(1589443512000L);
+        assertThat(roundTrip(date), is(date));
+        Date epoch = new Date(0);
+        assertThat(roundTrip(epoch), is(epoch));
+    }
+
+    @Test
+    public void nestedRoundTrip() throws Exception {
+        Map<String, Object> inner = new LinkedHashMap<>();
+        inner.put("ADDRESS", "MEQ0123456:1");
+        inner.put("FLAGS", 1);
+        inner.put("LEVEL", 0.5);
+        inner.put("CHILDREN", Arrays.asList("MEQ0123456:1", "MEQ0123456:2"));
+        Map<String, Object> outer = new HashMap<>();
+        outer.put("DEVICE", inner);
+        outer.put("EMPTY_LIST", Arrays.asList());
+        outer.put("EMPTY_STRUCT", new HashMap<>());
+
+        Object decoded = roundTrip(Arrays.asList(outer, Arrays.asList(1, Arrays.asList(true, "x"))));
+
+        assertThat(decoded, is(instanceOf(Object[].class)));
+        Object[] array = (Object[]) decoded;
+        assertThat(array.length, is(2));
+
+        Map<String, Object> expectedInner = new TreeMap<>(inner);
+        expectedInner.put("CHILDREN", new Object[] { "MEQ0123456:1", "MEQ0123456:2" });
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decodedOuter = (Map<String, Object>) array[0];
+        assertThat(decodedOuter.keySet(), is(new TreeMap<>(outer).keySet()));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decodedInner = (Map<String, Object>) decodedOuter.get("DEVICE");
+        assertThat(decodedInner.keySet(), is(expectedInner.keySet()));
+        for (String key : expectedInner.keySet()) {
+            assertThat(key, decodedInner.get(key), is(equalTo(expectedInner.get(key))));
+        }
+        assertThat(decodedOuter.get("EMPTY_LIST"), is(equalTo(new Object[0])));
+        assertThat(decodedOuter.get("EMPTY_STRUCT"), is(equalTo(new TreeMap<>())));
+        assertThat(array[1], is(equalTo(new Object[] { 1, new Object[] { true, "x" } })));
+    }
+
+    @Test
+    public void requestFrame() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg("MEQ0123456:1");
+        request.addArg("LEVEL");
+        request.addArg(0.75);
+        byte[] data = request.createMessage();
+
+        assertThat(Arrays.copyOf(data, 4), is(equalTo(new byte[] { 'B', 'i', 'n', 0 })));
+        assertThat(BinRpcMessage.getMessageSize(data), is(data.length));
+
+        BinRpcMessage decoded = new BinRpcMessage(data, true, ENCODING);
+        assertThat(decoded.getMethodName(), is("setValue"));
+        assertThat(decoded.getResponseData(), is(equalTo(new Object[] { "MEQ0123456:1", "LEVEL", 0.75 })));
+
+        BinRpcMessage streamed = new BinRpcMessage(new ByteArrayInputStream(data), true, ENCODING);
+        assertThat(streamed.getMethodName(), is("setValue"));
+        assertThat(streamed.getResponseData(), is(equalTo(decoded.getResponseData())));
+    }
+
+    @Test(expected = IOException.class)
+    public void oversizedMessageIsRejected() throws Exception {
+        byte[] header = ByteBuffer.allocate(BinRpcMessage.HEADER_SIZE).put(new byte[] { 'B', 'i', 'n', 0 })
+                .putInt(BinRpcMessage.MAX_MESSAGE_SIZE).array();
+
+        BinRpcMessage.getMessageSize(header);
+    }
+
+    @Test
+    public void responseFrame() throws Exception {
+        BinRpcMessage response = new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, ENCODING);
+        response.addArg(Arrays.asList("event"));
+        byte[] data = response.createMessage();
+
+        assertThat(Arrays.copyOf(data, 4), is(equalTo(new byte[] { 'B', 'i', 'n', 1 })));
+
+        BinRpcMessage decoded = new BinRpcMessage(new ByteArrayInputStream(data), false, ENCODING);
+        assertThat(decoded.getMethodName(), is(nullValue()));
+        assertThat(decoded.getResponseData(), is(equalTo(new Object[] { new Object[] { "event" } })));
+    }
+
+    @Test
+    public void changedTypeIsEncoded() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("system.listMethods", ENCODING);
+        request.createMessage();
+        request.setType(BinRpcMessage.TYPE.RESPONSE);
+
+        assertThat(request.createMessage()[3], is((byte) 1));
+    }
+
+    @Test
+    public void argumentsAddedAfterEncodingAreEncoded() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("init", ENCODING);
+        request.addArg("xmlrpc_bin://127.0.0.1:9126");
+        request.createMessage();
+        request.addArg("openhab");
+
+        BinRpcMessage decoded = new BinRpcMessage(request.createMessage(), true, ENCODING);
+        assertThat(decoded.getResponseData(),
+                is(equalTo(new Object[] { "xmlrpc_bin://127.0.0.1:9126", "openhab" })));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedFrame() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg("MEQ0123456:1");
+        request.addArg(Arrays.asList(1, 2, 3));
+        byte[] data = request.createMessage();
+
+        new BinRpcMessage(Arrays.copyOf(data, data.length - 2), true, ENCODING);
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedStream() throws Exception {
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg("MEQ0123456:1");
+        byte[] data = request.createMessage();
+
+        new BinRpcMessage(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 1)), true, ENCODING);
+    }
+
+    @Test(expected = EOFException.class)
+    public void oversizedStringLength() throws Exception {
+        // a string claiming to be longer than the rest of the message
+        byte[] data = frame(ByteBuffer.allocate(12).putInt(3).putInt(Integer.MAX_VALUE).putInt(0));
+
+        new BinRpcMessage(data, false, ENCODING);
+    }
+
+    @Test(expected = EOFException.class)
+    public void oversizedArrayLength() throws Exception {
+        byte[] data = frame(ByteBuffer.allocate(8).putInt(0x100).putInt(Integer.MAX_VALUE));
+
+        new BinRpcMessage(data, false, ENCODING);
+    }
+
+    @Test(expected = IOException.class)
+    public void negativeMessageLength() throws Exception {
+        byte[] data = new byte[] { 'B', 'i', 'n', 0, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff };
+
+        new BinRpcMessage(new ByteArrayInputStream(data), false, ENCODING);
+    }
+
+    @Test(expected = UnsupportedEncodingException.class)
+    public void missingSignature() throws Exception {
+        new BinRpcMessage(new byte[] { 'X', 'm', 'l', 0, 0, 0, 0, 0 }, false, ENCODING);
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownDataType() throws Exception {
+        // BIN-RPC has no type for binary data, unlike base64 in XML-RPC
+        byte[] data = frame(ByteBuffer.allocate(8).putInt(0x11).putInt(0));
+
+        new BinRpcMessage(data, false, ENCODING);
+    }
+
+    private Object roundTrip(Object value) throws IOException, ParseException {
+        return roundTrip(value, ENCODING);
+    }
+
+    private Object roundTrip(Object value, String encoding) throws IOException, ParseException {
+        BinRpcMessage message = new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, encoding);
+        message.addArg(value);
+        Object[] data = new BinRpcMessage(message.createMessage(), false, encoding).getResponseData();
+        assertThat(data.length, is(1));
+        return data[0];
+    }
+
+    private static byte[] frame(ByteBuffer payload) {
+        byte[] body = payload.array();
+        return ByteBuffer.allocate(BinRpcMessage.HEADER_SIZE + body.length).put(new byte[] { 'B', 'i', 'n', 1 })
+                .putInt(body.length).put(body).array();
+    }
+}
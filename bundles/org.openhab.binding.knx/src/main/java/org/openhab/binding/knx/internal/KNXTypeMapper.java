@@ -41,6 +41,16 @@ public interface KNXTypeMapper {
     @Nullable
     public String toDPTValue(Type type, @Nullable String dpt);
 
+    /**
+     * maps an openHAB command/state directly to the ASDU of its datapoint in KNX
+     *
+     * @param type a command or state
+     * @param dpt the corresponding datapoint type
+     * @return the datapoint value as an ASDU byte array, or {@code null} if the type can only be mapped with
+     *         {@link #toDPTValue(Type, String)}
+     */
+    public byte @Nullable [] toDPTData(Type type, String dpt);
+
     /**
      * maps a datapoint value to an openHAB command or state
      *
@@ -12,9 +12,7 @@
  */
 package org.openhab.binding.knx.internal.client;
 
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.io.File;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -22,6 +20,7 @@ import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -38,9 +37,12 @@ import tuwien.auto.calimero.FrameEvent;
 import tuwien.auto.calimero.GroupAddress;
 import tuwien.auto.calimero.IndividualAddress;
 import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.KNXIllegalArgumentException;
 import tuwien.auto.calimero.datapoint.CommandDP;
 import tuwien.auto.calimero.datapoint.Datapoint;
 import tuwien.auto.calimero.device.ProcessCommunicationResponder;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
 import tuwien.auto.calimero.link.KNXNetworkLink;
 import tuwien.auto.calimero.link.NetworkLinkListener;
 import tuwien.auto.calimero.mgmt.Destination;
@@ -64,15 +66,16 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    private static final int SNAPSHOT_SAVE_INTERVAL_MINUTES = 5;
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
 
     private final ThingUID thingUID;
     private final int responseTimeout;
-    private final int readingPause;
     private final int autoReconnectPeriod;
     private final int readRetriesLimit;
+    private final int warmStartMaxAge;
     private final StatusUpdateCallback statusUpdateCallback;
     private final ScheduledExecutorService knxScheduler;
 
@@ -84,9 +87,17 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable DeviceInfoClient deviceInfoClient;
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
+    private @Nullable ScheduledFuture<?> snapshotJob;
+    private @Nullable ValueSnapshot snapshot;
+    /**
+     * Incremented whenever a connection is established or released, guarded by the lock of this client. A read job
+     * only continues as long as the generation it was started with is current.
+     */
+    private int busJobGeneration;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final GroupAddressListenerRegistry groupAddressListeners;
+    private final ReadDatapointQueue readDatapoints = new ReadDatapointQueue();
+    private final ReadPacer readPacer;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -103,6 +114,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupWrite(ProcessEvent e) {
+            rememberValue(e);
             processEvent("Group Write", e, (listener, source, destination, asdu) -> {
                 listener.onGroupWrite(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -117,6 +129,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
         @Override
         public void groupReadResponse(ProcessEvent e) {
+            rememberValue(e);
             processEvent("Group Read Response", e, (listener, source, destination, asdu) -> {
                 listener.onGroupReadResponse(AbstractKNXClient.this, source, destination, asdu);
             });
@@ -124,17 +137,28 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     };
 
     public AbstractKNXClient(int autoReconnectPeriod, ThingUID thingUID, int responseTimeout, int readingPause,
-            int readRetriesLimit, ScheduledExecutorService knxScheduler, StatusUpdateCallback statusUpdateCallback) {
+            int readRetriesLimit, int warmStartMaxAge, ScheduledExecutorService knxScheduler,
+            StatusUpdateCallback statusUpdateCallback) {
         this.autoReconnectPeriod = autoReconnectPeriod;
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
-        this.readingPause = readingPause;
         this.readRetriesLimit = readRetriesLimit;
+        this.warmStartMaxAge = warmStartMaxAge;
+        this.readPacer = new ReadPacer(readingPause);
         this.knxScheduler = knxScheduler;
+        this.groupAddressListeners = new GroupAddressListenerRegistry(knxScheduler);
         this.statusUpdateCallback = statusUpdateCallback;
     }
 
     public void initialize() {
+        if (warmStartMaxAge > 0) {
+            ValueSnapshot snapshot = new ValueSnapshot(new File(ConfigConstants.getUserDataFolder(),
+                    "knx" + File.separator + thingUID.getAsString().replace(':', '_') + ".snapshot"));
+            snapshot.load();
+            this.snapshot = snapshot;
+            snapshotJob = knxScheduler.scheduleWithFixedDelay(snapshot::save, SNAPSHOT_SAVE_INTERVAL_MINUTES,
+                    SNAPSHOT_SAVE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
         if (!scheduleReconnectJob()) {
             connect();
         }
@@ -166,6 +190,14 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return true;
     }
 
+    private synchronized boolean connectIfNotAutomatic(int generation) {
+        if (generation != busJobGeneration) {
+            // the connection of the read job was released in the meantime
+            return false;
+        }
+        return connectIfNotAutomatic();
+    }
+
     private synchronized boolean connect() {
         if (isConnected()) {
             return true;
@@ -196,8 +228,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
-                    TimeUnit.MILLISECONDS);
+            int generation = ++busJobGeneration;
+            busJob = knxScheduler.schedule(() -> readAndReschedule(generation), 0, TimeUnit.MILLISECONDS);
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
             connectJob = null;
@@ -210,7 +242,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
     }
 
-    private void disconnect(@Nullable Exception e) {
+    private synchronized void disconnect(@Nullable Exception e) {
         releaseConnection();
         if (e != null) {
             statusUpdateCallback.updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
@@ -221,9 +253,10 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @SuppressWarnings("null")
-    private void releaseConnection() {
+    private synchronized void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
         readDatapoints.clear();
+        busJobGeneration++;
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -251,11 +284,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
-        }
+        groupAddressListeners.dispatch(destination, listener -> action.apply(listener, source, destination, asdu));
     }
 
     /**
@@ -270,9 +299,31 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
+    /**
+     * Creates a translator holding the ASDU of the given {@link Type}, if it can be encoded directly.
+     *
+     * @param type the {@link Type} to transform
+     * @param dpt the datapoint type to which should be converted
+     * @return the translator, or {@code null} if the type has to be transformed by {@link #toDPTValue(Type, String)}
+     */
+    private @Nullable DPTXlator toDPTTranslator(Type type, String dpt) {
+        byte[] data = typeHelper.toDPTData(type, dpt);
+        if (data == null) {
+            return null;
+        }
+        try {
+            DPTXlator translator = TranslatorTypes.createTranslator(0, dpt);
+            translator.setData(data);
+            return translator;
+        } catch (KNXException | KNXIllegalArgumentException e) {
+            logger.debug("Could not create a translator for datapoint type '{}': {}", dpt, e.getMessage());
+            return null;
+        }
+    }
+
     @SuppressWarnings("null")
-    private void readNextQueuedDatapoint() {
-        if (!connectIfNotAutomatic()) {
+    private void readNextQueuedDatapoint(int generation) {
+        if (!connectIfNotAutomatic(generation)) {
             return;
         }
         ProcessCommunicator processCommunicator = this.processCommunicator;
@@ -285,9 +336,11 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
             try {
                 logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
                 processCommunicator.read(datapoint.getDatapoint());
+                readPacer.onReadSucceeded();
             } catch (KNXException e) {
+                readPacer.onReadFailed();
                 if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
+                    readDatapoints.add(datapoint, false);
                     logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
                             datapoint.getDatapoint().getMainAddress(), e.getMessage());
                 } else {
@@ -301,9 +354,62 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
     }
 
+    /**
+     * Send the next queued read request and schedule the following one, paced by the {@link ReadPacer}.
+     *
+     * @param generation the connection the read job belongs to, the job ends once the connection is released
+     */
+    private void readAndReschedule(int generation) {
+        try {
+            readNextQueuedDatapoint(generation);
+        } finally {
+            synchronized (this) {
+                if (generation == busJobGeneration) {
+                    busJob = knxScheduler.schedule(() -> readAndReschedule(generation), readPacer.nextPauseMillis(),
+                            TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    private void rememberValue(ProcessEvent event) {
+        ValueSnapshot snapshot = this.snapshot;
+        if (snapshot != null) {
+            snapshot.update(event.getSourceAddr(), event.getDestination(), event.getASDU());
+        }
+    }
+
+    private void rememberValue(KNXNetworkLink link, GroupAddress destination, String dpt,
+            @Nullable DPTXlator translator, @Nullable String mappedValue) {
+        ValueSnapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            DPTXlator written = translator;
+            if (written == null) {
+                written = TranslatorTypes.createTranslator(0, dpt);
+                written.setValue(mappedValue);
+            }
+            snapshot.update(link.getKNXMedium().getDeviceAddress(), destination, written.getData());
+        } catch (KNXException | KNXIllegalArgumentException e) {
+            logger.trace("Could not remember the value written to {}: {}", destination, e.getMessage());
+        }
+    }
+
     public void dispose() {
         cancelReconnectJob();
         disconnect(null);
+        ScheduledFuture<?> snapshotJob = this.snapshotJob;
+        if (snapshotJob != null) {
+            snapshotJob.cancel(false);
+            this.snapshotJob = null;
+        }
+        ValueSnapshot snapshot = this.snapshot;
+        if (snapshot != null) {
+            snapshot.save();
+            this.snapshot = null;
+        }
     }
 
     @Override
@@ -323,12 +429,12 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public void indication(@Nullable FrameEvent e) {
-        // no-op
+        readPacer.onFrame();
     }
 
     @Override
     public void confirmation(@Nullable FrameEvent e) {
-        // no-op
+        readPacer.onFrame();
     }
 
     @Override
@@ -367,22 +473,33 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
+        readDatapoint(datapoint, false);
+    }
+
+    @Override
+    public void readDatapoint(Datapoint datapoint, boolean initial) {
+        GroupAddress groupAddress = datapoint.getMainAddress();
+        ValueSnapshot snapshot = this.snapshot;
+        if (initial && snapshot != null) {
+            ValueSnapshot.Value value = snapshot.get(groupAddress, TimeUnit.SECONDS.toMillis(warmStartMaxAge));
+            if (value != null) {
+                logger.trace("Using the last known value of {} instead of reading it from the bus", groupAddress);
+                groupAddressListeners.dispatch(groupAddress, listener -> listener
+                        .onGroupReadResponse(AbstractKNXClient.this, value.getSource(), groupAddress, value.getAsdu()));
+                return;
             }
         }
+        readDatapoints.add(new ReadDatapoint(datapoint, readRetriesLimit), initial);
     }
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        return groupAddressListeners.register(listener);
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        return groupAddressListeners.unregister(listener);
     }
 
     @Override
@@ -445,18 +562,25 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
 
         Datapoint datapoint = new CommandDP(groupAddress, thingUID.toString(), 0, dpt);
-        String mappedValue = toDPTValue(type, dpt);
+        DPTXlator translator = toDPTTranslator(type, dpt);
+        String mappedValue = translator == null ? toDPTValue(type, dpt) : null;
 
-        logger.trace("sendToKNX mappedValue: '{}' groupAddress: '{}'", mappedValue, groupAddress);
+        logger.trace("sendToKNX mappedValue: '{}' groupAddress: '{}'", translator != null ? translator : mappedValue,
+                groupAddress);
 
-        if (mappedValue == null) {
+        if (translator == null && mappedValue == null) {
             logger.debug("Value '{}' cannot be mapped to datapoint '{}'", type, datapoint);
             return;
         }
         for (int i = 0; i < MAX_SEND_ATTEMPTS; i++) {
             try {
-                communicator.write(datapoint, mappedValue);
+                if (translator != null) {
+                    communicator.write(groupAddress, translator);
+                } else {
+                    communicator.write(datapoint, mappedValue);
+                }
                 logger.debug("Wrote value '{}' to datapoint '{}' ({}. attempt).", type, datapoint, i);
+                rememberValue(link, groupAddress, dpt, translator, mappedValue);
                 break;
             } catch (KNXException e) {
                 if (i < MAX_SEND_ATTEMPTS - 1) {
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Registry of the {@link GroupAddressListener}s of a KNX client.
+ *
+ * The listeners are indexed by their group addresses, so that an incoming telegram is only handed to the listeners of
+ * its destination. Each listener has its own queue of pending notifications, which is drained by a single task on the
+ * executor. Notifications of a listener are therefore delivered in the order the telegrams arrived, and a burst of
+ * telegrams for a listener occupies one task instead of one task per telegram.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class GroupAddressListenerRegistry {
+
+    private static final ListenerQueue[] NO_QUEUES = new ListenerQueue[0];
+
+    private final Logger logger = LoggerFactory.getLogger(GroupAddressListenerRegistry.class);
+
+    private final Executor executor;
+
+    private final Map<GroupAddressListener, ListenerQueue> listeners = new HashMap<>();
+    private volatile Map<GroupAddress, ListenerQueue[]> index = Collections.emptyMap();
+
+    GroupAddressListenerRegistry(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Register the listener for its current group addresses. Registering an already registered listener again updates
+     * its group addresses.
+     *
+     * @param listener the listener to register
+     * @return true if the listener was not registered before
+     */
+    synchronized boolean register(GroupAddressListener listener) {
+        ListenerQueue queue = listeners.get(listener);
+        boolean added = queue == null;
+        if (queue == null) {
+            queue = new ListenerQueue(listener);
+            listeners.put(listener, queue);
+        }
+        queue.groupAddresses = new HashSet<>(listener.getGroupAddresses());
+        rebuildIndex();
+        return added;
+    }
+
+    /**
+     * Unregister the listener. Notifications still pending for the listener are discarded.
+     *
+     * @param listener the listener to unregister
+     * @return true if the listener was registered
+     */
+    synchronized boolean unregister(GroupAddressListener listener) {
+        ListenerQueue queue = listeners.remove(listener);
+        if (queue == null) {
+            return false;
+        }
+        queue.registered = false;
+        rebuildIndex();
+        return true;
+    }
+
+    /**
+     * Queue the notification for all listeners of the given group address
+     *
+     * @param destination the group address of the telegram
+     * @param notification the notification to deliver to each listener
+     */
+    void dispatch(GroupAddress destination, Consumer<GroupAddressListener> notification) {
+        for (ListenerQueue queue : index.getOrDefault(destination, NO_QUEUES)) {
+            queue.enqueue(notification);
+        }
+    }
+
+    /**
+     * Must be called while holding the lock of this registry.
+     */
+    private void rebuildIndex() {
+        Map<GroupAddress, List<ListenerQueue>> byAddress = new HashMap<>();
+        for (ListenerQueue queue : listeners.values()) {
+            for (GroupAddress groupAddress : queue.groupAddresses) {
+                byAddress.computeIfAbsent(groupAddress, ga -> new ArrayList<>(1)).add(queue);
+            }
+        }
+        Map<GroupAddress, ListenerQueue[]> newIndex = new HashMap<>(byAddress.size() * 2);
+        byAddress.forEach((groupAddress, queues) -> newIndex.put(groupAddress, queues.toArray(NO_QUEUES)));
+        index = newIndex;
+    }
+
+    private class ListenerQueue {
+        private final GroupAddressListener listener;
+        private final Queue<Consumer<GroupAddressListener>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private Set<GroupAddress> groupAddresses = Collections.emptySet();
+        private volatile boolean registered = true;
+
+        ListenerQueue(GroupAddressListener listener) {
+            this.listener = listener;
+        }
+
+        void enqueue(Consumer<GroupAddressListener> notification) {
+            pending.add(notification);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    pending.clear();
+                    logger.debug("Discarding notifications for {}, the scheduler rejected them: {}", listener,
+                            e.getMessage());
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Consumer<GroupAddressListener> notification;
+                while ((notification = pending.poll()) != null) {
+                    if (!registered) {
+                        pending.clear();
+                        break;
+                    }
+                    try {
+                        notification.accept(listener);
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to deliver a KNX telegram to {}", listener, e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // notifications might have arrived after the queue was found empty
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
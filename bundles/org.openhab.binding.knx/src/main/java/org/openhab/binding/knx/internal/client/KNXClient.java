@@ -83,6 +83,17 @@ public interface KNXClient {
      */
     void readDatapoint(Datapoint datapoint);
 
+    /**
+     * Schedule the given data point for asynchronous reading.
+     *
+     * Initial reads are sent before the periodic refresh reads. They may be answered from the last known values when
+     * the bridge is configured for a warm start.
+     *
+     * @param datapoint the datapoint
+     * @param initial {@code true} if this is the initial read providing the first state of a channel
+     */
+    void readDatapoint(Datapoint datapoint, boolean initial);
+
     /**
      * Write a command to the KNX bus.
      *
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of the data points to be read from the KNX bus.
+ *
+ * Each group address is queued at most once. Initial reads, which provide the first state of linked channels, are
+ * handed out before the periodic refresh reads. Queueing an initial read for a group address with a pending refresh
+ * read promotes the pending read.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class ReadDatapointQueue {
+
+    private final Map<GroupAddress, ReadDatapoint> initialReads = new LinkedHashMap<>();
+    private final Map<GroupAddress, ReadDatapoint> refreshReads = new LinkedHashMap<>();
+
+    /**
+     * Queue the data point unless its group address is already queued
+     *
+     * @param datapoint the data point to read
+     * @param initial whether this is the initial read of the data point
+     * @return true if the data point was queued or promoted
+     */
+    synchronized boolean add(ReadDatapoint datapoint, boolean initial) {
+        GroupAddress groupAddress = datapoint.getDatapoint().getMainAddress();
+        if (initialReads.containsKey(groupAddress)) {
+            return false;
+        }
+        if (initial) {
+            ReadDatapoint pending = refreshReads.remove(groupAddress);
+            initialReads.put(groupAddress, pending != null ? pending : datapoint);
+            return true;
+        }
+        if (refreshReads.containsKey(groupAddress)) {
+            return false;
+        }
+        refreshReads.put(groupAddress, datapoint);
+        return true;
+    }
+
+    /**
+     * Remove the next data point to read
+     *
+     * @return the data point, or null if the queue is empty
+     */
+    synchronized @Nullable ReadDatapoint poll() {
+        ReadDatapoint datapoint = pollFirst(initialReads);
+        return datapoint != null ? datapoint : pollFirst(refreshReads);
+    }
+
+    private static @Nullable ReadDatapoint pollFirst(Map<GroupAddress, ReadDatapoint> reads) {
+        Iterator<ReadDatapoint> iterator = reads.values().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        ReadDatapoint datapoint = iterator.next();
+        iterator.remove();
+        return datapoint;
+    }
+
+    synchronized int size() {
+        return initialReads.size() + refreshReads.size();
+    }
+
+    synchronized void clear() {
+        initialReads.clear();
+        refreshReads.clear();
+    }
+}
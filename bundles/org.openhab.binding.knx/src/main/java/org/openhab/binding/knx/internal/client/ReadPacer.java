@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Determines the pause between two read requests sent to the KNX bus.
+ *
+ * The configured reading pause is used as long as the bus is quiet and the read requests are answered. The pause is
+ * stretched in proportion to the measured bus load when other traffic gets busy, and doubled for every read request
+ * that failed or timed out in a row, so that the initial reads do not compete with the regular traffic of the
+ * installation.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class ReadPacer {
+
+    /**
+     * Frames per second above which the bus is considered busy. A twisted pair segment transports about 50 frames per
+     * second at most.
+     */
+    private static final int BUSY_FRAMES_PER_SECOND = 20;
+    private static final int MAX_BACKOFF = 16;
+    private static final long WINDOW_MILLIS = 1000;
+
+    private final int readingPause;
+
+    private long windowStart = System.currentTimeMillis();
+    private int framesInWindow;
+    private int framesPerSecond;
+    private int backoff = 1;
+
+    ReadPacer(int readingPause) {
+        this.readingPause = readingPause;
+    }
+
+    /**
+     * Account a frame seen on the bus
+     */
+    synchronized void onFrame() {
+        rollWindow(System.currentTimeMillis());
+        framesInWindow++;
+    }
+
+    synchronized void onReadSucceeded() {
+        backoff = 1;
+    }
+
+    synchronized void onReadFailed() {
+        backoff = Math.min(backoff * 2, MAX_BACKOFF);
+    }
+
+    /**
+     * @return the pause in milliseconds before the next read request should be sent
+     */
+    synchronized long nextPauseMillis() {
+        rollWindow(System.currentTimeMillis());
+        long pause = (long) readingPause * backoff;
+        if (framesPerSecond > BUSY_FRAMES_PER_SECOND) {
+            pause = pause * framesPerSecond / BUSY_FRAMES_PER_SECOND;
+        }
+        return Math.min(pause, (long) readingPause * MAX_BACKOFF);
+    }
+
+    private void rollWindow(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW_MILLIS) {
+            // a window without any frames in between means the bus was idle
+            framesPerSecond = elapsed < 2 * WINDOW_MILLIS ? (int) (framesInWindow * 1000 / elapsed) : 0;
+            framesInWindow = 0;
+            windowStart = now;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("{frames/s: %d, backoff: %d}", framesPerSecond, backoff);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+import tuwien.auto.calimero.KNXFormatException;
+
+/**
+ * Last known values of the group addresses, as received from the bus or written to it, persisted across restarts.
+ *
+ * After a restart, the initial read of a group address can be answered from the snapshot as long as the remembered
+ * value is recent enough, instead of sending a read request to the bus.
+ *
+ * Each line of the snapshot file maps a group address to the time the value was received or written, the sender and
+ * the ASDU, e.g. {@code 1/2/3=1589443512000;1.1.10;0c}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class ValueSnapshot {
+
+    static class Value {
+        private final long timestamp;
+        private final IndividualAddress source;
+        private final byte[] asdu;
+
+        Value(long timestamp, IndividualAddress source, byte[] asdu) {
+            this.timestamp = timestamp;
+            this.source = source;
+            this.asdu = asdu;
+        }
+
+        IndividualAddress getSource() {
+            return source;
+        }
+
+        byte[] getAsdu() {
+            return asdu;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ValueSnapshot.class);
+
+    private final File file;
+    private final Map<GroupAddress, Value> values = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    ValueSnapshot(File file) {
+        this.file = file;
+    }
+
+    void update(IndividualAddress source, GroupAddress destination, byte[] asdu) {
+        values.put(destination, new Value(System.currentTimeMillis(), source, asdu));
+        dirty = true;
+    }
+
+    /**
+     * Get the last known value of the group address
+     *
+     * @param groupAddress the group address
+     * @param maxAgeMillis maximum age of the value
+     * @return the value, or null if there is no value which is recent enough
+     */
+    @Nullable
+    Value get(GroupAddress groupAddress, long maxAgeMillis) {
+        Value value = values.get(groupAddress);
+        if (value == null || System.currentTimeMillis() - value.timestamp > maxAgeMillis) {
+            return null;
+        }
+        return value;
+    }
+
+    void load() {
+        if (!file.isFile()) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warn("Could not load the KNX value snapshot from {}: {}", file, e.getMessage());
+            return;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String[] parts = properties.getProperty(key).split(";", 3);
+            try {
+                if (parts.length == 3) {
+                    values.putIfAbsent(new GroupAddress(key), new Value(Long.parseLong(parts[0]),
+                            new IndividualAddress(parts[1]), HexUtils.hexToBytes(parts[2])));
+                }
+            } catch (KNXFormatException | IllegalArgumentException e) {
+                logger.debug("Ignoring invalid entry '{}' in the KNX value snapshot: {}", key, e.getMessage());
+            }
+        }
+        logger.debug("Loaded {} values from the KNX value snapshot {}", values.size(), file);
+    }
+
+    void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        Properties properties = new Properties();
+        values.forEach((groupAddress, value) -> properties.setProperty(groupAddress.toString(),
+                value.timestamp + ";" + value.source + ";" + HexUtils.bytesToHex(value.asdu)));
+        File folder = file.getParentFile();
+        if (folder != null && !folder.isDirectory() && !folder.mkdirs()) {
+            dirty = true;
+            logger.warn("Could not create the folder for the KNX value snapshot {}", file);
+            return;
+        }
+        // the snapshot is replaced at once, so that a crash while writing does not leave a truncated file behind
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            tempFile.delete();
+            logger.warn("Could not save the KNX value snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.dpt;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.types.Type;
+
+/**
+ * Converts between openHAB types and the ASDU of a single datapoint type without going through the string
+ * representation of the Calimero translators.
+ *
+ * A codec only handles the cases it can convert exactly like the translators would. For anything else it returns
+ * {@code null}, and the caller falls back to the translators.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+interface DPTCodec {
+
+    /**
+     * @param data the ASDU
+     * @return the openHAB type, or {@code null} if the codec cannot decode the data
+     */
+    @Nullable
+    Type decode(byte[] data);
+
+    /**
+     * @param type the openHAB type
+     * @return the ASDU, or {@code null} if the codec cannot encode the type
+     */
+    byte @Nullable [] encode(Type type);
+}
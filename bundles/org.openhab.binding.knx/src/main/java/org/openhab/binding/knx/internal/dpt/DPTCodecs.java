@@ -0,0 +1,350 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.dpt;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StopMoveType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
+
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.dptxlator.DPT;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
+/**
+ * Registry of the {@link DPTCodec}s of the most common datapoint types (1.x, 5.x, 9.x, 14.x and 232.600).
+ *
+ * A codec is compiled once per datapoint type ID on first use, taking the value range from the Calimero datapoint type
+ * definition, and shared by all type mappers afterwards.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+final class DPTCodecs {
+
+    private static final Map<String, Optional<DPTCodec>> CODECS = new ConcurrentHashMap<>();
+
+    private DPTCodecs() {
+        // utility class
+    }
+
+    /**
+     * @param dptId the datapoint type ID, e.g. "9.001"
+     * @return the codec, or {@code null} if there is no codec for the datapoint type
+     */
+    static @Nullable DPTCodec get(String dptId) {
+        Optional<DPTCodec> codec = CODECS.get(dptId);
+        if (codec == null) {
+            codec = Optional.ofNullable(compile(dptId));
+            CODECS.putIfAbsent(dptId, codec);
+        }
+        return codec.orElse(null);
+    }
+
+    private static @Nullable DPTCodec compile(String dptId) {
+        int separator = dptId.indexOf('.');
+        if (separator <= 0) {
+            return null;
+        }
+        int mainNumber;
+        int subNumber;
+        try {
+            mainNumber = Integer.parseInt(dptId.substring(0, separator));
+            subNumber = Integer.parseInt(dptId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        DPT dpt;
+        try {
+            dpt = TranslatorTypes.createTranslator(mainNumber, dptId).getType();
+        } catch (KNXException e) {
+            return null;
+        }
+        switch (mainNumber) {
+            case 1:
+                return new BooleanCodec(subNumber);
+            case 5:
+                switch (subNumber) {
+                    case 1:
+                        return new UnsignedByteCodec(dpt, 100, true);
+                    case 3:
+                        return new UnsignedByteCodec(dpt, 360, false);
+                    case 4:
+                        // percent values above 100 are not representable as PercentType
+                        return null;
+                    default:
+                        return new UnsignedByteCodec(dpt, 255, false);
+                }
+            case 9:
+                return new TwoByteFloatCodec(dpt, subNumber == 7);
+            case 14:
+                return new FourByteFloatCodec();
+            case 232:
+                return subNumber == 600 ? new RGBCodec() : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses a bound of the datapoint type
+     */
+    private static double parseBound(String value, double defaultValue) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * The numeric value of a type, as the translators would receive it from
+     * {@link KNXCoreTypeMapper#toDPTValue(Type, String)}
+     */
+    private static @Nullable BigDecimal toNumber(Type type) {
+        if (type instanceof HSBType) {
+            return null;
+        } else if (type instanceof PercentType) {
+            return BigDecimal.valueOf(((PercentType) type).intValue());
+        } else if (type instanceof DecimalType) {
+            return ((DecimalType) type).toBigDecimal();
+        }
+        return null;
+    }
+
+    /**
+     * 1.x: 1 bit
+     */
+    private static class BooleanCodec implements DPTCodec {
+        private final int subNumber;
+
+        BooleanCodec(int subNumber) {
+            this.subNumber = subNumber;
+        }
+
+        @Override
+        public @Nullable Type decode(byte[] data) {
+            if (data.length < 1) {
+                return null;
+            }
+            boolean value = (data[0] & 0x01) != 0;
+            switch (subNumber) {
+                case 8:
+                    return value ? UpDownType.DOWN : UpDownType.UP;
+                case 9:
+                case 19:
+                    return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                case 10:
+                    return value ? StopMoveType.MOVE : StopMoveType.STOP;
+                case 22:
+                    return new DecimalType(value ? 1 : 0);
+                default:
+                    return OnOffType.from(value);
+            }
+        }
+
+        @Override
+        public byte @Nullable [] encode(Type type) {
+            if (type instanceof OnOffType) {
+                return bit(type == OnOffType.ON);
+            } else if (type instanceof UpDownType) {
+                return bit(type == UpDownType.DOWN);
+            } else if (type instanceof OpenClosedType) {
+                return bit(type == OpenClosedType.OPEN);
+            } else if (type instanceof StopMoveType) {
+                return bit(type == StopMoveType.MOVE);
+            }
+            return null;
+        }
+
+        private static byte[] bit(boolean value) {
+            return new byte[] { (byte) (value ? 1 : 0) };
+        }
+    }
+
+    /**
+     * 5.x: 8 bit unsigned, scaled to the range 0..max
+     */
+    private static class UnsignedByteCodec implements DPTCodec {
+        private final int max;
+        private final boolean percent;
+        private final double lower;
+        private final double upper;
+
+        UnsignedByteCodec(DPT dpt, int max, boolean percent) {
+            this.max = max;
+            this.percent = percent;
+            this.lower = parseBound(dpt.getLowerValue(), 0);
+            this.upper = parseBound(dpt.getUpperValue(), max);
+        }
+
+        @Override
+        public @Nullable Type decode(byte[] data) {
+            if (data.length < 1) {
+                return null;
+            }
+            int raw = data[0] & 0xff;
+            int value = max == 255 ? raw : Math.round(raw * (float) max / 255);
+            return percent ? new PercentType(value) : new DecimalType(value);
+        }
+
+        @Override
+        public byte @Nullable [] encode(Type type) {
+            BigDecimal number = toNumber(type);
+            if (number == null || number.signum() < 0 || number.compareTo(BigDecimal.valueOf(upper)) > 0
+                    || number.compareTo(BigDecimal.valueOf(lower)) < 0) {
+                return null;
+            }
+            int value;
+            try {
+                value = number.intValueExact();
+            } catch (ArithmeticException e) {
+                // fractions are rejected by the translators
+                return null;
+            }
+            int raw = max == 255 ? value : Math.round(value * 255.0f / max);
+            return new byte[] { (byte) raw };
+        }
+    }
+
+    /**
+     * 9.x: 2 byte float, 0.01 * mantissa * 2^exponent
+     */
+    private static class TwoByteFloatCodec implements DPTCodec {
+        private final boolean percent;
+        private final double lower;
+        private final double upper;
+
+        TwoByteFloatCodec(DPT dpt, boolean percent) {
+            this.percent = percent;
+            this.lower = parseBound(dpt.getLowerValue(), -671088.64);
+            this.upper = parseBound(dpt.getUpperValue(), 670760.96);
+        }
+
+        @Override
+        public @Nullable Type decode(byte[] data) {
+            if (data.length < 2) {
+                return null;
+            }
+            int mantissa = ((data[0] & 0x07) << 8) | (data[1] & 0xff);
+            if ((data[0] & 0x80) != 0) {
+                // 12 bit two's complement
+                mantissa -= 2048;
+            }
+            int exponent = (data[0] & 0x78) >> 3;
+            BigDecimal value = BigDecimal.valueOf((long) mantissa << exponent, 2);
+            if (percent) {
+                return new PercentType(value.setScale(0, BigDecimal.ROUND_HALF_UP));
+            }
+            return new DecimalType(value);
+        }
+
+        @Override
+        public byte @Nullable [] encode(Type type) {
+            BigDecimal number = toNumber(type);
+            if (number == null) {
+                return null;
+            }
+            double value = number.doubleValue();
+            if (value < lower || value > upper) {
+                return null;
+            }
+            float v = (float) value * 100.0f;
+            int exponent = 0;
+            for (; v < -2048.0f; v /= 2) {
+                exponent++;
+            }
+            for (; v > 2047.0f; v /= 2) {
+                exponent++;
+            }
+            int mantissa = Math.round(v) & 0x7ff;
+            int msb = exponent << 3 | mantissa >> 8;
+            if (value < 0.0) {
+                msb |= 0x80;
+            }
+            return new byte[] { (byte) msb, (byte) mantissa };
+        }
+    }
+
+    /**
+     * 14.x: 4 byte IEEE 754 float
+     */
+    private static class FourByteFloatCodec implements DPTCodec {
+
+        @Override
+        public @Nullable Type decode(byte[] data) {
+            if (data.length < 4) {
+                return null;
+            }
+            int bits = (data[0] & 0xff) << 24 | (data[1] & 0xff) << 16 | (data[2] & 0xff) << 8 | (data[3] & 0xff);
+            float value = Float.intBitsToFloat(bits);
+            if (Float.isNaN(value) || Float.isInfinite(value)) {
+                return null;
+            }
+            return new DecimalType(value);
+        }
+
+        @Override
+        public byte @Nullable [] encode(Type type) {
+            BigDecimal number = toNumber(type);
+            if (number == null) {
+                return null;
+            }
+            float value = number.floatValue();
+            if (Float.isInfinite(value)) {
+                return null;
+            }
+            int bits = Float.floatToIntBits(value);
+            return new byte[] { (byte) (bits >> 24), (byte) (bits >> 16), (byte) (bits >> 8), (byte) bits };
+        }
+    }
+
+    /**
+     * 232.600: 3 bytes RGB
+     */
+    private static class RGBCodec implements DPTCodec {
+
+        @Override
+        public @Nullable Type decode(byte[] data) {
+            if (data.length < 3) {
+                return null;
+            }
+            return HSBType.fromRGB(data[0] & 0xff, data[1] & 0xff, data[2] & 0xff);
+        }
+
+        @Override
+        public byte @Nullable [] encode(Type type) {
+            if (!(type instanceof HSBType)) {
+                return null;
+            }
+            HSBType hsb = (HSBType) type;
+            return new byte[] { toByte(hsb.getRed()), toByte(hsb.getGreen()), toByte(hsb.getBlue()) };
+        }
+
+        private static byte toByte(PercentType percent) {
+            return (byte) percent.toBigDecimal().multiply(BigDecimal.valueOf(255))
+                    .divide(BigDecimal.valueOf(100), 2, BigDecimal.ROUND_HALF_UP).intValue();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
@@ -82,6 +83,9 @@ import tuwien.auto.calimero.dptxlator.TranslatorTypes;
  * If for a 'MainType' there is currently no specific mapping registered,
  * you can find a commented example line, with it's correct 'DPTXlator' class.
  *
+ * The most common datapoint types are converted directly between the openHAB types and the ASDU by the
+ * {@link DPTCodecs}, the translators are used for all other cases.
+ *
  * @author Kai Kreuzer
  * @author Volker Daube
  * @author Jan N. Klug
@@ -670,8 +674,21 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    @Override
+    public byte @Nullable [] toDPTData(Type type, String dptID) {
+        DPTCodec codec = DPTCodecs.get(dptID);
+        return codec != null ? codec.encode(type) : null;
+    }
+
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        DPTCodec codec = DPTCodecs.get(datapoint.getDPT());
+        if (codec != null) {
+            Type type = codec.decode(data);
+            if (type != null) {
+                return type;
+            }
+        }
         try {
             DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
             translator.setData(data);
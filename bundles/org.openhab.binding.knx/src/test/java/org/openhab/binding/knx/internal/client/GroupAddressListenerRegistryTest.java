@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+
+/**
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ *
+ */
+public class GroupAddressListenerRegistryTest {
+
+    private static final GroupAddress GA_1 = new GroupAddress(1, 0, 1);
+    private static final GroupAddress GA_2 = new GroupAddress(1, 0, 2);
+
+    private final Queue<Runnable> tasks = new LinkedList<>();
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+    private GroupAddressListenerRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new GroupAddressListenerRegistry(tasks::add);
+    }
+
+    @Test
+    public void testRegister() {
+        TestListener listener = new TestListener("a", GA_1);
+
+        assertTrue(registry.register(listener));
+        assertFalse(registry.register(listener));
+
+        registry.dispatch(GA_1, record("x"));
+        registry.dispatch(GA_2, record("y"));
+        runTasks();
+
+        assertEquals(Arrays.asList("a:x"), delivered);
+    }
+
+    @Test
+    public void testRegisterAgainUpdatesGroupAddresses() {
+        TestListener listener = new TestListener("a", GA_1);
+        registry.register(listener);
+        listener.groupAddresses = Collections.singleton(GA_2);
+        registry.register(listener);
+
+        registry.dispatch(GA_1, record("x"));
+        registry.dispatch(GA_2, record("y"));
+        runTasks();
+
+        assertEquals(Arrays.asList("a:y"), delivered);
+    }
+
+    @Test
+    public void testUnregister() {
+        TestListener listener = new TestListener("a", GA_1);
+        registry.register(listener);
+
+        assertTrue(registry.unregister(listener));
+        assertFalse(registry.unregister(listener));
+
+        registry.dispatch(GA_1, record("x"));
+        runTasks();
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void testUnregisterDiscardsPendingNotifications() {
+        TestListener listener = new TestListener("a", GA_1);
+        registry.register(listener);
+        registry.dispatch(GA_1, record("x"));
+
+        registry.unregister(listener);
+        runTasks();
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void testDispatchToMultipleListeners() {
+        registry.register(new TestListener("a", GA_1));
+        registry.register(new TestListener("b", GA_1, GA_2));
+        registry.register(new TestListener("c", GA_2));
+
+        registry.dispatch(GA_1, record("x"));
+        runTasks();
+
+        assertEquals(new HashSet<>(Arrays.asList("a:x", "b:x")), new HashSet<>(delivered));
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void testNotificationsAreDeliveredInOrderByOneTask() {
+        registry.register(new TestListener("a", GA_1, GA_2));
+
+        registry.dispatch(GA_1, record("1"));
+        registry.dispatch(GA_2, record("2"));
+        registry.dispatch(GA_1, record("3"));
+
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(Arrays.asList("a:1", "a:2", "a:3"), delivered);
+    }
+
+    @Test
+    public void testFailingNotificationDoesNotStopTheQueue() {
+        registry.register(new TestListener("a", GA_1));
+
+        registry.dispatch(GA_1, listener -> {
+            throw new IllegalStateException("test");
+        });
+        registry.dispatch(GA_1, record("x"));
+        runTasks();
+
+        assertEquals(Arrays.asList("a:x"), delivered);
+    }
+
+    @Test
+    public void testRejectedExecutionDiscardsNotifications() {
+        List<Runnable> accepted = new ArrayList<>();
+        boolean[] reject = { true };
+        registry = new GroupAddressListenerRegistry(task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException("test");
+            }
+            accepted.add(task);
+        });
+        registry.register(new TestListener("a", GA_1));
+
+        registry.dispatch(GA_1, record("x"));
+        reject[0] = false;
+        registry.dispatch(GA_1, record("y"));
+        accepted.forEach(Runnable::run);
+
+        assertEquals(Arrays.asList("a:y"), delivered);
+    }
+
+    @Test
+    public void testModificationDuringDispatch() {
+        TestListener a = new TestListener("a", GA_1);
+        TestListener b = new TestListener("b", GA_1);
+        TestListener c = new TestListener("c", GA_1);
+        registry.register(a);
+        registry.register(b);
+
+        // the notification of one listener changes the registrations while the others are still pending
+        registry.dispatch(GA_1, listener -> {
+            delivered.add(((TestListener) listener).name + ":x");
+            registry.unregister(listener == a ? b : a);
+            registry.register(c);
+        });
+        runTasks();
+
+        assertEquals(1, delivered.size());
+
+        delivered.clear();
+        registry.dispatch(GA_1, record("y"));
+        runTasks();
+
+        assertEquals(2, delivered.size());
+        assertTrue(delivered.contains("c:y"));
+    }
+
+    @Test
+    public void testConcurrentModificationDuringDispatch() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            registry = new GroupAddressListenerRegistry(executor);
+            TestListener steady = new TestListener("steady", GA_1);
+            registry.register(steady);
+
+            Thread modifier = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    TestListener listener = new TestListener("l" + i, GA_1, GA_2);
+                    registry.register(listener);
+                    registry.unregister(listener);
+                }
+            });
+            modifier.start();
+            for (int i = 0; i < 1000; i++) {
+                final String value = Integer.toString(i);
+                registry.dispatch(GA_1, listener -> {
+                    if (listener == steady) {
+                        delivered.add(value);
+                    }
+                });
+            }
+            modifier.join();
+
+            long timeout = System.currentTimeMillis() + 5000;
+            while (delivered.size() < 1000 && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                expected.add(Integer.toString(i));
+            }
+            assertEquals(expected, delivered);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private Consumer<GroupAddressListener> record(String value) {
+        return listener -> delivered.add(((TestListener) listener).name + ":" + value);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static class TestListener implements GroupAddressListener {
+        private final String name;
+        private Set<GroupAddress> groupAddresses;
+
+        TestListener(String name, GroupAddress... groupAddresses) {
+            this.name = name;
+            this.groupAddresses = new HashSet<>(Arrays.asList(groupAddresses));
+        }
+
+        @Override
+        public Set<GroupAddress> getGroupAddresses() {
+            return groupAddresses;
+        }
+
+        @Override
+        public void onGroupWrite(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+
+        @Override
+        public void onGroupRead(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+
+        @Override
+        public void onGroupReadResponse(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ *
+ */
+public class ReadDatapointQueueTest {
+
+    private final ReadDatapointQueue queue = new ReadDatapointQueue();
+
+    @Test
+    public void testEmpty() {
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testFifoOrder() {
+        ReadDatapoint first = read(1);
+        ReadDatapoint second = read(2);
+        assertTrue(queue.add(first, false));
+        assertTrue(queue.add(second, false));
+
+        assertEquals(2, queue.size());
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testInitialReadsFirst() {
+        ReadDatapoint refresh = read(1);
+        ReadDatapoint initial = read(2);
+        queue.add(refresh, false);
+        queue.add(initial, true);
+
+        assertSame(initial, queue.poll());
+        assertSame(refresh, queue.poll());
+    }
+
+    @Test
+    public void testGroupAddressQueuedOnce() {
+        ReadDatapoint first = read(1);
+        assertTrue(queue.add(first, false));
+        assertFalse(queue.add(read(1), false));
+        assertTrue(queue.add(read(1), true));
+        assertFalse(queue.add(read(1), true));
+        assertFalse(queue.add(read(1), false));
+
+        assertEquals(1, queue.size());
+        // the pending read is promoted, so that its retries are kept
+        assertSame(first, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testPromotedReadOvertakesRefreshReads() {
+        ReadDatapoint first = read(1);
+        ReadDatapoint second = read(2);
+        queue.add(first, false);
+        queue.add(second, false);
+        queue.add(read(2), true);
+
+        assertSame(second, queue.poll());
+        assertSame(first, queue.poll());
+    }
+
+    @Test
+    public void testRequeueAfterPoll() {
+        ReadDatapoint datapoint = read(1);
+        queue.add(datapoint, true);
+        assertSame(datapoint, queue.poll());
+
+        assertTrue(queue.add(datapoint, false));
+        assertSame(datapoint, queue.poll());
+    }
+
+    @Test
+    public void testClear() {
+        queue.add(read(1), true);
+        queue.add(read(2), false);
+
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+    }
+
+    private static ReadDatapoint read(int subGroup) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(1, 2, subGroup), "test"), 3);
+    }
+}
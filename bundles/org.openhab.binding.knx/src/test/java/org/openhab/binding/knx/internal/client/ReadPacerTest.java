@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ *
+ */
+public class ReadPacerTest {
+
+    private static final int READING_PAUSE = 50;
+
+    private final ReadPacer pacer = new ReadPacer(READING_PAUSE);
+
+    @Test
+    public void testQuietBus() {
+        assertEquals(READING_PAUSE, pacer.nextPauseMillis());
+        pacer.onFrame();
+        pacer.onReadSucceeded();
+        assertEquals(READING_PAUSE, pacer.nextPauseMillis());
+    }
+
+    @Test
+    public void testBackoffOnFailures() {
+        pacer.onReadFailed();
+        assertEquals(2 * READING_PAUSE, pacer.nextPauseMillis());
+        pacer.onReadFailed();
+        assertEquals(4 * READING_PAUSE, pacer.nextPauseMillis());
+
+        pacer.onReadSucceeded();
+        assertEquals(READING_PAUSE, pacer.nextPauseMillis());
+    }
+
+    @Test
+    public void testBackoffIsCapped() {
+        for (int i = 0; i < 10; i++) {
+            pacer.onReadFailed();
+        }
+        assertEquals(16 * READING_PAUSE, pacer.nextPauseMillis());
+    }
+
+    @Test
+    public void testBusyBus() throws InterruptedException {
+        // 100 frames within the measuring window of a second are a busy bus
+        for (int i = 0; i < 100; i++) {
+            pacer.onFrame();
+        }
+        Thread.sleep(1100);
+
+        long pause = pacer.nextPauseMillis();
+        assertTrue("pause " + pause, pause > READING_PAUSE);
+        assertTrue("pause " + pause, pause <= 16 * READING_PAUSE);
+    }
+
+    @Test
+    public void testIdleWindowResetsLoad() throws InterruptedException {
+        ReadPacer pacer = new ReadPacer(READING_PAUSE);
+        for (int i = 0; i < 100; i++) {
+            pacer.onFrame();
+        }
+        // no frames for more than a whole window, the bus was idle
+        Thread.sleep(2100);
+
+        assertEquals(READING_PAUSE, pacer.nextPauseMillis());
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+
+/**
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ *
+ */
+public class ValueSnapshotTest {
+
+    private static final GroupAddress GA_1 = new GroupAddress(1, 2, 3);
+    private static final GroupAddress GA_2 = new GroupAddress(1, 2, 4);
+    private static final IndividualAddress SOURCE = new IndividualAddress(1, 1, 10);
+    private static final long MAX_AGE = 60_000;
+
+    private File folder;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("knx").toFile();
+        file = new File(new File(folder, "knx"), "snapshot");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        file.getParentFile().delete();
+        folder.delete();
+    }
+
+    @Test
+    public void testUpdateAndGet() {
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        assertNull(snapshot.get(GA_1, MAX_AGE));
+
+        snapshot.update(SOURCE, GA_1, new byte[] { 0x0c });
+        snapshot.update(SOURCE, GA_1, new byte[] { 0x0d });
+
+        ValueSnapshot.Value value = snapshot.get(GA_1, MAX_AGE);
+        assertNotNull(value);
+        assertEquals(SOURCE, value.getSource());
+        assertArrayEquals(new byte[] { 0x0d }, value.getAsdu());
+        assertNull(snapshot.get(GA_2, MAX_AGE));
+    }
+
+    @Test
+    public void testMaxAge() throws InterruptedException {
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        snapshot.update(SOURCE, GA_1, new byte[] { 1 });
+        Thread.sleep(20);
+
+        assertNull(snapshot.get(GA_1, 10));
+        assertNotNull(snapshot.get(GA_1, MAX_AGE));
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        snapshot.update(SOURCE, GA_1, new byte[] { 0x0c, 0x1a });
+        snapshot.update(new IndividualAddress(0, 0, 0), GA_2, new byte[] { 0 });
+        snapshot.save();
+        assertTrue(file.isFile());
+
+        ValueSnapshot loaded = new ValueSnapshot(file);
+        loaded.load();
+
+        ValueSnapshot.Value value = loaded.get(GA_1, MAX_AGE);
+        assertNotNull(value);
+        assertEquals(SOURCE, value.getSource());
+        assertArrayEquals(new byte[] { 0x0c, 0x1a }, value.getAsdu());
+        value = loaded.get(GA_2, MAX_AGE);
+        assertNotNull(value);
+        assertArrayEquals(new byte[] { 0 }, value.getAsdu());
+    }
+
+    @Test
+    public void testSaveReplacesTheSnapshot() {
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        snapshot.update(SOURCE, GA_1, new byte[] { 1 });
+        snapshot.save();
+        snapshot.update(SOURCE, GA_1, new byte[] { 2 });
+        snapshot.save();
+
+        assertArrayEquals(new String[] { file.getName() }, file.getParentFile().list());
+        ValueSnapshot loaded = new ValueSnapshot(file);
+        loaded.load();
+        ValueSnapshot.Value value = loaded.get(GA_1, MAX_AGE);
+        assertNotNull(value);
+        assertArrayEquals(new byte[] { 2 }, value.getAsdu());
+    }
+
+    @Test
+    public void testSaveOnlyWhenChanged() {
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        snapshot.save();
+        assertFalse(file.exists());
+
+        snapshot.update(SOURCE, GA_1, new byte[] { 1 });
+        snapshot.save();
+        assertTrue(file.delete());
+
+        snapshot.save();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testLoadMissingFile() {
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        snapshot.load();
+
+        assertNull(snapshot.get(GA_1, MAX_AGE));
+    }
+
+    @Test
+    public void testLoadIgnoresInvalidEntries() throws IOException {
+        file.getParentFile().mkdirs();
+        long now = System.currentTimeMillis();
+        String content = "1/2/3=" + now + ";1.1.10;0c\n" //
+                + "1/2/4=" + now + ";1.1.10;zz\n" //
+                + "not-an-address=" + now + ";1.1.10;0c\n" //
+                + "1/2/5=" + now + ";1.1.10\n" //
+                + "1/2/6=yesterday;1.1.10;0c\n";
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        snapshot.load();
+
+        assertNotNull(snapshot.get(GA_1, MAX_AGE));
+        assertNull(snapshot.get(GA_2, MAX_AGE));
+        assertNull(snapshot.get(new GroupAddress(1, 2, 5), MAX_AGE));
+        assertNull(snapshot.get(new GroupAddress(1, 2, 6), MAX_AGE));
+    }
+
+    @Test
+    public void testLoadKeepsNewerValues() {
+        ValueSnapshot stale = new ValueSnapshot(file);
+        stale.update(SOURCE, GA_1, new byte[] { 1 });
+        stale.save();
+
+        ValueSnapshot snapshot = new ValueSnapshot(file);
+        snapshot.update(SOURCE, GA_1, new byte[] { 2 });
+        snapshot.load();
+
+        ValueSnapshot.Value value = snapshot.get(GA_1, MAX_AGE);
+        assertNotNull(value);
+        assertArrayEquals(new byte[] { 2 }, value.getAsdu());
+    }
+}
@@ -12,11 +12,20 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -29,4 +38,59 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
+
+    @Test
+    public void testToDPTData_commonDPTs() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertArrayEquals(new byte[] { 1 }, mapper.toDPTData(OnOffType.ON, "1.001"));
+        assertArrayEquals(new byte[] { 0 }, mapper.toDPTData(UpDownType.UP, "1.008"));
+        assertArrayEquals(new byte[] { (byte) 0xff }, mapper.toDPTData(new PercentType(100), "5.001"));
+        assertArrayEquals(new byte[] { (byte) 0x80 }, mapper.toDPTData(new PercentType(50), "5.001"));
+        assertArrayEquals(new byte[] { 0x0c, 0x1a }, mapper.toDPTData(new DecimalType("21"), "9.001"));
+        assertArrayEquals(new byte[] { (byte) 0x87, (byte) 0xff }, mapper.toDPTData(new DecimalType("-0.01"), "9.001"));
+        assertArrayEquals(new byte[] { 0x40, 0x49, 0x0f, (byte) 0xdb },
+                mapper.toDPTData(new DecimalType("3.1415927"), "14.000"));
+        assertArrayEquals(new byte[] { (byte) 0xff, 0, 0 }, mapper.toDPTData(HSBType.fromRGB(255, 0, 0), "232.600"));
+    }
+
+    @Test
+    public void testToDPTData_fallsBackToTranslators() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertNull(mapper.toDPTData(new StringType("foo"), "9.001"));
+        assertNull(mapper.toDPTData(new DecimalType("1.5"), "5.010"));
+        assertNull(mapper.toDPTData(new DecimalType("-300"), "9.001"));
+        assertNull(mapper.toDPTData(new DecimalType("3"), "17.001"));
+    }
+
+    @Test
+    public void testToType_commonDPTs() throws Exception {
+        assertEquals(OnOffType.ON, toType("1.001", 1));
+        assertEquals(UpDownType.DOWN, toType("1.008", 1));
+        assertEquals(new PercentType(50), toType("5.001", 0x80));
+        assertEquals(new DecimalType(181), toType("5.003", 0x80));
+        assertEquals(new DecimalType(200), toType("5.010", 200));
+        assertEquals(new DecimalType("21.00"), toType("9.001", 0x0c, 0x1a));
+        assertEquals(new DecimalType("-0.01"), toType("9.001", 0x87, 0xff));
+        assertEquals(new DecimalType(3.1415927f), toType("14.000", 0x40, 0x49, 0x0f, 0xdb));
+        assertEquals(HSBType.fromRGB(255, 0, 0), toType("232.600", 0xff, 0, 0));
+    }
+
+    @Test
+    public void testToType_roundTrip() throws Exception {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        for (String value : new String[] { "-273", "-12.5", "0", "0.07", "21.46", "1234.56", "670760" }) {
+            byte[] data = mapper.toDPTData(new DecimalType(value), "9.001");
+            Type type = mapper.toType(new CommandDP(new GroupAddress("1/2/3"), "test", 0, "9.001"), data);
+            assertEquals(Double.parseDouble(value), ((DecimalType) type).doubleValue(),
+                    Math.abs(Double.parseDouble(value)) / 1000);
+        }
+    }
+
+    private static Type toType(String dpt, int... asdu) throws Exception {
+        byte[] data = new byte[asdu.length];
+        for (int i = 0; i < asdu.length; i++) {
+            data[i] = (byte) asdu[i];
+        }
+        return new KNXCoreTypeMapper().toType(new CommandDP(new GroupAddress("1/2/3"), "test", 0, dpt), data);
+    }
 }
@@ -31,6 +31,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.modbus.internal.AtomicStampedValue;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.RegisterDecodingPlan;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.io.transport.modbus.AsyncModbusFailure;
@@ -134,13 +135,13 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             AsyncModbusReadResult result = pollResult.result;
             @Nullable
             AsyncModbusFailure<ModbusReadRequestBlueprint> failure = pollResult.failure;
-            childCallbacks.forEach(handler -> {
-                if (result != null) {
-                    handler.onReadResult(result);
-                } else if (failure != null) {
-                    handler.handleReadError(failure);
+            if (result != null) {
+                synchronized (decodingPlan) {
+                    decodingPlan.dispatch(childCallbacks, result);
                 }
-            });
+            } else if (failure != null) {
+                childCallbacks.forEach(handler -> handler.handleReadError(failure));
+            }
         }
 
         /**
@@ -148,6 +149,9 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
          */
         public void resetCache() {
             lastResult = null;
+            synchronized (decodingPlan) {
+                decodingPlan.reset();
+            }
         }
     }
 
@@ -190,6 +194,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     private @NonNullByDefault({}) ModbusCommunicationInterface comms;
 
     private ReadCallbackDelegator callbackDelegator = new ReadCallbackDelegator();
+    private final RegisterDecodingPlan decodingPlan = new RegisterDecodingPlan();
 
     private @Nullable ModbusReadFunctionCode functionCode;
 
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Decoding of the polled registers for all data things of a poller.
+ *
+ * The plan is compiled once for the data things of the poller, and recompiled only when the data things or their read
+ * configuration change. Values are decoded from the registers as primitives, and the last decoded value of each data
+ * thing is remembered so that the data things can skip creating states for unchanged values.
+ *
+ * This class is not thread-safe, callers should synchronize the access.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+public class RegisterDecodingPlan {
+
+    /**
+     * Location and type of the value read by a data thing. Immutable.
+     */
+    public static class ValueLocation {
+        private final int index;
+        private final ValueType type;
+
+        /**
+         * @param index index of the value relative to the start of the poll, see
+         *            {@link ModbusBitUtilities#extractStateFromRegisters(ModbusRegisterArray, int, ValueType)}
+         * @param type value type
+         */
+        public ValueLocation(int index, ValueType type) {
+            this.index = index;
+            this.type = type;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public ValueType getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ValueLocation(index=%d, type=%s)", index, type);
+        }
+    }
+
+    private static class Entry {
+        private final ModbusDataThingHandler handler;
+        private final @Nullable ValueLocation location;
+        private long lastRawValue;
+        private boolean hasLastRawValue;
+
+        Entry(ModbusDataThingHandler handler, @Nullable ValueLocation location) {
+            this.handler = handler;
+            this.location = location;
+        }
+    }
+
+    private Entry[] entries = new Entry[0];
+
+    /**
+     * Deliver the polled data to the data things.
+     *
+     * Data things reading registers receive the decoded value with
+     * {@link ModbusDataThingHandler#onRegisterValue(AsyncModbusReadResult, long, boolean)}, other data things receive
+     * the result as is with {@link ModbusDataThingHandler#onReadResult(AsyncModbusReadResult)}.
+     *
+     * @param handlers data things of the poller
+     * @param result polled data
+     */
+    public void dispatch(List<ModbusDataThingHandler> handlers, AsyncModbusReadResult result) {
+        @Nullable
+        ModbusRegisterArray registers = result.getRegisters().orElse(null);
+        if (registers == null) {
+            handlers.forEach(handler -> handler.onReadResult(result));
+            return;
+        }
+        if (!isUpToDate(handlers)) {
+            compile(handlers);
+        }
+        for (Entry entry : entries) {
+            ValueLocation location = entry.location;
+            if (location == null) {
+                entry.handler.onReadResult(result);
+                continue;
+            }
+            long rawValue;
+            try {
+                rawValue = ModbusBitUtilities.extractRawValueFromRegisters(registers, location.index, location.type);
+            } catch (IllegalArgumentException e) {
+                // Out of bounds, let the data thing report the error
+                entry.handler.onReadResult(result);
+                continue;
+            }
+            boolean changed = !entry.hasLastRawValue || entry.lastRawValue != rawValue;
+            entry.lastRawValue = rawValue;
+            entry.hasLastRawValue = true;
+            entry.handler.onRegisterValue(result, rawValue, changed);
+        }
+    }
+
+    private boolean isUpToDate(List<ModbusDataThingHandler> handlers) {
+        if (handlers.size() != entries.length) {
+            return false;
+        }
+        int i = 0;
+        for (ModbusDataThingHandler handler : handlers) {
+            if (i >= entries.length) {
+                // handler added concurrently
+                return false;
+            }
+            Entry entry = entries[i++];
+            if (entry.handler != handler || entry.location != handler.getRegisterValueLocation()) {
+                return false;
+            }
+        }
+        return i == entries.length;
+    }
+
+    private void compile(List<ModbusDataThingHandler> handlers) {
+        List<ModbusDataThingHandler> snapshot = new ArrayList<>(handlers);
+        Entry[] compiled = new Entry[snapshot.size()];
+        int i = 0;
+        for (ModbusDataThingHandler handler : snapshot) {
+            Entry entry = new Entry(handler, handler.getRegisterValueLocation());
+            // keep the last values of the data things that did not change
+            for (Entry previous : entries) {
+                if (previous.handler == handler && previous.location == entry.location) {
+                    entry.lastRawValue = previous.lastRawValue;
+                    entry.hasLastRawValue = previous.hasLastRawValue;
+                    break;
+                }
+            }
+            compiled[i++] = entry;
+        }
+        entries = compiled;
+    }
+
+    /**
+     * Forget the last decoded values
+     */
+    public void reset() {
+        entries = new Entry[0];
+    }
+}
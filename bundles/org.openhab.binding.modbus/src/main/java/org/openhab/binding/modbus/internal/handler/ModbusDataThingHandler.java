@@ -58,6 +58,7 @@ import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.RegisterDecodingPlan.ValueLocation;
 import org.openhab.binding.modbus.internal.Transformation;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
 import org.openhab.io.transport.modbus.AsyncModbusFailure;
@@ -147,6 +148,11 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    private volatile @Nullable ValueLocation registerValueLocation;
+    /**
+     * Unchanged values are not processed before this time, unless lastReadSuccess channel is linked
+     */
+    private volatile long nextForcedUpdateMillis;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -176,6 +182,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             // We *schedule* the REFRESH to avoid dead-lock situation where poller is trying update this
             // data thing with cached data (resulting in deadlock in two synchronized methods: this (handleCommand) and
             // onRegisters.
+            // Process the refreshed data even if the value is unchanged
+            nextForcedUpdateMillis = 0;
             scheduler.schedule(() -> poller.refresh(), 0, TimeUnit.SECONDS);
             return;
         } else if (hasConfigurationError()) {
@@ -331,6 +339,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         // Long running initialization should be done asynchronously in background.
         try {
             logger.trace("initialize() of thing {} '{}' starting", thing.getUID(), thing.getLabel());
+            registerValueLocation = null;
+            nextForcedUpdateMillis = 0;
             ModbusDataConfiguration localConfig = config = getConfigAs(ModbusDataConfiguration.class);
             updateUnchangedValuesEveryMillis = localConfig.getUpdateUnchangedValuesEveryMillis();
             Bridge bridge = getBridge();
@@ -377,6 +387,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             validateAndParseReadParameters(localConfig);
             validateAndParseWriteParameters(localConfig);
             validateMustReadOrWrite();
+            registerValueLocation = createRegisterValueLocation();
 
             updateStatusIfChanged(ThingStatus.ONLINE);
         } catch (ModbusConfigurationException | EndpointNotInitializedException e) {
@@ -413,6 +424,15 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        registerValueLocation = null;
+        nextForcedUpdateMillis = 0;
+    }
+
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        // Make sure the newly linked channel receives the next polled value
+        nextForcedUpdateMillis = 0;
+        super.channelLinked(channelUID);
     }
 
     @Override
@@ -682,25 +702,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
         State numericState;
 
-        // extractIndex:
-        // e.g. with bit, extractIndex=4 means 5th bit (from right) ("10.4" -> 5th bit of register 10, "10.4" -> 5th bit
-        // of register 10)
-        // bit of second register)
-        // e.g. with 8bit integer, extractIndex=3 means high byte of second register
-        //
-        // with <16 bit types, this is the index of the N'th 1-bit/8-bit item. Each register has 16/2 items,
-        // respectively.
-        // with >=16 bit types, this is index of first register
-        int extractIndex;
-        if (readValueType.getBits() >= 16) {
-            // Invariant, checked in initialize
-            assert readSubIndex.orElse(0) == 0;
-            extractIndex = readIndex.get() - pollStart;
-        } else {
-            int subIndex = readSubIndex.orElse(0);
-            int itemsPerRegister = 16 / readValueType.getBits();
-            extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
-        }
+        int extractIndex = getExtractIndex(readValueType);
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
@@ -711,6 +713,85 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 boolValue, registers, request);
     }
 
+    /**
+     * Handle value decoded from the polled registers by the poller
+     *
+     * @param result polled data
+     * @param rawValue value decoded from the registers, see {@link ModbusBitUtilities#extractRawValueFromRegisters}
+     * @param changed whether the value has changed since the previous poll
+     */
+    public synchronized void onRegisterValue(AsyncModbusReadResult result, long rawValue, boolean changed) {
+        if (hasConfigurationError()) {
+            return;
+        } else if (!isReadEnabled) {
+            return;
+        }
+        ValueType readValueType = this.readValueType;
+        if (readValueType == null) {
+            return;
+        }
+        if (!changed && System.currentTimeMillis() < nextForcedUpdateMillis
+                && !isLinked(getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS))) {
+            // All channels are up-to-date already
+            updateStatusIfChanged(ThingStatus.ONLINE);
+            return;
+        }
+        State numericState = ModbusBitUtilities.rawValueToDecimalType(rawValue, readValueType)
+                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+        boolean boolValue = !numericState.equals(DecimalType.ZERO);
+        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        logger.debug(
+                "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, raw value {} (changed={}) -> numeric value {} and boolValue={}. Request {}",
+                thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), rawValue, changed,
+                numericState, boolValue, result.getRequest());
+    }
+
+    /**
+     * Get the location of the value read from the polled registers
+     *
+     * @return location of the value, or null if this thing is not reading registers
+     */
+    public @Nullable ValueLocation getRegisterValueLocation() {
+        return registerValueLocation;
+    }
+
+    private @Nullable ValueLocation createRegisterValueLocation() {
+        ModbusReadFunctionCode functionCode = this.functionCode;
+        ValueType readValueType = this.readValueType;
+        if (!isReadEnabled || readValueType == null || !readIndex.isPresent()
+                || (functionCode != ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS
+                        && functionCode != ModbusReadFunctionCode.READ_INPUT_REGISTERS)) {
+            return null;
+        }
+        return new ValueLocation(getExtractIndex(readValueType), readValueType);
+    }
+
+    /**
+     * Get index of the value in the polled registers
+     *
+     * e.g. with bit, extractIndex=4 means 5th bit (from right) ("10.4" -> 5th bit of register 10, "10.4" -> 5th bit
+     * of register 10)
+     * e.g. with 8bit integer, extractIndex=3 means high byte of second register
+     *
+     * with <16 bit types, this is the index of the N'th 1-bit/8-bit item. Each register has 16/2 items,
+     * respectively.
+     * with >=16 bit types, this is index of first register
+     *
+     * @param readValueType value type
+     * @return index of the value, see {@link ModbusBitUtilities#extractStateFromRegisters}
+     */
+    private int getExtractIndex(ValueType readValueType) {
+        if (readValueType.getBits() >= 16) {
+            // Invariant, checked in initialize
+            assert readSubIndex.orElse(0) == 0;
+            return readIndex.get() - pollStart;
+        } else {
+            int subIndex = readSubIndex.orElse(0);
+            int itemsPerRegister = 16 / readValueType.getBits();
+            return (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
+        }
+    }
+
     private synchronized void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
         if (hasConfigurationError()) {
             return;
@@ -894,6 +975,16 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             // Update channels that have not been updated in a while, or when their values has changed
             states.forEach((uid, state) -> updateExpiredChannel(now, uid, state));
             channelLastState = states;
+            if (updateUnchangedValuesEveryMillis <= 0L) {
+                // Every poll updates the channels
+                nextForcedUpdateMillis = 0;
+            } else {
+                long oldestUpdateMillis = now;
+                for (ChannelUID uid : states.keySet()) {
+                    oldestUpdateMillis = Math.min(oldestUpdateMillis, channelLastUpdated.getOrDefault(uid, 0L));
+                }
+                nextForcedUpdateMillis = oldestUpdateMillis + updateUnchangedValuesEveryMillis;
+            }
         }
     }
 
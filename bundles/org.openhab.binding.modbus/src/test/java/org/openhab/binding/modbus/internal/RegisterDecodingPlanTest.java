@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.openhab.binding.modbus.internal.RegisterDecodingPlan.ValueLocation;
+import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RegisterDecodingPlanTest {
+
+    private static final ModbusReadRequestBlueprint REQUEST = new ModbusReadRequestBlueprint(1,
+            ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, 1);
+
+    private final RegisterDecodingPlan plan = new RegisterDecodingPlan();
+
+    private @Mock ModbusDataThingHandler int16Handler;
+    private @Mock ModbusDataThingHandler uint32Handler;
+    private @Mock ModbusDataThingHandler uint8Handler;
+    private @Mock ModbusDataThingHandler otherHandler;
+
+    private static AsyncModbusReadResult registers(int... values) {
+        return new AsyncModbusReadResult(REQUEST, new ModbusRegisterArray(values));
+    }
+
+    /**
+     * Three data things reading overlapping parts of the first register and one not reading registers at all
+     */
+    private List<ModbusDataThingHandler> overlappingHandlers() {
+        when(int16Handler.getRegisterValueLocation()).thenReturn(new ValueLocation(0, ValueType.INT16));
+        when(uint32Handler.getRegisterValueLocation()).thenReturn(new ValueLocation(0, ValueType.UINT32));
+        when(uint8Handler.getRegisterValueLocation()).thenReturn(new ValueLocation(1, ValueType.UINT8));
+        when(otherHandler.getRegisterValueLocation()).thenReturn(null);
+        return Arrays.asList(int16Handler, uint32Handler, uint8Handler, otherHandler);
+    }
+
+    @Test
+    public void testOverlappingValuesAreDecodedForEveryDataThing() {
+        List<ModbusDataThingHandler> handlers = overlappingHandlers();
+        AsyncModbusReadResult result = registers(0xFF01, 2);
+
+        plan.dispatch(handlers, result);
+
+        verify(int16Handler).onRegisterValue(result, (short) 0xFF01, true);
+        verify(uint32Handler).onRegisterValue(result, 0xFF010002L, true);
+        verify(uint8Handler).onRegisterValue(result, 0xFF, true);
+        verify(otherHandler).onReadResult(result);
+        verify(int16Handler, never()).onReadResult(any());
+    }
+
+    @Test
+    public void testOnlyChangedValuesAreFlagged() {
+        List<ModbusDataThingHandler> handlers = overlappingHandlers();
+        plan.dispatch(handlers, registers(0xFF01, 2));
+
+        AsyncModbusReadResult unchanged = registers(0xFF01, 2);
+        plan.dispatch(handlers, unchanged);
+        verify(int16Handler).onRegisterValue(unchanged, (short) 0xFF01, false);
+        verify(uint32Handler).onRegisterValue(unchanged, 0xFF010002L, false);
+        verify(uint8Handler).onRegisterValue(unchanged, 0xFF, false);
+
+        // only the second register changes, which is read by the 32 bit data thing alone
+        AsyncModbusReadResult changed = registers(0xFF01, 3);
+        plan.dispatch(handlers, changed);
+        verify(int16Handler).onRegisterValue(changed, (short) 0xFF01, false);
+        verify(uint32Handler).onRegisterValue(changed, 0xFF010003L, true);
+        verify(uint8Handler).onRegisterValue(changed, 0xFF, false);
+    }
+
+    @Test
+    public void testFirstPollAfterResetIsFlaggedChanged() {
+        List<ModbusDataThingHandler> handlers = overlappingHandlers();
+        plan.dispatch(handlers, registers(0xFF01, 2));
+
+        // e.g. the poller reconnected
+        plan.reset();
+
+        AsyncModbusReadResult result = registers(0xFF01, 2);
+        plan.dispatch(handlers, result);
+        verify(int16Handler).onRegisterValue(result, (short) 0xFF01, true);
+        verify(uint32Handler).onRegisterValue(result, 0xFF010002L, true);
+        verify(uint8Handler).onRegisterValue(result, 0xFF, true);
+    }
+
+    @Test
+    public void testReinitializedDataThingIsFlaggedChanged() {
+        List<ModbusDataThingHandler> handlers = overlappingHandlers();
+        plan.dispatch(handlers, registers(0xFF01, 2));
+
+        // a re-initialized data thing creates a new location, even when the configuration is the same
+        when(int16Handler.getRegisterValueLocation()).thenReturn(new ValueLocation(0, ValueType.INT16));
+
+        AsyncModbusReadResult result = registers(0xFF01, 2);
+        plan.dispatch(handlers, result);
+        verify(int16Handler).onRegisterValue(result, (short) 0xFF01, true);
+        verify(uint32Handler).onRegisterValue(result, 0xFF010002L, false);
+        verify(uint8Handler).onRegisterValue(result, 0xFF, false);
+    }
+
+    @Test
+    public void testAddedDataThingKeepsValuesOfOthers() {
+        List<ModbusDataThingHandler> handlers = new ArrayList<>(overlappingHandlers());
+        plan.dispatch(handlers, registers(0xFF01, 2));
+
+        ModbusDataThingHandler added = mock(ModbusDataThingHandler.class);
+        when(added.getRegisterValueLocation()).thenReturn(new ValueLocation(1, ValueType.UINT16));
+        handlers.add(added);
+
+        AsyncModbusReadResult result = registers(0xFF01, 2);
+        plan.dispatch(handlers, result);
+        verify(added).onRegisterValue(result, 2, true);
+        verify(int16Handler).onRegisterValue(result, (short) 0xFF01, false);
+    }
+
+    @Test
+    public void testOutOfBoundsValueIsHandledByDataThing() {
+        when(uint32Handler.getRegisterValueLocation()).thenReturn(new ValueLocation(1, ValueType.INT32));
+        AsyncModbusReadResult result = registers(1, 2);
+
+        plan.dispatch(Arrays.asList(uint32Handler), result);
+
+        verify(uint32Handler).onReadResult(result);
+        verify(uint32Handler, never()).onRegisterValue(any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void testBitsAreHandledByDataThings() {
+        AsyncModbusReadResult result = new AsyncModbusReadResult(
+                new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_COILS, 0, 2, 1),
+                new BitArray(true, false));
+
+        plan.dispatch(Arrays.asList(int16Handler, otherHandler), result);
+
+        verify(int16Handler).onReadResult(result);
+        verify(otherHandler).onReadResult(result);
+    }
+}
@@ -73,6 +73,32 @@ public class NumberValue extends Value {
         return true;
     }
 
+    /**
+     * Plain numbers, which is what most MQTT devices and JSONPATH transformations deliver, are turned into a
+     * dimensionless {@link QuantityType} directly instead of going through the unit parser of {@link QuantityType}.
+     */
+    @Override
+    public @Nullable Command parseCommand(String value) {
+        if (isPlainNumber(value)) {
+            try {
+                return new QuantityType<>(new BigDecimal(value), AbstractUnit.ONE);
+            } catch (NumberFormatException ignored) {
+                // a quantity with unit or not a number at all
+            }
+        }
+        return super.parseCommand(value);
+    }
+
+    private static boolean isPlainNumber(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        char last = value.charAt(value.length() - 1);
+        return (Character.isDigit(first) || first == '-' || first == '+' || first == '.')
+                && (Character.isDigit(last) || last == '.');
+    }
+
     @Override
     public String getMQTTpublishValue(@Nullable String pattern) {
         if (state == UnDefType.UNDEF) {
@@ -27,6 +27,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.CommandDescriptionBuilder;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.StateDescriptionFragmentBuilder;
+import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.core.types.UnDefType;
 
 /**
@@ -80,6 +81,20 @@ public abstract class Value {
         return commandTypes;
     }
 
+    /**
+     * Parses an incoming MQTT value into one of the {@link #getSupportedCommandTypes()}.
+     * <p>
+     * The default implementation tries all supported command types in order. Subclasses may override this
+     * to parse their common formats directly.
+     * </p>
+     *
+     * @param value The incoming (and possibly transformed) MQTT value
+     * @return The command or null if the value is not supported by this type
+     */
+    public @Nullable Command parseCommand(String value) {
+        return TypeParser.parseCommand(commandTypes, value);
+    }
+
     /**
      * Returns the item-type (one of {@link CoreItemFactory}).
      */
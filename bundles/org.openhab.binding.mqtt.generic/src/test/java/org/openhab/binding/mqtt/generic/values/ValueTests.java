@@ -12,7 +12,7 @@
  */
 package org.openhab.binding.mqtt.generic.values;
 
-import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
@@ -23,6 +23,7 @@ import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
 import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.eclipse.smarthome.core.types.Command;
@@ -83,6 +84,18 @@ public class ValueTests {
         v.update(OnOffType.OFF);
     }
 
+    @Test
+    public void numberParseCommand() {
+        NumberValue v = new NumberValue(null, null, null, null);
+        // plain numbers result in the same command as the generic type parser produces
+        assertThat(v.parseCommand("23.2"), is(p(v, "23.2")));
+        assertThat(v.parseCommand("-5"), is(p(v, "-5")));
+        assertThat(v.parseCommand("-5"), is(instanceOf(QuantityType.class)));
+        assertThat(v.parseCommand("INCREASE"), is(IncreaseDecreaseType.INCREASE));
+        v.update(v.parseCommand("1e3"));
+        assertEquals(1000, ((DecimalType) v.getChannelState()).intValue());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void illegalPercentCommand() {
         PercentageValue v = new PercentageValue(null, null, null, null, null);
@@ -20,7 +20,6 @@ import java.net.UnknownHostException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +35,7 @@ import org.openhab.binding.network.internal.utils.NetworkUtils;
 import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
 import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
 import org.openhab.binding.network.internal.utils.PingResult;
+import org.openhab.binding.network.internal.utils.ProbeEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -280,13 +280,13 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     }
 
     public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
+        return ProbeEngine.getInstance().newDetectionExecutor();
     }
 
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The tests run on the bounded thread pool that is shared by
+     * all things, see {@link ProbeEngine}.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -650,7 +650,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     private void disableDHCPListen(@Nullable InetAddress destinationAddress) {
         if (destinationAddress != null) {
-            DHCPListenService.unregister(destinationAddress.getHostAddress());
+            DHCPListenService.unregister(destinationAddress.getHostAddress(), this);
             dhcpState = "off";
         }
     }
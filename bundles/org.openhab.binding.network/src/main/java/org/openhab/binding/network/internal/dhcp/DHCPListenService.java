@@ -14,7 +14,9 @@ package org.openhab.binding.network.internal.dhcp;
 
 import java.net.SocketException;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -26,15 +28,15 @@ import org.slf4j.LoggerFactory;
  * If the first one is registered and there is no singleton instance, an instance will be created and the
  * receiver thread will be started. If the last IPRequestReceivedCallback is removed, the thread will be stopped
  * after the receive socket is closed.
- * IPRequestReceivedCallback will be called for the address that is registered and matches the
- * DHO_DHCP_REQUESTED_ADDRESS address field.
+ * Every IPRequestReceivedCallback will be called for the address that is registered and matches the
+ * DHO_DHCP_REQUESTED_ADDRESS address field, so several things may listen for the same address.
  *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
 public class DHCPListenService {
     static @Nullable DHCPPacketListenerServer instance;
-    static Map<String, IPRequestReceivedCallback> registeredListeners = new TreeMap<>();
+    static Map<String, Set<IPRequestReceivedCallback>> registeredListeners = new TreeMap<>();
     static Logger logger = LoggerFactory.getLogger(DHCPListenService.class);
 
     @SuppressWarnings({ "null", "unused" })
@@ -43,9 +45,12 @@ public class DHCPListenService {
         DHCPPacketListenerServer instance = DHCPListenService.instance;
         if (instance == null) {
             instance = new DHCPPacketListenerServer((String ipAddress) -> {
-                IPRequestReceivedCallback listener = registeredListeners.get(ipAddress);
-                if (listener != null) {
-                    listener.dhcpRequestReceived(ipAddress);
+                Set<IPRequestReceivedCallback> listeners;
+                synchronized (registeredListeners) {
+                    listeners = registeredListeners.get(ipAddress);
+                }
+                if (listeners != null) {
+                    listeners.forEach(listener -> listener.dhcpRequestReceived(ipAddress));
                 } else {
                     logger.trace("DHCP request for unknown address: {}", ipAddress);
                 }
@@ -54,11 +59,14 @@ public class DHCPListenService {
             instance.start();
         }
         synchronized (registeredListeners) {
-            registeredListeners.put(hostAddress, dhcpListener);
+            registeredListeners.computeIfAbsent(hostAddress, k -> new CopyOnWriteArraySet<>()).add(dhcpListener);
         }
         return instance;
     }
 
+    /**
+     * Removes all listeners of the given address.
+     */
     public static void unregister(String hostAddress) {
         synchronized (registeredListeners) {
             registeredListeners.remove(hostAddress);
@@ -66,7 +74,34 @@ public class DHCPListenService {
                 return;
             }
         }
+        closeInstance();
+    }
 
+    /**
+     * Removes a single listener of the given address. Other listeners of the same address stay registered.
+     */
+    public static void unregister(String hostAddress, IPRequestReceivedCallback dhcpListener) {
+        synchronized (registeredListeners) {
+            Set<IPRequestReceivedCallback> listeners = registeredListeners.get(hostAddress);
+            if (listeners != null) {
+                listeners.remove(dhcpListener);
+                if (listeners.isEmpty()) {
+                    registeredListeners.remove(hostAddress);
+                }
+            }
+            if (!registeredListeners.isEmpty()) {
+                return;
+            }
+        }
+        closeInstance();
+    }
+
+    private static synchronized void closeInstance() {
+        synchronized (registeredListeners) {
+            if (!registeredListeners.isEmpty()) {
+                return; // Registered again in the meantime
+            }
+        }
         final DHCPPacketListenerServer instance = DHCPListenService.instance;
         if (instance != null) {
             instance.close();
@@ -19,8 +19,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -33,10 +31,10 @@ import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.network.internal.NetworkBindingConfiguration;
-import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -47,16 +45,17 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link NetworkDiscoveryService} is responsible for discovering devices on
  * the current Network. It uses every Network Interface which is connected to a network.
- * It tries common TCP ports to connect to, ICMP pings and ARP pings.
+ * It tries common TCP ports to connect to, ICMP pings and ARP pings. The networks are swept by a
+ * {@link SubnetSweep}, which reports devices as soon as they answer.
  *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
  */
 @NonNullByDefault
 @Component(service = DiscoveryService.class, immediate = true, configurationPid = "discovery.network")
-public class NetworkDiscoveryService extends AbstractDiscoveryService implements PresenceDetectionListener {
+public class NetworkDiscoveryService extends AbstractDiscoveryService
+        implements PresenceDetectionListener, SubnetSweep.Listener {
     static final int PING_TIMEOUT_IN_MS = 500;
-    static final int MAXIMUM_IPS_PER_INTERFACE = 255;
     private static final long DISCOVERY_RESULT_TTL = TimeUnit.MINUTES.toSeconds(10);
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
 
@@ -65,15 +64,23 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     // TCP port 1025 (Xbox / MS-RPC)
     private Set<Integer> tcpServicePorts = Collections
             .unmodifiableSet(Stream.of(80, 548, 554, 1025).collect(Collectors.toSet()));
-    private Integer scannedIPcount = 0;
-    private @Nullable ExecutorService executorService = null;
+    private @Nullable SubnetSweep sweep = null;
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
     private final NetworkUtils networkUtils = new NetworkUtils();
 
     public NetworkDiscoveryService() {
-        super(SUPPORTED_THING_TYPES_UIDS, (int) Math.round(
-                new NetworkUtils().getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE).size() * (PING_TIMEOUT_IN_MS / 1000.0)),
-                false);
+        super(SUPPORTED_THING_TYPES_UIDS, getScanTimeout(), false);
+    }
+
+    /**
+     * The sweep probes {@link SubnetSweep#MAX_HOSTS_IN_FLIGHT} hosts at a time, each taking at most an ICMP and an
+     * ARP ping timeout.
+     */
+    private static int getScanTimeout() {
+        long addressCount = SubnetSweep
+                .addressCount(SubnetSweep.addressRanges(new NetworkUtils().getInterfaceIPs()));
+        long rounds = (addressCount + SubnetSweep.MAX_HOSTS_IN_FLIGHT - 1) / SubnetSweep.MAX_HOSTS_IN_FLIGHT;
+        return (int) Math.max(1, Math.round(rounds * 2 * (PING_TIMEOUT_IN_MS / 1000.0)));
     }
 
     @Override
@@ -96,8 +103,9 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     @Override
     @Deactivate
     protected void deactivate() {
-        if (executorService != null) {
-            executorService.shutdown();
+        final SubnetSweep sweep = this.sweep;
+        if (sweep != null) {
+            sweep.cancel();
         }
         super.deactivate();
     }
@@ -119,65 +127,55 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     public void finalDetectionResult(PresenceDetectionValue value) {
     }
 
+    @Override
+    public void pingDeviceFound(String ip) {
+        newPingDevice(ip);
+    }
+
+    @Override
+    public void serviceDeviceFound(String ip, int tcpPort) {
+        newServiceDevice(ip, tcpPort);
+    }
+
+    @Override
+    public synchronized void sweepFinished(SubnetSweep finishedSweep, int scannedIPcount) {
+        logger.trace("Scan of {} IPs finished", scannedIPcount);
+        // a sweep replaced by a new scan must not end the new one
+        if (finishedSweep == sweep) {
+            stopScan();
+        }
+    }
+
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Starts a sweep of every IP on each interface on the network
      */
     @Override
-    protected void startScan() {
-        if (executorService == null) {
-            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
-        }
-        final ExecutorService service = executorService;
-        if (service == null) {
-            return;
+    protected synchronized void startScan() {
+        final SubnetSweep previousSweep = sweep;
+        if (previousSweep != null) {
+            previousSweep.cancel();
         }
         removeOlderResults(getTimestampOfLastScan(), null);
         logger.trace("Starting Network Device Discovery");
 
-        final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
-        scannedIPcount = 0;
-
-        for (String ip : networkIPs) {
-            final PresenceDetection s = new PresenceDetection(this, 2000);
-            s.setHostname(ip);
-            s.setIOSDevice(true);
-            s.setUseDhcpSniffing(false);
-            s.setTimeout(PING_TIMEOUT_IN_MS);
-            // Ping devices
-            s.setUseIcmpPing(true);
-            s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
-            // TCP devices
-            s.setServicePorts(tcpServicePorts);
-
-            service.execute(() -> {
-                Thread.currentThread().setName("Discovery thread " + ip);
-                s.performPresenceDetection(true);
-                synchronized (scannedIPcount) {
-                    scannedIPcount += 1;
-                    if (scannedIPcount == networkIPs.size()) {
-                        logger.trace("Scan of {} IPs successful", scannedIPcount);
-                        stopScan();
-                    }
-                }
-            });
-        }
+        final List<SubnetSweep.AddressRange> ranges = SubnetSweep.addressRanges(networkUtils.getInterfaceIPs());
+        final ArpPingUtilEnum arpPingUtilMethod = configuration.arpPingUtilMethod;
+        final SubnetSweep sweep = new SubnetSweep(ranges, tcpServicePorts, PING_TIMEOUT_IN_MS,
+                networkUtils.determinePingMethod(), arpPingUtilMethod != null ? arpPingUtilMethod
+                        : ArpPingUtilEnum.UNKNOWN_TOOL, configuration.arpPingToolPath, networkUtils, this);
+        this.sweep = sweep;
+        sweep.start();
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        final ExecutorService service = executorService;
-        if (service == null) {
+        final SubnetSweep sweep = this.sweep;
+        if (sweep == null) {
             return;
         }
-
-        try {
-            service.awaitTermination(PING_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt(); // Reset interrupt flag
-        }
-        service.shutdown();
-        executorService = null;
+        sweep.cancel();
+        this.sweep = null;
     }
 
     public static ThingUID createServiceUID(String ip, int tcpPort) {
@@ -186,7 +184,7 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Submit newly discovered devices. This method is called by the spawned threads in {@link startScan}.
+     * Submit newly discovered devices. This method is called by the probe threads of the {@link SubnetSweep}.
      *
      * @param ip The device IP
      * @param tcpPort The TCP port
@@ -229,7 +227,7 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     }
 
     /**
-     * Submit newly discovered devices. This method is called by the spawned threads in {@link startScan}.
+     * Submit newly discovered devices. This method is called by the probe threads of the {@link SubnetSweep}.
      *
      * @param ip The device IP
      */
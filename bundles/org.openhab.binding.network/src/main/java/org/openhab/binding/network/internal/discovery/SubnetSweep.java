@@ -0,0 +1,353 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.net.CidrAddress;
+import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.binding.network.internal.utils.NetworkUtils.ArpPingUtilEnum;
+import org.openhab.binding.network.internal.utils.NetworkUtils.IpPingMethodEnum;
+import org.openhab.binding.network.internal.utils.PingResult;
+import org.openhab.binding.network.internal.utils.ProbeEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SubnetSweep} probes every address of the given IPv4 networks and streams the reachable hosts to a
+ * {@link Listener} as soon as they answer.
+ *
+ * Only a fixed number of hosts is probed at the same time. A host is finished when all TCP ports and the ping have
+ * answered or timed out, and only then the next address is taken, so the memory and the number of open sockets do
+ * not depend on the size of the network. The addresses are computed from the network ranges on the fly and never
+ * collected.
+ *
+ * TCP ports are probed with the non-blocking connects of the {@link ProbeEngine}. The ICMP and ARP pings are
+ * executed on its shared thread pool, the ARP ping only if the host did not answer the ICMP ping.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class SubnetSweep {
+    /** Networks with a shorter prefix are truncated to this prefix, which are 65534 hosts */
+    static final int MINIMUM_CIDR_PREFIX_LENGTH = 16;
+    static final int MAX_HOSTS_IN_FLIGHT = 32;
+
+    private final Logger logger = LoggerFactory.getLogger(SubnetSweep.class);
+
+    /**
+     * Receives the sweep results. The methods are called from the probe threads.
+     */
+    interface Listener {
+        void pingDeviceFound(String ip);
+
+        void serviceDeviceFound(String ip, int tcpPort);
+
+        void sweepFinished(SubnetSweep sweep, int scannedIPcount);
+    }
+
+    /**
+     * The host addresses of a network, without the network and the broadcast address.
+     */
+    static class AddressRange {
+        final int first;
+        final int last;
+        final String interfaceName;
+
+        AddressRange(int first, int last, String interfaceName) {
+            this.first = first;
+            this.last = last;
+            this.interfaceName = interfaceName;
+        }
+
+        long size() {
+            return (last & 0xFFFFFFFFL) - (first & 0xFFFFFFFFL) + 1;
+        }
+    }
+
+    private final List<AddressRange> ranges;
+    private final Set<Integer> tcpPorts;
+    private final int timeoutInMS;
+    private final @Nullable IpPingMethodEnum pingMethod;
+    private final ArpPingUtilEnum arpPingMethod;
+    private final String arpPingUtilPath;
+    private final Listener listener;
+    private final NetworkUtils networkUtils;
+    private final ExecutorService executor = ProbeEngine.getInstance().newDetectionExecutor();
+
+    // Guarded by this
+    private int rangeIndex = 0;
+    private long nextAddress;
+    private int hostsInFlight = 0;
+    private int scannedIPcount = 0;
+    private boolean cancelled = false;
+
+    SubnetSweep(List<AddressRange> ranges, Set<Integer> tcpPorts, int timeoutInMS,
+            @Nullable IpPingMethodEnum pingMethod, ArpPingUtilEnum arpPingMethod, String arpPingUtilPath,
+            NetworkUtils networkUtils, Listener listener) {
+        this.ranges = ranges;
+        this.tcpPorts = tcpPorts;
+        this.timeoutInMS = timeoutInMS;
+        this.pingMethod = pingMethod;
+        this.arpPingMethod = arpPingMethod;
+        this.arpPingUtilPath = arpPingUtilPath;
+        this.networkUtils = networkUtils;
+        this.listener = listener;
+        this.nextAddress = ranges.isEmpty() ? 0 : ranges.get(0).first & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Determines the host address ranges of the IPv4 networks. Networks with a prefix shorter than
+     * {@link #MINIMUM_CIDR_PREFIX_LENGTH} are truncated, networks shared by several interfaces are only swept once.
+     *
+     * @param interfaceIPs The IPs which are assigned to the network interfaces
+     */
+    static List<AddressRange> addressRanges(Set<CidrAddress> interfaceIPs) {
+        Logger logger = LoggerFactory.getLogger(SubnetSweep.class);
+        List<AddressRange> ranges = new ArrayList<>();
+        Set<Long> networks = new HashSet<>();
+
+        for (CidrAddress cidrAddress : interfaceIPs) {
+            InetAddress address = cidrAddress.getAddress();
+            if (!(address instanceof Inet4Address)) {
+                continue;
+            }
+            int prefix = cidrAddress.getPrefix();
+            if (prefix < MINIMUM_CIDR_PREFIX_LENGTH) {
+                logger.info("CIDR prefix is smaller than /{} on interface with address {}, truncating to /{}",
+                        MINIMUM_CIDR_PREFIX_LENGTH, cidrAddress, MINIMUM_CIDR_PREFIX_LENGTH);
+                prefix = MINIMUM_CIDR_PREFIX_LENGTH;
+            }
+
+            byte[] bytes = address.getAddress();
+            int ip = ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8)
+                    | (bytes[3] & 0xFF);
+            int mask = -1 << (32 - prefix);
+            int network = ip & mask;
+            int broadcast = network | ~mask;
+            if (!networks.add(((long) network << 8) | prefix)) {
+                continue;
+            }
+
+            String interfaceName = "";
+            try {
+                NetworkInterface networkInterface = NetworkInterface.getByInetAddress(address);
+                if (networkInterface != null) {
+                    interfaceName = networkInterface.getName();
+                }
+            } catch (SocketException e) {
+                logger.debug("Cannot determine the interface of {}", address, e);
+            }
+
+            if (prefix >= 31) {
+                // Point-to-point links have no network and broadcast address
+                ranges.add(new AddressRange(network, broadcast, interfaceName));
+            } else {
+                ranges.add(new AddressRange(network + 1, broadcast - 1, interfaceName));
+            }
+        }
+        return ranges;
+    }
+
+    static long addressCount(List<AddressRange> ranges) {
+        return ranges.stream().mapToLong(AddressRange::size).sum();
+    }
+
+    /**
+     * Starts probing the first hosts. Returns immediately, the sweep continues on the probe threads.
+     */
+    void start() {
+        List<HostAddress> hosts = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < MAX_HOSTS_IN_FLIGHT; ++i) {
+                HostAddress host = nextHost();
+                if (host == null) {
+                    break;
+                }
+                hosts.add(host);
+            }
+            if (hosts.isEmpty()) {
+                cancelled = true;
+            }
+        }
+        if (hosts.isEmpty()) {
+            listener.sweepFinished(this, 0);
+            return;
+        }
+        hosts.forEach(this::probeHost);
+    }
+
+    /**
+     * Stops the sweep. Hosts which are probed right now are not reported anymore.
+     */
+    void cancel() {
+        synchronized (this) {
+            cancelled = true;
+        }
+        executor.shutdownNow();
+    }
+
+    synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    private static class HostAddress {
+        final InetAddress address;
+        final String interfaceName;
+
+        HostAddress(InetAddress address, String interfaceName) {
+            this.address = address;
+            this.interfaceName = interfaceName;
+        }
+    }
+
+    /**
+     * Takes the next address and counts it as in flight. Must be called with the lock held.
+     */
+    private @Nullable HostAddress nextHost() {
+        while (!cancelled && rangeIndex < ranges.size()) {
+            AddressRange range = ranges.get(rangeIndex);
+            if (nextAddress > (range.last & 0xFFFFFFFFL)) {
+                rangeIndex++;
+                if (rangeIndex < ranges.size()) {
+                    nextAddress = ranges.get(rangeIndex).first & 0xFFFFFFFFL;
+                }
+                continue;
+            }
+            int ip = (int) nextAddress++;
+            try {
+                InetAddress address = InetAddress.getByAddress(new byte[] { (byte) (ip >>> 24), (byte) (ip >>> 16),
+                        (byte) (ip >>> 8), (byte) ip });
+                hostsInFlight++;
+                return new HostAddress(address, range.interfaceName);
+            } catch (UnknownHostException e) {
+                // Not possible for 4 bytes
+            }
+        }
+        return null;
+    }
+
+    private void probeHost(HostAddress host) {
+        final String ip = host.address.getHostAddress();
+        final AtomicBoolean pingReachable = new AtomicBoolean();
+        final List<CompletableFuture<?>> probes = new ArrayList<>();
+
+        try {
+            probes.add(CompletableFuture.runAsync(() -> {
+                if (ping(host)) {
+                    pingReachable.set(true);
+                    if (!isCancelled()) {
+                        listener.pingDeviceFound(ip);
+                    }
+                }
+            }, executor));
+        } catch (RejectedExecutionException e) {
+            // Sweep was cancelled
+        }
+
+        for (int port : tcpPorts) {
+            probes.add(ProbeEngine.getInstance().tcpProbe(new InetSocketAddress(host.address, port), timeoutInMS)
+                    .thenAccept(result -> {
+                        // Hosts which answer pings are reported as ping devices only
+                        if (result.isSuccess() && !pingReachable.get()) {
+                            report(() -> listener.serviceDeviceFound(ip, port));
+                        }
+                    }));
+        }
+
+        CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[probes.size()]))
+                .whenComplete((ignored, e) -> hostFinished());
+    }
+
+    /**
+     * The TCP probes complete on the selector thread, so the results are handed over to the probe threads.
+     */
+    private void report(Runnable runnable) {
+        if (isCancelled()) {
+            return;
+        }
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            // Sweep was cancelled
+        }
+    }
+
+    private boolean ping(HostAddress host) {
+        final String ip = host.address.getHostAddress();
+        try {
+            final IpPingMethodEnum pingMethod = this.pingMethod;
+            if (pingMethod != null) {
+                Optional<PingResult> result = pingMethod == IpPingMethodEnum.JAVA_PING
+                        ? networkUtils.javaPing(timeoutInMS, host.address)
+                        : networkUtils.nativePing(pingMethod, ip, timeoutInMS);
+                if (result.map(PingResult::isSuccess).orElse(false)) {
+                    return true;
+                }
+            }
+            if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL && !isCancelled()) {
+                // Devices like iPhones only answer ARP pings after they have been woken up
+                networkUtils.wakeUpIOS(host.address);
+                Thread.sleep(50);
+                String interfaceName = arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS ? ""
+                        : host.interfaceName;
+                return networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName, ip, timeoutInMS)
+                        .map(PingResult::isSuccess).orElse(false);
+            }
+        } catch (IOException e) {
+            logger.trace("Failed to ping {}", ip, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Reset interrupt flag
+        }
+        return false;
+    }
+
+    private void hostFinished() {
+        HostAddress next;
+        boolean finished;
+        int scanned;
+        synchronized (this) {
+            hostsInFlight--;
+            scanned = ++scannedIPcount;
+            next = nextHost();
+            finished = next == null && hostsInFlight == 0 && !cancelled;
+            if (finished) {
+                cancelled = true;
+            }
+        }
+        if (next != null) {
+            probeHost(next);
+        } else if (finished) {
+            logger.trace("Scan of {} IPs successful", scanned);
+            executor.shutdown();
+            listener.sweepFinished(this, scanned);
+        }
+    }
+}
@@ -17,18 +17,16 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.SystemUtils;
-import org.apache.commons.net.util.SubnetUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.net.CidrAddress;
 import org.eclipse.smarthome.core.net.NetUtil;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Network utility functions for pinging and for determining all interfaces and assigned IP addresses.
@@ -37,7 +35,6 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class NetworkUtils {
-    private final Logger logger = LoggerFactory.getLogger(NetworkUtils.class);
 
     private LatencyParser latencyParser = new LatencyParser();
 
@@ -75,61 +72,6 @@ public class NetworkUtils {
         return result;
     }
 
-    /**
-     * Determines every IP which can be assigned on all available interfaces
-     *
-     * @param maximumPerInterface The maximum of IP addresses per interface or 0 to get all.
-     * @return Every single IP which can be assigned on the Networks the computer is connected to
-     */
-    public Set<String> getNetworkIPs(int maximumPerInterface) {
-        return getNetworkIPs(getInterfaceIPs(), maximumPerInterface);
-    }
-
-    /**
-     * Takes the interfaceIPs and fetches every IP which can be assigned on their network
-     *
-     * @param interfaceIPs The IPs which are assigned to the Network Interfaces
-     * @param maximumPerInterface The maximum of IP addresses per interface or 0 to get all.
-     * @return Every single IP which can be assigned on the Networks the computer is connected to
-     */
-    public Set<String> getNetworkIPs(Set<CidrAddress> interfaceIPs, int maximumPerInterface) {
-        LinkedHashSet<String> networkIPs = new LinkedHashSet<>();
-
-        short minCidrPrefixLength = 8; // historic Class A network, addresses = 16777214
-        if (maximumPerInterface != 0) {
-            // calculate minimum CIDR prefix length from maximumPerInterface
-            // (equals leading unset bits (Integer has 32 bits)
-            minCidrPrefixLength = (short) Integer.numberOfLeadingZeros(maximumPerInterface);
-            if (Integer.bitCount(maximumPerInterface) == 1) {
-                // if only the highest is set, decrease prefix by 1 to cover all addresses
-                minCidrPrefixLength--;
-            }
-        }
-        logger.trace("set minCidrPrefixLength to {}, maximumPerInterface is {}", minCidrPrefixLength,
-                maximumPerInterface);
-
-        for (CidrAddress cidrNotation : interfaceIPs) {
-            if (cidrNotation.getPrefix() < minCidrPrefixLength) {
-                logger.info(
-                        "CIDR prefix is smaller than /{} on interface with address {}, truncating to /{}, some addresses might be lost",
-                        minCidrPrefixLength, cidrNotation, minCidrPrefixLength);
-                cidrNotation = new CidrAddress(cidrNotation.getAddress(), minCidrPrefixLength);
-            }
-
-            SubnetUtils utils = new SubnetUtils(cidrNotation.toString());
-            String[] addresses = utils.getInfo().getAllAddresses();
-            int len = addresses.length;
-            if (maximumPerInterface != 0 && maximumPerInterface < len) {
-                len = maximumPerInterface;
-            }
-            for (int i = 0; i < len; i++) {
-                networkIPs.add(addresses[i]);
-            }
-        }
-
-        return networkIPs;
-    }
-
     /**
      * Try to establish a tcp connection to the given port. Returns false if a timeout occurred
      * or the connection was denied.
@@ -141,14 +83,14 @@ public class NetworkUtils {
      * @throws IOException
      */
     public Optional<PingResult> servicePing(String host, int port, int timeout) throws IOException {
-        double execStartTimeInMS = System.currentTimeMillis();
-
-        SocketAddress socketAddress = new InetSocketAddress(host, port);
-        try (Socket socket = new Socket()) {
-            socket.connect(socketAddress, timeout);
-            return Optional.of(new PingResult(true, System.currentTimeMillis() - execStartTimeInMS));
-        } catch (ConnectException | SocketTimeoutException | NoRouteToHostException ignored) {
-            return Optional.of(new PingResult(false, System.currentTimeMillis() - execStartTimeInMS));
+        try {
+            return Optional.of(ProbeEngine.getInstance().tcpProbe(new InetSocketAddress(host, port), timeout).get());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Reset interrupt flag
+            return Optional.empty();
         }
     }
 
@@ -219,12 +161,20 @@ public class NetworkUtils {
      */
     public Optional<PingResult> nativePing(@Nullable IpPingMethodEnum method, String hostname, int timeoutInMS)
             throws IOException, InterruptedException {
-        double execStartTimeInMS = System.currentTimeMillis();
-
-        Process proc;
         if (method == null) {
             return Optional.empty();
         }
+        final IpPingMethodEnum pingMethod = method;
+        // Things for the same host share the ping process
+        return ProbeEngine.getInstance().joinProbe("ping " + method + " " + hostname + " " + timeoutInMS,
+                () -> executeNativePing(pingMethod, hostname, timeoutInMS));
+    }
+
+    private Optional<PingResult> executeNativePing(IpPingMethodEnum method, String hostname, int timeoutInMS)
+            throws IOException, InterruptedException {
+        double execStartTimeInMS = System.currentTimeMillis();
+
+        Process proc;
         // Yes, all supported operating systems have their own ping utility with a different command line
         switch (method) {
             case IPUTILS_LINUX_PING:
@@ -299,11 +249,21 @@ public class NetworkUtils {
      */
     public Optional<PingResult> nativeARPPing(@Nullable ArpPingUtilEnum arpingTool, @Nullable String arpUtilPath,
             String interfaceName, String ipV4address, int timeoutInMS) throws IOException, InterruptedException {
-        double execStartTimeInMS = System.currentTimeMillis();
-
         if (arpUtilPath == null || arpingTool == null || arpingTool == ArpPingUtilEnum.UNKNOWN_TOOL) {
             return Optional.empty();
         }
+        final ArpPingUtilEnum tool = arpingTool;
+        final String toolPath = arpUtilPath;
+        // Things for the same host share the arping process
+        return ProbeEngine.getInstance().joinProbe(
+                "arping " + arpingTool + " " + interfaceName + " " + ipV4address + " " + timeoutInMS,
+                () -> executeNativeARPPing(tool, toolPath, interfaceName, ipV4address, timeoutInMS));
+    }
+
+    private Optional<PingResult> executeNativeARPPing(ArpPingUtilEnum arpingTool, String arpUtilPath,
+            String interfaceName, String ipV4address, int timeoutInMS) throws IOException, InterruptedException {
+        double execStartTimeInMS = System.currentTimeMillis();
+
         Process proc;
         if (arpingTool == ArpPingUtilEnum.THOMAS_HABERT_ARPING_WITHOUT_TIMEOUT) {
             proc = new ProcessBuilder(arpUtilPath, "-c", "1", "-i", interfaceName, ipV4address).start();
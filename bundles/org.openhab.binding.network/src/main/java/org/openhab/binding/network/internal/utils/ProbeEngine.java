@@ -0,0 +1,386 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ProbeEngine} is shared by all presence detections and the discovery of the binding.
+ *
+ * It provides
+ * * a bounded thread pool for the probes which have to block, like the native ping and arping processes,
+ * * the deduplication of identical process based probes which are running at the same time, so things for the same
+ * host share one ping or arping process,
+ * * non-blocking TCP connect probes, all served by a single selector thread, which ends when there is nothing to do.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+public class ProbeEngine {
+    private static final int MAX_PROBE_THREADS = 64;
+    private static final long SELECTOR_IDLE_TIMEOUT_MS = 60000;
+    private static final ProbeEngine INSTANCE = new ProbeEngine();
+
+    private final Logger logger = LoggerFactory.getLogger(ProbeEngine.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Optional<PingResult>>> runningProbes = new ConcurrentHashMap<>();
+
+    private final Object selectorLock = new Object();
+    private final Queue<TcpProbe> newTcpProbes = new ConcurrentLinkedQueue<>();
+    private @Nullable Selector selector;
+
+    /**
+     * A probe which blocks the calling thread.
+     */
+    @FunctionalInterface
+    public interface BlockingProbe {
+        Optional<PingResult> run() throws IOException, InterruptedException;
+    }
+
+    private ProbeEngine() {
+        executor = new ThreadPoolExecutor(MAX_PROBE_THREADS, MAX_PROBE_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("networkProbe", true));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static ProbeEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns an executor for the checks of a single detection. The tasks are run on the shared thread pool, but the
+     * returned executor can be shut down and awaited on its own.
+     */
+    public ExecutorService newDetectionExecutor() {
+        return new DetectionExecutor(executor);
+    }
+
+    /**
+     * Runs the probe, or waits for the result of an identical probe that is already running.
+     *
+     * @param key Identifies the probe, for example the tool, the interface and the address
+     * @param probe The probe
+     * @return Ping result information. Optional is empty if the probe was not executed or the shared probe was
+     *         interrupted.
+     */
+    public Optional<PingResult> joinProbe(String key, BlockingProbe probe) throws IOException, InterruptedException {
+        CompletableFuture<Optional<PingResult>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<PingResult>> running = runningProbes.putIfAbsent(key, future);
+        if (running == null) {
+            try {
+                Optional<PingResult> result = probe.run();
+                future.complete(result);
+                return result;
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                runningProbes.remove(key, future);
+            }
+        }
+
+        logger.trace("Joining running probe {}", key);
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Starts a non-blocking TCP connection attempt. The future is completed with a successful result if the connection
+     * could be established and with a failed result if it was refused or the timeout occurred. It completes
+     * exceptionally if the connection attempt could not be started, for example for an unresolvable address.
+     *
+     * @param address The address and port
+     * @param timeoutInMS Timeout in ms
+     */
+    public CompletableFuture<PingResult> tcpProbe(InetSocketAddress address, int timeoutInMS) {
+        CompletableFuture<PingResult> result = new CompletableFuture<>();
+        long startTimeInMS = System.currentTimeMillis();
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            if (channel.connect(address)) {
+                closeSilent(channel);
+                result.complete(new PingResult(true, System.currentTimeMillis() - startTimeInMS));
+                return result;
+            }
+        } catch (ConnectException | NoRouteToHostException e) {
+            closeSilent(channel);
+            result.complete(new PingResult(false, System.currentTimeMillis() - startTimeInMS));
+            return result;
+        } catch (IOException e) {
+            closeSilent(channel);
+            result.completeExceptionally(e);
+            return result;
+        } catch (UnresolvedAddressException e) {
+            closeSilent(channel);
+            result.completeExceptionally(new IOException("Unresolved address " + address));
+            return result;
+        }
+
+        synchronized (selectorLock) {
+            Selector selector = this.selector;
+            if (selector == null) {
+                try {
+                    selector = Selector.open();
+                } catch (IOException e) {
+                    closeSilent(channel);
+                    result.completeExceptionally(e);
+                    return result;
+                }
+                this.selector = selector;
+                final Selector runningSelector = selector;
+                Thread thread = new Thread(() -> runSelector(runningSelector), "networkProbeSelector");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            newTcpProbes.add(new TcpProbe(channel, result, startTimeInMS, startTimeInMS + timeoutInMS));
+            selector.wakeup();
+        }
+        return result;
+    }
+
+    private void runSelector(Selector selector) {
+        Set<TcpProbe> pendingProbes = new HashSet<>();
+        long idleSince = System.currentTimeMillis();
+        try {
+            while (true) {
+                TcpProbe newProbe;
+                while ((newProbe = newTcpProbes.poll()) != null) {
+                    try {
+                        newProbe.channel.register(selector, SelectionKey.OP_CONNECT, newProbe);
+                        pendingProbes.add(newProbe);
+                    } catch (IOException e) {
+                        newProbe.finish(false);
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                long nextDeadline = Long.MAX_VALUE;
+                for (Iterator<TcpProbe> it = pendingProbes.iterator(); it.hasNext();) {
+                    TcpProbe probe = it.next();
+                    if (probe.deadline <= now) {
+                        it.remove();
+                        probe.finish(false);
+                    } else {
+                        nextDeadline = Math.min(nextDeadline, probe.deadline);
+                    }
+                }
+
+                if (nextDeadline == Long.MAX_VALUE) {
+                    if (now - idleSince > SELECTOR_IDLE_TIMEOUT_MS) {
+                        synchronized (selectorLock) {
+                            if (newTcpProbes.isEmpty()) {
+                                this.selector = null;
+                                selector.close();
+                                return;
+                            }
+                        }
+                        continue;
+                    }
+                    selector.select(SELECTOR_IDLE_TIMEOUT_MS);
+                } else {
+                    idleSince = now;
+                    selector.select(Math.max(1, nextDeadline - now));
+                }
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    TcpProbe probe = (TcpProbe) key.attachment();
+                    boolean connected;
+                    try {
+                        connected = key.isValid() && probe.channel.finishConnect();
+                    } catch (IOException e) {
+                        connected = false;
+                    }
+                    pendingProbes.remove(probe);
+                    probe.finish(connected);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.debug("TCP probe selector stopped: {}", e.getMessage());
+            synchronized (selectorLock) {
+                if (this.selector == selector) {
+                    this.selector = null;
+                }
+                TcpProbe newProbe;
+                while ((newProbe = newTcpProbes.poll()) != null) {
+                    newProbe.finish(false);
+                }
+            }
+            for (TcpProbe probe : pendingProbes) {
+                probe.finish(false);
+            }
+            closeSilent(selector);
+        }
+    }
+
+    private static void closeSilent(@Nullable AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception ignored) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * A pending TCP connection attempt.
+     */
+    private static class TcpProbe {
+        private final SocketChannel channel;
+        private final CompletableFuture<PingResult> result;
+        private final long startTimeInMS;
+        private final long deadline;
+
+        TcpProbe(SocketChannel channel, CompletableFuture<PingResult> result, long startTimeInMS, long deadline) {
+            this.channel = channel;
+            this.result = result;
+            this.startTimeInMS = startTimeInMS;
+            this.deadline = deadline;
+        }
+
+        void finish(boolean connected) {
+            closeSilent(channel);
+            result.complete(new PingResult(connected, System.currentTimeMillis() - startTimeInMS));
+        }
+    }
+
+    /**
+     * Runs the tasks of one detection on the shared thread pool and tracks them, so that they can be awaited and
+     * cancelled independently of the other detections.
+     */
+    private static class DetectionExecutor extends AbstractExecutorService {
+        private final Executor executor;
+        private final Set<FutureTask<?>> tasks = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private boolean shutdown;
+        private int activeTasks;
+
+        DetectionExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(@Nullable Runnable command) {
+            if (command == null) {
+                throw new NullPointerException();
+            }
+            synchronized (this) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Detection has already finished");
+                }
+                activeTasks++;
+            }
+            FutureTask<@Nullable Void> task = new FutureTask<@Nullable Void>(command, null) {
+                @Override
+                protected void done() {
+                    tasks.remove(this);
+                    taskDone();
+                }
+            };
+            tasks.add(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.cancel(false);
+                throw e;
+            }
+        }
+
+        private synchronized void taskDone() {
+            activeTasks--;
+            if (shutdown && activeTasks == 0) {
+                terminated.countDown();
+            }
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+            if (activeTasks == 0) {
+                terminated.countDown();
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown();
+            for (FutureTask<?> task : tasks) {
+                task.cancel(true);
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return terminated.getCount() == 0;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, @Nullable TimeUnit unit) throws InterruptedException {
+            return terminated.await(timeout, unit != null ? unit : TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -17,10 +17,16 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.smarthome.config.discovery.DiscoveryListener;
 import org.eclipse.smarthome.config.discovery.DiscoveryResult;
+import org.eclipse.smarthome.core.net.CidrAddress;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -87,4 +93,79 @@ public class DiscoveryTest {
         Assert.assertThat(dresult.getProperties().get(NetworkBindingConstants.PARAMETER_HOSTNAME), is(ip));
         Assert.assertThat(dresult.getProperties().get(NetworkBindingConstants.PARAMETER_PORT), is(1010));
     }
+
+    @Test
+    public void hostRoute() throws UnknownHostException {
+        List<SubnetSweep.AddressRange> ranges = SubnetSweep.addressRanges(cidr("192.168.1.5", 32));
+
+        Assert.assertThat(ranges.size(), is(1));
+        Assert.assertThat(address(ranges.get(0).first), is("192.168.1.5"));
+        Assert.assertThat(address(ranges.get(0).last), is("192.168.1.5"));
+        Assert.assertThat(SubnetSweep.addressCount(ranges), is(1L));
+    }
+
+    @Test
+    public void pointToPointLink() throws UnknownHostException {
+        List<SubnetSweep.AddressRange> ranges = SubnetSweep.addressRanges(cidr("10.0.0.5", 31));
+
+        Assert.assertThat(address(ranges.get(0).first), is("10.0.0.4"));
+        Assert.assertThat(address(ranges.get(0).last), is("10.0.0.5"));
+        Assert.assertThat(SubnetSweep.addressCount(ranges), is(2L));
+    }
+
+    @Test
+    public void networkAndBroadcastAddressAreSkipped() throws UnknownHostException {
+        List<SubnetSweep.AddressRange> ranges = SubnetSweep.addressRanges(cidr("192.168.178.77", 24));
+
+        Assert.assertThat(address(ranges.get(0).first), is("192.168.178.1"));
+        Assert.assertThat(address(ranges.get(0).last), is("192.168.178.254"));
+        Assert.assertThat(SubnetSweep.addressCount(ranges), is(254L));
+    }
+
+    @Test
+    public void largeNetworkIsTruncated() throws UnknownHostException {
+        List<SubnetSweep.AddressRange> ranges = SubnetSweep.addressRanges(cidr("10.1.2.3", 8));
+
+        Assert.assertThat(address(ranges.get(0).first), is("10.1.0.1"));
+        Assert.assertThat(address(ranges.get(0).last), is("10.1.255.254"));
+        Assert.assertThat(SubnetSweep.addressCount(ranges), is(65534L));
+    }
+
+    @Test
+    public void multipleInterfaces() throws UnknownHostException {
+        // Two addresses in the same network, another network and an IPv6 address which is not swept
+        List<SubnetSweep.AddressRange> ranges = SubnetSweep.addressRanges(cidr("192.168.1.10", 24, "192.168.1.20",
+                24, "172.16.5.1", 24, "172.16.0.1", 16, "fe80::1", 64));
+
+        Assert.assertThat(ranges.size(), is(3));
+        Assert.assertThat(address(ranges.get(0).first), is("192.168.1.1"));
+        Assert.assertThat(address(ranges.get(1).first), is("172.16.5.1"));
+        Assert.assertThat(address(ranges.get(2).first), is("172.16.0.1"));
+        Assert.assertThat(SubnetSweep.addressCount(ranges), is(254L + 254L + 65534L));
+    }
+
+    @Test
+    public void noInterfaces() {
+        List<SubnetSweep.AddressRange> ranges = SubnetSweep.addressRanges(Collections.emptySet());
+
+        Assert.assertThat(ranges.size(), is(0));
+        Assert.assertThat(SubnetSweep.addressCount(ranges), is(0L));
+    }
+
+    /**
+     * Creates the interface addresses from pairs of address and prefix length, in the given order.
+     */
+    private static Set<CidrAddress> cidr(Object... addressesAndPrefixes) throws UnknownHostException {
+        Set<CidrAddress> result = new LinkedHashSet<>();
+        for (int i = 0; i < addressesAndPrefixes.length; i += 2) {
+            result.add(new CidrAddress(InetAddress.getByName((String) addressesAndPrefixes[i]),
+                    ((Integer) addressesAndPrefixes[i + 1]).shortValue()));
+        }
+        return result;
+    }
+
+    private static String address(int ip) throws UnknownHostException {
+        return InetAddress.getByAddress(
+                new byte[] { (byte) (ip >>> 24), (byte) (ip >>> 16), (byte) (ip >>> 8), (byte) ip }).getHostAddress();
+    }
 }
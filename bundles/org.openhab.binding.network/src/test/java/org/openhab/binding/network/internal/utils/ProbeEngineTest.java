@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.network.internal.utils.ProbeEngine.BlockingProbe;
+
+/**
+ * Tests the deduplication of identical probes and the TCP probes of the {@link ProbeEngine}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class ProbeEngineTest {
+    private static final int JOINERS = 3;
+
+    private final ProbeEngine probeEngine = ProbeEngine.getInstance();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private ExecutorService executor;
+    private String key;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        // the engine is a singleton, so every test uses its own keys
+        key = "ping:" + System.nanoTime();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void identicalProbesAreExecutedOnce() throws Exception {
+        PingResult pingResult = new PingResult(true, 5);
+
+        List<Future<Optional<PingResult>>> results = runConcurrently(() -> Optional.of(pingResult));
+
+        for (Future<Optional<PingResult>> result : results) {
+            Assert.assertSame(pingResult, result.get(5, TimeUnit.SECONDS).get());
+        }
+        Assert.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void timeoutIsDeliveredToAllJoiners() throws Exception {
+        // a ping that timed out reports an unsuccessful result
+        PingResult timedOut = new PingResult(false, 1000);
+
+        List<Future<Optional<PingResult>>> results = runConcurrently(() -> Optional.of(timedOut));
+
+        for (Future<Optional<PingResult>> result : results) {
+            Assert.assertFalse(result.get(5, TimeUnit.SECONDS).get().isSuccess());
+        }
+        Assert.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void failureIsDeliveredToAllJoiners() throws Exception {
+        IOException failure = new IOException("Cannot run program \"arping\"");
+
+        List<Future<Optional<PingResult>>> results = runConcurrently(() -> {
+            throw failure;
+        });
+
+        for (Future<Optional<PingResult>> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                Assert.fail("IOException expected");
+            } catch (ExecutionException e) {
+                Assert.assertSame(failure, e.getCause());
+            }
+        }
+        Assert.assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void interruptedProbeIsEmptyForTheJoiners() throws Exception {
+        List<Future<Optional<PingResult>>> results = runConcurrently(() -> {
+            throw new InterruptedException();
+        });
+
+        try {
+            results.get(0).get(5, TimeUnit.SECONDS);
+            Assert.fail("InterruptedException expected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        for (Future<Optional<PingResult>> result : results.subList(1, results.size())) {
+            Assert.assertFalse(result.get(5, TimeUnit.SECONDS).isPresent());
+        }
+    }
+
+    @Test
+    public void differentProbesAreNotJoined() throws Exception {
+        Future<Optional<PingResult>> owner = executor.submit(() -> probeEngine.joinProbe(key, blockingProbe(
+                () -> Optional.of(new PingResult(true, 1)))));
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Optional<PingResult> other = probeEngine.joinProbe(key + ":other", () -> {
+            runs.incrementAndGet();
+            return Optional.of(new PingResult(false, 2));
+        });
+
+        Assert.assertFalse(other.get().isSuccess());
+        Assert.assertFalse(owner.isDone());
+        release.countDown();
+        Assert.assertTrue(owner.get(5, TimeUnit.SECONDS).get().isSuccess());
+        Assert.assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void finishedProbeIsExecutedAgain() throws Exception {
+        BlockingProbe probe = () -> {
+            runs.incrementAndGet();
+            return Optional.of(new PingResult(true, 1));
+        };
+
+        probeEngine.joinProbe(key, probe);
+        probeEngine.joinProbe(key, probe);
+
+        Assert.assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void probeIsExecutedAgainAfterAFailure() throws Exception {
+        try {
+            probeEngine.joinProbe(key, () -> {
+                throw new IOException("test");
+            });
+            Assert.fail("IOException expected");
+        } catch (IOException e) {
+            // expected
+        }
+
+        Optional<PingResult> result = probeEngine.joinProbe(key, () -> Optional.of(new PingResult(true, 1)));
+
+        Assert.assertTrue(result.get().isSuccess());
+    }
+
+    @Test
+    public void tcpProbeConnects() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            PingResult result = probeEngine
+                    .tcpProbe(new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()),
+                            5000)
+                    .get(5, TimeUnit.SECONDS);
+
+            Assert.assertTrue(result.isSuccess());
+        }
+    }
+
+    @Test
+    public void tcpProbeIsRefused() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = serverSocket.getLocalPort();
+        }
+
+        PingResult result = probeEngine.tcpProbe(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 5000)
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertFalse(result.isSuccess());
+    }
+
+    /**
+     * Starts the probe and, while it is running, the same probe {@link #JOINERS} times. Returns the results of the
+     * first probe and of the joiners.
+     */
+    private List<Future<Optional<PingResult>>> runConcurrently(BlockingProbe probe) throws Exception {
+        List<Future<Optional<PingResult>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> probeEngine.joinProbe(key, blockingProbe(probe))));
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<Thread> joiners = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < JOINERS; i++) {
+            results.add(executor.submit(() -> {
+                joiners.add(Thread.currentThread());
+                return probeEngine.joinProbe(key, blockingProbe(probe));
+            }));
+        }
+        awaitWaiting(joiners);
+
+        release.countDown();
+        return results;
+    }
+
+    private BlockingProbe blockingProbe(BlockingProbe probe) {
+        return () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            release.await();
+            return probe.run();
+        };
+    }
+
+    /**
+     * Waits until all joiners are waiting for the result of the running probe.
+     */
+    private static void awaitWaiting(List<Thread> joiners) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < timeout) {
+            synchronized (joiners) {
+                if (joiners.size() == JOINERS
+                        && joiners.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        Assert.fail("Joiners did not wait for the running probe");
+    }
+}
@@ -17,8 +17,10 @@ import java.io.StringReader;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,6 +60,20 @@ public class SonosXMLParser {
                     + "<desc id=\"cdudn\" nameSpace=\"urn:schemas-rinconnetworks-com:metadata-1-0/\">" + "{4}</desc>"
                     + "</item></DIDL-Lite>");
 
+    /**
+     * The XML readers are expensive to create and not thread safe, so each thread reuses its own reader
+     */
+    private static final ThreadLocal<@Nullable XMLReader> XML_READERS = new ThreadLocal<>();
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+    /**
+     * The track and URI metadata and the zone group state are requested again and again by all players, so the
+     * results of the latest documents are kept
+     */
+    private static final int PARSE_CACHE_SIZE = 32;
+    private static final Map<String, SonosMetaData> METADATA_CACHE = createParseCache();
+    private static final Map<String, List<SonosZoneGroup>> ZONE_GROUP_CACHE = createParseCache();
+
     private enum Element {
         TITLE,
         CLASS,
@@ -83,6 +99,44 @@ public class SonosXMLParser {
         desc
     }
 
+    private static <T> Map<String, T> createParseCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<String, T>(PARSE_CACHE_SIZE, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, T> eldest) {
+                return size() > PARSE_CACHE_SIZE;
+            }
+        });
+    }
+
+    /**
+     * Parses the xml string with the SAX reader of the current thread.
+     */
+    private static void parse(String xml, DefaultHandler handler) throws IOException, SAXException {
+        parse(new InputSource(new StringReader(xml)), handler);
+    }
+
+    /**
+     * Parses the source with the SAX reader of the current thread.
+     */
+    private static void parse(InputSource source, DefaultHandler handler) throws IOException, SAXException {
+        XMLReader reader = XML_READERS.get();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+            XML_READERS.set(reader);
+        }
+        // handlers might parse embedded documents, so the reader is taken from the thread while it is in use
+        XML_READERS.remove();
+        reader.setContentHandler(handler);
+        try {
+            reader.parse(source);
+        } finally {
+            reader.setContentHandler(NO_HANDLER);
+            XML_READERS.set(reader);
+        }
+    }
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -92,9 +146,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -112,9 +164,10 @@ public class SonosXMLParser {
     public static List<SonosEntry> getEntriesFromString(String xml) {
         EntryHandler handler = new EntryHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            if (!StreamingXMLParser.parse(xml, handler)) {
+                handler = new EntryHandler();
+                parse(xml, handler);
+            }
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
@@ -133,11 +186,12 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static @Nullable SonosResourceMetaData getResourceMetaData(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         ResourceMetaDataHandler handler = new ResourceMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            if (!StreamingXMLParser.parse(xml, handler)) {
+                handler = new ResourceMetaDataHandler();
+                parse(xml, handler);
+            }
         } catch (IOException e) {
             LOGGER.error("Could not parse Resource MetaData from String '{}'", xml);
         } catch (SAXException s) {
@@ -154,11 +208,20 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
+        // all players receive the same zone group state, so it is parsed only once
+        List<SonosZoneGroup> groups = ZONE_GROUP_CACHE.get(xml);
+        if (groups != null) {
+            return groups;
+        }
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            if (!StreamingXMLParser.parse(xml, handler)) {
+                handler = new ZoneGroupHandler();
+                parse(xml, handler);
+            }
+            groups = Collections.unmodifiableList(handler.getGroups());
+            ZONE_GROUP_CACHE.put(xml, groups);
+            return groups;
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
@@ -172,9 +235,7 @@ public class SonosXMLParser {
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -188,9 +249,10 @@ public class SonosXMLParser {
     public static Map<String, @Nullable String> getRenderingControlFromXML(String xml) {
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            if (!StreamingXMLParser.parse(xml, handler)) {
+                handler = new RenderingControlEventHandler();
+                parse(xml, handler);
+            }
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
@@ -203,9 +265,10 @@ public class SonosXMLParser {
     public static Map<String, @Nullable String> getAVTransportFromXML(String xml) {
         AVTransportEventHandler handler = new AVTransportEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            if (!StreamingXMLParser.parse(xml, handler)) {
+                handler = new AVTransportEventHandler();
+                parse(xml, handler);
+            }
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
@@ -216,11 +279,19 @@ public class SonosXMLParser {
     }
 
     public static SonosMetaData getMetaDataFromXML(String xml) {
+        SonosMetaData metaData = METADATA_CACHE.get(xml);
+        if (metaData != null) {
+            return metaData;
+        }
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            if (!StreamingXMLParser.parse(xml, handler)) {
+                handler = new MetaDataHandler();
+                parse(xml, handler);
+            }
+            metaData = handler.getMetaData();
+            METADATA_CACHE.put(xml, metaData);
+            return metaData;
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
@@ -234,9 +305,7 @@ public class SonosXMLParser {
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -919,10 +988,8 @@ public class SonosXMLParser {
     public static @Nullable String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), roomNameHandler);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -958,10 +1025,8 @@ public class SonosXMLParser {
     public static @Nullable String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), modelNameHandler);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
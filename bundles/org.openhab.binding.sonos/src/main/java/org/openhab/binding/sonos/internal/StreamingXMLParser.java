@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.apache.commons.lang.StringEscapeUtils;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * The {@link StreamingXMLParser} is a lightweight replacement of the SAX parser for the small and well-formed documents
+ * sent by the Zone Players, mainly the LastChange events and DIDL-Lite metadata.
+ *
+ * It scans the string in a single pass and reports elements and text to a SAX {@link DefaultHandler} the same way a
+ * namespace aware SAX parser would, so the existing handlers can be used with both parsers. Documents with a DTD, CDATA
+ * sections or processing instructions are not supported and have to be parsed with the SAX parser instead.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class StreamingXMLParser {
+
+    private final String xml;
+    private final DefaultHandler handler;
+    private final Deque<String> openElements = new ArrayDeque<>();
+    private final AttributesImpl attributes = new AttributesImpl();
+    private int pos;
+
+    private StreamingXMLParser(String xml, DefaultHandler handler) {
+        this.xml = xml;
+        this.handler = handler;
+    }
+
+    /**
+     * Parses the document and reports it to the handler.
+     *
+     * @return false if the document is not supported or malformed, the handler may have received a part of the
+     *         document in this case
+     */
+    static boolean parse(String xml, DefaultHandler handler) throws SAXException {
+        return new StreamingXMLParser(xml, handler).parse();
+    }
+
+    private boolean parse() throws SAXException {
+        handler.startDocument();
+        int length = xml.length();
+        while (pos < length) {
+            int tagStart = xml.indexOf('<', pos);
+            if (tagStart < 0) {
+                tagStart = length;
+            }
+            if (tagStart > pos && !openElements.isEmpty()) {
+                characters(xml.substring(pos, tagStart));
+            }
+            if (tagStart == length) {
+                break;
+            }
+            pos = tagStart + 1;
+            if (xml.startsWith("?xml ", pos) && tagStart == 0) {
+                // the XML declaration
+                int end = xml.indexOf("?>", pos);
+                if (end < 0) {
+                    return false;
+                }
+                pos = end + 2;
+            } else if (xml.startsWith("!--", pos)) {
+                int end = xml.indexOf("-->", pos);
+                if (end < 0) {
+                    return false;
+                }
+                pos = end + 3;
+            } else if (xml.startsWith("/", pos)) {
+                if (!endTag()) {
+                    return false;
+                }
+            } else if (!startTag()) {
+                return false;
+            }
+        }
+        handler.endDocument();
+        return openElements.isEmpty();
+    }
+
+    private boolean startTag() throws SAXException {
+        int nameEnd = nameEnd(pos);
+        if (nameEnd == pos) {
+            // CDATA, DTD, processing instructions or garbage
+            return false;
+        }
+        String qName = xml.substring(pos, nameEnd);
+        pos = nameEnd;
+        attributes.clear();
+        boolean empty = false;
+        while (true) {
+            skipWhitespace();
+            if (pos >= xml.length()) {
+                return false;
+            }
+            char c = xml.charAt(pos);
+            if (c == '>') {
+                pos++;
+                break;
+            } else if (c == '/') {
+                if (!xml.startsWith("/>", pos)) {
+                    return false;
+                }
+                pos += 2;
+                empty = true;
+                break;
+            }
+            int attributeNameEnd = nameEnd(pos);
+            if (attributeNameEnd == pos) {
+                return false;
+            }
+            String attributeName = xml.substring(pos, attributeNameEnd);
+            pos = attributeNameEnd;
+            skipWhitespace();
+            if (pos >= xml.length() || xml.charAt(pos) != '=') {
+                return false;
+            }
+            pos++;
+            skipWhitespace();
+            if (pos >= xml.length()) {
+                return false;
+            }
+            char quote = xml.charAt(pos);
+            if (quote != '"' && quote != '\'') {
+                return false;
+            }
+            int valueEnd = xml.indexOf(quote, pos + 1);
+            if (valueEnd < 0) {
+                return false;
+            }
+            String value = unescape(xml.substring(pos + 1, valueEnd));
+            pos = valueEnd + 1;
+            // namespace declarations are not reported as attributes by the SAX parser
+            if (!attributeName.equals("xmlns") && !attributeName.startsWith("xmlns:")) {
+                attributes.addAttribute("", localName(attributeName), attributeName, "CDATA", value);
+            }
+        }
+
+        handler.startElement("", localName(qName), qName, attributes);
+        if (empty) {
+            handler.endElement("", localName(qName), qName);
+        } else {
+            openElements.push(qName);
+        }
+        return true;
+    }
+
+    private boolean endTag() throws SAXException {
+        int nameStart = pos + 1;
+        int nameEnd = nameEnd(nameStart);
+        int end = xml.indexOf('>', nameEnd);
+        if (end < 0 || openElements.isEmpty()) {
+            return false;
+        }
+        String qName = xml.substring(nameStart, nameEnd);
+        if (!qName.equals(openElements.pop())) {
+            return false;
+        }
+        pos = end + 1;
+        handler.endElement("", localName(qName), qName);
+        return true;
+    }
+
+    private void characters(String text) throws SAXException {
+        char[] ch = unescape(text).toCharArray();
+        handler.characters(ch, 0, ch.length);
+    }
+
+    private int nameEnd(int start) {
+        int end = start;
+        while (end < xml.length()) {
+            char c = xml.charAt(end);
+            if (Character.isLetterOrDigit(c) || c == ':' || c == '_' || c == '-' || c == '.') {
+                end++;
+            } else {
+                break;
+            }
+        }
+        return end;
+    }
+
+    private void skipWhitespace() {
+        while (pos < xml.length() && Character.isWhitespace(xml.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static String localName(String qName) {
+        int separator = qName.indexOf(':');
+        return separator < 0 ? qName : qName.substring(separator + 1);
+    }
+
+    private static String unescape(String text) {
+        return text.indexOf('&') < 0 ? text : StringEscapeUtils.unescapeXml(text);
+    }
+}
@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -130,6 +131,11 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
     private final Map<String, @Nullable String> stateMap = Collections.synchronizedMap(new HashMap<>());
 
+    /**
+     * The latest LastChange payload per service, identical events are not parsed again
+     */
+    private final Map<String, String> lastChangeByService = new ConcurrentHashMap<>();
+
     private @Nullable ScheduledFuture<?> pollingJob;
     private @Nullable SonosZonePlayerState savedState;
 
@@ -405,7 +411,11 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
             // pre-process some variables, eg XML processing
             if (service.equals("AVTransport") && variable.equals("LastChange")) {
+                if (!hasValueChanged(value, lastChangeByService.put(service, value))) {
+                    return;
+                }
                 Map<String, @Nullable String> parsedValues = SonosXMLParser.getAVTransportFromXML(value);
+                removeIgnoredVariableUpdates(parsedValues);
                 for (String parsedValue : parsedValues.keySet()) {
                     // Update the transport state after the update of the media information
                     // to not break the notification mechanism
@@ -427,7 +437,11 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             }
 
             if (service.equals("RenderingControl") && variable.equals("LastChange")) {
+                if (!hasValueChanged(value, lastChangeByService.put(service, value))) {
+                    return;
+                }
                 Map<String, @Nullable String> parsedValues = SonosXMLParser.getRenderingControlFromXML(value);
+                removeIgnoredVariableUpdates(parsedValues);
                 for (String parsedValue : parsedValues.keySet()) {
                     onValueReceived(parsedValue, parsedValues.get(parsedValue), "RenderingControl");
                 }
@@ -835,15 +849,33 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     /**
      * CurrentURI will not change, but will trigger change of CurrentURIFormated
      * CurrentTrackMetaData will not change, but will trigger change of Title, Artist, Album
+     * AVTransportURI and AVTransportURIMetaData are not ignored as long as they differ from CurrentURI and
+     * CurrentURIMetaData they are translated to
      */
-    private boolean shouldIgnoreVariableUpdate(String variable, String value, @Nullable String oldValue) {
-        return !hasValueChanged(value, oldValue) && !isQueueEvent(variable);
+    private boolean shouldIgnoreVariableUpdate(String variable, @Nullable String value, @Nullable String oldValue) {
+        if (hasValueChanged(value, oldValue) || isQueueEvent(variable)) {
+            return false;
+        } else if (variable.equals("AVTransportURI")) {
+            return !hasValueChanged(value, stateMap.get("CurrentURI"));
+        } else if (variable.equals("AVTransportURIMetaData")) {
+            return !hasValueChanged(value, stateMap.get("CurrentURIMetaData"));
+        }
+        return true;
     }
 
     private boolean hasValueChanged(@Nullable String value, @Nullable String oldValue) {
         return oldValue != null ? !oldValue.equals(value) : value != null;
     }
 
+    /**
+     * Removes the values of a LastChange event which would be ignored anyway, so that only the changed ones are
+     * propagated.
+     */
+    private void removeIgnoredVariableUpdates(Map<String, @Nullable String> parsedValues) {
+        parsedValues.entrySet().removeIf(
+                entry -> shouldIgnoreVariableUpdate(entry.getKey(), entry.getValue(), stateMap.get(entry.getKey())));
+    }
+
     /**
      * Similar to the AVTransport eventing, the Queue events its state variables
      * as sub values within a synthesized LastChange state variable.
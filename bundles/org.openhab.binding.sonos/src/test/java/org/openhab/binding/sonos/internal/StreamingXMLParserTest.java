@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+/**
+ * Tests that the {@link StreamingXMLParser} reports the documents sent by the Zone Players the same way as the SAX
+ * parser used by {@link SonosXMLParser} before.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class StreamingXMLParserTest {
+
+    private static final String TRACK_METADATA = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\"><item id=\"-1\" parentID=\"-1\" restricted=\"true\">"
+            + "<res protocolInfo=\"x-file-cifs:*:audio/x-ms-wma:*\" duration=\"0:03:02\">x-file-cifs://192.168.1.1/Storage4/"
+            + "Sonos%20Music/Queens%20Of%20The%20Stone%20Age/Lullabies%20To%20Paralyze/Queens%20Of%20The%20Stone%20Age%20-"
+            + "%20Lullabies%20To%20Paralyze%20-%2012%20-%20Broken%20Box.wma</res><r:streamContent></r:streamContent>"
+            + "<upnp:albumArtURI>/getaa?u=x-file-cifs%3a%2f%2f192.168.1.1%2fStorage4%2fBroken%2520Box.wma&amp;v=2"
+            + "</upnp:albumArtURI><dc:title>Broken Box</dc:title><upnp:class>object.item.audioItem.musicTrack</upnp:class>"
+            + "<dc:creator>Queens Of The Stone Age</dc:creator><upnp:album>Lullabies To Paralyze</upnp:album>"
+            + "<r:albumArtist>Queens Of The Stone Age</r:albumArtist></item></DIDL-Lite>";
+
+    private static final String RADIO_METADATA = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\"><item id=\"-1\" parentID=\"-1\" restricted=\"true\">"
+            + "<res protocolInfo=\"x-rincon-mp3radio:*:*:*\">x-rincon-mp3radio://stream.example.com/live.mp3</res>"
+            + "<r:streamContent>Daft Punk - Get Lucky (feat. Pharrell Williams &amp; Nile Rodgers)</r:streamContent>"
+            + "<dc:title>live.mp3</dc:title><upnp:class>object.item</upnp:class></item></DIDL-Lite>";
+
+    private static final String AV_TRANSPORT_EVENT = "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\" "
+            + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\"><InstanceID val=\"0\">"
+            + "<TransportState val=\"PLAYING\"/><CurrentPlayMode val=\"SHUFFLE_NOREPEAT\"/>"
+            + "<CurrentCrossfadeMode val=\"0\"/><NumberOfTracks val=\"29\"/><CurrentTrack val=\"12\"/>"
+            + "<CurrentSection val=\"0\"/><CurrentTrackURI val=\"x-file-cifs://192.168.1.1/Storage4/Sonos%20Music/"
+            + "Queens%20Of%20The%20Stone%20Age%20-%20Lullabies%20To%20Paralyze%20-%2012%20-%20Broken%20Box.wma\"/>"
+            + "<CurrentTrackDuration val=\"0:03:02\"/><CurrentTrackMetaData val=\"" + escape(TRACK_METADATA) + "\"/>"
+            + "<r:NextTrackURI val=\"x-file-cifs://192.168.1.1/Storage4/Sonos%20Music/&apos;&apos;You%20Got%20A"
+            + "%20Killer%20Scene%20There,%20Man...&apos;&apos;.wma\"/><r:NextTrackMetaData val=\"\"/>"
+            + "<r:EnqueuedTransportURI val=\"x-rincon-playlist:RINCON_000E582126EE01400#A:ALBUMARTIST/Queens%20Of"
+            + "%20The%20Stone%20Age\"/><r:EnqueuedTransportURIMetaData val=\"\"/>"
+            + "<PlaybackStorageMedium val=\"NETWORK\"/><AVTransportURI val=\"x-rincon-queue:RINCON_000E5812BC1801400#0\"/>"
+            + "<AVTransportURIMetaData val=\"\"/><CurrentTransportActions val=\"Play, Stop, Pause, Seek, Next, "
+            + "Previous\"/><TransportStatus val=\"OK\"/><r:SleepTimerGeneration val=\"0\"/><r:AlarmRunning val=\"0\"/>"
+            + "<r:SnoozeRunning val=\"0\"/><r:RestartPending val=\"0\"/><TransportPlaySpeed val=\"NOT_IMPLEMENTED\"/>"
+            + "<CurrentMediaDuration val=\"NOT_IMPLEMENTED\"/><NextAVTransportURI val=\"NOT_IMPLEMENTED\"/>"
+            + "<NextAVTransportURIMetaData val=\"NOT_IMPLEMENTED\"/></InstanceID></Event>";
+
+    private static final String RENDERING_CONTROL_EVENT = "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/RCS/\">"
+            + "<InstanceID val=\"0\"><Volume channel=\"Master\" val=\"25\"/><Volume channel=\"LF\" val=\"100\"/>"
+            + "<Volume channel=\"RF\" val=\"100\"/><Mute channel=\"Master\" val=\"0\"/><Mute channel=\"LF\" val=\"0\"/>"
+            + "<Mute channel=\"RF\" val=\"0\"/><Bass val=\"0\"/><Treble val=\"-2\"/>"
+            + "<Loudness channel=\"Master\" val=\"1\"/><OutputFixed val=\"0\"/><HeadphoneConnected val=\"0\"/>"
+            + "<SpeakerSize val=\"3\"/><SubGain val=\"0\"/><SubCrossover val=\"0\"/><SubPolarity val=\"0\"/>"
+            + "<SubEnabled val=\"1\"/><NightMode val=\"0\"/><DialogLevel val=\"1\"/>"
+            + "<PresetNameList>FactoryDefaults</PresetNameList></InstanceID></Event>";
+
+    private static final String ZONE_GROUP_STATE = "<ZoneGroups>"
+            + "<ZoneGroup Coordinator=\"RINCON_000E58A0B1C201400\" ID=\"RINCON_000E58A0B1C201400:58\">"
+            + "<ZoneGroupMember UUID=\"RINCON_000E58A0B1C201400\" Location=\"http://192.168.1.20:1400/xml/"
+            + "device_description.xml\" ZoneName=\"Living Room\" Icon=\"x-rincon-roomicon:living\" Configuration=\"1\" "
+            + "SoftwareVersion=\"57.3-77280\" MinCompatibleVersion=\"56.0-00000\" BootSeq=\"114\" "
+            + "WirelessMode=\"0\" HasConfiguredSSID=\"1\" ChannelFreq=\"2412\"/>"
+            + "<ZoneGroupMember UUID=\"RINCON_000E58C3D4E501400\" Location=\"http://192.168.1.21:1400/xml/"
+            + "device_description.xml\" ZoneName=\"Kitchen &amp; Dining\" Icon=\"x-rincon-roomicon:kitchen\" "
+            + "Configuration=\"1\" SoftwareVersion=\"57.3-77280\"/></ZoneGroup>"
+            + "<ZoneGroup Coordinator=\"RINCON_5CAAFD0A1B2C01400\" ID=\"RINCON_5CAAFD0A1B2C01400:12\">"
+            + "<ZoneGroupMember UUID=\"RINCON_5CAAFD0A1B2C01400\" Location=\"http://192.168.1.22:1400/xml/"
+            + "device_description.xml\" ZoneName=\"Bedroom\" Icon=\"x-rincon-roomicon:bedroom\" Configuration=\"1\" "
+            + "SoftwareVersion=\"57.3-77280\" Invisible=\"1\"/></ZoneGroup></ZoneGroups>";
+
+    private static final String BROWSE_RESULT = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\">"
+            + "<container id=\"SQ:0\" parentID=\"SQ:\" restricted=\"true\"><dc:title>Party</dc:title>"
+            + "<res protocolInfo=\"file:*:audio/mpegurl:*\">file:///jffs/settings/savedqueues.rsq#0</res>"
+            + "<upnp:class>object.container.playlistContainer</upnp:class></container>"
+            + "<item id=\"FV:2/3\" parentID=\"FV:2\" restricted=\"false\"><dc:title>Radio Paradise</dc:title>"
+            + "<upnp:class>object.itemobject.item.sonos-favorite</upnp:class><r:ordinal>2</r:ordinal>"
+            + "<res protocolInfo=\"x-rincon-mp3radio:*:*:*\">x-sonosapi-stream:s13606?sid=254&amp;flags=8224&amp;sn=0</res>"
+            + "<upnp:albumArtURI>https://cdn-profiles.tunein.com/s13606/images/logoq.png</upnp:albumArtURI>"
+            + "<r:type>instantPlay</r:type><r:description>TuneIn</r:description>"
+            + "<r:resMD>" + escape(RADIO_METADATA) + "</r:resMD></item></DIDL-Lite>";
+
+    @Test
+    public void avTransportEventIsReportedLikeTheSAXParser() throws Exception {
+        assertSameEvents(AV_TRANSPORT_EVENT);
+    }
+
+    @Test
+    public void renderingControlEventIsReportedLikeTheSAXParser() throws Exception {
+        assertSameEvents(RENDERING_CONTROL_EVENT);
+    }
+
+    @Test
+    public void metaDataIsReportedLikeTheSAXParser() throws Exception {
+        assertSameEvents(TRACK_METADATA);
+        assertSameEvents(RADIO_METADATA);
+    }
+
+    @Test
+    public void zoneGroupStateIsReportedLikeTheSAXParser() throws Exception {
+        assertSameEvents(ZONE_GROUP_STATE);
+    }
+
+    @Test
+    public void browseResultIsReportedLikeTheSAXParser() throws Exception {
+        assertSameEvents(BROWSE_RESULT);
+    }
+
+    @Test
+    public void declarationCommentsAndWhitespaceAreReportedLikeTheSAXParser() throws Exception {
+        assertSameEvents("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- zone groups -->\n<ZoneGroups>\n"
+                + "  <ZoneGroup Coordinator='RINCON_1' ID = 'RINCON_1:1' >\n"
+                + "    <ZoneGroupMember UUID=\"RINCON_1\" ZoneName=\"&lt;Office&gt; &quot;1&quot;\" />\n"
+                + "  </ZoneGroup>\n</ZoneGroups>\n");
+    }
+
+    @Test
+    public void unsupportedDocumentsAreLeftToTheSAXParser() throws Exception {
+        assertThat(StreamingXMLParser.parse("<a><![CDATA[<b>]]></a>", new DefaultHandler()), is(false));
+        assertThat(StreamingXMLParser.parse("<!DOCTYPE a><a/>", new DefaultHandler()), is(false));
+        assertThat(StreamingXMLParser.parse("<a><?pi x?></a>", new DefaultHandler()), is(false));
+    }
+
+    @Test
+    public void malformedDocumentsAreLeftToTheSAXParser() throws Exception {
+        assertThat(StreamingXMLParser.parse("<a><b></a></b>", new DefaultHandler()), is(false));
+        assertThat(StreamingXMLParser.parse("<a><b>", new DefaultHandler()), is(false));
+        assertThat(StreamingXMLParser.parse("<a val=\"1></a>", new DefaultHandler()), is(false));
+        assertThat(StreamingXMLParser.parse("<a val=1/>", new DefaultHandler()), is(false));
+        assertThat(StreamingXMLParser.parse("</a>", new DefaultHandler()), is(false));
+    }
+
+    @Test
+    public void avTransportEventIsParsed() {
+        Map<String, String> changes = SonosXMLParser.getAVTransportFromXML(AV_TRANSPORT_EVENT);
+
+        assertThat(changes.get("TransportState"), is("PLAYING"));
+        assertThat(changes.get("CurrentPlayMode"), is("SHUFFLE_NOREPEAT"));
+        assertThat(changes.get("AVTransportURI"), is("x-rincon-queue:RINCON_000E5812BC1801400#0"));
+        assertThat(changes.get("AVTransportURIMetaData"), is(""));
+        assertThat(changes.get("NextTrackURI"), is(containsString("''You%20Got%20A%20Killer")));
+        assertThat(changes.get("CurrentTrackMetaData"), is(TRACK_METADATA));
+
+        SonosMetaData metaData = SonosXMLParser.getMetaDataFromXML(changes.get("CurrentTrackMetaData"));
+        assertThat(metaData.getTitle(), is("Broken Box"));
+        assertThat(metaData.getCreator(), is("Queens Of The Stone Age"));
+        assertThat(metaData.getAlbum(), is("Lullabies To Paralyze"));
+        assertThat(metaData.getAlbumArtist(), is("Queens Of The Stone Age"));
+        assertThat(metaData.getAlbumArtUri(), is(containsString("Broken%2520Box.wma&v=2")));
+        assertThat(metaData.getUpnpClass(), is("object.item.audioItem.musicTrack"));
+    }
+
+    @Test
+    public void renderingControlEventIsParsed() {
+        Map<String, String> changes = SonosXMLParser.getRenderingControlFromXML(RENDERING_CONTROL_EVENT);
+
+        assertThat(changes.get("VolumeMaster"), is("25"));
+        assertThat(changes.get("MuteMaster"), is("0"));
+        assertThat(changes.get("Treble"), is("-2"));
+        assertThat(changes.get("LoudnessMaster"), is("1"));
+        assertThat(changes.get("PresetNameList"), is("FactoryDefaults"));
+    }
+
+    @Test
+    public void zoneGroupStateIsParsed() {
+        List<SonosZoneGroup> groups = SonosXMLParser.getZoneGroupFromXML(ZONE_GROUP_STATE);
+
+        assertThat(groups.size(), is(2));
+        assertThat(groups.get(0).getCoordinator(), is("RINCON_000E58A0B1C201400"));
+        assertThat(groups.get(0).getMembers().size(), is(2));
+        assertThat(groups.get(0).getMemberZoneNames(), hasItem("Kitchen & Dining"));
+        assertThat(groups.get(1).getId(), is("RINCON_5CAAFD0A1B2C01400:12"));
+    }
+
+    @Test
+    public void browseResultIsParsed() {
+        List<SonosEntry> entries = SonosXMLParser.getEntriesFromString(BROWSE_RESULT);
+
+        assertThat(entries.size(), is(2));
+        assertThat(entries.get(0).getTitle(), is("Party"));
+        assertThat(entries.get(1).getRes(), is("x-sonosapi-stream:s13606?sid=254&flags=8224&sn=0"));
+        SonosResourceMetaData resourceMetaData = entries.get(1).getResourceMetaData();
+        assertThat(resourceMetaData, is(notNullValue()));
+    }
+
+    private static void assertSameEvents(String xml) throws Exception {
+        RecordingHandler expected = new RecordingHandler();
+        XMLReader reader = XMLReaderFactory.createXMLReader();
+        reader.setContentHandler(expected);
+        reader.parse(new InputSource(new StringReader(xml)));
+
+        RecordingHandler actual = new RecordingHandler();
+        assertThat(StreamingXMLParser.parse(xml, actual), is(true));
+
+        assertThat(actual.getEvents(), is(expected.getEvents()));
+    }
+
+    private static String escape(String xml) {
+        return xml.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Records the reported elements and attributes, the text between two elements is merged as the SAX parser may
+     * report it in several parts.
+     */
+    private static class RecordingHandler extends DefaultHandler {
+        private final List<String> events = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            flushText();
+            StringBuilder event = new StringBuilder("start ").append(localName).append(' ').append(qName);
+            for (int i = 0; i < attributes.getLength(); i++) {
+                event.append(' ').append(attributes.getLocalName(i)).append("=").append(attributes.getValue(i));
+            }
+            events.add(event.toString());
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            flushText();
+            events.add("end " + localName + " " + qName);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            text.append(ch, start, length);
+        }
+
+        @Override
+        public void endDocument() {
+            flushText();
+            events.add("end document");
+        }
+
+        private void flushText() {
+            if (text.length() > 0) {
+                events.add("text " + text);
+                text.setLength(0);
+            }
+        }
+
+        public List<String> getEvents() {
+            return events;
+        }
+    }
+}
@@ -12,10 +12,19 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.StateChangeListener;
@@ -31,11 +40,27 @@ import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
  * HomeKit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * State changes are not passed to HomeKit on the event thread. They are collected for a short time and the changed
+ * characteristics are notified together afterwards. A characteristic that changed several times in that time is
+ * notified once with its latest value, e.g. while a dimmer is ramping up.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitAccessoryUpdater {
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+
+    // changed subscriptions, which are notified with the next batch
+    private final Set<Subscription> pendingNotifications = new LinkedHashSet<>();
+    private @Nullable ScheduledFuture<?> notificationJob;
+    // how long to collect state changes before notifying the HomeKit clients. in ms.
+    private volatile int notificationDelay = 50;
+
+    public void setNotificationDelay(int notificationDelay) {
+        this.notificationDelay = Math.max(0, notificationDelay);
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -50,14 +75,14 @@ public class HomekitAccessoryUpdater {
             logger.trace("The received subscription contains a null callback, skipping");
             return;
         }
-        ItemKey itemKey = new ItemKey(item, key);
+        ItemKey itemKey = new ItemKey(item.getName(), key);
         subscriptionsByName.compute(itemKey, (k, v) -> {
             if (v != null) {
                 logger.debug("Received duplicate subscription for {} / {}", item, key);
-                unsubscribe(item, key);
+                v.cancel();
             }
             logger.trace("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(item, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -71,32 +96,99 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
+        subscriptionsByName.computeIfPresent(new ItemKey(item.getName(), key), (k, v) -> {
             logger.trace("Removing existing subscription for {} / {}", item, key);
-            item.removeStateChangeListener(v);
+            v.cancel();
             return null;
         });
     }
 
-    @FunctionalInterface
+    /**
+     * Moves the subscriptions of an item to a new instance of the item, e.g. after the item was updated in the item
+     * registry but the accessory stayed the same.
+     *
+     * @param item new instance of the item
+     */
+    public void rebind(GenericItem item) {
+        subscriptionsByName.forEach((k, v) -> {
+            if (k.itemName.equals(item.getName()) && v.item != item) {
+                logger.trace("Moving subscription for {} / {} to the new item instance", item, k.key);
+                subscriptionsByName.computeIfPresent(k, (key, subscription) -> {
+                    subscription.item.removeStateChangeListener(subscription);
+                    subscription.item = item;
+                    item.addStateChangeListener(subscription);
+                    return subscription;
+                });
+            }
+        });
+    }
+
+    /**
+     * Adds a changed subscription to the next batch and schedules the batch if not already done.
+     */
+    private void notifyLater(Subscription subscription) {
+        synchronized (pendingNotifications) {
+            pendingNotifications.add(subscription);
+            if (notificationJob == null) {
+                notificationJob = scheduler.schedule(this::sendNotifications, notificationDelay,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void sendNotifications() {
+        final List<Subscription> subscriptions;
+        synchronized (pendingNotifications) {
+            subscriptions = new ArrayList<>(pendingNotifications);
+            pendingNotifications.clear();
+            notificationJob = null;
+        }
+        logger.trace("Notifying {} changed characteristics", subscriptions.size());
+        for (Subscription subscription : subscriptions) {
+            if (subscription.active) {
+                try {
+                    subscription.callback.changed();
+                } catch (RuntimeException e) {
+                    logger.warn("Could not notify HomeKit about the change of {}: {}", subscription.item.getName(),
+                            e.getMessage());
+                }
+            }
+        }
+    }
+
     @NonNullByDefault
-    private interface Subscription extends StateChangeListener {
+    private class Subscription implements StateChangeListener {
+        private final HomekitCharacteristicChangeCallback callback;
+        private volatile GenericItem item;
+        private volatile boolean active = true;
+
+        Subscription(GenericItem item, HomekitCharacteristicChangeCallback callback) {
+            this.item = item;
+            this.callback = callback;
+        }
+
+        void cancel() {
+            active = false;
+            item.removeStateChangeListener(this);
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item changedItem, State oldState, State newState) {
+            notifyLater(this);
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item changedItem, State state) {
             // Do nothing on non-change update
         }
     }
 
     private static class ItemKey {
-        public final GenericItem item;
+        public final String itemName;
         public final String key;
 
-        public ItemKey(GenericItem item, String key) {
-            this.item = item;
+        public ItemKey(String itemName, String key) {
+            this.itemName = itemName;
             this.key = key;
         }
 
@@ -104,7 +196,7 @@ public class HomekitAccessoryUpdater {
         public int hashCode() {
             final int prime = 31;
             int result = 1;
-            result = prime * result + ((item == null) ? 0 : item.hashCode());
+            result = prime * result + ((itemName == null) ? 0 : itemName.hashCode());
             result = prime * result + ((key == null) ? 0 : key.hashCode());
             return result;
         }
@@ -121,11 +213,11 @@ public class HomekitAccessoryUpdater {
                 return false;
             }
             ItemKey other = (ItemKey) obj;
-            if (item == null) {
-                if (other.item != null) {
+            if (itemName == null) {
+                if (other.itemName != null) {
                     return false;
                 }
-            } else if (!item.equals(other.item)) {
+            } else if (!itemName.equals(other.itemName)) {
                 return false;
             }
             if (key == null) {
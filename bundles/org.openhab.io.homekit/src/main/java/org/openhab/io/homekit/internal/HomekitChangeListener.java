@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -78,13 +79,15 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             StorageService storageService) {
         this.itemRegistry = itemRegistry;
         this.settings = settings;
+        this.updater.setNotificationDelay(settings.notificationDelay);
         this.metadataRegistry = metadataRegistry;
         storage = storageService.getStorage(HomekitAuthInfoImpl.STORAGE_KEY);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
 
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getItems().forEach(this::createRootAccessories);
+        itemRegistry.getItems().forEach(item -> createRootAccessories(item)
+                .ifPresent(accessory -> accessoryRegistry.addRootAccessory(item.getName(), accessory)));
         initialiseRevision();
         logger.info("Created {} HomeKit items.", accessoryRegistry.getAllAccessories().size());
     }
@@ -111,9 +114,16 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         markDirty(item);
     }
 
+    /**
+     * Mark all old and new items dirty instead of dropping all accessories. The accessories which did not change
+     * are kept after the debounce period.
+     */
     @Override
-    public void allItemsChanged(Collection<String> oldItemNames) {
-        clearAccessories();
+    public synchronized void allItemsChanged(Collection<String> oldItemNames) {
+        pendingUpdates.addAll(oldItemNames);
+        pendingUpdates.addAll(accessoryRegistry.getAllAccessories().keySet());
+        itemRegistry.getItems().forEach(item -> pendingUpdates.add(item.getName()));
+        applyUpdatesDebouncer.call();
     }
 
     /**
@@ -157,17 +167,39 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         storage.put(ACCESSORY_COUNT, "" + lastAccessoryCount);
     }
 
+    /**
+     * Creates the accessories of the dirty items again and compares them with the accessories at the bridge. Only
+     * accessories which were added, removed or changed their structure are replaced at the bridge, and only then the
+     * configuration revision is increased. Accessories with the same structure are kept and just use the new item
+     * instances, so that HomeKit clients do not have to reload the bridge.
+     */
     private synchronized void applyUpdates() {
         logger.trace("apply updates");
+        boolean structureChanged = false;
         for (final String name : pendingUpdates) {
+            final @Nullable HomekitAccessory current = accessoryRegistry.getAllAccessories().get(name);
+            final @Nullable HomekitAccessory replacement = getItemOptional(name).flatMap(this::createRootAccessories)
+                    .orElse(null);
+            if (current == null && replacement == null) {
+                continue;
+            }
+            if (current != null && replacement != null && HomekitAccessoryFactory.getAccessoryStructure(current)
+                    .equals(HomekitAccessoryFactory.getAccessoryStructure(replacement))) {
+                logger.trace(" keep accessory {}", name);
+                HomekitAccessoryFactory.rebindItems(current, replacement, updater);
+                continue;
+            }
             accessoryRegistry.remove(name);
-            logger.trace(" add items {}", name);
-            getItemOptional(name).ifPresent(this::createRootAccessories);
+            if (replacement != null) {
+                logger.trace(" add items {}", name);
+                accessoryRegistry.addRootAccessory(name, replacement);
+            }
+            structureChanged = true;
         }
-        if (!pendingUpdates.isEmpty()) {
+        if (structureChanged) {
             makeNewConfigurationRevision();
-            pendingUpdates.clear();
         }
+        pendingUpdates.clear();
     }
 
     @Override
@@ -195,10 +227,12 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        updater.setNotificationDelay(settings.notificationDelay);
     }
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationDelay(settings.notificationDelay);
     }
 
     public void stop() {
@@ -237,8 +271,9 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * Switch light "Light" (gLight) {homekit="Lighting.OnState"}
      *
      * @param item openHAB item
+     * @return the accessory of the item, if the item is a root accessory
      */
-    private void createRootAccessories(Item item) {
+    private Optional<HomekitAccessory> createRootAccessories(Item item) {
         final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
                 .getAccessoryTypes(item, metadataRegistry);
         final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
@@ -246,17 +281,26 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 && (groups.isEmpty() || groups.stream().noneMatch(g -> g.getBaseItem() == null))) {
             logger.trace("Item {} is a HomeKit accessory of types {}", item.getName(), accessoryTypes);
             final HomekitOHItemProxy itemProxy = new HomekitOHItemProxy(item);
-            accessoryTypes.forEach(rootAccessory -> createRootAccessory(new HomekitTaggedItem(itemProxy,
-                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry))));
+            // accessories are registered by item name, so the last accessory type of the item wins
+            Optional<HomekitAccessory> accessory = Optional.empty();
+            for (Entry<HomekitAccessoryType, HomekitCharacteristicType> rootAccessory : accessoryTypes) {
+                final Optional<HomekitAccessory> created = createRootAccessory(new HomekitTaggedItem(itemProxy,
+                        rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry)));
+                if (created.isPresent()) {
+                    accessory = created;
+                }
+            }
+            return accessory;
         }
+        return Optional.empty();
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private Optional<HomekitAccessory> createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
+            return Optional.of(HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
         } catch (HomekitException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return Optional.empty();
         }
     }
 }
@@ -49,7 +49,7 @@ import org.slf4j.LoggerFactory;
 public class HomekitOHItemProxy {
     private final Logger logger = LoggerFactory.getLogger(HomekitOHItemProxy.class);
     private static final int DEFAULT_DELAY = 50; // in ms
-    private final Item item;
+    private volatile Item item;
     private final Map<HomekitCommandType, State> commandCache = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -66,6 +66,15 @@ public class HomekitOHItemProxy {
         return item;
     }
 
+    /**
+     * replaces the openHAB item, e.g. if the item was updated in the item registry but the accessory stayed the same.
+     *
+     * @param item new instance of the item
+     */
+    public void setItem(Item item) {
+        this.item = item;
+    }
+
     public void setDimmerMode(HomekitDimmerMode mode) {
         dimmerMode = mode;
     }
@@ -269,6 +269,11 @@ abstract class AbstractHomekitAccessoryImpl implements HomekitAccessory {
         characteristics.add(characteristic);
     }
 
+    @NonNullByDefault
+    List<HomekitTaggedItem> getCharacteristics() {
+        return characteristics;
+    }
+
     @NonNullByDefault
     private <T extends Quantity<T>> double convertAndRound(double value, Unit<T> from, Unit<T> to) {
         double rawValue = from == to ? value : from.getConverterTo(to).convert(value);
@@ -292,7 +297,7 @@ abstract class AbstractHomekitAccessoryImpl implements HomekitAccessory {
     protected BooleanItemReader createBooleanReader(HomekitCharacteristicType characteristicType,
             OnOffType trueOnOffValue, OpenClosedType trueOpenClosedValue) throws IncompleteAccessoryException {
         return new BooleanItemReader(
-                getItem(characteristicType, GenericItem.class)
+                getCharacteristic(characteristicType)
                         .orElseThrow(() -> new IncompleteAccessoryException(characteristicType)),
                 trueOnOffValue, trueOpenClosedValue);
     }
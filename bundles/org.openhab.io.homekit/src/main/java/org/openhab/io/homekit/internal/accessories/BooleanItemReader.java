@@ -22,30 +22,33 @@ import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.io.homekit.internal.HomekitTaggedItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Wraps either a SwitchItem or a ContactItem, interpreting the open / closed states accordingly.
+ * The item is taken from the tagged item on every access, so that the reader follows updates of the item.
  *
  * @author Tim Harper - Initial contribution
  *
  */
 @NonNullByDefault
 public class BooleanItemReader {
-    private final Item item;
+    private final HomekitTaggedItem taggedItem;
     private final OnOffType trueOnOffValue;
     private final OpenClosedType trueOpenClosedValue;
     private final Logger logger = LoggerFactory.getLogger(BooleanItemReader.class);
 
     /**
      *
-     * @param item The item to read
+     * @param taggedItem The item to read
      * @param trueOnOffValue If OnOffType, then consider true if this value
      * @param trueOpenClosedValue if OpenClosedType, then consider true if this value
      */
-    BooleanItemReader(Item item, OnOffType trueOnOffValue, OpenClosedType trueOpenClosedValue) {
-        this.item = item;
+    BooleanItemReader(HomekitTaggedItem taggedItem, OnOffType trueOnOffValue, OpenClosedType trueOpenClosedValue) {
+        this.taggedItem = taggedItem;
+        final Item item = taggedItem.getItem();
         this.trueOnOffValue = trueOnOffValue;
         this.trueOpenClosedValue = trueOpenClosedValue;
         if (!(item instanceof SwitchItem) && !(item instanceof ContactItem) && !(item instanceof StringItem)) {
@@ -55,6 +58,7 @@ public class BooleanItemReader {
     }
 
     boolean getValue() {
+        final Item item = taggedItem.getItem();
         final State state = item.getState();
         if (state instanceof OnOffType) {
             return state.equals(trueOnOffValue);
@@ -73,6 +77,7 @@ public class BooleanItemReader {
     }
 
     void setValue(Boolean value) {
+        final Item item = taggedItem.getItem();
         if (item instanceof SwitchItem) {
             ((SwitchItem) item).send(value ? trueOnOffValue : getOffValue(trueOnOffValue));
         } else if (item instanceof GroupItem) {
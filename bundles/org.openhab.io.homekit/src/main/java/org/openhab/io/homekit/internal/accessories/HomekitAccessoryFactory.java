@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -208,6 +209,67 @@ public class HomekitAccessoryFactory {
         }
     }
 
+    /**
+     * return a description of the structure of a HomeKit accessory, i.e. of everything HomeKit clients cache about it:
+     * accessory id and type, characteristics and the labels, types and configuration of the linked items. Two
+     * accessories with the same structure differ only in the instances of the linked items.
+     *
+     * @param accessory HomeKit accessory
+     * @return structure of the accessory
+     */
+    public static String getAccessoryStructure(HomekitAccessory accessory) {
+        if (!(accessory instanceof AbstractHomekitAccessoryImpl)) {
+            // unknown accessory, treat every instance as different
+            return accessory.getClass().getName() + "@" + System.identityHashCode(accessory);
+        }
+        final StringBuilder structure = new StringBuilder(accessory.getClass().getName());
+        getTaggedItems((AbstractHomekitAccessoryImpl) accessory).map(HomekitAccessoryFactory::getItemStructure)
+                .sorted().forEach(item -> structure.append('|').append(item));
+        return structure.toString();
+    }
+
+    /**
+     * let an existing accessory use the item instances of a new accessory with the same structure. This keeps the
+     * accessory at the bridge, so that HomeKit clients do not have to reload it.
+     *
+     * @param accessory accessory registered at the bridge
+     * @param replacement new accessory with the same structure
+     * @param updater OH HomeKit update class, subscriptions are moved to the new item instances
+     */
+    public static void rebindItems(HomekitAccessory accessory, HomekitAccessory replacement,
+            HomekitAccessoryUpdater updater) {
+        if (!(accessory instanceof AbstractHomekitAccessoryImpl)
+                || !(replacement instanceof AbstractHomekitAccessoryImpl)) {
+            return;
+        }
+        final Map<String, Item> items = new HashMap<>();
+        getTaggedItems((AbstractHomekitAccessoryImpl) replacement).forEach(t -> items.put(t.getName(), t.getItem()));
+        getTaggedItems((AbstractHomekitAccessoryImpl) accessory).forEach(taggedItem -> {
+            final @Nullable Item item = items.get(taggedItem.getName());
+            if (item != null && item != taggedItem.getItem()) {
+                logger.trace("Rebind {} of accessory {}", item.getName(), accessory.getId());
+                taggedItem.getProxyItem().setItem(item);
+                if (item instanceof GenericItem) {
+                    updater.rebind((GenericItem) item);
+                }
+            }
+        });
+    }
+
+    private static Stream<HomekitTaggedItem> getTaggedItems(AbstractHomekitAccessoryImpl accessory) {
+        return Stream.concat(Stream.of(accessory.getRootAccessory()), accessory.getCharacteristics().stream());
+    }
+
+    private static String getItemStructure(HomekitTaggedItem taggedItem) {
+        final Item item = taggedItem.getItem();
+        final @Nullable Item baseItem = item instanceof GroupItem ? ((GroupItem) item).getBaseItem() : null;
+        final @Nullable Map<String, Object> configuration = taggedItem.getConfiguration();
+        return taggedItem.getId() + "," + item.getName() + "," + item.getType() + ","
+                + (baseItem != null ? baseItem.getType() : "") + "," + item.getLabel() + ","
+                + taggedItem.getAccessoryType() + "," + taggedItem.getCharacteristicType() + ","
+                + (configuration != null ? new TreeMap<>(configuration) : "");
+    }
+
     /**
      * return HomeKit accessory types for a OH item based on meta data
      * 
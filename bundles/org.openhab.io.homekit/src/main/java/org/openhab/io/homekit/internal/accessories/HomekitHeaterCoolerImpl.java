@@ -23,7 +23,6 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.library.items.StringItem;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
@@ -74,8 +73,7 @@ public class HomekitHeaterCoolerImpl extends AbstractHomekitAccessoryImpl implem
     public HomekitHeaterCoolerImpl(HomekitTaggedItem taggedItem, List<HomekitTaggedItem> mandatoryCharacteristics,
             HomekitAccessoryUpdater updater, HomekitSettings settings) throws IncompleteAccessoryException {
         super(taggedItem, mandatoryCharacteristics, updater, settings);
-        activeReader = new BooleanItemReader(getItem(ACTIVE_STATUS, GenericItem.class)
-                .orElseThrow(() -> new IncompleteAccessoryException(ACTIVE_STATUS)), OnOffType.ON, OpenClosedType.OPEN);
+        activeReader = createBooleanReader(ACTIVE_STATUS, OnOffType.ON, OpenClosedType.OPEN);
         updateMapping(CURRENT_HEATER_COOLER_STATE, currentStateMapping);
         updateMapping(TARGET_HEATER_COOLER_STATE, targetStateMapping);
         final HeaterCoolerService service = new HeaterCoolerService(this);
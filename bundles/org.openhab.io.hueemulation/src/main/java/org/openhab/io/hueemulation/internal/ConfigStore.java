@@ -101,6 +101,11 @@ public class ConfigStore {
             .registerTypeAdapter(HueSuccessResponseStateChanged.class, new HueSuccessResponseStateChanged.Serializer())
             .registerTypeAdapter(HueGroupEntry.class, new HueGroupEntry.Serializer(this)).create();
 
+    /**
+     * The serialized lights and groups, shared by all rest endpoints
+     */
+    public final HueJsonCache jsonCache = new HueJsonCache(this);
+
     @Reference
     protected @NonNullByDefault({}) ConfigurationAdmin configAdmin;
 
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+import javax.ws.rs.core.EntityTag;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.openhab.io.hueemulation.internal.dto.HueCapability;
+import org.openhab.io.hueemulation.internal.dto.HueDataStore;
+import org.openhab.io.hueemulation.internal.dto.HueGroupEntry;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
+import org.openhab.io.hueemulation.internal.dto.HueRuleEntry;
+import org.openhab.io.hueemulation.internal.dto.HueSceneEntry;
+import org.openhab.io.hueemulation.internal.dto.HueScheduleEntry;
+import org.openhab.io.hueemulation.internal.dto.HueSensorEntry;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Keeps the serialized json of every light and group of the {@link HueDataStore} and of the complete lights and
+ * groups lists. Hue clients like the Amazon Echo poll the lights several times a second.
+ *
+ * <p>
+ * A light or group is serialized again only if something its json depends on changed, for example the item, its
+ * state or label, or the last command. The lists are assembled again only if one of their entries changed or entries
+ * got added or removed. Every json gets a version based {@link EntityTag}, so that clients can ask with
+ * "If-None-Match" whether something changed.
+ * </p>
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+public class HueJsonCache {
+    private static final Type SCENES_TYPE = new TypeToken<Map<String, HueSceneEntry>>() {
+    }.getType();
+    private static final Type RULES_TYPE = new TypeToken<Map<String, HueRuleEntry>>() {
+    }.getType();
+    private static final Type SENSORS_TYPE = new TypeToken<Map<String, HueSensorEntry>>() {
+    }.getType();
+    private static final Type SCHEDULES_TYPE = new TypeToken<Map<String, HueScheduleEntry>>() {
+    }.getType();
+    private static final Type CAPABILITIES_TYPE = new TypeToken<Map<String, HueCapability>>() {
+    }.getType();
+
+    /**
+     * A json document and its entity tag
+     */
+    public static class CachedJson {
+        public final String json;
+        public final EntityTag etag;
+
+        CachedJson(String json, EntityTag etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+    }
+
+    /**
+     * The json of a single light or group and the values it was created from
+     */
+    private static class Fragment {
+        final Object[] inputs;
+        final CachedJson cachedJson;
+
+        Fragment(Object[] inputs, CachedJson cachedJson) {
+            this.inputs = inputs;
+            this.cachedJson = cachedJson;
+        }
+    }
+
+    /**
+     * The cached json of all lights or all groups
+     */
+    private class EntryCache<T> {
+        private final Map<String, Fragment> fragments = new HashMap<>();
+        private final Function<T, Object[]> inputs;
+        private @Nullable CachedJson all;
+
+        EntryCache(Function<T, Object[]> inputs) {
+            this.inputs = inputs;
+        }
+
+        @Nullable
+        CachedJson get(Map<String, T> entries, String id) {
+            T entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            return update(id, entry).cachedJson;
+        }
+
+        CachedJson getAll(Map<String, T> entries) {
+            CachedJson all = this.all;
+            boolean changed = all == null;
+
+            for (Entry<String, T> entry : entries.entrySet()) {
+                Fragment fragment = fragments.get(entry.getKey());
+                changed |= update(entry.getKey(), entry.getValue()) != fragment;
+            }
+            if (fragments.size() != entries.size()) {
+                fragments.keySet().retainAll(entries.keySet());
+                changed = true;
+            }
+            if (!changed && all != null) {
+                return all;
+            }
+
+            StringBuilder json = new StringBuilder("{");
+            for (String id : entries.keySet()) {
+                Fragment fragment = fragments.get(id);
+                if (fragment != null) {
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append(cs.gson.toJson(id)).append(':').append(fragment.cachedJson.json);
+                }
+            }
+            all = new CachedJson(json.append('}').toString(), nextEntityTag());
+            this.all = all;
+            return all;
+        }
+
+        /**
+         * Returns the fragment of the entry. Serializes the entry again if its inputs changed. In that case the list
+         * of all entries becomes outdated as well.
+         */
+        private Fragment update(String id, T entry) {
+            Object[] newInputs = inputs.apply(entry);
+            Fragment fragment = fragments.get(id);
+
+            if (fragment == null || !Arrays.deepEquals(fragment.inputs, newInputs)) {
+                fragment = new Fragment(newInputs, new CachedJson(cs.gson.toJson(entry), nextEntityTag()));
+                fragments.put(id, fragment);
+                all = null;
+            }
+            return fragment;
+        }
+
+        void invalidate() {
+            fragments.clear();
+            all = null;
+        }
+    }
+
+    private final ConfigStore cs;
+
+    /**
+     * Entity tags must not match the tags of a former run, so they contain the start time
+     */
+    private final String tagPrefix = Long.toHexString(System.currentTimeMillis()) + "-";
+    private long version = 0;
+
+    private final EntryCache<HueLightEntry> lights = new EntryCache<>(HueJsonCache::lightInputs);
+    private final EntryCache<HueGroupEntry> groups = new EntryCache<>(HueJsonCache::groupInputs);
+
+    public HueJsonCache(ConfigStore cs) {
+        this.cs = cs;
+    }
+
+    /**
+     * Returns the json of all lights
+     */
+    public synchronized CachedJson getLights() {
+        return lights.getAll(cs.ds.lights);
+    }
+
+    /**
+     * Returns the json of a light or null if the light does not exist
+     */
+    public synchronized @Nullable CachedJson getLight(String id) {
+        return lights.get(cs.ds.lights, id);
+    }
+
+    /**
+     * Returns the json of all groups
+     */
+    public synchronized CachedJson getGroups() {
+        return groups.getAll(cs.ds.groups);
+    }
+
+    /**
+     * Returns the json of a group or null if the group does not exist
+     */
+    public synchronized @Nullable CachedJson getGroup(String id) {
+        return groups.get(cs.ds.groups, id);
+    }
+
+    /**
+     * Returns the json of the complete data store. Lights and groups are taken from the cache. The result equals
+     * the json of the {@link HueDataStore} object.
+     */
+    public synchronized CachedJson getFullState() {
+        final HueDataStore ds = cs.ds;
+        final CachedJson lightsJson = lights.getAll(ds.lights);
+        final CachedJson groupsJson = groups.getAll(ds.groups);
+
+        String json = new StringBuilder("{\"config\":").append(cs.gson.toJson(ds.config)) //
+                .append(",\"lights\":").append(lightsJson.json) //
+                .append(",\"groups\":").append(groupsJson.json) //
+                .append(",\"scenes\":").append(cs.gson.toJson(ds.scenes, SCENES_TYPE)) //
+                .append(",\"rules\":").append(cs.gson.toJson(ds.rules, RULES_TYPE)) //
+                .append(",\"sensors\":").append(cs.gson.toJson(ds.sensors, SENSORS_TYPE)) //
+                .append(",\"schedules\":").append(cs.gson.toJson(ds.schedules, SCHEDULES_TYPE)) //
+                .append(",\"resourcelinks\":").append(cs.gson.toJson(ds.resourcelinks)) //
+                .append(",\"capabilities\":").append(cs.gson.toJson(ds.capabilities, CAPABILITIES_TYPE)) //
+                .append('}').toString();
+        // The other parts are not versioned, so the tag depends on the content
+        return new CachedJson(json,
+                new EntityTag(Integer.toHexString(json.hashCode()) + "-" + Integer.toHexString(json.length()), true));
+    }
+
+    /**
+     * Drops all cached json, for example if items got added, changed or removed.
+     */
+    public synchronized void invalidate() {
+        lights.invalidate();
+        groups.invalidate();
+    }
+
+    private EntityTag nextEntityTag() {
+        return new EntityTag(tagPrefix + (++version));
+    }
+
+    /**
+     * The values the json of a light is created from, see {@link HueLightEntry.Serializer}
+     */
+    private static Object[] lightInputs(HueLightEntry light) {
+        GenericItem item = light.item;
+        return new Object[] { item, item.getState(), item.getLabel(), light.lastCommand, light.lastHueChange,
+                light.name, light.deviceType };
+    }
+
+    /**
+     * The values the json of a group is created from, see {@link HueGroupEntry.Serializer}
+     */
+    private static Object[] groupInputs(HueGroupEntry group) {
+        GroupItem item = group.groupItem;
+        Object members = item == null ? null : item.getMembers().stream().map(Item::getUID).toArray();
+        return new Object[] { item, members, group.action, group.type, group.name, group.roomclass, group.lights,
+                group.sensors, group.deviceType };
+    }
+}
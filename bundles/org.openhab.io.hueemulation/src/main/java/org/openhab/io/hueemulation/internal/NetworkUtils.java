@@ -12,6 +12,7 @@
  */
 package org.openhab.io.hueemulation.internal;
 
+import java.lang.reflect.Type;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
@@ -20,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -40,6 +42,12 @@ import com.google.gson.reflect.TypeToken;
  */
 @NonNullByDefault
 public class NetworkUtils {
+    /**
+     * The type of hue response lists. Created once, because a {@link TypeToken} is built by reflection.
+     */
+    public static final Type LIST_TYPE = new TypeToken<List<?>>() {
+    }.getType();
+
     /**
      * Try to get the ethernet interface MAC for the network interface that belongs to the given IP address.
      * Returns a default MAC on any failure.
@@ -93,8 +101,7 @@ public class NetworkUtils {
      */
     public static Response singleError(Gson gson, UriInfo uri, int type, String message) {
         HueResponse e = new HueResponse(new HueErrorMessage(type, uri.getPath().replace("/api", ""), message));
-        String str = gson.toJson(Collections.singleton(e), new TypeToken<List<?>>() {
-        }.getType());
+        String str = gson.toJson(Collections.singleton(e), LIST_TYPE);
         int httpCode = 500;
         switch (type) {
             case HueResponse.UNAUTHORIZED:
@@ -117,15 +124,13 @@ public class NetworkUtils {
     public static Response singleSuccess(Gson gson, String message, String uriPart) {
         List<HueResponse> responses = new ArrayList<>();
         responses.add(new HueResponse(new HueSuccessGeneric(message, uriPart)));
-        return Response.ok(gson.toJson(responses, new TypeToken<List<?>>() {
-        }.getType())).build();
+        return Response.ok(gson.toJson(responses, LIST_TYPE)).build();
     }
 
     public static Response singleSuccess(Gson gson, String message) {
         List<HueResponseSuccessSimple> responses = new ArrayList<>();
         responses.add(new HueResponseSuccessSimple(message));
-        return Response.ok(gson.toJson(responses, new TypeToken<List<?>>() {
-        }.getType())).build();
+        return Response.ok(gson.toJson(responses, LIST_TYPE)).build();
     }
 
     public static Response successList(Gson gson, List<HueSuccessGeneric> successList) {
@@ -135,7 +140,20 @@ public class NetworkUtils {
                 responses.add(new HueResponse(s));
             }
         }
-        return Response.ok(gson.toJson(responses, new TypeToken<List<?>>() {
-        }.getType())).build();
+        return Response.ok(gson.toJson(responses, LIST_TYPE)).build();
+    }
+
+    /**
+     * Creates a response for cached json. Answers with "304 Not Modified" if the client already has this version.
+     *
+     * @param request The request, to evaluate the "If-None-Match" header
+     * @param cachedJson The json and its entity tag
+     */
+    public static Response cachedResponse(Request request, HueJsonCache.CachedJson cachedJson) {
+        ResponseBuilder notModified = request.evaluatePreconditions(cachedJson.etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(cachedJson.json).tag(cachedJson.etag).build();
     }
 }
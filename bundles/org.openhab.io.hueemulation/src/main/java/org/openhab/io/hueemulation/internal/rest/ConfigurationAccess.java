@@ -13,7 +13,6 @@
 package org.openhab.io.hueemulation.internal.rest;
 
 import java.util.Collections;
-import java.util.List;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.PUT;
@@ -22,6 +21,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -36,8 +36,6 @@ import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
-import com.google.gson.reflect.TypeToken;
-
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
@@ -65,21 +63,21 @@ public class ConfigurationAccess {
     @ApiOperation(value = "Return the reduced configuration")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
     public Response getReducedConfigApi() {
-        return Response.ok(cs.gson.toJson(cs.ds.config, new TypeToken<HueUnauthorizedConfig>() {
-        }.getType())).build();
+        return Response.ok(cs.gson.toJson(cs.ds.config, HueUnauthorizedConfig.class)).build();
     }
 
     @GET
     @Path("{username}")
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Return the full data store")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllApi(@Context UriInfo uri,
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 304, message = "Not modified") })
+    public Response getAllApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds)).build();
+        return NetworkUtils.cachedResponse(request, cs.jsonCache.getFullState());
     }
 
     @GET
@@ -128,8 +126,7 @@ public class ConfigurationAccess {
     public Response catchAll(@Context UriInfo uri) {
         HueResponse e = new HueResponse(
                 new HueErrorMessage(HueResponse.INVALID_JSON, uri.getPath().replace("/api", ""), "Invalid request: "));
-        String str = cs.gson.toJson(Collections.singleton(e), new TypeToken<List<?>>() {
-        }.getType());
+        String str = cs.gson.toJson(Collections.singleton(e), NetworkUtils.LIST_TYPE);
         return Response.status(404).entity(str).build();
     }
 }
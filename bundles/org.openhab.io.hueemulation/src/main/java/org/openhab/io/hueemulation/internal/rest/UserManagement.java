@@ -15,7 +15,6 @@ package org.openhab.io.hueemulation.internal.rest;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
-import java.util.List;
 import java.util.UUID;
 
 import javax.ws.rs.DELETE;
@@ -45,8 +44,6 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.reflect.TypeToken;
-
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
@@ -167,8 +164,7 @@ public class UserManagement extends DefaultAbstractManagedProvider<HueUserAuthWi
         String clientKey = UUID.randomUUID().toString();
         addUser(apiKey, clientKey, userRequest.devicetype);
         HueSuccessResponseCreateUser h = new HueSuccessResponseCreateUser(apiKey, clientKey);
-        String result = cs.gson.toJson(Collections.singleton(new HueResponse(h)), new TypeToken<List<?>>() {
-        }.getType());
+        String result = cs.gson.toJson(Collections.singleton(new HueResponse(h)), NetworkUtils.LIST_TYPE);
 
         return Response.ok(result).build();
     }
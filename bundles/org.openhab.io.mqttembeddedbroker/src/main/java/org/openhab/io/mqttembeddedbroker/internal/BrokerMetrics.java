@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Cumulative throughput statistics of the embedded broker, collected by the intercept handler of the
+ * {@link EmbeddedBrokerService}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+public class BrokerMetrics {
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger connectedClients = new AtomicInteger();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder connectionsLost = new LongAdder();
+    private final LongAdder publishedMessages = new LongAdder();
+    private final LongAdder publishedBytes = new LongAdder();
+    private final LongAdder retainedMessages = new LongAdder();
+    private final LongAdder acknowledgedMessages = new LongAdder();
+    private final LongAdder subscriptions = new LongAdder();
+
+    void recordConnect() {
+        connects.increment();
+        connectedClients.incrementAndGet();
+    }
+
+    void recordDisconnect(boolean lost) {
+        if (lost) {
+            connectionsLost.increment();
+        }
+        connectedClients.updateAndGet(clients -> Math.max(0, clients - 1));
+    }
+
+    void recordPublish(int bytes, boolean retained) {
+        publishedMessages.increment();
+        publishedBytes.add(bytes);
+        if (retained) {
+            retainedMessages.increment();
+        }
+    }
+
+    void recordAcknowledged() {
+        acknowledgedMessages.increment();
+    }
+
+    void recordSubscribe() {
+        subscriptions.increment();
+    }
+
+    /**
+     * @return number of currently connected clients
+     */
+    public int getConnectedClients() {
+        return connectedClients.get();
+    }
+
+    /**
+     * @return number of client connects
+     */
+    public long getConnects() {
+        return connects.sum();
+    }
+
+    /**
+     * @return number of client connections closed without a disconnect
+     */
+    public long getConnectionsLost() {
+        return connectionsLost.sum();
+    }
+
+    /**
+     * @return number of messages published to the broker
+     */
+    public long getPublishedMessages() {
+        return publishedMessages.sum();
+    }
+
+    /**
+     * @return total payload size of the messages published to the broker, in bytes
+     */
+    public long getPublishedBytes() {
+        return publishedBytes.sum();
+    }
+
+    /**
+     * @return number of published messages with the retained flag
+     */
+    public long getRetainedMessages() {
+        return retainedMessages.sum();
+    }
+
+    /**
+     * @return number of QoS 1 and 2 deliveries acknowledged by subscribers
+     */
+    public long getAcknowledgedMessages() {
+        return acknowledgedMessages.sum();
+    }
+
+    /**
+     * @return number of topic subscriptions
+     */
+    public long getSubscriptions() {
+        return subscriptions.sum();
+    }
+
+    /**
+     * @return average number of published messages per second since the broker started
+     */
+    public double getPublishRate() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? getPublishedMessages() / seconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{clients: %d, connects: %d, lost: %d, published: %d (%.1f/s, %d bytes, %d retained), acknowledged: %d, subscriptions: %d}",
+                getConnectedClients(), getConnects(), getConnectionsLost(), getPublishedMessages(), getPublishRate(),
+                getPublishedBytes(), getRetainedMessages(), getAcknowledgedMessages(), getSubscriptions());
+    }
+}
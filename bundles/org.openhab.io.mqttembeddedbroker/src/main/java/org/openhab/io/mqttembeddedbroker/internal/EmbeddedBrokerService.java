@@ -43,6 +43,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionObserver;
 import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
 import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.eclipse.smarthome.io.transport.mqtt.MqttServiceObserver;
+import org.h2.mvstore.MVStoreTool;
 import org.openhab.io.mqttembeddedbroker.Constants;
 import org.openhab.io.mqttembeddedbroker.internal.MqttEmbeddedBrokerDetectStart.MqttEmbeddedBrokerStartedListener;
 import org.osgi.service.component.annotations.Activate;
@@ -89,6 +90,8 @@ public class EmbeddedBrokerService
         implements MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
     private final MqttService service;
     private String persistenceFilename = "";
+    private int persistenceCommitInterval = 30;
+    private boolean persistenceCompact = false;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
     @NonNullByDefault({})
@@ -99,35 +102,46 @@ public class EmbeddedBrokerService
             return "logger";
         }
 
+        // Replaced on every start of the broker, so the statistics do not add up across configuration changes
+        volatile BrokerMetrics brokerMetrics = new BrokerMetrics();
+
         @Override
         public Class<?>[] getInterceptedMessageTypes() {
-            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class };
+            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                    InterceptConnectionLostMessage.class, InterceptPublishMessage.class,
+                    InterceptAcknowledgedMessage.class, InterceptSubscribeMessage.class };
         }
 
         @Override
         public void onConnect(InterceptConnectMessage arg0) {
             logger.debug("MQTT Client connected: {}", arg0.getClientID());
+            brokerMetrics.recordConnect();
         }
 
         @Override
         public void onConnectionLost(InterceptConnectionLostMessage arg0) {
+            brokerMetrics.recordDisconnect(true);
         }
 
         @Override
         public void onDisconnect(InterceptDisconnectMessage arg0) {
             logger.debug("MQTT Client disconnected: {}", arg0.getClientID());
+            brokerMetrics.recordDisconnect(false);
         }
 
         @Override
         public void onMessageAcknowledged(InterceptAcknowledgedMessage arg0) {
+            brokerMetrics.recordAcknowledged();
         }
 
         @Override
         public void onPublish(InterceptPublishMessage arg0) {
+            brokerMetrics.recordPublish(arg0.getPayload().readableBytes(), arg0.isRetainFlag());
         }
 
         @Override
         public void onSubscribe(InterceptSubscribeMessage arg0) {
+            brokerMetrics.recordSubscribe();
         }
 
         @Override
@@ -174,15 +188,22 @@ public class EmbeddedBrokerService
             connection.setCredentials(config.username, config.password);
         }
 
-        if (!config.persistenceFile.isEmpty()) {
+        persistenceFilename = "";
+        persistenceCommitInterval = Math.max(1, config.persistenceCommitInterval);
+        persistenceCompact = config.persistenceCompact;
+        if (ServiceConfiguration.PERSISTENCE_MODE_MEMORY.equals(config.persistenceMode)) {
+            logger.info("Using in-memory persistence.");
+        } else if (!config.persistenceFile.isEmpty()) {
             final String persistenceFilename = config.persistenceFile;
             if (!Paths.get(persistenceFilename).isAbsolute()) {
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
                 Files.createDirectories(path);
                 this.persistenceFilename = path.resolve(persistenceFilename).toString();
+            } else {
+                this.persistenceFilename = persistenceFilename;
             }
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            logger.info("Broker persistence file: {}", this.persistenceFilename);
         } else {
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
@@ -293,8 +314,13 @@ public class EmbeddedBrokerService
         }
 
         if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
+            if (persistenceCompact) {
+                compactPersistenceFile();
+            }
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
-            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            // in seconds
+            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME,
+                    Integer.toString(persistenceCommitInterval));
         }
 
         // We may provide ACL functionality at some point as well
@@ -313,14 +339,36 @@ public class EmbeddedBrokerService
             }
         }
         this.server = server;
+        metrics.brokerMetrics = new BrokerMetrics();
         server.addInterceptHandler(metrics);
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
         detectStart.startBrokerStartedDetection(port, s);
     }
 
+    /**
+     * The persistence file is a log structured store: changed retained messages and sessions are appended and the
+     * outdated chunks are only freed, so the file grows with every retained publish. Rewrite it with the live data
+     * only before the broker opens it.
+     */
+    private void compactPersistenceFile() {
+        Path persistenceFilePath = Paths.get(persistenceFilename);
+        if (!Files.exists(persistenceFilePath)) {
+            return;
+        }
+        try {
+            long sizeBefore = Files.size(persistenceFilePath);
+            MVStoreTool.compact(persistenceFilename, false);
+            logger.debug("Compacted broker persistence file from {} to {} bytes", sizeBefore,
+                    Files.size(persistenceFilePath));
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Could not compact broker persistence file {}: {}", persistenceFilename, e.getMessage());
+        }
+    }
+
     public void stopEmbeddedServer() {
         Server server = this.server;
         if (server != null) {
+            logger.debug("Embedded broker metrics: {}", metrics.brokerMetrics);
             server.removeInterceptHandler(metrics);
             detectStart.stopBrokerStartDetection();
             server.stopServer();
@@ -382,6 +430,14 @@ public class EmbeddedBrokerService
         return connection;
     }
 
+    /**
+     * Returns the throughput statistics of the broker since its last start, a configuration change restarts the
+     * broker and the statistics
+     */
+    public BrokerMetrics getMetrics() {
+        return metrics.brokerMetrics;
+    }
+
     public String getPersistenceFilename() {
         return persistenceFilename;
     }
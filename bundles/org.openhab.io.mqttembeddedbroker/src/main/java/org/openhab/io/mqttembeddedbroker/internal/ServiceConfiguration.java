@@ -22,9 +22,17 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class ServiceConfiguration {
+    /** Retained messages and sessions are stored in the persistence file */
+    public static final String PERSISTENCE_MODE_FILE = "file";
+    /** Retained messages and sessions are kept in memory only */
+    public static final String PERSISTENCE_MODE_MEMORY = "memory";
+
     public @Nullable Integer port;
     public Boolean secure = false;
+    public String persistenceMode = PERSISTENCE_MODE_FILE;
     public String persistenceFile = "mqttembedded.bin";
+    public Integer persistenceCommitInterval = 30;
+    public Boolean persistenceCompact = false;
 
     public @Nullable String username;
     public @Nullable String password;
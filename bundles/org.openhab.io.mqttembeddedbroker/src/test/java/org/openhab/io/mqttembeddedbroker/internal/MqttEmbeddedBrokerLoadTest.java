@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.Protocol;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local load test of the embedded broker with a retained message heavy workload, like Home Assistant discovery or
+ * Zigbee2MQTT. Measures publish throughput, end-to-end latency and the restart time with the persistence file.
+ *
+ * The test is skipped in normal builds. Run it with:
+ *
+ * <pre>
+ * mvn test -Dtest=MqttEmbeddedBrokerLoadTest -Dmqttembeddedbroker.loadtest=true
+ * </pre>
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class MqttEmbeddedBrokerLoadTest extends JavaTest {
+    private static final int TOPICS = Integer.getInteger("mqttembeddedbroker.loadtest.topics", 1000);
+    private static final int MESSAGES = Integer.getInteger("mqttembeddedbroker.loadtest.messages", 20000);
+    private static final int PAYLOAD_SIZE = Integer.getInteger("mqttembeddedbroker.loadtest.payload", 256);
+
+    private final Logger logger = LoggerFactory.getLogger(MqttEmbeddedBrokerLoadTest.class);
+
+    private EmbeddedBrokerService subject;
+    private Map<String, Object> config = new HashMap<>();
+    private @Mock MqttService service;
+    private File persistenceFile;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("mqttembeddedbroker.loadtest"));
+        MockitoAnnotations.initMocks(this);
+
+        Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
+        persistenceFile = path.resolve("loadtest.mqtt").toFile();
+        if (persistenceFile.exists()) {
+            persistenceFile.delete();
+        }
+
+        config.put("port", 12346);
+        config.put("secure", false);
+        config.put("persistenceFile", "loadtest.mqtt");
+        config.put("persistenceCompact", true);
+        subject = new EmbeddedBrokerService(service, config);
+    }
+
+    @After
+    public void cleanUp() {
+        if (subject != null) {
+            subject.deactivate();
+        }
+    }
+
+    private MqttBrokerConnection connect(String clientId) throws Exception {
+        MqttBrokerConnection connection = new MqttBrokerConnection(Protocol.TCP, "localhost", 12346, false, clientId);
+        assertTrue(connection.start().get(5, TimeUnit.SECONDS));
+        return connection;
+    }
+
+    @Test
+    public void retainedMessages() throws Exception {
+        waitForAssert(() -> assertTrue(subject.serverConfirmsEmbeddedClient()));
+
+        final long[] latencies = new long[MESSAGES];
+        final AtomicInteger received = new AtomicInteger();
+        final CountDownLatch allReceived = new CountDownLatch(MESSAGES);
+        MqttBrokerConnection subscriber = connect("loadtest-subscriber");
+        subscriber.subscribe("loadtest/#", (topic, payload) -> {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            int index = buffer.getInt();
+            if (index >= 0 && index < MESSAGES && latencies[index] == 0) {
+                latencies[index] = System.nanoTime() - buffer.getLong();
+                received.incrementAndGet();
+                allReceived.countDown();
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        MqttBrokerConnection publisher = connect("loadtest-publisher");
+        long start = System.nanoTime();
+        CompletableFuture<?>[] publishes = new CompletableFuture<?>[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            ByteBuffer payload = ByteBuffer.allocate(Math.max(12, PAYLOAD_SIZE));
+            payload.putInt(i).putLong(System.nanoTime());
+            publishes[i] = publisher.publish("loadtest/device" + (i % TOPICS) + "/config", payload.array(), 1, true);
+        }
+        CompletableFuture.allOf(publishes).get(2, TimeUnit.MINUTES);
+        allReceived.await(2, TimeUnit.MINUTES);
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long[] sorted = Arrays.stream(latencies).filter(l -> l > 0).sorted().toArray();
+        logger.info("Published {} retained messages to {} topics in {} ms ({} msg/s), received {}", MESSAGES, TOPICS,
+                publishMillis, MESSAGES * 1000L / Math.max(1, publishMillis), received.get());
+        if (sorted.length > 0) {
+            logger.info("Latency p50 {} ms, p99 {} ms, max {} ms", toMillis(sorted[sorted.length / 2]),
+                    toMillis(sorted[sorted.length * 99 / 100]), toMillis(sorted[sorted.length - 1]));
+        }
+        logger.info("Broker metrics: {}", subject.getMetrics());
+
+        publisher.stop().get();
+        subscriber.stop().get();
+        assertEquals(MESSAGES, received.get());
+
+        // Restart the broker with the persistence file
+        subject.deactivate();
+        long fileSize = persistenceFile.length();
+        start = System.nanoTime();
+        subject.modified(config);
+        waitForAssert(() -> assertTrue(subject.serverConfirmsEmbeddedClient()));
+        logger.info("Restarted with a persistence file of {} bytes ({} bytes after compaction) in {} ms", fileSize,
+                persistenceFile.length(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
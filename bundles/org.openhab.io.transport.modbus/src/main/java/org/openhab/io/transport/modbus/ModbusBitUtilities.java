@@ -101,14 +101,7 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
-        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
-        // each register has 16 bits
-        int lastValidIndex = registers.size() * 16 - 1;
-        if (endBitIndex > lastValidIndex || index < 0) {
-            throw new IllegalArgumentException(
-                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
-                            registers.size()));
-        }
+        checkIndex(registers, index, type);
         switch (type) {
             case BIT:
                 return Optional
@@ -212,6 +205,107 @@ public class ModbusBitUtilities {
         }
     }
 
+    /**
+     * Read data from registers as primitive value, without creating intermediate objects.
+     *
+     * The interpretation of <tt>index</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}. Integer types are
+     * returned as sign or zero extended <code>long</code>, with the exception of 64bit unsigned integers that are
+     * returned as the raw 64 bits. Floating point types are returned as the raw IEEE 754 bits, see
+     * {@link Float#floatToRawIntBits(float)}.
+     *
+     * Use {@link #rawValueToDecimalType(long, ModbusConstants.ValueType)} to convert the value to
+     * <tt>DecimalType</tt>. Two raw values of the same type are equal if and only if the data is equal.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type
+     * @return raw value
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static long extractRawValueFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        checkIndex(registers, index, type);
+        switch (type) {
+            case BIT:
+                return (registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1;
+            case INT8:
+                return (byte) (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2)));
+            case UINT8:
+                return (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getRegister(index).toUnsignedShort();
+            case UINT16:
+                return registers.getRegister(index).toUnsignedShort();
+            case INT32:
+            case FLOAT32:
+                return (int) registersToUnsignedInt(registers, index, index + 1);
+            case UINT32:
+                return registersToUnsignedInt(registers, index, index + 1);
+            case INT32_SWAP:
+            case FLOAT32_SWAP:
+                return (int) registersToUnsignedInt(registers, index + 1, index);
+            case UINT32_SWAP:
+                return registersToUnsignedInt(registers, index + 1, index);
+            case INT64:
+            case UINT64:
+                return (registersToUnsignedInt(registers, index, index + 1) << 32)
+                        | registersToUnsignedInt(registers, index + 2, index + 3);
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return (registersToUnsignedInt(registers, index + 3, index + 2) << 32)
+                        | registersToUnsignedInt(registers, index + 1, index);
+            default:
+                throw new IllegalArgumentException(type.getConfigValue());
+        }
+    }
+
+    /**
+     * Convert raw value, as returned by
+     * {@link #extractRawValueFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}, to DecimalType
+     *
+     * @param rawValue raw value
+     * @param type item type
+     * @return number representation of the value. Empty optional is returned with NaN and infinity floating point
+     *         values
+     */
+    public static Optional<DecimalType> rawValueToDecimalType(long rawValue, ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                try {
+                    return Optional.of(new DecimalType(Float.intBitsToFloat((int) rawValue)));
+                } catch (NumberFormatException e) {
+                    // floating point NaN or infinity encountered
+                    return Optional.empty();
+                }
+            case UINT64:
+            case UINT64_SWAP:
+                if (rawValue < 0) {
+                    return Optional.of(new DecimalType(new BigDecimal(Long.toUnsignedString(rawValue))));
+                }
+                return Optional.of(new DecimalType(rawValue));
+            default:
+                return Optional.of(new DecimalType(rawValue));
+        }
+    }
+
+    private static void checkIndex(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
+        // each register has 16 bits
+        int lastValidIndex = registers.size() * 16 - 1;
+        if (endBitIndex > lastValidIndex || index < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
+                            registers.size()));
+        }
+    }
+
+    private static long registersToUnsignedInt(ModbusRegisterArray registers, int highIndex, int lowIndex) {
+        return ((long) registers.getRegister(highIndex).toUnsignedShort() << 16)
+                | registers.getRegister(lowIndex).toUnsignedShort();
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
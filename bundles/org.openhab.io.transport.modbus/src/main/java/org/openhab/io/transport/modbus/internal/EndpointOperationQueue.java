@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of the operations of a single endpoint.
+ *
+ * The operations are executed one at a time using the shared thread pool. Only a single thread of the pool is occupied
+ * by an endpoint at any time, so that slow slaves (e.g. serial slaves with long timeouts) do not starve the threads
+ * needed by other endpoints. The endpoint gives the thread back to the pool after each operation.
+ *
+ * Writes are executed before any queued polls. A regular poll is dropped when the previous execution of the same poll
+ * is still waiting in the queue, since the queued execution will read fresh data anyway.
+ *
+ * The scheduler only enqueues regular polls, so their fixed delay applies between two enqueues and not between the end
+ * of one execution and the start of the next one. While the queue is idle, polls therefore start at a fixed rate. A
+ * poll taking longer than its period does not pile up, because the duplicate is dropped.
+ *
+ * Removing a regular poll interrupts its execution if it is running at that moment, like cancelling the scheduled
+ * future of a poll executed directly by the thread pool did.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class EndpointOperationQueue {
+
+    private static class QueuedOperation {
+        private final @Nullable Object pollKey;
+        private final FutureTask<?> task;
+        private final long enqueuedMillis = System.currentTimeMillis();
+
+        QueuedOperation(@Nullable Object pollKey, Runnable action) {
+            this.pollKey = pollKey;
+            this.task = new FutureTask<>(action, null);
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointOperationQueue.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+    private final EndpointStatistics statistics = new EndpointStatistics();
+
+    private final Deque<QueuedOperation> writes = new ArrayDeque<>();
+    private final Deque<QueuedOperation> polls = new ArrayDeque<>();
+    private final Set<Object> queuedRegularPolls = new HashSet<>();
+    private @Nullable QueuedOperation current;
+    private boolean executing;
+
+    EndpointOperationQueue(ModbusSlaveEndpoint endpoint, Executor executor) {
+        this.endpoint = endpoint;
+        this.executor = executor;
+    }
+
+    EndpointStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Queue write operation. Writes are executed before polls.
+     *
+     * @param action write operation
+     * @return future representing the pending operation
+     */
+    Future<?> submitWrite(Runnable action) {
+        QueuedOperation operation = new QueuedOperation(null, action);
+        synchronized (this) {
+            writes.add(operation);
+            scheduleNext();
+        }
+        return operation.task;
+    }
+
+    /**
+     * Queue one-off poll
+     *
+     * @param action poll operation
+     * @return future representing the pending operation
+     */
+    Future<?> submitOneTimePoll(Runnable action) {
+        QueuedOperation operation = new QueuedOperation(null, action);
+        synchronized (this) {
+            polls.add(operation);
+            scheduleNext();
+        }
+        return operation.task;
+    }
+
+    /**
+     * Queue execution of a regular poll, unless the previous execution of the same poll is still queued.
+     *
+     * @param pollKey key identifying the regular poll
+     * @param action poll operation
+     * @return whether the poll was queued. False if the poll was dropped as a duplicate.
+     */
+    boolean submitRegularPoll(Object pollKey, Runnable action) {
+        synchronized (this) {
+            if (!queuedRegularPolls.add(pollKey)) {
+                statistics.recordDroppedPoll();
+                return false;
+            }
+            polls.add(new QueuedOperation(pollKey, action));
+            scheduleNext();
+            return true;
+        }
+    }
+
+    /**
+     * Remove queued executions of a regular poll and interrupt the execution running at the moment, if any
+     *
+     * @param pollKey key identifying the regular poll
+     */
+    synchronized void removeRegularPoll(Object pollKey) {
+        if (queuedRegularPolls.remove(pollKey)) {
+            for (Iterator<QueuedOperation> iterator = polls.iterator(); iterator.hasNext();) {
+                if (pollKey.equals(iterator.next().pollKey)) {
+                    iterator.remove();
+                }
+            }
+        }
+        QueuedOperation running = current;
+        if (running != null && pollKey.equals(running.pollKey)) {
+            running.task.cancel(true);
+        }
+    }
+
+    private void executeNext() {
+        QueuedOperation operation;
+        synchronized (this) {
+            operation = writes.poll();
+            if (operation == null) {
+                operation = polls.poll();
+            }
+            if (operation == null) {
+                executing = false;
+                return;
+            }
+            Object pollKey = operation.pollKey;
+            if (pollKey != null) {
+                queuedRegularPolls.remove(pollKey);
+            }
+            current = operation;
+        }
+        try {
+            statistics.recordQueueWait(System.currentTimeMillis() - operation.enqueuedMillis);
+            // FutureTask captures exceptions thrown by the operation
+            operation.task.run();
+        } finally {
+            synchronized (this) {
+                current = null;
+                executing = false;
+                if (operation.task.isCancelled()) {
+                    // do not leak the interrupt of a removed poll to the next operation
+                    Thread.interrupted();
+                }
+                scheduleNext();
+            }
+        }
+    }
+
+    /**
+     * Hand the next queued operation to the thread pool, unless an operation is executing already.
+     *
+     * Must be called while holding the lock of this queue.
+     */
+    private void scheduleNext() {
+        if (executing || (writes.isEmpty() && polls.isEmpty())) {
+            return;
+        }
+        executing = true;
+        try {
+            executor.execute(this::executeNext);
+        } catch (RejectedExecutionException e) {
+            executing = false;
+            logger.warn("Thread pool rejected the queued operations of endpoint {}: {}", endpoint, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("{endpoint: %s, queued writes: %d, queued polls: %d, executing: %b}", endpoint,
+                writes.size(), polls.size(), executing);
+    }
+}
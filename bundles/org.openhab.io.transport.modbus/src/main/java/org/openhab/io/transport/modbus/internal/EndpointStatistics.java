@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Cumulative timing statistics of the operations executed against a single endpoint
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointStatistics {
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder queueWaitMillis = new LongAdder();
+    private final LongAdder connectionMillis = new LongAdder();
+    private final LongAdder transactionMillis = new LongAdder();
+    private final LongAdder callbackMillis = new LongAdder();
+    private final LongAdder droppedPolls = new LongAdder();
+
+    void recordQueueWait(long millis) {
+        queueWaitMillis.add(millis);
+    }
+
+    void recordDroppedPoll() {
+        droppedPolls.increment();
+    }
+
+    void record(AggregateStopWatch timer) {
+        operations.increment();
+        connectionMillis.add(timer.connection.getTotalTimeMillis());
+        transactionMillis.add(timer.transaction.getTotalTimeMillis());
+        callbackMillis.add(timer.callback.getTotalTimeMillis());
+    }
+
+    /**
+     * @return number of executed operations
+     */
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    /**
+     * @return total time operations waited in the endpoint queue before execution, in milliseconds
+     */
+    public long getQueueWaitMillis() {
+        return queueWaitMillis.sum();
+    }
+
+    /**
+     * @return total time spent borrowing, invalidating and returning connections, in milliseconds
+     */
+    public long getConnectionMillis() {
+        return connectionMillis.sum();
+    }
+
+    /**
+     * @return total time of the transactions with the slave, in milliseconds
+     */
+    public long getTransactionMillis() {
+        return transactionMillis.sum();
+    }
+
+    /**
+     * @return total time spent in the callbacks, in milliseconds
+     */
+    public long getCallbackMillis() {
+        return callbackMillis.sum();
+    }
+
+    /**
+     * @return number of regular polls dropped since the previous execution of the same poll was still queued
+     */
+    public long getDroppedPolls() {
+        return droppedPolls.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{operations: %d, queue wait: %d ms, connection: %d ms, transaction: %d ms, callback: %d ms, dropped polls: %d}",
+                getOperations(), getQueueWaitMillis(), getConnectionMillis(), getTransactionMillis(),
+                getCallbackMillis(), getDroppedPolls());
+    }
+}
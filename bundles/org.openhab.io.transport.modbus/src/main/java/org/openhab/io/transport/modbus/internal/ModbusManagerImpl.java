@@ -13,7 +13,10 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -59,6 +62,7 @@ import org.openhab.io.transport.modbus.exception.ModbusConnectionException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseFunctionCodeException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseSizeException;
 import org.openhab.io.transport.modbus.exception.ModbusUnexpectedTransactionIdException;
+import org.openhab.io.transport.modbus.internal.ReadRequestPlanner.PlannedRead;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -292,6 +296,13 @@ public class ModbusManagerImpl implements ModbusManager {
      * Presumably slow callbacks can increase queue size with callbackThreadPool
      */
     private static final long WARN_QUEUE_SIZE = 500;
+
+    /**
+     * Configuration property enabling coalescing of regular polls. When enabled, regular polls of the same endpoint
+     * with the same poll period are executed together, and read requests of the same slave and function code with
+     * overlapping or adjacent ranges are merged into a single request on the wire.
+     */
+    private static final String CONFIG_COALESCE_READ_REQUESTS = "coalesceReadRequests";
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
     private final PollOperation pollOperation = new PollOperation();
@@ -318,6 +329,13 @@ public class ModbusManagerImpl implements ModbusManager {
     private volatile @Nullable ScheduledExecutorService scheduledThreadPoolExecutor;
     private volatile @Nullable ScheduledFuture<?> monitorFuture;
     private volatile Set<ModbusCommunicationInterfaceImpl> communicationInterfaces = new ConcurrentHashSet<>();
+    private volatile boolean coalesceReadRequests;
+    private final Map<PollGroupKey, PollGroup> pollGroups = new ConcurrentHashMap<>();
+    private final Map<PollTask, PollGroup> groupedPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Operation queues, one per endpoint. See {@link EndpointOperationQueue}
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointOperationQueue> endpointQueues = new ConcurrentHashMap<>();
 
     private void constructConnectionPool() {
         ModbusSlaveConnectionFactoryImpl connectionFactory = new ModbusSlaveConnectionFactoryImpl();
@@ -432,6 +450,21 @@ public class ModbusManagerImpl implements ModbusManager {
         logger.trace("returning connection for endpoint {} took {} ms", endpoint, System.currentTimeMillis() - start);
     }
 
+    private EndpointOperationQueue getEndpointQueue(ModbusSlaveEndpoint endpoint, ScheduledExecutorService executor) {
+        return endpointQueues.computeIfAbsent(endpoint, key -> new EndpointOperationQueue(key, executor));
+    }
+
+    /**
+     * Get statistics of the operations executed against each endpoint
+     *
+     * @return statistics per endpoint
+     */
+    public Map<ModbusSlaveEndpoint, EndpointStatistics> getEndpointStatistics() {
+        Map<ModbusSlaveEndpoint, EndpointStatistics> statistics = new HashMap<>();
+        endpointQueues.forEach((endpoint, queue) -> statistics.put(endpoint, queue.getStatistics()));
+        return statistics;
+    }
+
     /**
      * Establishes connection to the endpoint specified by the task
      *
@@ -500,8 +533,12 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    private boolean isRegistered(PollTask task) {
+        return scheduledPollTasks.containsKey(task) || groupedPollTasks.containsKey(task);
+    }
+
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        if (!isRegistered(task)) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -718,10 +755,180 @@ public class ModbusManagerImpl implements ModbusManager {
             timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
+            EndpointOperationQueue queue = endpointQueues.get(endpoint);
+            if (queue != null) {
+                queue.getStatistics().record(timer);
+            }
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
         }
     }
 
+    /**
+     * Key of a group of regular polls which are executed together
+     */
+    private static class PollGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final long pollPeriodMillis;
+
+        PollGroupKey(ModbusSlaveEndpoint endpoint, long pollPeriodMillis) {
+            this.endpoint = endpoint;
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, pollPeriodMillis);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof PollGroupKey)) {
+                return false;
+            }
+            PollGroupKey rhs = (PollGroupKey) obj;
+            return endpoint.equals(rhs.endpoint) && pollPeriodMillis == rhs.pollPeriodMillis;
+        }
+    }
+
+    /**
+     * Key of a single planned read of a poll group in the endpoint queue
+     */
+    private static class PlannedReadKey {
+        private final PollGroup group;
+        private final int index;
+
+        PlannedReadKey(PollGroup group, int index) {
+            this.group = group;
+            this.index = index;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(group), index);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof PlannedReadKey)) {
+                return false;
+            }
+            PlannedReadKey rhs = (PlannedReadKey) obj;
+            return group == rhs.group && index == rhs.index;
+        }
+    }
+
+    /**
+     * Regular polls of one endpoint with the same poll period, scheduled by a single job.
+     *
+     * The requests of the group are planned with {@link ReadRequestPlanner}, merged requests are executed once and
+     * the results are fanned out to the callbacks of the original poll tasks. Each planned read is queued as an
+     * operation of its own, so that writes do not wait for all reads of the group.
+     *
+     * The plan is rebuilt on the next poll after a task has been added or removed. Tasks and plan are guarded by the
+     * lock of the group, so that a plan built from the previous tasks cannot overwrite the reset.
+     */
+    private class PollGroup {
+        private final ModbusSlaveEndpoint endpoint;
+        private final long pollPeriodMillis;
+        private final Set<PollTask> tasks = new LinkedHashSet<>();
+        private @Nullable List<PlannedRead> plan;
+        private int maxPlanSize;
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        PollGroup(ModbusSlaveEndpoint endpoint, long pollPeriodMillis) {
+            this.endpoint = endpoint;
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        void start(ScheduledExecutorService executor, long initialDelayMillis) {
+            EndpointOperationQueue queue = getEndpointQueue(endpoint, executor);
+            future = executor.scheduleWithFixedDelay(() -> {
+                List<PlannedRead> plan = getPlan();
+                for (int index = 0; index < plan.size(); index++) {
+                    PlannedRead read = plan.get(index);
+                    if (!queue.submitRegularPoll(new PlannedReadKey(this, index), () -> poll(read))) {
+                        logger.debug("Previous poll {} of poll group for endpoint {} still queued, dropping this poll",
+                                read.getRequest(), endpoint);
+                    }
+                }
+            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+
+        synchronized void add(PollTask task) {
+            tasks.add(task);
+            plan = null;
+        }
+
+        /**
+         * Remove task from the group
+         *
+         * @return whether the group is empty now
+         */
+        synchronized boolean remove(PollTask task) {
+            tasks.remove(task);
+            plan = null;
+            return tasks.isEmpty();
+        }
+
+        synchronized void cancel() {
+            ScheduledFuture<?> future = this.future;
+            if (future != null) {
+                future.cancel(true);
+            }
+            EndpointOperationQueue queue = endpointQueues.get(endpoint);
+            if (queue != null) {
+                for (int index = 0; index < maxPlanSize; index++) {
+                    queue.removeRegularPoll(new PlannedReadKey(this, index));
+                }
+            }
+        }
+
+        private synchronized List<PlannedRead> getPlan() {
+            List<PlannedRead> plan = this.plan;
+            if (plan == null) {
+                this.plan = plan = ReadRequestPlanner.plan(tasks);
+                maxPlanSize = Math.max(maxPlanSize, plan.size());
+                logger.debug("Planned {} requests for {} poll tasks of endpoint {} (period {}ms)", plan.size(),
+                        tasks.size(), endpoint, pollPeriodMillis);
+            }
+            return plan;
+        }
+
+        private void poll(PlannedRead read) {
+            try {
+                if (read.isMerged()) {
+                    executeOperation(new BasicPollTask(endpoint, read.getRequest(), result -> {
+                        for (PollTask task : read.getTasks()) {
+                            if (isRegistered(task)) {
+                                task.getResultCallback().handle(ReadRequestPlanner.slice(result, task.getRequest()));
+                            }
+                        }
+                    }, failure -> {
+                        for (PollTask task : read.getTasks()) {
+                            if (isRegistered(task)) {
+                                task.getFailureCallback().handle(
+                                        new AsyncModbusFailure<>(task.getRequest(), failure.getCause()));
+                            }
+                        }
+                    }), true, pollOperation);
+                } else {
+                    executeOperation(read.getTasks().get(0), false, pollOperation);
+                }
+            } catch (RuntimeException e) {
+                // See executeRegularPoll
+                logger.warn(
+                        "Execution of scheduled ({}ms) poll {} of poll group for endpoint {} failed unexpectedly. Ignoring exception, polling again according to poll interval.",
+                        pollPeriodMillis, read.getRequest(), endpoint, e);
+            }
+        }
+    }
+
     private class ModbusCommunicationInterfaceImpl implements ModbusCommunicationInterface {
 
         private volatile ModbusSlaveEndpoint endpoint;
@@ -748,7 +955,7 @@ public class ModbusManagerImpl implements ModbusManager {
             long scheduleTime = System.currentTimeMillis();
             BasicPollTask task = new BasicPollTask(endpoint, request, resultCallback, failureCallback);
             logger.debug("Scheduling one-off poll task {}", task);
-            Future<?> future = executor.submit(() -> {
+            Future<?> future = getEndpointQueue(endpoint, executor).submitOneTimePoll(() -> {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
@@ -774,25 +981,15 @@ public class ModbusManagerImpl implements ModbusManager {
                     logger.trace("Unregistering previous poll task (possibly with different period)");
                     unregisterRegularPoll(task);
                 }
+                if (coalesceReadRequests) {
+                    return registerGroupedPoll(executor, task, pollPeriodMillis, initialDelayMillis);
+                }
+                EndpointOperationQueue queue = getEndpointQueue(endpoint, executor);
                 ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                    long started = System.currentTimeMillis();
-                    logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                            started);
-                    try {
-                        executeOperation(task, false, pollOperation);
-                    } catch (RuntimeException e) {
-                        // We want to catch all unexpected exceptions since all unhandled exceptions make
-                        // ScheduledExecutorService halt the polling. It is better to print out the exception, and try
-                        // again
-                        // (on next poll cycle)
-                        logger.warn(
-                                "Execution of scheduled ({}ms) poll task {} failed unexpectedly. Ignoring exception, polling again according to poll interval.",
-                                pollPeriodMillis, task, e);
+                    // Poll is dropped if the previous execution is still waiting in the endpoint queue
+                    if (!queue.submitRegularPoll(task, () -> executeRegularPoll(task, pollPeriodMillis))) {
+                        logger.debug("Previous execution of poll task {} still queued, dropping this poll", task);
                     }
-                    long finished = System.currentTimeMillis();
-                    logger.debug(
-                            "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                            pollPeriodMillis, task, finished, started, finished - started);
                 }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
 
                 scheduledPollTasks.put(task, future);
@@ -803,6 +1000,50 @@ public class ModbusManagerImpl implements ModbusManager {
             }
         }
 
+        private void executeRegularPoll(PollTask task, long pollPeriodMillis) {
+            long started = System.currentTimeMillis();
+            logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
+                    started);
+            try {
+                executeOperation(task, false, pollOperation);
+            } catch (RuntimeException e) {
+                // We want to catch all unexpected exceptions so that they are not silently swallowed by the
+                // endpoint queue. It is better to print out the exception, and try again (on next poll cycle)
+                logger.warn(
+                        "Execution of scheduled ({}ms) poll task {} failed unexpectedly. Ignoring exception, polling again according to poll interval.",
+                        pollPeriodMillis, task, e);
+            }
+            long finished = System.currentTimeMillis();
+            logger.debug(
+                    "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
+                    pollPeriodMillis, task, finished, started, finished - started);
+        }
+
+        private PollTask registerGroupedPoll(ScheduledExecutorService executor, BasicPollTask task,
+                long pollPeriodMillis, long initialDelayMillis) {
+            PollGroupKey key = new PollGroupKey(endpoint, pollPeriodMillis);
+            PollGroup group = pollGroups.get(key);
+            boolean newGroup = group == null;
+            if (group == null) {
+                group = new PollGroup(endpoint, pollPeriodMillis);
+                pollGroups.put(key, group);
+            }
+            // register the task before the group starts, so that the first poll includes it
+            group.add(task);
+            groupedPollTasks.put(task, group);
+            pollTasksRegisteredByThisCommInterface.add(task);
+            if (newGroup) {
+                group.start(executor, initialDelayMillis);
+            }
+            ScheduledFuture<?> future = group.future;
+            if (future != null) {
+                scheduledPollTasks.put(task, future);
+            }
+            logger.trace("Registered poll task {} with period {} to poll group of endpoint {}", task, pollPeriodMillis,
+                    endpoint);
+            return task;
+        }
+
         @SuppressWarnings({ "null", "unused" })
         @Override
         public boolean unregisterRegularPoll(PollTask task) {
@@ -815,6 +1056,17 @@ public class ModbusManagerImpl implements ModbusManager {
                 ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
                 Objects.requireNonNull(localConnectionFactory, "Not activated!");
 
+                PollGroup group = groupedPollTasks.remove(task);
+                if (group != null) {
+                    scheduledPollTasks.remove(task);
+                    if (group.remove(task)) {
+                        logger.debug("Last poll task {} of poll group unregistered, canceling the group", task);
+                        pollGroups.remove(new PollGroupKey(group.endpoint, group.pollPeriodMillis));
+                        group.cancel();
+                    }
+                    return true;
+                }
+
                 // cancel poller
                 @Nullable
                 ScheduledFuture<?> future = scheduledPollTasks.remove(task);
@@ -825,6 +1077,11 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
                 logger.debug("Unregistering regular poll task {} (interrupting if necessary)", task);
                 future.cancel(true);
+                EndpointOperationQueue queue = endpointQueues.get(endpoint);
+                if (queue != null) {
+                    // drops queued executions and interrupts a running one
+                    queue.removeRegularPoll(task);
+                }
                 logger.debug("Poll task {} canceled", task);
                 return true;
             }
@@ -841,7 +1098,7 @@ public class ModbusManagerImpl implements ModbusManager {
             WriteTask task = new BasicWriteTask(endpoint, request, resultCallback, failureCallback);
             long scheduleTime = System.currentTimeMillis();
             logger.debug("Scheduling one-off write task {}", task);
-            Future<?> future = localScheduledThreadPoolExecutor.submit(() -> {
+            Future<?> future = getEndpointQueue(endpoint, localScheduledThreadPoolExecutor).submitWrite(() -> {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
@@ -911,6 +1168,7 @@ public class ModbusManagerImpl implements ModbusManager {
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
             // is usually pretty soon as transactions should be relatively short-lived)
+            endpointQueues.remove(endpoint);
             ModbusSlaveConnectionFactoryImpl localConnectionFactory = connectionFactory;
             if (localConnectionFactory != null) {
                 localConnectionFactory.disconnectOnReturn(endpoint, System.currentTimeMillis());
@@ -930,6 +1188,8 @@ public class ModbusManagerImpl implements ModbusManager {
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            Object coalesce = configProperties.get(CONFIG_COALESCE_READ_REQUESTS);
+            coalesceReadRequests = coalesce != null && Boolean.parseBoolean(coalesce.toString());
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -973,6 +1233,7 @@ public class ModbusManagerImpl implements ModbusManager {
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
             connectionFactory = null;
+            endpointQueues.clear();
             logger.debug("Modbus manager deactivated");
         }
     }
@@ -1008,6 +1269,10 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            endpointQueues.forEach((endpoint, queue) -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint queue {}, statistics {}", queue, queue.getStatistics());
+            });
+
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
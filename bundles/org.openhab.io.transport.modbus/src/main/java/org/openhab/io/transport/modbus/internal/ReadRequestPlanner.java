@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+
+/**
+ * Plans the wire requests for a set of poll tasks.
+ *
+ * Read requests of the same slave and function code whose ranges overlap or are adjacent are merged into a single
+ * request, as long as the merged request stays within the limits of the Modbus protocol. Results of a merged request
+ * are sliced back to the original requests with {@link #slice(AsyncModbusReadResult, ModbusReadRequestBlueprint)}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+public class ReadRequestPlanner {
+
+    /**
+     * Maximum number of registers in a single read request (function codes 3 and 4)
+     */
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read request (function codes 1 and 2)
+     */
+    public static final int MAX_BITS_PER_REQUEST = 2000;
+
+    private static final Comparator<PollTask> BY_SLAVE_FUNCTION_CODE_AND_START = Comparator
+            .<PollTask> comparingInt(task -> task.getRequest().getUnitID())
+            .thenComparing(task -> task.getRequest().getFunctionCode())
+            .thenComparingInt(task -> task.getRequest().getReference());
+
+    /**
+     * A single request on the wire, together with the poll tasks it serves.
+     */
+    public static class PlannedRead {
+        private final ModbusReadRequestBlueprint request;
+        private final List<PollTask> tasks;
+
+        PlannedRead(ModbusReadRequestBlueprint request, List<PollTask> tasks) {
+            this.request = request;
+            this.tasks = Collections.unmodifiableList(tasks);
+        }
+
+        /**
+         * @return request to send to the slave
+         */
+        public ModbusReadRequestBlueprint getRequest() {
+            return request;
+        }
+
+        /**
+         * @return poll tasks served by the request
+         */
+        public List<PollTask> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * @return whether this request combines the requests of more than one poll task
+         */
+        public boolean isMerged() {
+            return tasks.size() > 1;
+        }
+    }
+
+    /**
+     * Get the maximum number of data items a single request can read with the given function code
+     *
+     * @param functionCode function code of the request
+     * @return maximum number of registers or bits
+     */
+    public static int getMaxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_REQUEST;
+            default:
+                return MAX_REGISTERS_PER_REQUEST;
+        }
+    }
+
+    /**
+     * Plan the wire requests for the given poll tasks.
+     *
+     * @param tasks poll tasks, typically polled with the same period on the same endpoint
+     * @return planned requests, ordered by slave, function code and start address
+     */
+    public static List<PlannedRead> plan(Collection<PollTask> tasks) {
+        List<PollTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(BY_SLAVE_FUNCTION_CODE_AND_START);
+
+        List<PlannedRead> plan = new ArrayList<>();
+        List<PollTask> current = new ArrayList<>();
+        int currentStart = 0;
+        int currentEnd = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            int start = request.getReference();
+            int end = start + request.getDataLength();
+            if (!current.isEmpty()) {
+                ModbusReadRequestBlueprint first = current.get(0).getRequest();
+                boolean compatible = first.getUnitID() == request.getUnitID()
+                        && first.getFunctionCode() == request.getFunctionCode();
+                int mergedEnd = Math.max(currentEnd, end);
+                if (compatible && start <= currentEnd
+                        && mergedEnd - currentStart <= getMaxDataLength(request.getFunctionCode())) {
+                    current.add(task);
+                    currentEnd = mergedEnd;
+                    continue;
+                }
+                plan.add(createPlannedRead(current, currentStart, currentEnd));
+                current = new ArrayList<>();
+            }
+            current.add(task);
+            currentStart = start;
+            currentEnd = end;
+        }
+        if (!current.isEmpty()) {
+            plan.add(createPlannedRead(current, currentStart, currentEnd));
+        }
+        return plan;
+    }
+
+    /**
+     * Extract the data of one of the original requests from the result of a merged request
+     *
+     * @param result result of the merged request
+     * @param request original request, fully contained in the merged request
+     * @return result for the original request
+     */
+    public static AsyncModbusReadResult slice(AsyncModbusReadResult result, ModbusReadRequestBlueprint request) {
+        int offset = request.getReference() - result.getRequest().getReference();
+        int length = request.getDataLength();
+        Optional<ModbusRegisterArray> registers = result.getRegisters();
+        if (registers.isPresent()) {
+            ModbusRegister[] sliced = new ModbusRegister[length];
+            for (int i = 0; i < length; i++) {
+                sliced[i] = registers.get().getRegister(offset + i);
+            }
+            return new AsyncModbusReadResult(request, new ModbusRegisterArray(sliced));
+        }
+        BitArray bits = result.getBits().orElseThrow(() -> new IllegalArgumentException("Result without data"));
+        BitArray sliced = new BitArray(length);
+        for (int i = 0; i < length; i++) {
+            sliced.setBit(i, bits.getBit(offset + i));
+        }
+        return new AsyncModbusReadResult(request, sliced);
+    }
+
+    private static PlannedRead createPlannedRead(List<PollTask> tasks, int start, int end) {
+        if (tasks.size() == 1) {
+            return new PlannedRead(tasks.get(0).getRequest(), tasks);
+        }
+        ModbusReadRequestBlueprint first = tasks.get(0).getRequest();
+        int maxTries = tasks.stream().mapToInt(task -> task.getRequest().getMaxTries()).max().orElse(1);
+        return new PlannedRead(new ModbusReadRequestBlueprint(first.getUnitID(), first.getFunctionCode(), start,
+                end - start, maxTries), tasks);
+    }
+}
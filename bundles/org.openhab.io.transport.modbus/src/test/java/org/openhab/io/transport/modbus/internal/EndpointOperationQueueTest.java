@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+
+/**
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class EndpointOperationQueueTest {
+
+    private static final ModbusTCPSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    /**
+     * Thread pool stand-in, which runs the handed over tasks only when asked to
+     */
+    private final Queue<Runnable> pool = new LinkedList<>();
+
+    private final EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, pool::add);
+
+    private final List<String> executed = new ArrayList<>();
+
+    private void runPool() {
+        Runnable next;
+        while ((next = pool.poll()) != null) {
+            next.run();
+        }
+    }
+
+    private Runnable record(String name) {
+        return () -> executed.add(name);
+    }
+
+    @Test
+    public void testOneOperationAtATime() {
+        queue.submitOneTimePoll(record("poll1"));
+        queue.submitOneTimePoll(record("poll2"));
+        queue.submitWrite(record("write"));
+
+        assertThat(pool.size(), is(equalTo(1)));
+        pool.poll().run();
+        assertThat(executed.size(), is(equalTo(1)));
+        assertThat(pool.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testWritesBeforeQueuedPolls() {
+        queue.submitOneTimePoll(record("poll1"));
+        queue.submitRegularPoll("regular", record("regular"));
+        queue.submitWrite(record("write1"));
+        queue.submitOneTimePoll(record("poll2"));
+        queue.submitWrite(record("write2"));
+
+        runPool();
+
+        assertThat(executed, is(equalTo(Arrays.asList("write1", "write2", "poll1", "regular", "poll2"))));
+    }
+
+    @Test
+    public void testQueuedRegularPollIsNotDuplicated() {
+        assertThat(queue.submitRegularPoll("regular", record("regular")), is(true));
+        assertThat(queue.submitRegularPoll("regular", record("duplicate")), is(false));
+        assertThat(queue.submitRegularPoll("other", record("other")), is(true));
+        assertThat(queue.getStatistics().getDroppedPolls(), is(equalTo(1L)));
+
+        runPool();
+        assertThat(executed, is(equalTo(Arrays.asList("regular", "other"))));
+
+        // once executed, the poll can be queued again
+        assertThat(queue.submitRegularPoll("regular", record("regular")), is(true));
+        runPool();
+        assertThat(executed, is(equalTo(Arrays.asList("regular", "other", "regular"))));
+        assertThat(queue.getStatistics().getDroppedPolls(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testOneTimePollsAreNotDeduplicated() {
+        queue.submitOneTimePoll(record("poll"));
+        queue.submitOneTimePoll(record("poll"));
+
+        runPool();
+
+        assertThat(executed, is(equalTo(Arrays.asList("poll", "poll"))));
+    }
+
+    @Test
+    public void testRemovedRegularPollIsDropped() {
+        queue.submitOneTimePoll(record("poll"));
+        queue.submitRegularPoll("regular", record("regular"));
+        queue.removeRegularPoll("regular");
+
+        runPool();
+
+        assertThat(executed, is(equalTo(Arrays.asList("poll"))));
+        assertThat(queue.submitRegularPoll("regular", record("regular")), is(true));
+    }
+
+    @Test
+    public void testFailingOperationDoesNotStopQueue() {
+        Future<?> failed = queue.submitWrite(() -> {
+            throw new IllegalStateException("failure");
+        });
+        queue.submitOneTimePoll(record("poll"));
+
+        runPool();
+
+        assertThat(failed.isDone(), is(true));
+        assertThat(executed, is(equalTo(Arrays.asList("poll"))));
+    }
+
+    @Test
+    public void testRemovingRunningRegularPollInterruptsIt() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, executor);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            AtomicBoolean nextInterrupted = new AtomicBoolean(true);
+
+            queue.submitRegularPoll("regular", () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+
+            queue.removeRegularPoll("regular");
+            assertThat(interrupted.await(5, TimeUnit.SECONDS), is(true));
+
+            // the interrupt must not leak into the next operation
+            queue.submitOneTimePoll(() -> nextInterrupted.set(Thread.currentThread().isInterrupted())).get(5,
+                    TimeUnit.SECONDS);
+            assertThat(nextInterrupted.get(), is(false));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        AggregateStopWatch timer = new AggregateStopWatch();
+        timer.connection.resume();
+        Thread.sleep(20);
+        timer.connection.suspend();
+
+        queue.getStatistics().record(timer);
+        queue.getStatistics().record(new AggregateStopWatch());
+
+        EndpointStatistics statistics = queue.getStatistics();
+        assertThat(statistics.getOperations(), is(equalTo(2L)));
+        assertThat(statistics.getConnectionMillis() >= 20, is(true));
+        assertThat(statistics.getTransactionMillis(), is(equalTo(0L)));
+        assertThat(statistics.getCallbackMillis(), is(equalTo(0L)));
+        assertThat(statistics.getDroppedPolls(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testQueueWaitIsRecorded() throws Exception {
+        queue.submitOneTimePoll(record("poll"));
+        Thread.sleep(20);
+
+        runPool();
+
+        assertThat(queue.getStatistics().getQueueWaitMillis() >= 20, is(true));
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.BasicPollTask;
+import org.openhab.io.transport.modbus.internal.ReadRequestPlanner;
+import org.openhab.io.transport.modbus.internal.ReadRequestPlanner.PlannedRead;
+
+/**
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class ReadRequestPlannerTest {
+
+    private static final ModbusTCPSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private static PollTask task(int slaveId, ModbusReadFunctionCode functionCode, int start, int length,
+            int maxTries) {
+        return new BasicPollTask(ENDPOINT,
+                new ModbusReadRequestBlueprint(slaveId, functionCode, start, length, maxTries), result -> {
+                }, failure -> {
+                });
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingRequestsAreMerged() {
+        PollTask task1 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 5, 1);
+        PollTask task2 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, 3);
+        PollTask task3 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 12, 8, 2);
+
+        List<PlannedRead> plan = ReadRequestPlanner.plan(Arrays.asList(task1, task2, task3));
+
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).isMerged(), is(equalTo(true)));
+        assertThat(plan.get(0).getRequest(), is(equalTo(
+                new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 20, 3))));
+        assertThat(plan.get(0).getTasks(), is(equalTo(Arrays.asList(task2, task1, task3))));
+    }
+
+    @Test
+    public void testIncompatibleRequestsAreNotMerged() {
+        PollTask gap = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1);
+        PollTask afterGap = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 6, 5, 1);
+        PollTask otherSlave = task(2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1);
+        PollTask otherFunctionCode = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 5, 1);
+
+        List<PlannedRead> plan = ReadRequestPlanner
+                .plan(Arrays.asList(otherSlave, afterGap, otherFunctionCode, gap));
+
+        assertThat(plan.size(), is(equalTo(4)));
+        for (PlannedRead read : plan) {
+            assertThat(read.isMerged(), is(equalTo(false)));
+            assertThat(read.getRequest(), is(equalTo(read.getTasks().get(0).getRequest())));
+        }
+    }
+
+    @Test
+    public void testMergedRequestStaysWithinProtocolLimits() {
+        PollTask task1 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100, 1);
+        PollTask task2 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 26, 1);
+        PollTask task3 = task(1, ModbusReadFunctionCode.READ_COILS, 0, 1000, 1);
+        PollTask task4 = task(1, ModbusReadFunctionCode.READ_COILS, 1000, 1000, 1);
+
+        List<PlannedRead> plan = ReadRequestPlanner.plan(Arrays.asList(task1, task2, task3, task4));
+
+        assertThat(plan.size(), is(equalTo(3)));
+        assertThat(plan.get(0).getRequest().getFunctionCode(), is(equalTo(ModbusReadFunctionCode.READ_COILS)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(2000)));
+        assertThat(plan.get(1).getTasks(), is(equalTo(Arrays.asList(task1))));
+        assertThat(plan.get(2).getTasks(), is(equalTo(Arrays.asList(task2))));
+    }
+
+    @Test
+    public void testSliceRegisters() {
+        ModbusReadRequestBlueprint merged = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 5, 1);
+        ModbusReadRequestBlueprint original = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 12, 2, 1);
+
+        AsyncModbusReadResult result = ReadRequestPlanner.slice(
+                new AsyncModbusReadResult(merged, new ModbusRegisterArray(1, 2, 3, 4, 5)), original);
+
+        assertThat(result.getRequest(), is(sameInstance(original)));
+        ModbusRegisterArray registers = result.getRegisters().get();
+        assertThat(registers.size(), is(equalTo(2)));
+        assertThat(registers.getRegister(0).getValue(), is(equalTo(3)));
+        assertThat(registers.getRegister(1).getValue(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testSliceBits() {
+        ModbusReadRequestBlueprint merged = new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_COILS, 0, 4,
+                1);
+        ModbusReadRequestBlueprint original = new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_COILS, 1, 3,
+                1);
+
+        AsyncModbusReadResult result = ReadRequestPlanner
+                .slice(new AsyncModbusReadResult(merged, new BitArray(true, false, true, true)), original);
+
+        BitArray bits = result.getBits().get();
+        assertThat(bits.size(), is(equalTo(3)));
+        assertThat(bits.getBit(0), is(equalTo(false)));
+        assertThat(bits.getBit(1), is(equalTo(true)));
+        assertThat(bits.getBit(2), is(equalTo(true)));
+    }
+}
@@ -25,6 +25,8 @@ import java.net.SocketImpl;
 import java.net.SocketImplFactory;
 import java.net.UnknownHostException;
 import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -54,6 +56,7 @@ import org.openhab.io.transport.modbus.exception.ModbusSlaveIOException;
 import org.slf4j.LoggerFactory;
 
 import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
 import net.wimpi.modbus.msg.WriteCoilRequest;
 import net.wimpi.modbus.msg.WriteMultipleCoilsRequest;
 import net.wimpi.modbus.procimg.SimpleDigitalIn;
@@ -688,6 +691,90 @@ public class SmokeTest extends IntegrationTestSupport {
         }
     }
 
+    /**
+     * Regular polls of adjacent and overlapping ranges are read with a single request, and the result is split back
+     * to each poll
+     */
+    @Test
+    public void testRegularReadCoalescedFansOutToEveryPoll() throws Exception {
+        useCoalescingModbusManager();
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        CountDownLatch callbacksCalled = new CountDownLatch(3 * 3);
+        // the initial delay lets all polls be registered before the first poll of the group
+        try (ModbusCommunicationInterface comms = modbusManager.newModbusCommunicationInterface(endpoint, null)) {
+            for (int reference : new int[] { 1, 6, 3 }) {
+                comms.registerRegularPoll(new ModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                        ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, reference, 5, 1), 150, 200, result -> {
+                            try {
+                                ModbusRegisterArray registers = result.getRegisters().get();
+                                assertThat(registers.size(), is(equalTo(5)));
+                                testHoldingValues(registers, reference);
+                            } catch (AssertionError | RuntimeException e) {
+                                unexpectedCount.incrementAndGet();
+                            }
+                            callbacksCalled.countDown();
+                        }, failure -> {
+                            unexpectedCount.incrementAndGet();
+                            callbacksCalled.countDown();
+                        });
+            }
+            assertTrue(callbacksCalled.await(60, TimeUnit.SECONDS));
+        }
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        synchronized (modbustRequestCaptor.getAllReturnValues()) {
+            for (ModbusRequest request : modbustRequestCaptor.getAllReturnValues()) {
+                assertThat(request, is(instanceOf(ReadMultipleRegistersRequest.class)));
+                assertThat(((ReadMultipleRegistersRequest) request).getReference(), is(equalTo(1)));
+                assertThat(((ReadMultipleRegistersRequest) request).getWordCount(), is(equalTo(10)));
+            }
+        }
+    }
+
+    /**
+     * A poll registered to a group which is polling already is included in the next polls
+     */
+    @Test
+    public void testRegularReadCoalescedAddedDuringPoll() throws Exception {
+        useCoalescingModbusManager();
+        generateData();
+        artificialServerWait = 100;
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+
+        CountDownLatch firstPolled = new CountDownLatch(1);
+        CountDownLatch secondPolled = new CountDownLatch(3);
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        try (ModbusCommunicationInterface comms = modbusManager.newModbusCommunicationInterface(endpoint, null)) {
+            comms.registerRegularPoll(new ModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                    ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 5, 1), 150, 0,
+                    result -> firstPolled.countDown(), failure -> unexpectedCount.incrementAndGet());
+            // register while the first poll waits for the slow slave
+            waitForAssert(() -> assertThat(modbustRequestCaptor.getAllReturnValues().size(), is(not(0))), 5000, 10);
+            comms.registerRegularPoll(new ModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                    ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 50, 5, 1), 150, 0, result -> {
+                        try {
+                            testHoldingValues(result.getRegisters().get(), 50);
+                        } catch (AssertionError | RuntimeException e) {
+                            unexpectedCount.incrementAndGet();
+                        }
+                        secondPolled.countDown();
+                    }, failure -> unexpectedCount.incrementAndGet());
+
+            assertTrue(firstPolled.await(60, TimeUnit.SECONDS));
+            assertTrue(secondPolled.await(60, TimeUnit.SECONDS));
+        }
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+    }
+
+    private void useCoalescingModbusManager() {
+        modbusManager.close();
+        Map<String, Object> configProperties = new HashMap<>();
+        configProperties.put("coalesceReadRequests", true);
+        modbusManager = new NonOSGIModbusManager(configProperties);
+    }
+
     /**
      *
      * @param unexpectedCount number of unexpected callback calls
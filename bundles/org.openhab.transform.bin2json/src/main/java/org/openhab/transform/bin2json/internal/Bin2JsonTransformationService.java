@@ -12,6 +12,9 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
@@ -30,8 +33,16 @@ import org.slf4j.LoggerFactory;
 @Component(immediate = true, property = { "smarthome.transform=BIN2JSON" })
 public class Bin2JsonTransformationService implements TransformationService {
 
+    /**
+     * Rules come from the configuration and there are rarely more than a handful of them. Any further rule is
+     * prepared on every call, like all of them used to be.
+     */
+    private static final int MAX_PREPARED_RULES = 64;
+
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    private final Map<String, Bin2Json> converters = new ConcurrentHashMap<>();
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -46,7 +57,7 @@ public class Bin2JsonTransformationService implements TransformationService {
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            result = getConverter(syntax).convert(source);
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +67,43 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    /**
+     * Transforms the binary input <code>source</code> by Java Binary Block Parser syntax, without the need to encode
+     * it as hexadecimal string first.
+     *
+     * @param syntax Java Binary Block Parser syntax.
+     * @param source the binary input to transform
+     * @return the JSON formatted result
+     * @throws TransformationException if the syntax is invalid or the data does not match it
+     */
+    public String transform(String syntax, byte[] source) throws TransformationException {
+        final long startTime = System.currentTimeMillis();
+        logger.debug("About to transform {} bytes by the Bin2Json syntax '{}'", source.length, syntax);
+
+        String result = "";
+
+        try {
+            result = getConverter(syntax).convert(source);
+            logger.debug("transformation resulted '{}'", result);
+            return result;
+        } catch (ConversionException e) {
+            throw new TransformationException("An error occurred while executing the converter. " + e.getMessage(), e);
+        } finally {
+            logger.trace("Bin2Json execution elapsed {} ms. Result: {}", System.currentTimeMillis() - startTime,
+                    result);
+        }
+    }
+
+    private Bin2Json getConverter(String syntax) throws ConversionException {
+        Bin2Json converter = converters.get(syntax);
+        if (converter == null) {
+            // rules with syntax errors throw here and are never kept
+            converter = new Bin2Json(syntax);
+            if (converters.size() < MAX_PREPARED_RULES) {
+                converters.put(syntax, converter);
+            }
+        }
+        return converter;
+    }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+
+/**
+ * The expected results are the ones the former conversion to a Gson JsonObject produced.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class Bin2JsonTest {
+
+    @Test
+    public void testConvertData() throws ConversionException {
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", new Bin2Json("byte a; byte b; ubyte c;").convert("03FAFF"));
+    }
+
+    @Test
+    public void testConvertByteArrayAndStream() throws ConversionException {
+        Bin2Json bin2Json = new Bin2Json("byte a; byte b; ubyte c;");
+        byte[] data = { 0x03, (byte) 0xFA, (byte) 0xFF };
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", bin2Json.convert(data));
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", bin2Json.convert(new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    public void testConvertNumbers() throws ConversionException {
+        assertEquals("{\"s\":-2,\"u\":65534,\"i\":-1,\"l\":16}",
+                new Bin2Json("short s; ushort u; int i; long l;").convert("FFFEFFFEFFFFFFFF0000000000000010"));
+    }
+
+    @Test
+    public void testConvertBitsAndBooleans() throws ConversionException {
+        assertEquals("{\"a\":3,\"b\":3,\"f\":false,\"t\":true}",
+                new Bin2Json("bit:4 a; bit:4 b; bool f; bool t;").convert("330001"));
+    }
+
+    @Test
+    public void testConvertArrays() throws ConversionException {
+        assertEquals("{\"a\":[1,-1],\"b\":[1,255],\"s\":[-2],\"u\":[65534],\"f\":[false,true]}",
+                new Bin2Json("byte[2] a; ubyte[2] b; short[1] s; ushort[1] u; bool[2] f;")
+                        .convert("01FF01FFFFFEFFFE0001"));
+    }
+
+    @Test
+    public void testConvertStructs() throws ConversionException {
+        assertEquals("{\"a\":1,\"s\":{\"b\":-1,\"c\":128}}",
+                new Bin2Json("byte a; s { byte b; ubyte c; }").convert("01FF80"));
+    }
+
+    @Test
+    public void testConvertStructArrays() throws ConversionException {
+        assertEquals("{\"n\":2,\"items\":[{\"items\":{\"v\":1}},{\"items\":{\"v\":2}}]}",
+                new Bin2Json("ubyte n; items[2] { byte v; }").convert("020102"));
+    }
+
+    @Test
+    public void testConvertUnnamedFields() throws ConversionException {
+        // the last value of fields with the same name wins, at the position of the first one
+        assertEquals("{\"nonamed\":3,\"b\":2}", new Bin2Json("byte; byte b; byte;").convert("010203"));
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testIllegalRule() throws ConversionException {
+        new Bin2Json("byte a; unknown b;");
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testIllegalHexString() throws ConversionException {
+        new Bin2Json("byte a;").convert("0X");
+    }
+
+    @Test(expected = ConversionException.class)
+    public void testTooShortData() throws ConversionException {
+        new Bin2Json("int a;").convert("0102");
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class Bin2JsonTransformationServiceTest {
+
+    private Bin2JsonTransformationService processor;
+
+    @Before
+    public void init() {
+        processor = new Bin2JsonTransformationService();
+    }
+
+    @Test
+    public void testSameRuleOnChangingData() throws TransformationException {
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}", processor.transform("byte a; byte b; ubyte c;", "03FAFF"));
+        assertEquals("{\"a\":1,\"b\":2,\"c\":128}", processor.transform("byte a; byte b; ubyte c;", "010280"));
+    }
+
+    @Test
+    public void testTransformByteArray() throws TransformationException {
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}",
+                processor.transform("byte a; byte b; ubyte c;", new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF }));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformTooShortByteArray() throws TransformationException {
+        processor.transform("int a;", new byte[] { 0x01, 0x02 });
+    }
+
+    @Test
+    public void testIllegalRuleFailsEveryTime() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                processor.transform("byte a; unknown b;", "0102");
+                fail("illegal rule must not be accepted");
+            } catch (TransformationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testManyDistinctRules() throws TransformationException {
+        for (int i = 0; i < 100; i++) {
+            assertEquals("{\"v" + i + "\":" + i + "}", processor.transform("ubyte v" + i + ";",
+                    String.format("%02X", i)));
+        }
+    }
+}
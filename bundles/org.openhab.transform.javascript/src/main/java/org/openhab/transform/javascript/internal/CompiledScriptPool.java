@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of pre compiled instances of one JavaScript file. Every instance is compiled on its own {@link ScriptEngine},
+ * so up to <code>maxConcurrency</code> transformations with the same script can run in parallel without sharing
+ * engine state. A caller that does not get a pooled instance within the acquire timeout, e.g. because a script
+ * hangs, gets a freshly compiled instance which is dropped after use.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class CompiledScriptPool {
+
+    private final Logger logger = LoggerFactory.getLogger(CompiledScriptPool.class);
+
+    private final ScriptEngineManager manager;
+    private final String path;
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final Queue<CompiledScript> idleScripts = new ConcurrentLinkedQueue<>();
+    private final Set<CompiledScript> unpooledScripts = ConcurrentHashMap.newKeySet();
+    private final ExecutionStatistics statistics = new ExecutionStatistics();
+
+    CompiledScriptPool(ScriptEngineManager manager, String path, int maxConcurrency, long acquireTimeoutMillis) {
+        this.manager = manager;
+        this.path = path;
+        this.permits = new Semaphore(maxConcurrency);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * Borrows a compiled script from the pool, waits up to the acquire timeout if all instances are in use and
+     * compiles a new instance if the pool is not exhausted yet. If the timeout elapses an instance outside of the
+     * pool is compiled. The script must be handed back by {@link #release(CompiledScript)} in any case.
+     *
+     * @return a compiled script for exclusive use by the caller
+     * @throws TransformationException if the script could not be compiled or the thread has been interrupted
+     */
+    CompiledScript borrow() throws TransformationException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.debug("All instances of JavaScript {} busy for {} ms, compiling an extra one", path,
+                        acquireTimeoutMillis);
+                CompiledScript script = compile();
+                unpooledScripts.add(script);
+                return script;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for JavaScript " + path, e);
+        }
+
+        CompiledScript script = idleScripts.poll();
+        if (script != null) {
+            return script;
+        }
+
+        try {
+            return compile();
+        } catch (TransformationException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands back a script borrowed by {@link #borrow()}.
+     *
+     * @param script the script to return into the pool
+     */
+    void release(CompiledScript script) {
+        if (unpooledScripts.remove(script)) {
+            return;
+        }
+        idleScripts.offer(script);
+        permits.release();
+    }
+
+    ExecutionStatistics getStatistics() {
+        return statistics;
+    }
+
+    private CompiledScript compile() throws TransformationException {
+        logger.debug("Loading script {} from storage ", path);
+        try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
+            final ScriptEngine engine = manager.getEngineByName("javascript");
+            final CompiledScript cScript = ((Compilable) engine).compile(reader);
+            logger.debug("Putting compiled JavaScript {} to pool.", cScript);
+            return cScript;
+        } catch (IOException | ScriptException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Execution times of the most recent transformations of one script, kept in a fixed size ring buffer.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class ExecutionStatistics {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private long count;
+
+    /**
+     * Records one execution.
+     *
+     * @param nanos execution time in nanoseconds
+     */
+    synchronized void record(long nanos) {
+        samples[(int) (count % SAMPLE_SIZE)] = nanos;
+        count++;
+    }
+
+    /**
+     * @return total number of recorded executions
+     */
+    synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Calculates a percentile over the most recent executions.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return execution time in nanoseconds, 0 if nothing has been recorded yet
+     */
+    long getPercentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, SAMPLE_SIZE));
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for the JavaScript transformation service
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+@NonNullByDefault
+public class JavaScriptCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String SUBCMD_STATISTICS = "stats";
+
+    private @NonNullByDefault({}) JavaScriptEngineManager manager;
+
+    public JavaScriptCommandExtension() {
+        super("jstransform", "Interact with the JavaScript transformation service.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0) {
+            String subCommand = args[0];
+            switch (subCommand) {
+                case SUBCMD_STATISTICS:
+                    printStatistics(console);
+                    break;
+                default:
+                    console.println("Unknown command '" + subCommand + "'");
+                    printUsage(console);
+                    break;
+            }
+        } else {
+            printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(
+                buildCommandUsage(SUBCMD_STATISTICS, "print execution times of the cached JavaScript files"));
+    }
+
+    @Reference
+    public void setJavaScriptEngineManager(JavaScriptEngineManager manager) {
+        this.manager = manager;
+    }
+
+    public void unsetJavaScriptEngineManager(JavaScriptEngineManager manager) {
+        this.manager = null;
+    }
+
+    private void printStatistics(Console console) {
+        Map<String, ExecutionStatistics> statistics = manager.getStatistics();
+        if (statistics.isEmpty()) {
+            console.println("No JavaScript transformation has been executed yet.");
+            return;
+        }
+        console.println(String.format("%-40s %10s %10s %10s", "Script", "Count", "p50 [ms]", "p99 [ms]"));
+        statistics.forEach((filename, stats) -> console.println(String.format("%-40s %10d %10.3f %10.3f", filename,
+                stats.getCount(), stats.getPercentile(50) / 1e6, stats.getPercentile(99) / 1e6)));
+    }
+}
@@ -13,22 +13,17 @@
 package org.openhab.transform.javascript.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
-import javax.script.Compilable;
-import javax.script.CompiledScript;
-import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.jdt.annotation.Nullable;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,42 +34,71 @@ import org.slf4j.LoggerFactory;
  *
  */
 @NonNullByDefault
-@Component(service = JavaScriptEngineManager.class)
+@Component(service = JavaScriptEngineManager.class, configurationPid = "org.openhab.jstransform")
 public class JavaScriptEngineManager {
 
+    private static final String CONFIG_MAX_CONCURRENCY = "maxConcurrency";
+    private static final int DEFAULT_MAX_CONCURRENCY = 2;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 2000;
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, CompiledScriptPool> scriptPoolMap = new ConcurrentHashMap<>();
+
+    private volatile int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+    @Activate
+    protected void activate(@Nullable Map<String, Object> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, Object> config) {
+        int newMaxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        Object value = config == null ? null : config.get(CONFIG_MAX_CONCURRENCY);
+        if (value != null) {
+            try {
+                newMaxConcurrency = Math.max(1, Integer.parseInt(value.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for {}, using {}", value, CONFIG_MAX_CONCURRENCY,
+                        DEFAULT_MAX_CONCURRENCY);
+            }
+        }
+        if (newMaxConcurrency != maxConcurrency) {
+            logger.debug("Running up to {} concurrent executions per JavaScript.", newMaxConcurrency);
+            maxConcurrency = newMaxConcurrency;
+            scriptPoolMap.clear();
+        }
+    }
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
+     * Get the pool of pre compiled instances {@link CompiledScriptPool} of a script from cache. If it is not in the
+     * cache, an empty pool is created, which loads the script from storage on first use.
      *
      * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
-     * @throws TransformationException if compile of JavaScript failed
+     * @return the pool of pre compiled instances of the script
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
-            }
+    protected CompiledScriptPool getScriptPool(final String filename) {
+        CompiledScriptPool pool = scriptPoolMap.get(filename);
+        if (pool == null) {
+            pool = scriptPoolMap.computeIfAbsent(filename, f -> new CompiledScriptPool(manager,
+                    TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + f, maxConcurrency,
+                    ACQUIRE_TIMEOUT_MILLIS));
+        } else {
+            logger.debug("Loading JavaScript {} from cache.", filename);
         }
+        return pool;
+    }
+
+    /**
+     * Get the execution times of all cached scripts.
+     *
+     * @return the execution statistics by script file name
+     */
+    protected Map<String, ExecutionStatistics> getStatistics() {
+        Map<String, ExecutionStatistics> statistics = new TreeMap<>();
+        scriptPoolMap.forEach((filename, pool) -> statistics.put(filename, pool.getStatistics()));
+        return statistics;
     }
 
     /**
@@ -84,6 +108,6 @@ public class JavaScriptEngineManager {
      */
     protected void removeFromCache(String fileName) {
         logger.debug("Removing JavaScript {} from cache.", fileName);
-        compiledScriptMap.remove(fileName);
+        scriptPoolMap.remove(fileName);
     }
 }
@@ -12,6 +12,8 @@
  */
 package org.openhab.transform.javascript.internal;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.script.Bindings;
 import javax.script.CompiledScript;
 import javax.script.ScriptException;
@@ -65,13 +67,14 @@ public class JavaScriptTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        final long startTime = System.currentTimeMillis();
         logger.debug("about to transform '{}' by the JavaScript '{}'", source, filename);
 
         String result = "";
 
+        final CompiledScriptPool pool = manager.getScriptPool(filename);
+        final CompiledScript cScript = pool.borrow();
+        final long startTime = System.nanoTime();
         try {
-            final CompiledScript cScript = manager.getScript(filename);
             final Bindings bindings = cScript.getEngine().createBindings();
             bindings.put("input", source);
             result = String.valueOf(cScript.eval(bindings));
@@ -79,7 +82,10 @@ public class JavaScriptTransformationService implements TransformationService {
         } catch (ScriptException e) {
             throw new TransformationException("An error occurred while executing script. " + e.getMessage(), e);
         } finally {
-            logger.trace("JavaScript execution elapsed {} ms. Result: {}", System.currentTimeMillis() - startTime,
+            final long elapsed = System.nanoTime() - startTime;
+            pool.release(cScript);
+            pool.getStatistics().record(elapsed);
+            logger.trace("JavaScript execution elapsed {} ms. Result: {}", TimeUnit.NANOSECONDS.toMillis(elapsed),
                     result);
         }
     }
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptEngineManager;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class CompiledScriptPoolTest {
+
+    private final ScriptEngineManager manager = new ScriptEngineManager();
+
+    private Path script;
+
+    @Before
+    public void setUp() throws IOException {
+        script = Files.createTempFile("pool", ".js");
+        Files.write(script, "'result'".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(script);
+    }
+
+    @Test
+    public void testReleasedInstanceIsReused() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, script.toString(), 2, 1000);
+
+        CompiledScript first = pool.borrow();
+        assertEquals("result", first.eval());
+        pool.release(first);
+
+        assertSame(first, pool.borrow());
+    }
+
+    @Test
+    public void testConcurrentBorrowersGetOwnInstances() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, script.toString(), 2, 1000);
+
+        CompiledScript first = pool.borrow();
+        CompiledScript second = pool.borrow();
+
+        assertNotSame(first, second);
+        assertNotSame(first.getEngine(), second.getEngine());
+    }
+
+    @Test
+    public void testWaitingBorrowerGetsReleasedInstance() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, script.toString(), 1, 10000);
+        CompiledScript first = pool.borrow();
+
+        CompletableFuture<CompiledScript> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrow();
+            } catch (TransformationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        pool.release(first);
+        assertSame(first, waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExhaustedPoolFallsBackToExtraInstance() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, script.toString(), 1, 50);
+        CompiledScript pooled = pool.borrow();
+
+        // e.g. a hanging script keeps the only pooled instance
+        CompiledScript extra = pool.borrow();
+        assertNotSame(pooled, extra);
+        assertEquals("result", extra.eval());
+
+        // the extra instance is dropped, the pool does not grow beyond its limit
+        pool.release(extra);
+        assertNotSame(extra, pool.borrow());
+
+        pool.release(pooled);
+        assertSame(pooled, pool.borrow());
+    }
+
+    @Test
+    public void testCompileErrorReleasesPermit() throws Exception {
+        Files.write(script, "function (".getBytes(StandardCharsets.UTF_8));
+        CompiledScriptPool pool = new CompiledScriptPool(manager, script.toString(), 1, 10000);
+
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            try {
+                pool.borrow();
+                fail("invalid script must not compile");
+            } catch (TransformationException e) {
+                // the second attempt must not wait for the permit of the first one
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class ExecutionStatisticsTest {
+
+    private final ExecutionStatistics statistics = new ExecutionStatistics();
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, statistics.getCount());
+        assertEquals(0, statistics.getPercentile(50));
+        assertEquals(0, statistics.getPercentile(99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        for (int i = 100; i >= 1; i--) {
+            statistics.record(i);
+        }
+
+        assertEquals(100, statistics.getCount());
+        assertEquals(1, statistics.getPercentile(0));
+        assertEquals(50, statistics.getPercentile(50));
+        assertEquals(99, statistics.getPercentile(99));
+        assertEquals(100, statistics.getPercentile(100));
+    }
+
+    @Test
+    public void testOnlyMostRecentExecutionsAreKept() {
+        for (int i = 0; i < 1024; i++) {
+            statistics.record(1000);
+        }
+        for (int i = 0; i < 1024; i++) {
+            statistics.record(1);
+        }
+
+        assertEquals(2048, statistics.getCount());
+        assertEquals(1, statistics.getPercentile(100));
+    }
+}
@@ -13,6 +13,8 @@
 package org.openhab.transform.jsonpath.internal;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +26,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -41,8 +44,27 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /**
+     * Expressions come from item and channel configurations, so there are usually only a few dozen of them. The
+     * cache is simply dropped when an unusual number of distinct expressions shows up.
+     */
+    private static final int MAX_CACHED_PATHS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Configuration configuration = Configuration.defaultConfiguration();
+
+    /**
+     * A compiled {@link JsonPath} is immutable and can be evaluated by several threads at once
+     */
+    private final Map<String, JsonPath> compiledPaths = new ConcurrentHashMap<>();
+
+    /**
+     * The most recently parsed document. Several channels usually apply different expressions to the very same
+     * payload one after the other, so the parsed tree is kept for reuse as long as the source does not change.
+     */
+    private volatile @Nullable ParsedDocument lastDocument;
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +82,8 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath jsonPath = getCompiledPath(jsonPathExpression);
+            Object transformationResult = jsonPath.read(getDocument(source), configuration);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +99,29 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath getCompiledPath(String jsonPathExpression) {
+        JsonPath jsonPath = compiledPaths.get(jsonPathExpression);
+        if (jsonPath == null) {
+            // invalid expressions throw here and are never cached
+            jsonPath = JsonPath.compile(jsonPathExpression);
+            if (compiledPaths.size() >= MAX_CACHED_PATHS) {
+                compiledPaths.clear();
+            }
+            compiledPaths.put(jsonPathExpression, jsonPath);
+        }
+        return jsonPath;
+    }
+
+    private Object getDocument(String source) {
+        ParsedDocument document = lastDocument;
+        if (document != null && (document.source == source || document.source.equals(source))) {
+            return document.json;
+        }
+        Object json = configuration.jsonProvider().parse(source);
+        lastDocument = new ParsedDocument(source, json);
+        return json;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -100,4 +146,14 @@ public class JSonPathTransformationService implements TransformationService {
     private String createStringList(List<?> list) {
         return list.stream().map(n -> "\"" + String.valueOf(n) + "\"").collect(Collectors.joining(", ", "[", "]"));
     }
+
+    private static class ParsedDocument {
+        private final String source;
+        private final Object json;
+
+        private ParsedDocument(String source, Object json) {
+            this.source = source;
+            this.json = json;
+        }
+    }
 }
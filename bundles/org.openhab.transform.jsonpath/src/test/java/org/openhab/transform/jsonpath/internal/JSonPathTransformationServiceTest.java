@@ -128,4 +128,38 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testSameSourceDifferentPaths() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("2", processor.transform("$[1].id", new String(jsonArray)));
+    }
+
+    @Test
+    public void testChangedSourceIsParsedAgain() throws TransformationException {
+        assertEquals("1", processor.transform("$.value", "{\"value\":1}"));
+        assertEquals("2", processor.transform("$.value", "{\"value\":2}"));
+    }
+
+    @Test
+    public void testInvalidPathFailsEveryTime() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                processor.transform("$..", jsonArray);
+                Assert.fail("invalid path must not be accepted");
+            } catch (TransformationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testManyDistinctPaths() throws TransformationException {
+        for (int i = 0; i < 300; i++) {
+            String json = "{\"v" + i + "\":" + i + "}";
+            assertEquals(String.valueOf(i), processor.transform("$.v" + i, json));
+        }
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+    }
 }
@@ -12,7 +12,9 @@
  */
 package org.openhab.transform.regex.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -75,4 +77,33 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_sameExpressionOnChangingSources() throws TransformationException {
+        assertEquals("12", processor.transform("T=(\\d+)C", "T=12C"));
+        assertEquals("13", processor.transform("T=(\\d+)C", " T=13C "));
+        assertNull(processor.transform("T=(\\d+)C", "H=13%"));
+        assertEquals("X=12", processor.transform("s/=/=/", "X=12"));
+        assertEquals("X:12", processor.transform("s/=/:/", "X=12"));
+    }
+
+    @Test
+    public void testTransformByRegex_invalidExpressionFailsEveryTime() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                processor.transform("T=(\\d+C", "T=12C");
+                fail("invalid expression must not be accepted");
+            } catch (PatternSyntaxException | TransformationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testTransformByRegex_manyDistinctExpressions() throws TransformationException {
+        for (int i = 0; i < 300; i++) {
+            assertEquals(String.valueOf(i), processor.transform("v(" + i + ")", "v" + i));
+        }
+        assertEquals("8", processor.transform(".*?<current_conditions>.*?<temp_c data=\"(.*?)\".*", source));
+    }
 }
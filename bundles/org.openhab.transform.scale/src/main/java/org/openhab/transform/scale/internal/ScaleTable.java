@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The content of a scale file prepared for fast lookups.
+ *
+ * All range limits are sorted into a list of distinct boundaries, which splits the number line into elementary
+ * segments: the boundaries themselves and the open intervals between them. Every segment lies either completely
+ * inside or completely outside of each range, so the label of the first matching range in file order is resolved
+ * once per segment when the file is loaded. A lookup is then a binary search over the boundaries, regardless of
+ * whether the ranges overlap.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class ScaleTable {
+
+    private static final String FORMAT_VALUE = "%value%";
+    private static final String FORMAT_LABEL = "%label%";
+
+    private final BigDecimal[] boundaries;
+
+    /**
+     * Labels by segment: index <code>2 * i + 1</code> is the boundary <code>i</code>, index <code>2 * i</code> the
+     * open interval below it and the last index the open interval above the highest boundary
+     */
+    private final String[] labels;
+
+    private final String nonNumeric;
+
+    /**
+     * The presentation format split at its placeholders, with <code>formatIsLabel[i]</code> telling whether the
+     * placeholder following <code>formatLiterals[i]</code> is the label or the value
+     */
+    private final String[] formatLiterals;
+    private final boolean[] formatIsLabel;
+
+    /**
+     * Creates the table.
+     *
+     * @param ranges the ranges in the order of the scale file
+     * @param values the labels of the ranges, in the same order
+     * @param nonNumeric the label for non numeric input or <code>null</code>
+     * @param format the presentation format, containing the <code>%value%</code> and <code>%label%</code> placeholders
+     */
+    public ScaleTable(List<Range> ranges, List<String> values, String nonNumeric, String format) {
+        final TreeSet<BigDecimal> limits = new TreeSet<>();
+        for (Range range : ranges) {
+            if (range.min != null) {
+                limits.add(range.min);
+            }
+            if (range.max != null) {
+                limits.add(range.max);
+            }
+        }
+        this.boundaries = limits.toArray(new BigDecimal[limits.size()]);
+
+        this.labels = new String[2 * boundaries.length + 1];
+        for (int segment = 0; segment < labels.length; segment++) {
+            final BigDecimal representative = getRepresentative(segment);
+            for (int i = 0; i < ranges.size(); i++) {
+                if (ranges.get(i).contains(representative)) {
+                    labels[segment] = values.get(i);
+                    break;
+                }
+            }
+        }
+
+        this.nonNumeric = nonNumeric;
+
+        final List<String> literals = new ArrayList<>();
+        final List<Boolean> isLabel = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            final int valueIndex = format.indexOf(FORMAT_VALUE, start);
+            final int labelIndex = format.indexOf(FORMAT_LABEL, start);
+            if (valueIndex < 0 && labelIndex < 0) {
+                break;
+            }
+            final int index = valueIndex < 0 || (labelIndex >= 0 && labelIndex < valueIndex) ? labelIndex
+                    : valueIndex;
+            literals.add(format.substring(start, index));
+            isLabel.add(index == labelIndex);
+            start = index + (index == labelIndex ? FORMAT_LABEL.length() : FORMAT_VALUE.length());
+        }
+        literals.add(format.substring(start));
+        this.formatLiterals = literals.toArray(new String[literals.size()]);
+        this.formatIsLabel = new boolean[isLabel.size()];
+        for (int i = 0; i < formatIsLabel.length; i++) {
+            formatIsLabel[i] = isLabel.get(i);
+        }
+    }
+
+    /**
+     * Looks up the label of the first range of the scale file which contains the given value.
+     *
+     * @param value the value to look up
+     * @return the label or <code>null</code> if no range contains the value
+     */
+    public String getLabel(BigDecimal value) {
+        final int index = Arrays.binarySearch(boundaries, value);
+        return labels[index >= 0 ? 2 * index + 1 : -2 * (index + 1)];
+    }
+
+    /**
+     * @return the label for non numeric input or <code>null</code> if the scale file has no 'NaN' entry
+     */
+    public String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Formats the result according to the presentation format of the scale file.
+     *
+     * @param source the transformed input
+     * @param label the label of the matching range
+     * @return the formatted result
+     */
+    public String format(String source, String label) {
+        if (formatIsLabel.length == 1 && formatLiterals[0].isEmpty() && formatLiterals[1].isEmpty()) {
+            return formatIsLabel[0] ? label : source;
+        }
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < formatIsLabel.length; i++) {
+            result.append(formatLiterals[i]).append(formatIsLabel[i] ? label : source);
+        }
+        return result.append(formatLiterals[formatIsLabel.length]).toString();
+    }
+
+    private BigDecimal getRepresentative(int segment) {
+        if (boundaries.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (segment % 2 == 1) {
+            return boundaries[segment / 2];
+        }
+        final int upper = segment / 2;
+        if (upper == 0) {
+            return boundaries[0].subtract(BigDecimal.ONE);
+        }
+        if (upper == boundaries.length) {
+            return boundaries[upper - 1].add(BigDecimal.ONE);
+        }
+        return boundaries[upper - 1].add(boundaries[upper]).divide(BigDecimal.valueOf(2));
+    }
+}
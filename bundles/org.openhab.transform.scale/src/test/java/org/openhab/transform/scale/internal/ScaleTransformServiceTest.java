@@ -120,6 +120,16 @@ public class ScaleTransformServiceTest {
         Assert.assertEquals("first", transformedResponse);
     }
 
+    @Test
+    public void testEvaluationOrderAtBoundaries() throws TransformationException {
+        String evaluationOrder = "scale/evaluationorder.scale";
+
+        Assert.assertEquals("second", processor.transform(evaluationOrder, "15"));
+        Assert.assertEquals("second", processor.transform(evaluationOrder, "16.99"));
+        Assert.assertEquals("last", processor.transform(evaluationOrder, "17"));
+        Assert.assertEquals("first", processor.transform(evaluationOrder, "-1000"));
+    }
+
     @Test
     public void testTransformQuantityType() throws TransformationException {
         QuantityType<Dimensionless> airQuality = new QuantityType<>("992 ppm");
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A simple absolute XPath expression like <code>/root/child/value</code> or <code>/root/child/@attribute</code>,
+ * which can be evaluated by streaming over the document instead of building a DOM tree.
+ *
+ * Only unprefixed element names without predicates or wildcards are supported, so these paths never match
+ * elements in a namespace, just like the DOM based evaluation.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+@NonNullByDefault
+class SimpleXPath {
+
+    private static final String NAME = "[A-Za-z_][\\w.\\-]*";
+    private static final Pattern SIMPLE_PATH_PATTERN = Pattern.compile("^(/" + NAME + ")+(/@" + NAME + ")?$");
+
+    private final String[] elements;
+    private final @Nullable String attribute;
+
+    private SimpleXPath(String[] elements, @Nullable String attribute) {
+        this.elements = elements;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Parses the given expression.
+     *
+     * @param xpathExpression the XPath expression
+     * @return the simple path or <code>null</code> if the expression is not a simple absolute path
+     */
+    static @Nullable SimpleXPath parse(String xpathExpression) {
+        if (!SIMPLE_PATH_PATTERN.matcher(xpathExpression).matches()) {
+            return null;
+        }
+        String[] steps = xpathExpression.substring(1).split("/");
+        String lastStep = steps[steps.length - 1];
+        if (lastStep.startsWith("@")) {
+            String[] elements = new String[steps.length - 1];
+            System.arraycopy(steps, 0, elements, 0, elements.length);
+            return new SimpleXPath(elements, lastStep.substring(1));
+        }
+        return new SimpleXPath(steps, null);
+    }
+
+    /**
+     * Evaluates this path against the given document and returns the string value of the first matching node.
+     * The whole document is read to make sure it is well-formed.
+     *
+     * @param inputFactory the factory to create the stream reader with
+     * @param source the XML document
+     * @return the string value of the first matching node, an empty string if nothing matches or <code>null</code>
+     *         if the document contains a DTD and can't be handled by streaming
+     * @throws XMLStreamException if the document is not well-formed
+     */
+    @Nullable
+    String evaluate(XMLInputFactory inputFactory, String source) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(source));
+        try {
+            String result = null;
+            StringBuilder text = null;
+            int depth = 0;
+            int matched = 0;
+            int captureDepth = -1;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.DTD:
+                        return null;
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (result == null && text == null && matched == depth && depth < elements.length
+                                && isUnqualified(reader.getNamespaceURI())
+                                && elements[depth].equals(reader.getLocalName())) {
+                            matched++;
+                            if (matched == elements.length) {
+                                if (attribute == null) {
+                                    text = new StringBuilder();
+                                    captureDepth = depth;
+                                } else {
+                                    result = getAttribute(reader);
+                                }
+                            }
+                        }
+                        depth++;
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        if (matched > depth) {
+                            matched = depth;
+                        }
+                        if (text != null && depth == captureDepth) {
+                            result = text.toString();
+                            text = null;
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (text != null) {
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result == null ? "" : result;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private @Nullable String getAttribute(XMLStreamReader reader) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (isUnqualified(reader.getAttributeNamespace(i))
+                    && reader.getAttributeLocalName(i).equals(attribute)) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isUnqualified(@Nullable String namespaceURI) {
+        return namespaceURI == null || namespaceURI.isEmpty();
+    }
+}
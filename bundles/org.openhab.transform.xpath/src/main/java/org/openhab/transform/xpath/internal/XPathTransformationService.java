@@ -13,12 +13,20 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -26,6 +34,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -41,8 +50,46 @@ import org.xml.sax.InputSource;
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /**
+     * Number of idle evaluators kept for reuse, which is the number of transformations usually running in parallel
+     */
+    private static final int MAX_IDLE_EVALUATORS = 8;
+
+    /**
+     * Number of compiled expressions an evaluator keeps before it starts over
+     */
+    private static final int MAX_EXPRESSIONS_PER_EVALUATOR = 128;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final DocumentBuilderFactory domFactory;
+    private final XPathFactory xpathFactory;
+    private final XMLInputFactory inputFactory;
+
+    /**
+     * Neither {@link DocumentBuilder} nor {@link XPath} or {@link XPathExpression} are thread-safe, so every
+     * transformation borrows an evaluator of its own and hands it back afterwards
+     */
+    private final BlockingQueue<Evaluator> idleEvaluators = new ArrayBlockingQueue<>(MAX_IDLE_EVALUATORS);
+
+    public XPathTransformationService() {
+        domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+
+        xpathFactory = XPathFactory.newInstance();
+
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        inputFactory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    }
+
+    @Deactivate
+    public void deactivate() {
+        idleEvaluators.clear();
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,34 +98,97 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
-
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
-            stringReader = new StringReader(source);
-            InputSource inputSource = new InputSource(stringReader);
-            inputSource.setEncoding("UTF-8");
-
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            Evaluator evaluator = idleEvaluators.poll();
+            if (evaluator == null) {
+                evaluator = createEvaluator();
+            }
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult = evaluator.evaluate(xpathExpression, source);
+            idleEvaluators.offer(evaluator);
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
             return transformationResult;
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
+        }
+    }
+
+    private Evaluator createEvaluator() throws ParserConfigurationException {
+        // the factories are not thread-safe either
+        synchronized (this) {
+            return new Evaluator(domFactory.newDocumentBuilder(), xpathFactory.newXPath());
+        }
+    }
+
+    /**
+     * The state needed to run a single transformation at a time
+     */
+    private class Evaluator {
+        private final DocumentBuilder builder;
+        private final XPath xpath;
+        private final Map<String, CompiledXPath> compiledExpressions = new HashMap<>();
+
+        private Evaluator(DocumentBuilder builder, XPath xpath) {
+            this.builder = builder;
+            this.xpath = xpath;
+        }
+
+        private String evaluate(String xpathExpression, String source) throws Exception {
+            CompiledXPath compiledXPath = getCompiledExpression(xpathExpression);
+
+            SimpleXPath simplePath = compiledXPath.simplePath;
+            if (simplePath != null) {
+                String result = evaluateStreaming(simplePath, source);
+                if (result != null) {
+                    return result;
+                }
             }
+            return evaluateDocument(compiledXPath.expression, source);
+        }
+
+        private @Nullable String evaluateStreaming(SimpleXPath simplePath, String source) {
+            try {
+                return simplePath.evaluate(inputFactory, source);
+            } catch (XMLStreamException e) {
+                // let the DOM based evaluation report the error
+                return null;
+            }
+        }
+
+        private String evaluateDocument(XPathExpression expression, String source) throws Exception {
+            try (StringReader stringReader = new StringReader(source)) {
+                InputSource inputSource = new InputSource(stringReader);
+                inputSource.setEncoding("UTF-8");
+
+                Document doc = builder.parse(inputSource);
+                return (String) expression.evaluate(doc, XPathConstants.STRING);
+            } finally {
+                builder.reset();
+            }
+        }
+
+        private CompiledXPath getCompiledExpression(String xpathExpression) throws XPathExpressionException {
+            CompiledXPath compiledXPath = compiledExpressions.get(xpathExpression);
+            if (compiledXPath == null) {
+                compiledXPath = new CompiledXPath(xpath.compile(xpathExpression), SimpleXPath.parse(xpathExpression));
+                if (compiledExpressions.size() >= MAX_EXPRESSIONS_PER_EVALUATOR) {
+                    compiledExpressions.clear();
+                }
+                compiledExpressions.put(xpathExpression, compiledXPath);
+            }
+            return compiledXPath;
+        }
+    }
+
+    private static class CompiledXPath {
+        private final XPathExpression expression;
+        private final @Nullable SimpleXPath simplePath;
+
+        private CompiledXPath(XPathExpression expression, @Nullable SimpleXPath simplePath) {
+            this.expression = expression;
+            this.simplePath = simplePath;
         }
     }
 }
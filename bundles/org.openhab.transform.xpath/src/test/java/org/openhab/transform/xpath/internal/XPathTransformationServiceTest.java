@@ -12,7 +12,14 @@
  */
 package org.openhab.transform.xpath.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -38,4 +45,73 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        assertEquals("8", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+        assertEquals("Di.", processor.transform(
+                "/xml_api_reply/weather/forecast_conditions/day_of_week/@data", source));
+        assertEquals("", processor.transform("/xml_api_reply/weather/unknown/@data", source));
+    }
+
+    @Test
+    public void testTransformBySimplePathTextContent() throws TransformationException {
+        String xml = "<a><x><b>no</b></x><b>yes<c> &amp; </c><![CDATA[ok]]></b><b>later</b></a>";
+        assertEquals("yes & ok", processor.transform("/a/b", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePathIgnoresNamespacedElements() throws TransformationException {
+        assertEquals("", processor.transform("/a/b", "<a xmlns=\"urn:test\"><b>1</b></a>"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformBySimplePathInvalidXml() throws TransformationException {
+        processor.transform("/a/b", "<a><b>1</b>");
+    }
+
+    @Test
+    public void testTransformSameExpressionOnChangingDocuments() throws TransformationException {
+        String expression = "count(//b)";
+        assertEquals("1", processor.transform(expression, "<a><b/></a>"));
+        assertEquals("3", processor.transform(expression, "<a><b/><c><b/></c><b/></a>"));
+        assertEquals("0", processor.transform(expression, "<a/>"));
+    }
+
+    @Test
+    public void testTransformInvalidExpressionFailsEveryTime() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                processor.transform("//current_conditions[", source);
+                fail("invalid expression must not be accepted");
+            } catch (TransformationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testTransformAfterDeactivate() throws TransformationException {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        processor.deactivate();
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
+
+    @Test
+    public void testTransformConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String expression = i % 2 == 0 ? "//current_conditions/temp_c/@data"
+                        : "/xml_api_reply/weather/current_conditions/temp_f/@data";
+                results.add(executor.submit(() -> processor.transform(expression, source)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0 ? "8" : "46", results.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
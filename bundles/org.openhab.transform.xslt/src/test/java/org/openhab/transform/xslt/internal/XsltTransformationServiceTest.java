@@ -12,9 +12,17 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -23,11 +31,25 @@ import org.junit.Test;
  */
 public class XsltTransformationServiceTest extends AbstractTransformationServiceTest {
 
+    private static final String STYLE_SHEET = "<?xml version=\"1.0\"?>"
+            + "<xsl:stylesheet xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\" version=\"1.0\">"
+            + "<xsl:output method=\"text\"/><xsl:template match=\"//current_conditions\">"
+            + "<xsl:value-of select=\"%s/@data\"/></xsl:template></xsl:stylesheet>";
+
     private XsltTransformationService processor;
 
+    private File styleSheet;
+
     @Before
     public void init() {
         processor = new XsltTransformationService();
+        styleSheet = new File(ConfigConstants.getConfigFolder() + File.separator
+                + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + "test_modified.xsl");
+    }
+
+    @After
+    public void cleanup() {
+        styleSheet.delete();
     }
 
     @Test
@@ -38,4 +60,31 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByXSLTRepeatedly() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        }
+    }
+
+    @Test
+    public void testTransformByModifiedXSLT() throws TransformationException, IOException {
+        writeStyleSheet("temp_c", 1_500_000_000_000L);
+        assertEquals("8", processor.transform(styleSheet.getName(), source));
+        assertEquals("8", processor.transform(styleSheet.getName(), source));
+
+        writeStyleSheet("temp_f", 1_500_000_002_000L);
+        assertEquals("46", processor.transform(styleSheet.getName(), source));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformByMissingXSLT() throws TransformationException {
+        processor.transform("http/unknown.xsl", source);
+    }
+
+    private void writeStyleSheet(String element, long lastModified) throws IOException {
+        Files.write(styleSheet.toPath(), String.format(STYLE_SHEET, element).getBytes(StandardCharsets.UTF_8));
+        assertTrue(styleSheet.setLastModified(lastModified));
+    }
 }
@@ -15,15 +15,32 @@ package org.openhab.voice.marytts.internal;
 import static javax.sound.sampled.AudioSystem.NOT_SPECIFIED;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.i18n.LocaleProvider;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,11 +56,30 @@ import marytts.modules.synthesis.Voice;
  * @author Kelly Davis - Initial contribution and API
  * @author Kai Kreuzer - Refactored to updated APIs and moved to openHAB
  */
-@Component
+@Component(configurationPid = "org.openhab.marytts", property = { Constants.SERVICE_PID + "=org.openhab.marytts",
+        ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=voice:marytts",
+        ConfigurableService.SERVICE_PROPERTY_LABEL + "=MaryTTS Text-to-Speech",
+        ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=voice" })
 public class MaryTTSService implements TTSService {
 
+    private static final String CONFIG_CACHE_SIZE = "cacheSize";
+    private static final String CONFIG_WARMUP_VOICE = "warmupVoice";
+    private static final String CONFIG_WARMUP_PHRASES = "warmupPhrases";
+    private static final long DEFAULT_CACHE_SIZE = 10;
+
     private final Logger logger = LoggerFactory.getLogger(MaryTTSService.class);
 
+    /**
+     * Rendered audio of recently used phrases
+     */
+    private final MaryTTSCache cache = new MaryTTSCache(DEFAULT_CACHE_SIZE * 1024 * 1024);
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private CompletableFuture<Void> warmupJob;
+
+    private LocaleProvider localeProvider;
+
     private MaryInterface marytts;
 
     /**
@@ -56,16 +92,125 @@ public class MaryTTSService implements TTSService {
      */
     private Set<AudioFormat> audioFormats;
 
-    protected void activate() {
+    protected void activate(Map<String, Object> config) {
         try {
             marytts = new LocalMaryInterface();
             voices = initVoices();
             audioFormats = initAudioFormats();
+            modified(config);
         } catch (MaryConfigurationException e) {
             logger.error("Failed to initialize MaryTTS: {}", e.getMessage(), e);
         }
     }
 
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        if (config == null || voices == null) {
+            return;
+        }
+        long cacheSize = DEFAULT_CACHE_SIZE;
+        try {
+            if (config.containsKey(CONFIG_CACHE_SIZE)) {
+                cacheSize = Long.parseLong(config.get(CONFIG_CACHE_SIZE).toString());
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid MaryTTS cache size: {}", e.getMessage());
+        }
+        cache.setMaxSize(cacheSize * 1024 * 1024);
+
+        List<org.eclipse.smarthome.core.voice.Voice> warmupVoices = getWarmupVoices(config.get(CONFIG_WARMUP_VOICE));
+        List<String> warmupPhrases = getWarmupPhrases(config.get(CONFIG_WARMUP_PHRASES));
+
+        stopWarmup();
+        cache.unpinAll();
+        if (!warmupPhrases.isEmpty()) {
+            CompletableFuture<Void> job = new CompletableFuture<>();
+            warmupJob = job;
+            scheduler.execute(() -> warmup(warmupVoices, warmupPhrases, job));
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        stopWarmup();
+    }
+
+    @Reference
+    protected void setLocaleProvider(LocaleProvider localeProvider) {
+        this.localeProvider = localeProvider;
+    }
+
+    protected void unsetLocaleProvider(LocaleProvider localeProvider) {
+        this.localeProvider = null;
+    }
+
+    /**
+     * Gets the configured warm-up voice or, if there is none, a voice of the configured locale. The audio is generated
+     * one phrase after the other, so rendering the phrases with every voice would delay the announcements for long.
+     */
+    private List<org.eclipse.smarthome.core.voice.Voice> getWarmupVoices(Object warmupVoice) {
+        if (warmupVoice != null && !warmupVoice.toString().isEmpty()) {
+            return voices.stream().filter(voice -> warmupVoice.toString().equals(voice.getLabel()))
+                    .collect(Collectors.toList());
+        }
+        LocaleProvider localeProvider = this.localeProvider;
+        Locale locale = localeProvider == null ? Locale.getDefault() : localeProvider.getLocale();
+        Optional<org.eclipse.smarthome.core.voice.Voice> localeVoice = voices.stream()
+                .filter(voice -> voice.getLocale().equals(locale)).findFirst();
+        if (!localeVoice.isPresent()) {
+            localeVoice = voices.stream()
+                    .filter(voice -> voice.getLocale().getLanguage().equals(locale.getLanguage())).findFirst();
+        }
+        if (!localeVoice.isPresent()) {
+            logger.debug("No voice for the locale {} to generate the warm-up phrases with", locale);
+        }
+        return localeVoice.map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
+    private List<String> getWarmupPhrases(Object phrasesConfig) {
+        List<String> phrases = new ArrayList<>();
+        if (phrasesConfig instanceof Iterable) {
+            for (Object phrase : (Iterable<?>) phrasesConfig) {
+                String text = phrase.toString().trim();
+                if (!text.isEmpty()) {
+                    phrases.add(text);
+                }
+            }
+        }
+        return phrases;
+    }
+
+    private void stopWarmup() {
+        CompletableFuture<Void> job = warmupJob;
+        if (job != null) {
+            // the phrase being rendered is finished, requests waiting for it would fail otherwise; the cache does not
+            // pin it any more once the job is cancelled
+            job.cancel(false);
+            warmupJob = null;
+        }
+    }
+
+    /**
+     * Renders the phrases in advance and keeps them in the cache, until the job is cancelled.
+     */
+    private void warmup(List<org.eclipse.smarthome.core.voice.Voice> warmupVoices, List<String> warmupPhrases,
+            CompletableFuture<Void> job) {
+        for (org.eclipse.smarthome.core.voice.Voice voice : warmupVoices) {
+            for (String phrase : warmupPhrases) {
+                if (job.isCancelled() || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                try {
+                    getAudio(phrase, voice, job);
+                } catch (TTSException e) {
+                    logger.warn("Could not render '{}' with voice {}: {}", phrase, voice.getLabel(), e.getMessage());
+                }
+            }
+        }
+        logger.debug("Rendered {} phrases for {} voices in advance", warmupPhrases.size(), warmupVoices.size());
+        job.complete(null);
+    }
+
     @Override
     public Set<org.eclipse.smarthome.core.voice.Voice> getAvailableVoices() {
         return voices;
@@ -114,6 +259,24 @@ public class MaryTTSService implements TTSService {
         Voice maryTTSVoice = Voice.getVoice(voice.getLabel());
         AudioFormat maryTTSVoiceAudioFormat = getAudioFormat(maryTTSVoice.dbAudioFormat());
 
+        try {
+            return new MaryTTSAudioStream(getAudio(text, voice, null), maryTTSVoiceAudioFormat);
+        } catch (IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        }
+    }
+
+    /**
+     * Gets the raw audio of the text from the cache, or generates it. The audio format depends on the voice only.
+     *
+     * @param warmupJob the warm-up job generating the text, or null if it is requested for playing
+     */
+    private byte[] getAudio(String text, org.eclipse.smarthome.core.voice.Voice voice, Future<?> warmupJob)
+            throws TTSException {
+        return cache.get(voice.getUID() + ":" + text, warmupJob, () -> generateAudio(text, voice));
+    }
+
+    private byte[] generateAudio(String text, org.eclipse.smarthome.core.voice.Voice voice) throws TTSException {
         // Synchronize on marytts
         synchronized (marytts) {
             // Set voice (Each voice supports only a single AudioFormat)
@@ -121,7 +284,7 @@ public class MaryTTSService implements TTSService {
             marytts.setVoice(voice.getLabel());
 
             try {
-                return new MaryTTSAudioStream(marytts.generateAudio(text), maryTTSVoiceAudioFormat);
+                return IOUtils.toByteArray(marytts.generateAudio(text));
             } catch (SynthesisException | IOException e) {
                 throw new TTSException("Error generating an AudioStream", e);
             }
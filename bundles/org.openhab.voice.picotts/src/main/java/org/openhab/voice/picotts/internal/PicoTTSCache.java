@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.picotts.internal;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.eclipse.smarthome.core.audio.AudioException;
+
+/**
+ * Keeps the rendered audio of recently used phrases in memory, in least recently used order. Phrases which are
+ * rendered in advance are kept regardless of the size limit, as long as the job rendering them is not cancelled.
+ * Concurrent requests for the same phrase wait for a single rendering.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+class PicoTTSCache {
+
+    /**
+     * Renders the audio of a phrase
+     */
+    interface Renderer {
+        byte[] render() throws AudioException;
+    }
+
+    private final Map<String, byte[]> cachedAudio = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> pinnedKeys = new HashSet<>();
+    private final Map<String, CompletableFuture<byte[]>> pendingAudio = new ConcurrentHashMap<>();
+    private long size;
+    private long maxSize;
+
+    PicoTTSCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    synchronized void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    /**
+     * Allows all phrases to be evicted again, e.g. if the phrases to render in advance have changed. The job which
+     * pinned them has to be cancelled before, so that it does not pin any further phrase.
+     */
+    synchronized void unpinAll() {
+        pinnedKeys.clear();
+        evict();
+    }
+
+    /**
+     * Returns the cached audio for the key, or renders and caches it.
+     *
+     * @param key the key of the phrase
+     * @param pinningJob the job which renders the phrase in advance to keep it regardless of the size limit, or
+     *            null if the phrase may be evicted. Nothing is pinned once the job is cancelled.
+     * @param renderer renders the audio if it is not cached
+     * @return the audio of the phrase
+     * @throws AudioException if the audio could not be rendered
+     */
+    byte[] get(String key, Future<?> pinningJob, Renderer renderer) throws AudioException {
+        synchronized (this) {
+            byte[] audio = cachedAudio.get(key);
+            if (audio != null) {
+                pin(key, pinningJob);
+                return audio;
+            }
+        }
+
+        CompletableFuture<byte[]> pending = new CompletableFuture<>();
+        CompletableFuture<byte[]> otherPending = pendingAudio.putIfAbsent(key, pending);
+        if (otherPending != null) {
+            try {
+                byte[] audio = otherPending.get();
+                synchronized (this) {
+                    pin(key, pinningJob);
+                }
+                return audio;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AudioException("Interrupted while waiting for the audio", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof AudioException ? (AudioException) cause : new AudioException(cause);
+            }
+        }
+        try {
+            byte[] audio = renderer.render();
+            put(key, audio, pinningJob);
+            pending.complete(audio);
+            return audio;
+        } catch (AudioException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingAudio.remove(key, pending);
+        }
+    }
+
+    private synchronized void put(String key, byte[] audio, Future<?> pinningJob) {
+        byte[] oldAudio = cachedAudio.put(key, audio);
+        if (oldAudio != null) {
+            size -= oldAudio.length;
+        }
+        size += audio.length;
+        pin(key, pinningJob);
+        evict();
+    }
+
+    /**
+     * Pins the key unless there is no job or it is cancelled. Checking the job while holding the lock makes sure that
+     * a job cancelled before {@link #unpinAll()} cannot pin a phrase after it.
+     */
+    private void pin(String key, Future<?> pinningJob) {
+        if (pinningJob != null && !pinningJob.isCancelled()) {
+            pinnedKeys.add(key);
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, byte[]>> iterator = cachedAudio.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, byte[]> entry = iterator.next();
+            if (!pinnedKeys.contains(entry.getKey())) {
+                size -= entry.getValue().length;
+                iterator.remove();
+            }
+        }
+    }
+}
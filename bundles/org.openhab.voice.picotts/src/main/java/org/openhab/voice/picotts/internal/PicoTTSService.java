@@ -12,25 +12,55 @@
  */
 package org.openhab.voice.picotts.internal;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.i18n.LocaleProvider;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Florian Schmidt - Initial Contribution
  */
-@Component
+@Component(configurationPid = "org.openhab.picotts", property = { Constants.SERVICE_PID + "=org.openhab.picotts",
+        ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=voice:picotts",
+        ConfigurableService.SERVICE_PROPERTY_LABEL + "=PicoTTS Text-to-Speech",
+        ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=voice" })
 public class PicoTTSService implements TTSService {
+    private static final String CONFIG_CACHE_SIZE = "cacheSize";
+    private static final String CONFIG_WARMUP_VOICE = "warmupVoice";
+    private static final String CONFIG_WARMUP_PHRASES = "warmupPhrases";
+    private static final long DEFAULT_CACHE_SIZE = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(PicoTTSService.class);
+
     private final Set<Voice> voices = Stream
             .of(new PicoTTSVoice("de-DE"), new PicoTTSVoice("en-US"), new PicoTTSVoice("en-GB"),
                     new PicoTTSVoice("es-ES"), new PicoTTSVoice("fr-FR"), new PicoTTSVoice("it-IT"))
@@ -39,6 +69,125 @@ public class PicoTTSService implements TTSService {
     private final Set<AudioFormat> audioFormats = Collections.singleton(
             new AudioFormat(AudioFormat.CONTAINER_WAVE, AudioFormat.CODEC_PCM_SIGNED, false, 16, null, 16000L));
 
+    private final PicoTTSCache cache = new PicoTTSCache(DEFAULT_CACHE_SIZE * 1024 * 1024);
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private CompletableFuture<Void> warmupJob;
+
+    private LocaleProvider localeProvider;
+
+    @Activate
+    protected void activate(Map<String, Object> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        if (config == null) {
+            return;
+        }
+        long cacheSize = DEFAULT_CACHE_SIZE;
+        try {
+            if (config.containsKey(CONFIG_CACHE_SIZE)) {
+                cacheSize = Long.parseLong(config.get(CONFIG_CACHE_SIZE).toString());
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid PicoTTS cache size: {}", e.getMessage());
+        }
+        cache.setMaxSize(cacheSize * 1024 * 1024);
+
+        List<Voice> warmupVoices = getWarmupVoices(config.get(CONFIG_WARMUP_VOICE));
+        List<String> warmupPhrases = getWarmupPhrases(config.get(CONFIG_WARMUP_PHRASES));
+
+        stopWarmup();
+        cache.unpinAll();
+        if (!warmupPhrases.isEmpty()) {
+            CompletableFuture<Void> job = new CompletableFuture<>();
+            warmupJob = job;
+            scheduler.execute(() -> warmup(warmupVoices, warmupPhrases, job));
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        stopWarmup();
+    }
+
+    @Reference
+    protected void setLocaleProvider(LocaleProvider localeProvider) {
+        this.localeProvider = localeProvider;
+    }
+
+    protected void unsetLocaleProvider(LocaleProvider localeProvider) {
+        this.localeProvider = null;
+    }
+
+    /**
+     * Gets the configured warm-up voice or, if there is none, the voice of the configured locale, as rendering the
+     * phrases with every voice would mostly waste time and memory.
+     */
+    private List<Voice> getWarmupVoices(Object warmupVoice) {
+        if (warmupVoice != null && !warmupVoice.toString().isEmpty()) {
+            return voices.stream().filter(voice -> warmupVoice.toString().equals(voice.getLabel()))
+                    .collect(Collectors.toList());
+        }
+        LocaleProvider localeProvider = this.localeProvider;
+        Locale locale = localeProvider == null ? Locale.getDefault() : localeProvider.getLocale();
+        Optional<Voice> localeVoice = voices.stream().filter(voice -> voice.getLocale().equals(locale)).findFirst();
+        if (!localeVoice.isPresent()) {
+            localeVoice = voices.stream()
+                    .filter(voice -> voice.getLocale().getLanguage().equals(locale.getLanguage())).findFirst();
+        }
+        if (!localeVoice.isPresent()) {
+            logger.debug("No voice for the locale {} to render the warm-up phrases with", locale);
+        }
+        return localeVoice.map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
+    private List<String> getWarmupPhrases(Object phrasesConfig) {
+        List<String> phrases = new ArrayList<>();
+        if (phrasesConfig instanceof Iterable) {
+            for (Object phrase : (Iterable<?>) phrasesConfig) {
+                String text = phrase.toString().trim();
+                if (!text.isEmpty()) {
+                    phrases.add(text);
+                }
+            }
+        }
+        return phrases;
+    }
+
+    private void stopWarmup() {
+        CompletableFuture<Void> job = warmupJob;
+        if (job != null) {
+            // the phrase being rendered is finished, requests waiting for it would fail otherwise; the cache does not
+            // pin it any more once the job is cancelled
+            job.cancel(false);
+            warmupJob = null;
+        }
+    }
+
+    /**
+     * Renders the phrases in advance and keeps them in the cache, until the job is cancelled.
+     */
+    private void warmup(List<Voice> warmupVoices, List<String> warmupPhrases, CompletableFuture<Void> job) {
+        for (Voice voice : warmupVoices) {
+            for (String phrase : warmupPhrases) {
+                if (job.isCancelled() || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                try {
+                    getAudio(phrase, voice, job);
+                } catch (AudioException e) {
+                    logger.warn("Could not render '{}' with voice {}: {}", phrase, voice.getLabel(), e.getMessage());
+                }
+            }
+        }
+        logger.debug("Rendered {} phrases for {} voices in advance", warmupPhrases.size(), warmupVoices.size());
+        job.complete(null);
+    }
+
     @Override
     public Set<Voice> getAvailableVoices() {
         return this.voices;
@@ -68,12 +217,59 @@ public class PicoTTSService implements TTSService {
         }
 
         try {
-            return new PicoTTSAudioStream(text, voice, requestedFormat);
+            return new PicoTTSAudioStream(getAudio(text, voice, null), requestedFormat);
         } catch (AudioException e) {
             throw new TTSException(e);
         }
     }
 
+    /**
+     * Gets the audio of the text from the cache, or renders it. The audio format depends on the voice only.
+     *
+     * @param warmupJob the warm-up job rendering the text, or null if it is requested for playing
+     */
+    private byte[] getAudio(String text, Voice voice, Future<?> warmupJob) throws AudioException {
+        return cache.get(voice.getUID() + ":" + text, warmupJob, () -> render(text, voice));
+    }
+
+    /**
+     * Renders the text into a temporary WAV file with pico2wave and returns its content.
+     */
+    private byte[] render(String text, Voice voice) throws AudioException {
+        File file;
+        try {
+            file = File.createTempFile(Integer.toString(text.hashCode()), ".wav");
+        } catch (IOException e) {
+            throw new AudioException("Unable to create temp file.", e);
+        }
+        String[] command = getCommand(file.getAbsolutePath(), text, voice);
+        try {
+            Process process = Runtime.getRuntime().exec(command);
+            process.waitFor();
+            if (file.length() == 0) {
+                throw new AudioException("Temporary file '" + file.getName() + "' not found!");
+            }
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new AudioException("Error while executing '" + String.join(" ", command) + "'", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AudioException("The '" + String.join(" ", command) + "' has been interrupted", e);
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Gets the command used to generate an audio file {@code outputFile}
+     *
+     * @param outputFile The absolute filename of the command's output
+     * @return The command used to generate the audio file {@code outputFile}
+     */
+    private String[] getCommand(String outputFile, String text, Voice voice) {
+        return new String[] { "pico2wave", "-l=" + voice.getLabel(), "-w=" + outputFile, text };
+    }
+
     @Override
     public String getId() {
         return "picotts";
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.picotts.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.audio.AudioException;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PicoTTSCache}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class PicoTTSCacheTest {
+
+    private static final int AUDIO_SIZE = 100;
+
+    private final PicoTTSCache cache = new PicoTTSCache(2 * AUDIO_SIZE);
+    private final AtomicInteger renderings = new AtomicInteger();
+    private final CompletableFuture<Void> warmupJob = new CompletableFuture<>();
+
+    @Test
+    public void audioIsRenderedOnce() throws AudioException {
+        byte[] first = get("A", false);
+        byte[] second = get("A", false);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(renderings.get(), is(1));
+    }
+
+    @Test
+    public void leastRecentlyUsedAudioIsEvicted() throws AudioException {
+        get("A", false);
+        get("B", false);
+        get("A", false);
+        get("C", false);
+        renderings.set(0);
+
+        get("A", false);
+        get("C", false);
+        assertThat(renderings.get(), is(0));
+        get("B", false);
+        assertThat(renderings.get(), is(1));
+    }
+
+    @Test
+    public void smallerSizeEvictsAudio() throws AudioException {
+        get("A", false);
+        get("B", false);
+
+        cache.setMaxSize(AUDIO_SIZE);
+        renderings.set(0);
+
+        get("B", false);
+        assertThat(renderings.get(), is(0));
+        get("A", false);
+        assertThat(renderings.get(), is(1));
+    }
+
+    @Test
+    public void pinnedAudioIsKeptBeyondTheSize() throws AudioException {
+        get("A", true);
+        get("B", true);
+        get("C", true);
+        get("D", false);
+        renderings.set(0);
+
+        get("A", false);
+        get("B", false);
+        get("C", false);
+        assertThat(renderings.get(), is(0));
+        get("D", false);
+        assertThat(renderings.get(), is(1));
+    }
+
+    @Test
+    public void cachedAudioCanBePinned() throws AudioException {
+        get("A", false);
+        get("A", true);
+        get("B", false);
+        get("C", false);
+        renderings.set(0);
+
+        get("A", false);
+        assertThat(renderings.get(), is(0));
+    }
+
+    @Test
+    public void unpinnedAudioIsEvicted() throws AudioException {
+        get("A", true);
+        get("B", true);
+        get("C", true);
+
+        cache.unpinAll();
+        renderings.set(0);
+
+        get("B", false);
+        get("C", false);
+        assertThat(renderings.get(), is(0));
+        get("A", false);
+        assertThat(renderings.get(), is(1));
+    }
+
+    @Test
+    public void cancelledJobDoesNotPin() throws AudioException {
+        warmupJob.cancel(false);
+        cache.unpinAll();
+        get("A", true);
+        get("B", false);
+        get("C", false);
+        renderings.set(0);
+
+        get("A", false);
+        assertThat(renderings.get(), is(1));
+    }
+
+    @Test
+    public void failedRenderingIsNotCached() throws AudioException {
+        try {
+            cache.get("A", null, () -> {
+                throw new AudioException("test");
+            });
+            fail("The rendering did not fail");
+        } catch (AudioException e) {
+            assertThat(e.getMessage(), is("test"));
+        }
+
+        get("A", false);
+        assertThat(renderings.get(), is(1));
+    }
+
+    @Test
+    public void concurrentRequestsAreJoined() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<byte[]> first = executor.submit(() -> cache.get("A", null, () -> {
+                started.countDown();
+                await(release);
+                return render();
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+            Future<byte[]> second = executor.submit(() -> get("A", true));
+            // the second request waits for the first one
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(second.get(5, TimeUnit.SECONDS), is(sameInstance(first.get(5, TimeUnit.SECONDS))));
+            assertThat(renderings.get(), is(1));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        // the joined request has pinned the audio
+        get("B", false);
+        get("C", false);
+        renderings.set(0);
+        get("A", false);
+        assertThat(renderings.get(), is(0));
+    }
+
+    @Test
+    public void concurrentRequestsShareTheFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<byte[]> first = executor.submit(() -> cache.get("A", null, () -> {
+                started.countDown();
+                await(release);
+                throw new AudioException("test");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+            Future<byte[]> second = executor.submit(() -> get("A", false));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(getFailure(first).getMessage(), is("test"));
+            assertThat(getFailure(second).getMessage(), is("test"));
+            assertThat(renderings.get(), is(0));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private byte[] get(String key, boolean pin) throws AudioException {
+        return cache.get(key, pin ? warmupJob : null, this::render);
+    }
+
+    private byte[] render() {
+        renderings.incrementAndGet();
+        return new byte[AUDIO_SIZE];
+    }
+
+    private static void await(CountDownLatch latch) throws AudioException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new AudioException(e);
+        }
+    }
+
+    private static Throwable getFailure(Future<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("The request did not fail");
+        return null;
+    }
+}
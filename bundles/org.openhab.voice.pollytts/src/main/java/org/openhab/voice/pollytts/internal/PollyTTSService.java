@@ -29,6 +29,7 @@ import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
@@ -168,8 +169,13 @@ public class PollyTTSService implements TTSService {
         // now create the input stream for given text, locale, format. There is
         // only a default voice
         try {
-            File cacheAudioFile = pollyTTSImpl.getTextToSpeechAsFile(text, voice.getLabel(),
-                    getApiAudioFormat(requestedFormat));
+            String apiAudioFormat = getApiAudioFormat(requestedFormat);
+            byte[] cachedAudio = pollyTTSImpl.getTextToSpeechFromMemory(text, voice.getLabel(), apiAudioFormat);
+            if (cachedAudio != null) {
+                logger.debug("Audio Stream for '{}' in format {} from memory", text, requestedFormat);
+                return new ByteArrayAudioStream(cachedAudio, requestedFormat);
+            }
+            File cacheAudioFile = pollyTTSImpl.getTextToSpeechAsFile(text, voice.getLabel(), apiAudioFormat);
             if (cacheAudioFile == null) {
                 throw new TTSException("Could not read from PollyTTS service");
             }
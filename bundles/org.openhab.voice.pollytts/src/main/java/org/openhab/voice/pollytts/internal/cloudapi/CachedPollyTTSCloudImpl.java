@@ -19,24 +19,65 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazonaws.services.polly.AmazonPolly;
+
 /**
  * This class implements a cache for the retrieved audio data. It will preserve them in the file system,
  * as audio files with an additional .txt file to indicate what content is in the audio file.
  *
+ * The files are kept in least recently used order. If the cache grows beyond its size limit or files were not used
+ * for longer than the expiration time, the least recently used files are deleted. Small audio files which are used
+ * repeatedly are kept in memory as well. Concurrent requests for the same text wait for a single request to Polly.
+ *
  * @author Robert Hillman - Initial contribution
  */
 public class CachedPollyTTSCloudImpl extends PollyTTSCloudImpl {
 
     private static final int READ_BUFFER_SIZE = 4096;
 
+    /**
+     * Size limit of the audio kept in memory, and of a single audio file kept in memory
+     */
+    private static final long MEMORY_CACHE_SIZE = 2L * 1024 * 1024;
+    private static final long MEMORY_CACHE_ENTRY_SIZE = 256L * 1024;
+
+    /**
+     * Audio files in the cache folder by file name, in least recently used order
+     */
+    private final Map<String, CachedFile> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedFilesSize;
+
+    /**
+     * Audio data of repeatedly used small audio files by file name, in least recently used order
+     */
+    private final Map<String, byte[]> cachedAudio = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedAudioSize;
+
+    /**
+     * Audio files which are currently retrieved from Polly
+     */
+    private final Map<String, CompletableFuture<File>> pendingFiles = new ConcurrentHashMap<>();
+
+    private long maxCacheSize;
+    private long maxFileAge = 0;
+
     private final Logger logger = LoggerFactory.getLogger(CachedPollyTTSCloudImpl.class);
 
     private final File cacheFolder;
@@ -49,41 +90,260 @@ public class CachedPollyTTSCloudImpl extends PollyTTSCloudImpl {
     public CachedPollyTTSCloudImpl(PollyTTSConfig config, File cacheFolder) throws IOException {
         super(config);
         this.cacheFolder = cacheFolder;
+        loadCachedFiles();
+        setCacheLimits(config.getCacheSize() * 1024 * 1024, config.getExpireDate());
+    }
+
+    CachedPollyTTSCloudImpl(PollyTTSConfig config, File cacheFolder, AmazonPolly client) {
+        super(config, client);
+        this.cacheFolder = cacheFolder;
+        loadCachedFiles();
+        setCacheLimits(config.getCacheSize() * 1024 * 1024, config.getExpireDate());
+    }
+
+    /**
+     * Sets the limits of the cache folder.
+     *
+     * @param maxCacheSize size limit of all audio files in bytes
+     * @param expirationDays age in days when unused audio files are deleted, 0 to keep them
+     */
+    public synchronized void setCacheLimits(long maxCacheSize, int expirationDays) {
+        this.maxCacheSize = maxCacheSize;
+        this.maxFileAge = TimeUnit.DAYS.toMillis(expirationDays);
+        purgeFiles(null);
+    }
+
+    /**
+     * Returns the audio data for the text if it is kept in memory, or null otherwise. The audio file is marked as
+     * recently used.
+     */
+    public byte[] getTextToSpeechFromMemory(String text, String label, String audioFormat) {
+        String audioFileName = getUniqueFilenameForText(text, label) + "." + audioFormat.toLowerCase();
+        byte[] audio;
+        CachedFile cachedFile;
+        synchronized (this) {
+            audio = cachedAudio.get(audioFileName);
+            cachedFile = audio != null ? markUsed(audioFileName) : null;
+        }
+        if (cachedFile != null) {
+            // update use date, so that the order survives restarts
+            cachedFile.file.setLastModified(cachedFile.lastUsed);
+        }
+        return audio;
     }
 
     /**
      * Fetch the specified text as an audio file.
      * The audio file will be obtained from the cached folder if it
      * exist or generated by use to the external voice service.
-     * The cached file txt description time stamp will be updated
-     * to identify last use.
+     * The cached file time stamp will be updated to identify last use.
      */
     public File getTextToSpeechAsFile(String text, String label, String audioFormat) throws IOException {
         String fileNameInCache = getUniqueFilenameForText(text, label);
+        String audioFileName = fileNameInCache + "." + audioFormat.toLowerCase();
         // check if in cache
-        File audioFileInCache = new File(cacheFolder, fileNameInCache + "." + audioFormat.toLowerCase());
-        if (audioFileInCache.exists()) {
-            // update use date
-            updateTimeStamp(audioFileInCache);
-            updateTimeStamp(new File(cacheFolder, fileNameInCache + ".txt"));
-            purgeAgedFiles();
+        File audioFileInCache = getCachedFile(audioFileName);
+        if (audioFileInCache != null) {
             return audioFileInCache;
         }
 
-        // if not in cache, get audio data and put to cache
+        // if not in cache, get audio data and put to cache. Concurrent requests for the same file wait for the result.
+        CompletableFuture<File> pendingFile = new CompletableFuture<>();
+        CompletableFuture<File> otherPendingFile = pendingFiles.putIfAbsent(audioFileName, pendingFile);
+        if (otherPendingFile != null) {
+            try {
+                return otherPendingFile.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for " + audioFileName, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+        }
+        try {
+            File audioFile = writeToCache(text, label, audioFormat, fileNameInCache, audioFileName);
+            pendingFile.complete(audioFile);
+            return audioFile;
+        } catch (IOException | RuntimeException ex) {
+            pendingFile.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            pendingFiles.remove(audioFileName, pendingFile);
+        }
+    }
+
+    private File writeToCache(String text, String label, String audioFormat, String fileNameInCache,
+            String audioFileName) throws IOException {
+        File audioFileInCache = new File(cacheFolder, audioFileName);
+        // write to a temporary file first, so that a partially written file is never used
+        File tempFile = new File(cacheFolder, audioFileName + ".tmp");
         try (InputStream is = getTextToSpeech(text, label, audioFormat);
-                FileOutputStream fos = new FileOutputStream(audioFileInCache)) {
+                FileOutputStream fos = new FileOutputStream(tempFile)) {
             copyStream(is, fos);
-            // write text to file for transparency too
-            // this allows to know which contents is in which audio file
-            File txtFileInCache = new File(cacheFolder, fileNameInCache + ".txt");
+        } catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        try {
+            Files.move(tempFile.toPath(), audioFileInCache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        // write text to file for transparency too
+        // this allows to know which contents is in which audio file
+        File txtFileInCache = new File(cacheFolder, fileNameInCache + ".txt");
+        try {
             writeText(txtFileInCache, text);
-            // return from cache
-            return audioFileInCache;
         } catch (IOException ex) {
-            logger.warn("Could not write {} to cache, return null", audioFileInCache, ex);
+            logger.warn("Could not write {} to cache: {}", txtFileInCache, ex.getMessage());
+        }
+        long size = audioFileInCache.length();
+        synchronized (this) {
+            addCachedFile(audioFileName, audioFileInCache, size, System.currentTimeMillis());
+            purgeFiles(audioFileName);
+        }
+        // return from cache
+        return audioFileInCache;
+    }
+
+    /**
+     * Returns the cached audio file and marks it as recently used. A small audio file which is used again is also
+     * kept in memory. The file system is only accessed outside of the lock.
+     */
+    private File getCachedFile(String audioFileName) {
+        CachedFile cachedFile;
+        boolean keepInMemory;
+        synchronized (this) {
+            cachedFile = markUsed(audioFileName);
+            if (cachedFile == null) {
+                return null;
+            }
+            keepInMemory = !cachedAudio.containsKey(audioFileName) && cachedFile.size <= MEMORY_CACHE_ENTRY_SIZE;
+            purgeFiles(audioFileName);
+        }
+        File audioFile = cachedFile.file;
+        if (!audioFile.exists()) {
+            synchronized (this) {
+                if (cachedFiles.get(audioFileName) == cachedFile) {
+                    removeCachedFile(audioFileName);
+                }
+            }
             return null;
         }
+        // update use date, so that the order survives restarts
+        audioFile.setLastModified(cachedFile.lastUsed);
+        if (keepInMemory) {
+            try {
+                byte[] audio = Files.readAllBytes(audioFile.toPath());
+                synchronized (this) {
+                    if (cachedFiles.get(audioFileName) == cachedFile) {
+                        addCachedAudio(audioFileName, audio);
+                    }
+                }
+            } catch (IOException ex) {
+                logger.debug("Could not read {} from cache: {}", audioFile, ex.getMessage());
+            }
+        }
+        return audioFile;
+    }
+
+    /**
+     * Builds the index of the cache folder, the least recently used files first.
+     */
+    private synchronized void loadCachedFiles() {
+        File[] files = cacheFolder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(".tmp")) {
+                // left over from an interrupted request
+                file.delete();
+            } else if (file.isFile() && !name.endsWith(".txt")) {
+                addCachedFile(name, file, file.length(), file.lastModified());
+            }
+        }
+        logger.debug("PollyTTS cache contains {} audio files with {} bytes", cachedFiles.size(), cachedFilesSize);
+    }
+
+    /**
+     * Marks the audio file as the most recently used one. Must be called with the lock held.
+     */
+    private CachedFile markUsed(String audioFileName) {
+        CachedFile cachedFile = cachedFiles.get(audioFileName);
+        if (cachedFile != null) {
+            cachedFile.lastUsed = System.currentTimeMillis();
+        }
+        return cachedFile;
+    }
+
+    private void addCachedFile(String audioFileName, File audioFile, long size, long lastUsed) {
+        CachedFile oldFile = cachedFiles.put(audioFileName, new CachedFile(audioFile, size, lastUsed));
+        if (oldFile != null) {
+            cachedFilesSize -= oldFile.size;
+            removeCachedAudio(audioFileName);
+        }
+        cachedFilesSize += size;
+    }
+
+    private void removeCachedFile(String audioFileName) {
+        CachedFile cachedFile = cachedFiles.remove(audioFileName);
+        if (cachedFile != null) {
+            cachedFilesSize -= cachedFile.size;
+        }
+        removeCachedAudio(audioFileName);
+    }
+
+    private void addCachedAudio(String audioFileName, byte[] audio) {
+        if (cachedAudio.containsKey(audioFileName)) {
+            return;
+        }
+        cachedAudio.put(audioFileName, audio);
+        cachedAudioSize += audio.length;
+        Iterator<byte[]> iterator = cachedAudio.values().iterator();
+        while (cachedAudioSize > MEMORY_CACHE_SIZE && iterator.hasNext()) {
+            cachedAudioSize -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    private void removeCachedAudio(String audioFileName) {
+        byte[] audio = cachedAudio.remove(audioFileName);
+        if (audio != null) {
+            cachedAudioSize -= audio.length;
+        }
+    }
+
+    /**
+     * Deletes the least recently used files while the cache is too large or the files are expired.
+     *
+     * @param usedFileName the file which is about to be played and must not be deleted, even if it alone exceeds the
+     *            size limit, or null
+     */
+    private void purgeFiles(String usedFileName) {
+        long expired = System.currentTimeMillis() - maxFileAge;
+        Iterator<Map.Entry<String, CachedFile>> iterator = cachedFiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CachedFile> entry = iterator.next();
+            CachedFile cachedFile = entry.getValue();
+            if (cachedFilesSize <= maxCacheSize && (maxFileAge == 0 || cachedFile.lastUsed >= expired)) {
+                break;
+            }
+            String name = entry.getKey();
+            if (name.equals(usedFileName)) {
+                continue;
+            }
+            iterator.remove();
+            cachedFilesSize -= cachedFile.size;
+            removeCachedAudio(name);
+            cachedFile.file.delete();
+            new File(cacheFolder, name.substring(0, name.lastIndexOf('.')) + ".txt").delete();
+            logger.debug("Deleted {} from the PollyTTS cache", name);
+        }
     }
 
     /**
@@ -129,34 +389,19 @@ public class CachedPollyTTSCloudImpl extends PollyTTSCloudImpl {
         }
     }
 
-    private void updateTimeStamp(File file) throws IOException {
-        // update use date for cache management
-        file.setLastModified(System.currentTimeMillis());
-    }
+    /**
+     * An audio file of the cache folder. The size and the use date are kept with the file, so that the index stays
+     * consistent when the file is replaced or deleted.
+     */
+    private static class CachedFile {
+        final File file;
+        final long size;
+        long lastUsed;
 
-    private void purgeAgedFiles() throws IOException {
-        // just exit if expiration set to 0/disabled
-        if (config.getExpireDate() == 0) {
-            return;
-        }
-        long now = new Date().getTime();
-        long diff = now - config.getLastDelete();
-        // only execute ~ once every 2 days if cache called
-        long oneDayMillis = TimeUnit.DAYS.toMillis(1);
-        logger.debug("PollyTTS cache cleaner lastdelete {}", diff);
-        if (diff > (2 * oneDayMillis)) {
-            config.setLastDelete(now);
-            long xDaysAgo = config.getExpireDate() * oneDayMillis;
-            // Now search folders and delete old files
-            int filesDeleted = 0;
-            for (File file : cacheFolder.listFiles()) {
-                diff = now - file.lastModified();
-                if (diff > xDaysAgo) {
-                    filesDeleted++;
-                    file.delete();
-                }
-            }
-            logger.debug("PollyTTS cache cleaner deleted '{}' aged files", filesDeleted);
+        CachedFile(File file, long size, long lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
         }
     }
 }
@@ -59,17 +59,25 @@ public class PollyTTSCloudImpl {
     private final List<Voice> voices;
 
     public PollyTTSCloudImpl(PollyTTSConfig config) {
+        this(config, createClient(config));
+    }
+
+    PollyTTSCloudImpl(PollyTTSConfig config, AmazonPolly client) {
         this.config = config;
+        this.client = client;
 
-        AWSCredentials credentials = new BasicAWSCredentials(config.getAccessKey(), config.getSecretKey());
-        client = AmazonPollyClientBuilder.standard().withRegion(config.getServiceRegion())
-                .withCredentials(new AWSStaticCredentialsProvider(credentials)).build();
         voices = client.describeVoices(new DescribeVoicesRequest()).getVoices();
 
         // create voice to ID translation for service invocation
         labelToID = voices.stream().collect(toMap(Voice::getName, Voice::getId));
     }
 
+    private static AmazonPolly createClient(PollyTTSConfig config) {
+        AWSCredentials credentials = new BasicAWSCredentials(config.getAccessKey(), config.getSecretKey());
+        return AmazonPollyClientBuilder.standard().withRegion(config.getServiceRegion())
+                .withCredentials(new AWSStaticCredentialsProvider(credentials)).build();
+    }
+
     /**
      * Get all supported audio formats by the TTS service. This includes MP3,
      * WAV and more audio formats as used in APIs.
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.pollytts.internal.cloudapi;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.polly.AmazonPolly;
+import com.amazonaws.services.polly.model.DescribeVoicesRequest;
+import com.amazonaws.services.polly.model.DescribeVoicesResult;
+import com.amazonaws.services.polly.model.SynthesizeSpeechRequest;
+import com.amazonaws.services.polly.model.SynthesizeSpeechResult;
+import com.amazonaws.services.polly.model.Voice;
+
+/**
+ * Tests for {@link CachedPollyTTSCloudImpl}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class CachedPollyTTSCloudImplTest {
+
+    private static final String VOICE = "Joanna";
+    private static final String FORMAT = "MP3";
+    private static final int AUDIO_SIZE = 100;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final AmazonPolly client = mock(AmazonPolly.class);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private File folder;
+    private CachedPollyTTSCloudImpl cache;
+
+    @Before
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("pollytts").toFile();
+        when(client.describeVoices(any(DescribeVoicesRequest.class))).thenReturn(new DescribeVoicesResult()
+                .withVoices(new Voice().withName(VOICE).withId(VOICE).withLanguageCode("en-US")));
+        when(client.synthesizeSpeech(any(SynthesizeSpeechRequest.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            SynthesizeSpeechRequest request = invocation.getArgument(0);
+            return new SynthesizeSpeechResult().withAudioStream(new ByteArrayInputStream(audio(request.getText())));
+        });
+        cache = createCache();
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void audioIsRequestedOnce() throws IOException {
+        File first = cache.getTextToSpeechAsFile("Hello", VOICE, FORMAT);
+        File second = cache.getTextToSpeechAsFile("Hello", VOICE, FORMAT);
+
+        assertThat(second, is(first));
+        assertThat(Files.readAllBytes(first.toPath()), is(audio("Hello")));
+        verify(client, times(1)).synthesizeSpeech(any(SynthesizeSpeechRequest.class));
+    }
+
+    @Test
+    public void repeatedAudioIsKeptInMemory() throws IOException {
+        cache.getTextToSpeechAsFile("Doorbell", VOICE, FORMAT);
+        assertThat(cache.getTextToSpeechFromMemory("Doorbell", VOICE, FORMAT), is(nullValue()));
+
+        cache.getTextToSpeechAsFile("Doorbell", VOICE, FORMAT);
+
+        assertThat(cache.getTextToSpeechFromMemory("Doorbell", VOICE, FORMAT), is(audio("Doorbell")));
+    }
+
+    @Test
+    public void memoryHitMarksTheFileAsUsed() throws IOException {
+        cache.setCacheLimits(2 * AUDIO_SIZE, 0);
+        File a = cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+        cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+        File b = cache.getTextToSpeechAsFile("B", VOICE, FORMAT);
+        long lastUsed = System.currentTimeMillis() - DAY;
+        a.setLastModified(lastUsed);
+
+        assertThat(cache.getTextToSpeechFromMemory("A", VOICE, FORMAT), is(notNullValue()));
+        File c = cache.getTextToSpeechAsFile("C", VOICE, FORMAT);
+
+        assertThat(a.exists(), is(true));
+        assertThat(a.lastModified() > lastUsed, is(true));
+        assertThat(b.exists(), is(false));
+        assertThat(c.exists(), is(true));
+    }
+
+    @Test
+    public void deletedFileIsRequestedAgain() throws IOException {
+        cache.setCacheLimits(2 * AUDIO_SIZE, 0);
+        File a = cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+        a.delete();
+
+        a = cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+        File b = cache.getTextToSpeechAsFile("B", VOICE, FORMAT);
+
+        verify(client, times(3)).synthesizeSpeech(any(SynthesizeSpeechRequest.class));
+        // the size of the deleted file is not counted anymore, so both files fit
+        assertThat(a.exists(), is(true));
+        assertThat(b.exists(), is(true));
+    }
+
+    @Test
+    public void usageOrderSurvivesRestart() throws IOException {
+        File a = cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+        File b = cache.getTextToSpeechAsFile("B", VOICE, FORMAT);
+        a.setLastModified(System.currentTimeMillis() - 2 * DAY);
+        b.setLastModified(System.currentTimeMillis() - DAY);
+        cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+
+        createCache().setCacheLimits(AUDIO_SIZE, 0);
+
+        assertThat(a.exists(), is(true));
+        assertThat(b.exists(), is(false));
+    }
+
+    @Test
+    public void fileLargerThanTheCacheIsKept() throws IOException {
+        cache.setCacheLimits(AUDIO_SIZE / 2, 0);
+
+        File a = cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+        assertThat(a.exists(), is(true));
+        assertThat(cache.getTextToSpeechAsFile("A", VOICE, FORMAT).exists(), is(true));
+
+        File b = cache.getTextToSpeechAsFile("B", VOICE, FORMAT);
+        assertThat(a.exists(), is(false));
+        assertThat(b.exists(), is(true));
+    }
+
+    @Test
+    public void expiredFilesAreDeleted() throws IOException {
+        File a = cache.getTextToSpeechAsFile("A", VOICE, FORMAT);
+        File b = cache.getTextToSpeechAsFile("B", VOICE, FORMAT);
+        a.setLastModified(System.currentTimeMillis() - 3 * DAY);
+
+        createCache().setCacheLimits(10 * AUDIO_SIZE, 2);
+
+        assertThat(a.exists(), is(false));
+        assertThat(b.exists(), is(true));
+    }
+
+    @Test
+    public void concurrentRequestsAreJoined() throws Exception {
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<File> first = executor.submit(() -> cache.getTextToSpeechAsFile("A", VOICE, FORMAT));
+            assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+            Future<File> second = executor.submit(() -> cache.getTextToSpeechAsFile("A", VOICE, FORMAT));
+            // the second request waits for the first one
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(second.get(5, TimeUnit.SECONDS), is(first.get(5, TimeUnit.SECONDS)));
+            verify(client, times(1)).synthesizeSpeech(any(SynthesizeSpeechRequest.class));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private CachedPollyTTSCloudImpl createCache() {
+        Map<String, Object> config = new HashMap<>();
+        config.put("accessKey", "accessKey");
+        config.put("secretKey", "secretKey");
+        config.put("serviceRegion", "eu-west-1");
+        return new CachedPollyTTSCloudImpl(new PollyTTSConfig(config), folder, client);
+    }
+
+    private static byte[] audio(String text) {
+        byte[] audio = new byte[AUDIO_SIZE];
+        Arrays.fill(audio, (byte) text.hashCode());
+        return audio;
+    }
+}
@@ -25,6 +25,7 @@ import org.eclipse.smarthome.config.core.ConfigurableService;
 import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.audio.ByteArrayAudioStream;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
@@ -54,6 +55,12 @@ public class VoiceRSSTTSService implements TTSService {
     private static final String CONFIG_API_KEY = "apiKey";
     private String apiKey;
 
+    // Cache limits come from ConfigAdmin
+    private static final String CONFIG_CACHE_SIZE = "cacheSize";
+    private static final String CONFIG_CACHE_EXPIRATION = "cacheExpiration";
+    private long cacheSize = CachedVoiceRSSCloudImpl.DEFAULT_CACHE_SIZE;
+    private int cacheExpiration = 0;
+
     private final Logger logger = LoggerFactory.getLogger(VoiceRSSTTSService.class);
 
     /**
@@ -78,6 +85,7 @@ public class VoiceRSSTTSService implements TTSService {
         try {
             modified(config);
             voiceRssImpl = initVoiceImplementation();
+            voiceRssImpl.setCacheLimits(cacheSize, cacheExpiration);
             voices = initVoices();
             audioFormats = initAudioFormats();
 
@@ -91,6 +99,25 @@ public class VoiceRSSTTSService implements TTSService {
     protected void modified(Map<String, Object> config) {
         if (config != null) {
             apiKey = config.containsKey(CONFIG_API_KEY) ? config.get(CONFIG_API_KEY).toString() : null;
+            cacheSize = CachedVoiceRSSCloudImpl.DEFAULT_CACHE_SIZE;
+            if (config.containsKey(CONFIG_CACHE_SIZE)) {
+                try {
+                    cacheSize = Long.parseLong(config.get(CONFIG_CACHE_SIZE).toString()) * 1024 * 1024;
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid VoiceRSS cache size: {}", e.getMessage());
+                }
+            }
+            cacheExpiration = 0;
+            if (config.containsKey(CONFIG_CACHE_EXPIRATION)) {
+                try {
+                    cacheExpiration = Integer.parseInt(config.get(CONFIG_CACHE_EXPIRATION).toString());
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid VoiceRSS cache expiration: {}", e.getMessage());
+                }
+            }
+            if (voiceRssImpl != null) {
+                voiceRssImpl.setCacheLimits(cacheSize, cacheExpiration);
+            }
         }
     }
 
@@ -137,8 +164,14 @@ public class VoiceRSSTTSService implements TTSService {
         // now create the input stream for given text, locale, format. There is
         // only a default voice
         try {
-            File cacheAudioFile = voiceRssImpl.getTextToSpeechAsFile(apiKey, trimmedText,
-                    voice.getLocale().toLanguageTag(), getApiAudioFormat(requestedFormat));
+            String locale = voice.getLocale().toLanguageTag();
+            String apiAudioFormat = getApiAudioFormat(requestedFormat);
+            byte[] cachedAudio = voiceRssImpl.getTextToSpeechFromMemory(trimmedText, locale, apiAudioFormat);
+            if (cachedAudio != null) {
+                return new ByteArrayAudioStream(cachedAudio, requestedFormat);
+            }
+            File cacheAudioFile = voiceRssImpl.getTextToSpeechAsFile(apiKey, trimmedText, locale,
+                    apiAudioFormat);
             if (cacheAudioFile == null) {
                 throw new TTSException("Could not read from VoiceRSS service");
             }
@@ -13,15 +13,25 @@
 package org.openhab.voice.voicerss.internal.cloudapi;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +41,11 @@ import org.slf4j.LoggerFactory;
  * them in file system, as audio files with an additional .txt file to indicate
  * what content is in the audio file.
  *
+ * The files are kept in least recently used order. If the cache grows beyond its size limit or files were not used
+ * for longer than the expiration time, the least recently used files are deleted. Small audio files which are used
+ * repeatedly, e.g. doorbell announcements, are kept in memory as well. Concurrent requests for the same text wait for
+ * a single request to VoiceRSS.
+ *
  * @author Jochen Hiller - Initial contribution
  */
 public class CachedVoiceRSSCloudImpl extends VoiceRSSCloudImpl {
@@ -44,6 +59,37 @@ public class CachedVoiceRSSCloudImpl extends VoiceRSSCloudImpl {
      */
     private static final int READ_BUFFER_SIZE = 4096;
 
+    /**
+     * Default size limit of the cache folder
+     */
+    public static final long DEFAULT_CACHE_SIZE = 100L * 1024 * 1024;
+
+    /**
+     * Size limit of the audio kept in memory, and of a single audio file kept in memory
+     */
+    private static final long MEMORY_CACHE_SIZE = 2L * 1024 * 1024;
+    private static final long MEMORY_CACHE_ENTRY_SIZE = 256L * 1024;
+
+    /**
+     * Audio files in the cache folder by file name, in least recently used order
+     */
+    private final Map<String, CachedFile> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedFilesSize;
+
+    /**
+     * Audio data of repeatedly used small audio files by file name, in least recently used order
+     */
+    private final Map<String, byte[]> cachedAudio = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedAudioSize;
+
+    /**
+     * Audio files which are currently retrieved from VoiceRSS
+     */
+    private final Map<String, CompletableFuture<File>> pendingFiles = new ConcurrentHashMap<>();
+
+    private long maxCacheSize = DEFAULT_CACHE_SIZE;
+    private long maxFileAge = 0;
+
     public CachedVoiceRSSCloudImpl(String cacheFolderName) {
         if (cacheFolderName == null) {
             throw new IllegalStateException("Folder for cache must be defined");
@@ -53,34 +99,247 @@ public class CachedVoiceRSSCloudImpl extends VoiceRSSCloudImpl {
         if (!cacheFolder.exists()) {
             cacheFolder.mkdirs();
         }
+        loadCachedFiles();
+    }
+
+    /**
+     * Sets the limits of the cache folder.
+     *
+     * @param maxCacheSize size limit of all audio files in bytes
+     * @param expirationDays age in days when unused audio files are deleted, 0 to keep them
+     */
+    public synchronized void setCacheLimits(long maxCacheSize, int expirationDays) {
+        this.maxCacheSize = maxCacheSize;
+        this.maxFileAge = TimeUnit.DAYS.toMillis(expirationDays);
+        purgeFiles(null);
+    }
+
+    /**
+     * Returns the audio data for the text if it is kept in memory, or null otherwise. The audio file is marked as
+     * recently used.
+     */
+    public byte[] getTextToSpeechFromMemory(String text, String locale, String audioFormat) {
+        String audioFileName = getUniqueFilenameForText(text, locale) + "." + audioFormat.toLowerCase();
+        byte[] audio;
+        CachedFile cachedFile;
+        synchronized (this) {
+            audio = cachedAudio.get(audioFileName);
+            cachedFile = audio != null ? markUsed(audioFileName) : null;
+        }
+        if (cachedFile != null) {
+            // update use date, so that the order survives restarts
+            cachedFile.file.setLastModified(cachedFile.lastUsed);
+        }
+        return audio;
     }
 
     public File getTextToSpeechAsFile(String apiKey, String text, String locale, String audioFormat)
             throws IOException {
         String fileNameInCache = getUniqueFilenameForText(text, locale);
+        String audioFileName = fileNameInCache + "." + audioFormat.toLowerCase();
         // check if in cache
-        File audioFileInCache = new File(cacheFolder, fileNameInCache + "." + audioFormat.toLowerCase());
-        if (audioFileInCache.exists()) {
+        File audioFileInCache = getCachedFile(audioFileName);
+        if (audioFileInCache != null) {
             return audioFileInCache;
         }
 
-        // if not in cache, get audio data and put to cache
-        try (InputStream is = super.getTextToSpeech(apiKey, text, locale, audioFormat);
-                FileOutputStream fos = new FileOutputStream(audioFileInCache)) {
+        // if not in cache, get audio data and put to cache. Concurrent requests for the same file wait for the result.
+        CompletableFuture<File> pendingFile = new CompletableFuture<>();
+        CompletableFuture<File> otherPendingFile = pendingFiles.putIfAbsent(audioFileName, pendingFile);
+        if (otherPendingFile != null) {
+            try {
+                return otherPendingFile.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for " + audioFileName, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+        }
+        try {
+            File audioFile = writeToCache(apiKey, text, locale, audioFormat, fileNameInCache, audioFileName);
+            pendingFile.complete(audioFile);
+            return audioFile;
+        } catch (IOException | RuntimeException ex) {
+            pendingFile.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            pendingFiles.remove(audioFileName, pendingFile);
+        }
+    }
+
+    private File writeToCache(String apiKey, String text, String locale, String audioFormat, String fileNameInCache,
+            String audioFileName) throws IOException {
+        File audioFileInCache = new File(cacheFolder, audioFileName);
+        // write to a temporary file first, so that a partially written file is never used
+        File tempFile = new File(cacheFolder, audioFileName + ".tmp");
+        try (InputStream is = getTextToSpeech(apiKey, text, locale, audioFormat);
+                FileOutputStream fos = new FileOutputStream(tempFile)) {
             copyStream(is, fos);
-            // write text to file for transparency too
-            // this allows to know which contents is in which audio file
-            File txtFileInCache = new File(cacheFolder, fileNameInCache + ".txt");
+        } catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        try {
+            Files.move(tempFile.toPath(), audioFileInCache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        // write text to file for transparency too
+        // this allows to know which contents is in which audio file
+        File txtFileInCache = new File(cacheFolder, fileNameInCache + ".txt");
+        try {
             writeText(txtFileInCache, text);
-            // return from cache
-            return audioFileInCache;
-        } catch (FileNotFoundException ex) {
-            logger.warn("Could not write {} to cache", audioFileInCache, ex);
-            return null;
         } catch (IOException ex) {
-            logger.error("Could not write {} to cache", audioFileInCache, ex);
+            logger.warn("Could not write {} to cache: {}", txtFileInCache, ex.getMessage());
+        }
+        long size = audioFileInCache.length();
+        synchronized (this) {
+            addCachedFile(audioFileName, audioFileInCache, size, System.currentTimeMillis());
+            purgeFiles(audioFileName);
+        }
+        // return from cache
+        return audioFileInCache;
+    }
+
+    /**
+     * Returns the cached audio file and marks it as recently used. A small audio file which is used again is also
+     * kept in memory. The file system is only accessed outside of the lock.
+     */
+    private File getCachedFile(String audioFileName) {
+        CachedFile cachedFile;
+        boolean keepInMemory;
+        synchronized (this) {
+            cachedFile = markUsed(audioFileName);
+            if (cachedFile == null) {
+                return null;
+            }
+            keepInMemory = !cachedAudio.containsKey(audioFileName) && cachedFile.size <= MEMORY_CACHE_ENTRY_SIZE;
+            purgeFiles(audioFileName);
+        }
+        File audioFile = cachedFile.file;
+        if (!audioFile.exists()) {
+            synchronized (this) {
+                if (cachedFiles.get(audioFileName) == cachedFile) {
+                    removeCachedFile(audioFileName);
+                }
+            }
             return null;
         }
+        // update use date, so that the order survives restarts
+        audioFile.setLastModified(cachedFile.lastUsed);
+        if (keepInMemory) {
+            try {
+                byte[] audio = Files.readAllBytes(audioFile.toPath());
+                synchronized (this) {
+                    if (cachedFiles.get(audioFileName) == cachedFile) {
+                        addCachedAudio(audioFileName, audio);
+                    }
+                }
+            } catch (IOException ex) {
+                logger.debug("Could not read {} from cache: {}", audioFile, ex.getMessage());
+            }
+        }
+        return audioFile;
+    }
+
+    /**
+     * Builds the index of the cache folder, the least recently used files first.
+     */
+    private synchronized void loadCachedFiles() {
+        File[] files = cacheFolder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(".tmp")) {
+                // left over from an interrupted request
+                file.delete();
+            } else if (file.isFile() && !name.endsWith(".txt")) {
+                addCachedFile(name, file, file.length(), file.lastModified());
+            }
+        }
+        logger.debug("VoiceRSS cache contains {} audio files with {} bytes", cachedFiles.size(), cachedFilesSize);
+    }
+
+    /**
+     * Marks the audio file as the most recently used one. Must be called with the lock held.
+     */
+    private CachedFile markUsed(String audioFileName) {
+        CachedFile cachedFile = cachedFiles.get(audioFileName);
+        if (cachedFile != null) {
+            cachedFile.lastUsed = System.currentTimeMillis();
+        }
+        return cachedFile;
+    }
+
+    private void addCachedFile(String audioFileName, File audioFile, long size, long lastUsed) {
+        CachedFile oldFile = cachedFiles.put(audioFileName, new CachedFile(audioFile, size, lastUsed));
+        if (oldFile != null) {
+            cachedFilesSize -= oldFile.size;
+            removeCachedAudio(audioFileName);
+        }
+        cachedFilesSize += size;
+    }
+
+    private void removeCachedFile(String audioFileName) {
+        CachedFile cachedFile = cachedFiles.remove(audioFileName);
+        if (cachedFile != null) {
+            cachedFilesSize -= cachedFile.size;
+        }
+        removeCachedAudio(audioFileName);
+    }
+
+    private void addCachedAudio(String audioFileName, byte[] audio) {
+        if (cachedAudio.containsKey(audioFileName)) {
+            return;
+        }
+        cachedAudio.put(audioFileName, audio);
+        cachedAudioSize += audio.length;
+        Iterator<byte[]> iterator = cachedAudio.values().iterator();
+        while (cachedAudioSize > MEMORY_CACHE_SIZE && iterator.hasNext()) {
+            cachedAudioSize -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    private void removeCachedAudio(String audioFileName) {
+        byte[] audio = cachedAudio.remove(audioFileName);
+        if (audio != null) {
+            cachedAudioSize -= audio.length;
+        }
+    }
+
+    /**
+     * Deletes the least recently used files while the cache is too large or the files are expired.
+     *
+     * @param usedFileName the file which is about to be played and must not be deleted, even if it alone exceeds the
+     *            size limit, or null
+     */
+    private void purgeFiles(String usedFileName) {
+        long expired = System.currentTimeMillis() - maxFileAge;
+        Iterator<Map.Entry<String, CachedFile>> iterator = cachedFiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CachedFile> entry = iterator.next();
+            CachedFile cachedFile = entry.getValue();
+            if (cachedFilesSize <= maxCacheSize && (maxFileAge == 0 || cachedFile.lastUsed >= expired)) {
+                break;
+            }
+            String name = entry.getKey();
+            if (name.equals(usedFileName)) {
+                continue;
+            }
+            iterator.remove();
+            cachedFilesSize -= cachedFile.size;
+            removeCachedAudio(name);
+            cachedFile.file.delete();
+            new File(cacheFolder, name.substring(0, name.lastIndexOf('.')) + ".txt").delete();
+            logger.debug("Deleted {} from the VoiceRSS cache", name);
+        }
     }
 
     /**
@@ -125,4 +384,20 @@ public class CachedVoiceRSSCloudImpl extends VoiceRSSCloudImpl {
             outputStream.write(text.getBytes(StandardCharsets.UTF_8));
         }
     }
+
+    /**
+     * An audio file of the cache folder. The size and the use date are kept with the file, so that the index stays
+     * consistent when the file is replaced or deleted.
+     */
+    private static class CachedFile {
+        final File file;
+        final long size;
+        long lastUsed;
+
+        CachedFile(File file, long size, long lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
 }
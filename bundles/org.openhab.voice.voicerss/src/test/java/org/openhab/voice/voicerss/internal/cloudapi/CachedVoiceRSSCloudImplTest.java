@@ -0,0 +1,290 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.voicerss.internal.cloudapi;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CachedVoiceRSSCloudImpl}.
+ *
+ * @author Contributors to the openHAB project - Initial contribution
+ */
+public class CachedVoiceRSSCloudImplTest {
+
+    private static final String API_KEY = "apiKey";
+    private static final String LOCALE = "en-us";
+    private static final String FORMAT = "MP3";
+    private static final int AUDIO_SIZE = 100;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private File folder;
+    private TestCloudImpl cache;
+
+    @Before
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("voicerss").toFile();
+        cache = new TestCloudImpl(folder);
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void audioIsRequestedOnce() throws IOException {
+        File first = cache.getTextToSpeechAsFile(API_KEY, "Hello", LOCALE, FORMAT);
+        File second = cache.getTextToSpeechAsFile(API_KEY, "Hello", LOCALE, FORMAT);
+
+        assertThat(second, is(first));
+        assertThat(Files.readAllBytes(first.toPath()), is(audio("Hello")));
+        assertThat(requests.get(), is(1));
+    }
+
+    @Test
+    public void repeatedAudioIsKeptInMemory() throws IOException {
+        cache.getTextToSpeechAsFile(API_KEY, "Doorbell", LOCALE, FORMAT);
+        assertThat(cache.getTextToSpeechFromMemory("Doorbell", LOCALE, FORMAT), is(nullValue()));
+
+        cache.getTextToSpeechAsFile(API_KEY, "Doorbell", LOCALE, FORMAT);
+
+        assertThat(cache.getTextToSpeechFromMemory("Doorbell", LOCALE, FORMAT), is(audio("Doorbell")));
+        assertThat(cache.getTextToSpeechFromMemory("Doorbell", "de-de", FORMAT), is(nullValue()));
+    }
+
+    @Test
+    public void leastRecentlyUsedFileIsDeleted() throws IOException {
+        cache.setCacheLimits(2 * AUDIO_SIZE, 0);
+        File a = cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        File b = cache.getTextToSpeechAsFile(API_KEY, "B", LOCALE, FORMAT);
+        cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+
+        File c = cache.getTextToSpeechAsFile(API_KEY, "C", LOCALE, FORMAT);
+
+        assertThat(a.exists(), is(true));
+        assertThat(b.exists(), is(false));
+        assertThat(c.exists(), is(true));
+    }
+
+    @Test
+    public void memoryHitMarksTheFileAsUsed() throws IOException {
+        cache.setCacheLimits(2 * AUDIO_SIZE, 0);
+        File a = cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        File b = cache.getTextToSpeechAsFile(API_KEY, "B", LOCALE, FORMAT);
+        long lastUsed = System.currentTimeMillis() - DAY;
+        a.setLastModified(lastUsed);
+
+        assertThat(cache.getTextToSpeechFromMemory("A", LOCALE, FORMAT), is(notNullValue()));
+        File c = cache.getTextToSpeechAsFile(API_KEY, "C", LOCALE, FORMAT);
+
+        assertThat(a.exists(), is(true));
+        assertThat(a.lastModified() > lastUsed, is(true));
+        assertThat(b.exists(), is(false));
+        assertThat(c.exists(), is(true));
+    }
+
+    @Test
+    public void deletedFileIsRequestedAgain() throws IOException {
+        cache.setCacheLimits(2 * AUDIO_SIZE, 0);
+        File a = cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        a.delete();
+
+        a = cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        File b = cache.getTextToSpeechAsFile(API_KEY, "B", LOCALE, FORMAT);
+
+        assertThat(requests.get(), is(3));
+        // the size of the deleted file is not counted anymore, so both files fit
+        assertThat(a.exists(), is(true));
+        assertThat(b.exists(), is(true));
+    }
+
+    @Test
+    public void usageOrderSurvivesRestart() throws IOException {
+        File a = cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        File b = cache.getTextToSpeechAsFile(API_KEY, "B", LOCALE, FORMAT);
+        a.setLastModified(System.currentTimeMillis() - 2 * DAY);
+        b.setLastModified(System.currentTimeMillis() - DAY);
+        cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+
+        TestCloudImpl restarted = new TestCloudImpl(folder);
+        restarted.setCacheLimits(AUDIO_SIZE, 0);
+
+        assertThat(a.exists(), is(true));
+        assertThat(b.exists(), is(false));
+        assertThat(new File(folder, b.getName().replace(".mp3", ".txt")).exists(), is(false));
+    }
+
+    @Test
+    public void fileLargerThanTheCacheIsKept() throws IOException {
+        cache.setCacheLimits(AUDIO_SIZE / 2, 0);
+
+        File a = cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        assertThat(a.exists(), is(true));
+        assertThat(cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT).exists(), is(true));
+
+        File b = cache.getTextToSpeechAsFile(API_KEY, "B", LOCALE, FORMAT);
+        assertThat(a.exists(), is(false));
+        assertThat(b.exists(), is(true));
+    }
+
+    @Test
+    public void expiredFilesAreDeleted() throws IOException {
+        File a = cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+        File b = cache.getTextToSpeechAsFile(API_KEY, "B", LOCALE, FORMAT);
+        a.setLastModified(System.currentTimeMillis() - 3 * DAY);
+
+        TestCloudImpl restarted = new TestCloudImpl(folder);
+        restarted.setCacheLimits(CachedVoiceRSSCloudImpl.DEFAULT_CACHE_SIZE, 2);
+
+        assertThat(a.exists(), is(false));
+        assertThat(b.exists(), is(true));
+    }
+
+    @Test
+    public void leftoverTemporaryFilesAreDeleted() throws IOException {
+        File tempFile = new File(folder, "en-us_0123.mp3.tmp");
+        Files.write(tempFile.toPath(), new byte[] { 1, 2, 3 });
+
+        new TestCloudImpl(folder);
+
+        assertThat(tempFile.exists(), is(false));
+    }
+
+    @Test
+    public void failedRequestIsNotCached() throws IOException {
+        cache.failure = new IOException("test");
+        try {
+            cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT);
+            fail("The request did not fail");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("test"));
+        }
+        assertThat(folder.list().length, is(0));
+
+        cache.failure = null;
+        assertThat(cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT), is(notNullValue()));
+        assertThat(requests.get(), is(2));
+    }
+
+    @Test
+    public void concurrentRequestsAreJoined() throws Exception {
+        cache.release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<File> first = executor.submit(() -> cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT));
+            assertThat(cache.started.await(5, TimeUnit.SECONDS), is(true));
+            Future<File> second = executor.submit(() -> cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT));
+            // the second request waits for the first one
+            Thread.sleep(100);
+            cache.release.countDown();
+
+            assertThat(second.get(5, TimeUnit.SECONDS), is(first.get(5, TimeUnit.SECONDS)));
+            assertThat(requests.get(), is(1));
+        } finally {
+            cache.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentRequestsShareTheFailure() throws Exception {
+        cache.release = new CountDownLatch(1);
+        cache.failure = new IOException("test");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<File> first = executor.submit(() -> cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT));
+            assertThat(cache.started.await(5, TimeUnit.SECONDS), is(true));
+            Future<File> second = executor.submit(() -> cache.getTextToSpeechAsFile(API_KEY, "A", LOCALE, FORMAT));
+            Thread.sleep(100);
+            cache.release.countDown();
+
+            assertThat(getFailure(first).getMessage(), is("test"));
+            assertThat(getFailure(second).getMessage(), is("test"));
+            assertThat(requests.get(), is(1));
+        } finally {
+            cache.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static Throwable getFailure(Future<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("The request did not fail");
+        return null;
+    }
+
+    private static byte[] audio(String text) {
+        byte[] audio = new byte[AUDIO_SIZE];
+        Arrays.fill(audio, (byte) text.hashCode());
+        return audio;
+    }
+
+    private class TestCloudImpl extends CachedVoiceRSSCloudImpl {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private volatile IOException failure;
+
+        TestCloudImpl(File folder) {
+            super(folder.getAbsolutePath());
+        }
+
+        @Override
+        public InputStream getTextToSpeech(String apiKey, String text, String locale, String audioFormat)
+                throws IOException {
+            requests.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            IOException failure = this.failure;
+            if (failure != null) {
+                throw failure;
+            }
+            return new ByteArrayInputStream(audio(text));
+        }
+    }
+}
@@ -34,6 +34,7 @@ import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.library.items.DateTimeItem;
+import org.eclipse.smarthome.core.library.items.NumberItem;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
@@ -1091,4 +1092,38 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         dataConfig.put("writeTransform", "JS(myJsonTransform.js)");
         testInitGeneric(null, dataConfig, status -> assertThat(status.getStatus(), is(equalTo(ThingStatus.ONLINE))));
     }
+
+    @Test
+    public void testUnchangedRegisterValueSkipped() {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readValueType", "int16");
+        dataConfig.put("updateUnchangedValuesEveryMillis", 60_000L);
+        // Only the number channel is linked, the lastReadSuccess channel would force every poll to be processed
+        ModbusDataThingHandler dataHandler = createDataHandler("data1", poller,
+                builder -> builder.withConfiguration(dataConfig), null, false);
+        ChannelUID numberUID = new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER);
+        String itemName = getItemName(numberUID);
+        addItem(new NumberItem(itemName));
+        linkItem(itemName, numberUID);
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        AsyncModbusReadResult result = new AsyncModbusReadResult(request,
+                new ModbusRegisterArray(new ModbusRegister[] { new ModbusRegister((byte) 0, (byte) 5) }));
+        dataHandler.onRegisterValue(result, 5, true);
+        dataHandler.onRegisterValue(result, 5, false);
+        dataHandler.onRegisterValue(result, 6, true);
+
+        waitForAssert(() -> assertThat(getStateUpdates(itemName),
+                is(equalTo(Arrays.asList(new DecimalType(5), new DecimalType(6))))));
+    }
 }